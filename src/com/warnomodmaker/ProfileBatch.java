@@ -0,0 +1,296 @@
+package com.warnomodmaker;
+
+import com.warnomodmaker.model.ModProfile;
+import com.warnomodmaker.model.ModificationTracker;
+import com.warnomodmaker.model.NDFValue;
+import com.warnomodmaker.model.ProfileApplier;
+import com.warnomodmaker.model.PropertyPathMigrationManager;
+import com.warnomodmaker.parser.LineBasedWriter;
+import com.warnomodmaker.parser.NDFParser;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless profile application: parses NDF files, applies a stack of profiles to each and writes
+ * the results, several files at a time. Run as WarnoModMaker --batch ... or directly; nothing here
+ * touches Swing, so it runs on build machines without a display.
+ */
+public class ProfileBatch {
+
+    private final List<ModProfile> profiles;
+    private final boolean migratePaths;
+
+    public ProfileBatch(List<ModProfile> profiles, boolean migratePaths) {
+        this.profiles = profiles;
+        this.migratePaths = migratePaths;
+    }
+
+    public static void main(String[] args) {
+        List<File> profileFiles = new ArrayList<>();
+        List<File> targets = new ArrayList<>();
+        File outputDir = null;
+        boolean inPlace = false;
+        boolean migratePaths = true;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--profile") && i + 1 < args.length) {
+                profileFiles.add(new File(args[++i]));
+            } else if (arg.equals("--out") && i + 1 < args.length) {
+                outputDir = new File(args[++i]);
+            } else if (arg.equals("--threads") && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else if (arg.equals("--in-place")) {
+                inPlace = true;
+            } else if (arg.equals("--no-migrate")) {
+                migratePaths = false;
+            } else if (arg.startsWith("--")) {
+                System.err.println("Unknown option: " + arg);
+                printUsage();
+                System.exit(2);
+            } else {
+                targets.add(new File(arg));
+            }
+        }
+
+        if (profileFiles.isEmpty() || targets.isEmpty() || (outputDir == null) == !inPlace) {
+            printUsage();
+            System.exit(2);
+        }
+
+        try {
+            List<ModProfile> profiles = loadProfiles(profileFiles);
+
+            List<File[]> jobs = new ArrayList<>();
+            for (File target : targets) {
+                for (File input : listNdfFiles(target)) {
+                    File output = inPlace ? input : new File(outputDir, relativeName(target, input));
+                    jobs.add(new File[] {input, output});
+                }
+            }
+
+            boolean ok = new ProfileBatch(profiles, migratePaths).run(jobs, threads);
+            System.exit(ok ? 0 : 1);
+        } catch (Exception e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Load profiles fully, in the order they will be applied
+     */
+    public static List<ModProfile> loadProfiles(List<File> profileFiles) throws IOException {
+        List<ModProfile> profiles = new ArrayList<>();
+        for (File profileFile : profileFiles) {
+            ModProfile profile = ModProfile.loadFromFile(profileFile);
+            System.out.println("Loaded profile '" + profile.getProfileName() + "' (" + profile.getModificationCount()
+                + " modifications, source " + profile.getSourceFileName() + ")");
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: WarnoModMaker --batch --profile <profile> [--profile <profile> ...]");
+        System.err.println("                     (--out <dir> | --in-place) [--threads <n>] [--no-migrate]");
+        System.err.println("                     <file.ndf | directory> ...");
+        System.err.println("Profiles are applied in the order given, each to the files matching its source file name.");
+    }
+
+    /**
+     * Process every (input, output) pair on a pool of the given size, printing a line per file
+     * and a summary. Returns false if any file failed.
+     */
+    public boolean run(List<File[]> jobs, int threads) throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, jobs.size())), runnable -> {
+            Thread thread = new Thread(runnable, "profile-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<FileReport>> futures = new ArrayList<>();
+        for (File[] job : jobs) {
+            futures.add(executor.submit(() -> process(job[0], job[1])));
+        }
+
+        int failed = 0;
+        long totalBytes = 0;
+        ProfileApplier.Result total = new ProfileApplier.Result();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    FileReport report = futures.get(i).get();
+                    System.out.println("[OK] " + report);
+                    totalBytes += report.bytes;
+                    total.add(report.result);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("[ERROR] " + jobs.get(i)[0] + ": " + cause.getMessage());
+                    failed++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        System.out.println(String.format("Processed %d files (%d failed) in %dms, %.1f MB/s: %s",
+            jobs.size(), failed, elapsed, megabytesPerSecond(totalBytes, elapsed), total));
+        return failed == 0;
+    }
+
+    /**
+     * Parse one file, apply the profiles that target it and write the result to output,
+     * replacing it only once the new content is complete
+     */
+    public FileReport process(File input, File output) throws IOException, NDFParser.NDFParseException {
+        FileReport report = new FileReport(input);
+        NDFValue.NDFFileType fileType = NDFValue.NDFFileType.fromFilename(input.getName());
+
+        long startTime = System.currentTimeMillis();
+        String content = Files.readString(input.toPath(), StandardCharsets.UTF_8);
+        report.bytes = content.length();
+        report.readTime = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        List<NDFValue.ObjectValue> objects;
+        try (Reader reader = new StringReader(content)) {
+            NDFParser parser = new NDFParser(reader);
+            parser.setFileType(fileType);
+            parser.setOriginalSourceContent(content);
+            objects = parser.parse();
+        }
+        report.objectCount = objects.size();
+        report.parseTime = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        ModificationTracker tracker = new ModificationTracker();
+        PropertyPathMigrationManager migrationManager = migratePaths ? new PropertyPathMigrationManager() : null;
+        ProfileApplier applier = new ProfileApplier(objects, fileType, tracker, migrationManager);
+        for (ModProfile profile : profiles) {
+            if (appliesTo(profile, input)) {
+                report.result.add(applier.apply(profile));
+                report.profileCount++;
+            }
+        }
+        report.applyTime = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        writeAtomically(output.toPath(), content, tracker, objects);
+        report.writeTime = System.currentTimeMillis() - startTime;
+        return report;
+    }
+
+    /**
+     * A profile applies to files with its source file name; profiles without one apply everywhere
+     */
+    public static boolean appliesTo(ModProfile profile, File file) {
+        String source = profile.getSourceFileName();
+        if (source == null || source.trim().isEmpty() || source.equals("Unknown")) {
+            return true;
+        }
+        return new File(source).getName().equalsIgnoreCase(file.getName());
+    }
+
+    public List<ModProfile> getProfiles() {
+        return profiles;
+    }
+
+    private static void writeAtomically(Path outputPath, String originalContent, ModificationTracker tracker,
+                                        List<NDFValue.ObjectValue> objects) throws IOException {
+        Path dir = outputPath.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tempPath = dir.resolve(outputPath.getFileName() + ".saving.tmp");
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8))) {
+            new LineBasedWriter(writer, originalContent, tracker).write(objects);
+        }
+        try {
+            Files.move(tempPath, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException atomicEx) {
+            Files.move(tempPath, outputPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static List<File> listNdfFiles(File target) throws IOException {
+        if (!target.isDirectory()) {
+            if (!target.isFile()) {
+                throw new IOException("Not found: " + target);
+            }
+            return List.of(target);
+        }
+        try (Stream<Path> paths = Files.walk(target.toPath())) {
+            return paths.filter(Files::isRegularFile)
+                .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".ndf"))
+                .sorted()
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static String relativeName(File target, File input) {
+        if (target.isDirectory()) {
+            return target.toPath().relativize(input.toPath()).toString();
+        }
+        return input.getName();
+    }
+
+    private static double megabytesPerSecond(long chars, long millis) {
+        return millis > 0 ? chars / (1024.0 * 1024.0) / (millis / 1000.0) : 0;
+    }
+
+    /**
+     * Timings and counts for one processed file
+     */
+    public static class FileReport {
+        private final File file;
+        private final ProfileApplier.Result result = new ProfileApplier.Result();
+        private long bytes;
+        private int objectCount;
+        private int profileCount;
+        private long readTime;
+        private long parseTime;
+        private long applyTime;
+        private long writeTime;
+
+        private FileReport(File file) {
+            this.file = file;
+        }
+
+        public File getFile() { return file; }
+        public ProfileApplier.Result getResult() { return result; }
+        public int getObjectCount() { return objectCount; }
+        public int getProfileCount() { return profileCount; }
+
+        public long getTotalTime() {
+            return readTime + parseTime + applyTime + writeTime;
+        }
+
+        @Override
+        public String toString() {
+            long total = getTotalTime();
+            return String.format("%s: %d objects, %d profiles, %s; %dms (read %d, parse %d, apply %d, write %d), %.1f MB/s, %.0f objects/s",
+                file.getName(), objectCount, profileCount, result, total, readTime, parseTime, applyTime, writeTime,
+                megabytesPerSecond(bytes, total), total > 0 ? objectCount * 1000.0 / total : 0);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.warnomodmaker;
+
+import com.warnomodmaker.model.ModProfile;
+import com.warnomodmaker.util.WorkspaceFileIndex;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-running companion to ProfileBatch: watches the GameData tree and, when an NDF file changes,
+ * re-parses just that file and re-applies the profiles that target it. Changes are debounced per
+ * file and handed to a bounded queue, so a game update touching many files at once is processed
+ * once per file rather than once per write.
+ */
+public class ProfileWatcher implements Closeable {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private final Path root;
+    private final Path outputDir;
+    private final ProfileBatch batch;
+    private final long debounceMillis;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    // Last change time of each file waiting out its debounce
+    private final Map<Path, Long> pending = new ConcurrentHashMap<>();
+    // Files handed to the worker; a file is never queued twice
+    private final BlockingQueue<Path> queue;
+    private final Set<Path> queued = ConcurrentHashMap.newKeySet();
+    // Modification time and size each file had when it was last processed
+    private final Map<Path, FileVersion> processedVersions = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+    private final Thread workerThread;
+    private final AtomicInteger processedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * @param root workspace root or GameData directory to watch
+     * @param outputDir where results go, mirroring paths under root; may sit inside root (its subtree is
+     *                  skipped) but must not be root or one of its ancestors
+     */
+    public ProfileWatcher(File root, File outputDir, ProfileBatch batch, long debounceMillis, int queueCapacity) throws IOException {
+        this.root = root.toPath().toAbsolutePath().normalize();
+        this.outputDir = outputDir.toPath().toAbsolutePath().normalize();
+        this.batch = batch;
+        this.debounceMillis = debounceMillis;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        if (this.root.startsWith(this.outputDir)) {
+            // Outputs are skipped as sources, so this would leave nothing to watch
+            throw new IllegalArgumentException("Output directory " + this.outputDir
+                + " must not be the watched directory " + this.root + " or contain it");
+        }
+
+        this.watchService = this.root.getFileSystem().newWatchService();
+        int directoryCount = registerTree(this.root);
+        System.out.println("Watching " + directoryCount + " directories under " + this.root);
+
+        scheduler = Executors.newScheduledThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "profile-watch-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tick = Math.max(10, debounceMillis / 4);
+        scheduler.scheduleWithFixedDelay(this::dispatchSettled, tick, tick, TimeUnit.MILLISECONDS);
+
+        Thread eventThread = new Thread(this::processEvents, "profile-watch-events");
+        eventThread.setDaemon(true);
+        eventThread.start();
+
+        workerThread = new Thread(this::processQueue, "profile-watch-worker");
+        workerThread.setDaemon(true);
+        workerThread.start();
+    }
+
+    public static void main(String[] args) {
+        List<File> profileFiles = new ArrayList<>();
+        File startDir = new File(".");
+        File outputDir = null;
+        long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        boolean migratePaths = true;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--profile") && i + 1 < args.length) {
+                profileFiles.add(new File(args[++i]));
+            } else if (arg.equals("--out") && i + 1 < args.length) {
+                outputDir = new File(args[++i]);
+            } else if (arg.equals("--debounce") && i + 1 < args.length) {
+                debounceMillis = Long.parseLong(args[++i]);
+            } else if (arg.equals("--queue") && i + 1 < args.length) {
+                queueCapacity = Integer.parseInt(args[++i]);
+            } else if (arg.equals("--no-migrate")) {
+                migratePaths = false;
+            } else if (arg.startsWith("--")) {
+                System.err.println("Unknown option: " + arg);
+                printUsage();
+                System.exit(2);
+            } else {
+                startDir = new File(arg);
+            }
+        }
+
+        if (profileFiles.isEmpty() || outputDir == null) {
+            printUsage();
+            System.exit(2);
+        }
+
+        File root = WorkspaceFileIndex.findRootDirectory(startDir.getAbsoluteFile());
+        File gameData = new File(root, "GameData");
+        File watchRoot = gameData.isDirectory() ? gameData : root;
+
+        try {
+            ProfileBatch batch = new ProfileBatch(ProfileBatch.loadProfiles(profileFiles), migratePaths);
+            ProfileWatcher watcher = new ProfileWatcher(watchRoot, outputDir, batch, debounceMillis, queueCapacity);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    watcher.close();
+                } catch (IOException ignored) {
+                    // Exiting anyway
+                }
+            }));
+            System.out.println("Waiting for changes (Ctrl+C to stop)...");
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Watch failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: WarnoModMaker --watch --profile <profile> [--profile <profile> ...] --out <dir>");
+        System.err.println("                     [--debounce <ms>] [--queue <n>] [--no-migrate] [<directory>]");
+        System.err.println("The GameData tree above <directory> (default: current directory) is watched.");
+    }
+
+    public int getProcessedCount() {
+        return processedCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Files changed but not yet processed, debouncing or queued
+     */
+    public int getBacklog() {
+        return pending.size() + queued.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        scheduler.shutdownNow();
+        workerThread.interrupt();
+        watchService.close();
+    }
+
+    private int registerTree(Path start) throws IOException {
+        int[] directoryCount = new int[1];
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.startsWith(outputDir) || (!dir.equals(root) && dir.getFileName().toString().startsWith("."))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                try {
+                    WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                    watchedDirectories.put(key, dir);
+                    directoryCount[0]++;
+                } catch (IOException | ClosedWatchServiceException e) {
+                    System.err.println("Cannot watch " + dir + ": " + e.getMessage());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return directoryCount[0];
+    }
+
+    private void processEvents() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir = watchedDirectories.get(key);
+            if (dir != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    handleEvent(dir, event);
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+    }
+
+    private void handleEvent(Path dir, WatchEvent<?> event) {
+        WatchEvent.Kind<?> kind = event.kind();
+        if (kind == StandardWatchEventKinds.OVERFLOW) {
+            // Events were lost; every file under the directory might have changed
+            markTreeChanged(dir);
+            return;
+        }
+
+        Path path = dir.resolve((Path) event.context());
+        if (kind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                registerTree(path);
+            } catch (IOException e) {
+                System.err.println("Cannot watch " + path + ": " + e.getMessage());
+            }
+            markTreeChanged(path);
+        } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            // The worker removes the output of deleted files, including those under a deleted directory
+            for (Path processed : processedVersions.keySet()) {
+                if (processed.startsWith(path)) {
+                    markChanged(processed);
+                }
+            }
+            markChanged(path);
+        } else {
+            markChanged(path);
+        }
+    }
+
+    private void markTreeChanged(Path dir) {
+        try (java.util.stream.Stream<Path> paths = Files.walk(dir)) {
+            paths.filter(Files::isRegularFile).forEach(this::markChanged);
+        } catch (IOException e) {
+            System.err.println("Cannot rescan " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private void markChanged(Path path) {
+        if (!path.getFileName().toString().toLowerCase().endsWith(".ndf") || path.startsWith(outputDir)) {
+            return;
+        }
+        File file = path.toFile();
+        for (ModProfile profile : batch.getProfiles()) {
+            if (ProfileBatch.appliesTo(profile, file)) {
+                // Each further change restarts the file's debounce
+                pending.put(path, System.currentTimeMillis());
+                return;
+            }
+        }
+    }
+
+    // Move files that have been quiet for the debounce period onto the queue, while it has room
+    private void dispatchSettled() {
+        long settledBefore = System.currentTimeMillis() - debounceMillis;
+        for (Map.Entry<Path, Long> entry : pending.entrySet()) {
+            if (entry.getValue() > settledBefore) {
+                continue;
+            }
+            Path path = entry.getKey();
+            if (queued.contains(path)) {
+                // Already waiting for the worker, which will read the latest content anyway
+                pending.remove(path, entry.getValue());
+                continue;
+            }
+            queued.add(path);
+            if (!queue.offer(path)) {
+                queued.remove(path);
+                return; // full; the rest stay pending until the worker catches up
+            }
+            pending.remove(path, entry.getValue());
+        }
+    }
+
+    private void processQueue() {
+        while (!closed) {
+            Path path;
+            try {
+                path = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            queued.remove(path);
+            process(path);
+        }
+    }
+
+    private void process(Path path) {
+        try {
+            if (!Files.isRegularFile(path)) {
+                removeStaleOutput(path);
+                return;
+            }
+            // Editors often touch a file without changing it; skip versions already processed
+            FileVersion version = FileVersion.of(path);
+            if (version.equals(processedVersions.get(path))) {
+                return;
+            }
+
+            File output = outputDir.resolve(root.relativize(path)).toFile();
+            ProfileBatch.FileReport report = batch.process(path.toFile(), output);
+            processedVersions.put(path, version);
+            processedCount.incrementAndGet();
+            System.out.println("[OK] " + report);
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            System.err.println("[ERROR] " + path + ": " + e.getMessage());
+        }
+    }
+
+    // The source file is gone, so the output generated from it is stale
+    private void removeStaleOutput(Path path) throws IOException {
+        processedVersions.remove(path);
+        Path output = outputDir.resolve(root.relativize(path));
+        if (Files.deleteIfExists(output)) {
+            System.out.println("[DELETED] " + output);
+        }
+    }
+
+    /**
+     * Modification time and size of a file; a rewrite within the file system's timestamp
+     * resolution still shows up as a change when the length differs
+     */
+    private static final class FileVersion {
+        private final FileTime modifiedTime;
+        private final long size;
+
+        private FileVersion(FileTime modifiedTime, long size) {
+            this.modifiedTime = modifiedTime;
+            this.size = size;
+        }
+
+        static FileVersion of(Path path) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileVersion(attributes.lastModifiedTime(), attributes.size());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FileVersion)) {
+                return false;
+            }
+            FileVersion version = (FileVersion) other;
+            return size == version.size && modifiedTime.equals(version.modifiedTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * modifiedTime.hashCode() + Long.hashCode(size);
+        }
+    }
+}
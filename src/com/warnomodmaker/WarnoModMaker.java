@@ -6,10 +6,20 @@ import com.warnomodmaker.gui.theme.WarnoTheme;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Arrays;
 
 public class WarnoModMaker {
 
     public static void main(String[] args) {
+        // Batch and watch modes run headless, before anything loads the look and feel
+        if (args.length > 0 && args[0].equals("--batch")) {
+            ProfileBatch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--watch")) {
+            ProfileWatcher.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
         try {
             if (!WarnoTheme.setup()) {
@@ -30,18 +30,40 @@ public class AdditiveOperationsDialog extends JDialog {
 
     public AdditiveOperationsDialog(Frame parent, List<NDFValue.ObjectValue> ndfObjects,
                                   NDFValue.NDFFileType fileType, ModificationTracker tracker) {
+        this(parent, ndfObjects, fileType, tracker, new GUIDAllocator());
+    }
+
+    public AdditiveOperationsDialog(Frame parent, List<NDFValue.ObjectValue> ndfObjects,
+                                  NDFValue.NDFFileType fileType, ModificationTracker tracker,
+                                  GUIDAllocator guidAllocator) {
+        this(parent, ndfObjects, fileType, tracker, guidAllocator, null, null);
+    }
+
+    /**
+     * Reuse the schemas and templates the knowledge base learned for fileName, when it has them
+     */
+    public AdditiveOperationsDialog(Frame parent, List<NDFValue.ObjectValue> ndfObjects,
+                                  NDFValue.NDFFileType fileType, ModificationTracker tracker,
+                                  GUIDAllocator guidAllocator, WorkspaceKnowledgeBase knowledgeBase,
+                                  String fileName) {
         super(parent, "Additive Operations", true);
         this.ndfObjects = ndfObjects != null ? ndfObjects : new ArrayList<>();
         this.fileType = fileType != null ? fileType : NDFValue.NDFFileType.UNKNOWN;
         this.modificationTracker = tracker;
-        this.operationManager = new AdditiveOperationManager();
 
-        try {
-            // Learn from existing objects to build dynamic schemas
-            operationManager.learnFromExistingObjects(this.ndfObjects);
-        } catch (Exception e) {
-            System.err.println("Error initializing additive operations: " + e.getMessage());
-            e.printStackTrace();
+        if (knowledgeBase != null && fileName != null) {
+            this.operationManager = new AdditiveOperationManager(guidAllocator,
+                knowledgeBase.getKnowledge(fileName, this.ndfObjects));
+            operationManager.registerExistingGuids(this.ndfObjects);
+        } else {
+            this.operationManager = new AdditiveOperationManager(guidAllocator);
+            try {
+                // Learn from existing objects to build dynamic schemas
+                operationManager.learnFromExistingObjects(this.ndfObjects);
+            } catch (Exception e) {
+                System.err.println("Error initializing additive operations: " + e.getMessage());
+                e.printStackTrace();
+            }
         }
 
         initializeUI();
@@ -38,7 +38,8 @@ public class EntityCreationDialog extends JDialog {
         this.openFiles = openFiles;
         this.trackers = trackers;
         this.integrityManager = integrityManager;
-        this.entityManager = new EntityCreationManager();
+        this.entityManager = new EntityCreationManager(integrityManager.getGuidManager().getAllocator(),
+            integrityManager.getKnowledgeBase());
 
         // Analyze open files to discover entity creation patterns
         entityManager.analyzeOpenFiles(openFiles);
@@ -50,7 +50,8 @@ public class EntityCreationWizard extends JDialog {
         super(parent, "Create Entity - Step 1 of 3", true);
         this.parent = parent;
         this.integrityManager = integrityManager;
-        this.entityManager = new EntityCreationManager();
+        this.entityManager = new EntityCreationManager(integrityManager.getGuidManager().getAllocator(),
+            integrityManager.getKnowledgeBase());
         this.entityConfiguration = new HashMap<>();
         this.fileLoader = fileLoader;
         
@@ -0,0 +1,212 @@
+package com.warnomodmaker.gui;
+
+import com.warnomodmaker.model.NDFValue;
+import com.warnomodmaker.model.PropertyScanner;
+import com.warnomodmaker.parser.NDFParser;
+import com.warnomodmaker.util.EditorEvents;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads several NDF files at once: a small I/O pool reads them and a CPU-sized pool parses and
+ * scans them. At most a few read files wait for parsing, so memory stays bounded. Each file is
+ * handed to the EDT as soon as it is ready, not when the whole batch is done.
+ */
+public class FileLoadPipeline {
+
+    private static final int READ_THREADS = 2;
+
+    public interface Listener {
+        /** Called on the EDT for each file that loaded */
+        void fileLoaded(LoadedFile loaded);
+
+        /** Called on the EDT for each file that failed */
+        void fileFailed(File file, Exception error);
+
+        /** Called on the EDT once every file has loaded or failed */
+        void finished();
+    }
+
+    private final ExecutorService readPool;
+    private final ExecutorService parsePool;
+    private final Semaphore inFlight;
+
+    public FileLoadPipeline() {
+        int parseThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.readPool = Executors.newFixedThreadPool(READ_THREADS, daemonThreads("file-load-read"));
+        this.parsePool = Executors.newFixedThreadPool(parseThreads, daemonThreads("file-load-parse"));
+        // File contents held between the stages: one per parser plus one being read ahead
+        this.inFlight = new Semaphore(parseThreads + 1);
+    }
+
+    /**
+     * Load the files in the background, reporting to the listener on the EDT. The pipeline shuts down afterwards.
+     */
+    public void load(List<File> files, Listener listener) {
+        if (files.isEmpty()) {
+            shutdown();
+            SwingUtilities.invokeLater(listener::finished);
+            return;
+        }
+
+        AtomicInteger unfinished = new AtomicInteger(files.size()); // pipeline side
+        AtomicInteger unreported = new AtomicInteger(files.size()); // EDT side
+        for (File file : files) {
+            CompletableFuture
+                .supplyAsync(() -> read(file), readPool)
+                .thenApplyAsync(content -> parse(file, content), parsePool)
+                .whenComplete((loaded, error) -> {
+                    SwingUtilities.invokeLater(() -> {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                            listener.fileFailed(file, cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+                        } else {
+                            listener.fileLoaded(loaded);
+                        }
+                        if (unreported.decrementAndGet() == 0) {
+                            listener.finished();
+                        }
+                    });
+                    if (unfinished.decrementAndGet() == 0) {
+                        shutdown();
+                    }
+                });
+        }
+    }
+
+    private ReadFile read(File file) {
+        inFlight.acquireUninterruptibly();
+        try {
+            long startTime = System.currentTimeMillis();
+            String content = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+            return new ReadFile(content, System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            inFlight.release();
+            throw new CompletionException(e);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private LoadedFile parse(File file, ReadFile read) {
+        try {
+            long startTime = System.currentTimeMillis();
+            NDFValue.NDFFileType fileType = NDFValue.NDFFileType.fromFilename(file.getName());
+            NDFParser parser;
+            List<NDFValue.ObjectValue> objects;
+            EditorEvents.ParsePhase parseEvent = new EditorEvents.ParsePhase();
+            parseEvent.begin();
+            try (Reader reader = new StringReader(read.content)) {
+                parser = new NDFParser(reader);
+                parser.setFileType(fileType);
+                parser.setOriginalSourceContent(read.content);
+                objects = parser.parse();
+            }
+            if (parseEvent.shouldCommit()) {
+                parseEvent.fileName = file.getName();
+                parseEvent.fileType = fileType.name();
+                parseEvent.objectCount = objects.size();
+                parseEvent.commit();
+            }
+            long parseTime = System.currentTimeMillis() - startTime;
+
+            startTime = System.currentTimeMillis();
+            PropertyScanner propertyScanner = scanProperties(objects, fileType);
+            ObjectListModel listModel = new ObjectListModel(objects);
+            long scanTime = System.currentTimeMillis() - startTime;
+
+            return new LoadedFile(file, fileType, objects, parser, propertyScanner, listModel,
+                read.readTime, parseTime, scanTime);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Scan the objects' properties, reported to Flight Recorder as a PropertyScan event
+     */
+    static PropertyScanner scanProperties(List<NDFValue.ObjectValue> objects, NDFValue.NDFFileType fileType) {
+        EditorEvents.PropertyScan event = new EditorEvents.PropertyScan();
+        event.begin();
+        PropertyScanner propertyScanner = new PropertyScanner(objects, fileType);
+        propertyScanner.scanProperties();
+
+        if (event.shouldCommit()) {
+            event.fileType = fileType != null ? fileType.name() : null;
+            event.objectCount = objects.size();
+            event.propertyCount = propertyScanner.getDiscoveredProperties().size();
+            event.commit();
+        }
+        return propertyScanner;
+    }
+
+    private void shutdown() {
+        readPool.shutdown();
+        parsePool.shutdown();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class ReadFile {
+        final String content;
+        final long readTime;
+
+        ReadFile(String content, long readTime) {
+            this.content = content;
+            this.readTime = readTime;
+        }
+    }
+
+    /**
+     * A parsed and scanned file, ready for a tab
+     */
+    public static class LoadedFile {
+        public final File file;
+        public final NDFValue.NDFFileType fileType;
+        public final List<NDFValue.ObjectValue> objects;
+        public final NDFParser parser;
+        public final PropertyScanner propertyScanner;
+        public final ObjectListModel listModel;
+        public final long readTime;
+        public final long parseTime;
+        public final long scanTime;
+
+        LoadedFile(File file, NDFValue.NDFFileType fileType, List<NDFValue.ObjectValue> objects, NDFParser parser,
+                   PropertyScanner propertyScanner, ObjectListModel listModel,
+                   long readTime, long parseTime, long scanTime) {
+            this.file = file;
+            this.fileType = fileType;
+            this.objects = objects;
+            this.parser = parser;
+            this.propertyScanner = propertyScanner;
+            this.listModel = listModel;
+            this.readTime = readTime;
+            this.parseTime = parseTime;
+            this.scanTime = scanTime;
+        }
+
+        public long getTotalTime() {
+            return readTime + parseTime + scanTime;
+        }
+    }
+}
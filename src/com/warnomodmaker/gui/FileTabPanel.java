@@ -39,7 +39,7 @@ public class FileTabPanel extends JPanel {
     }
 
 
-    public FileTabPanel(FileTabState tabState, PropertyScanner propertyScanner, DefaultListModel<NDFValue.ObjectValue> listModel) {
+    public FileTabPanel(FileTabState tabState, PropertyScanner propertyScanner, ObjectListModel listModel) {
         this.tabState = tabState;
         this.modificationListeners = new ArrayList<>();
         this.tabStateChangeListeners = new ArrayList<>();
@@ -96,7 +96,7 @@ public class FileTabPanel extends JPanel {
     }
 
 
-    public void updateFromTabStateWithPreprocessedData(PropertyScanner propertyScanner, DefaultListModel<NDFValue.ObjectValue> listModel) {
+    public void updateFromTabStateWithPreprocessedData(PropertyScanner propertyScanner, ObjectListModel listModel) {
         if (tabState.hasData()) {
             objectBrowser.setUnitDescriptorsWithPreprocessedData(tabState.getUnitDescriptors(), tabState.getFileType(), propertyScanner, listModel);
             objectBrowser.setModificationTracker(tabState.getModificationTracker());
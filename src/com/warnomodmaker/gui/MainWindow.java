@@ -7,6 +7,9 @@ import com.warnomodmaker.model.NDFValue;
 import com.warnomodmaker.model.ModificationTracker;
 import com.warnomodmaker.model.ModificationRecord;
 import com.warnomodmaker.model.ModProfile;
+import com.warnomodmaker.model.BinaryProfileReader;
+import com.warnomodmaker.model.BinaryProfileWriter;
+import com.warnomodmaker.model.ModificationRecordSource;
 import com.warnomodmaker.model.PropertyScanner;
 import com.warnomodmaker.model.PropertyUpdater;
 import com.warnomodmaker.model.UserPreferences;
@@ -14,6 +17,8 @@ import com.warnomodmaker.model.CrossSystemIntegrityManager;
 import com.warnomodmaker.model.PropertyPathMigrationManager;
 import com.warnomodmaker.parser.NDFParser;
 import com.warnomodmaker.parser.NDFWriter;
+import com.warnomodmaker.util.EditorEvents;
+import com.warnomodmaker.util.WorkspaceFileIndex;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -45,6 +50,8 @@ public class MainWindow extends JFrame implements FileLoader {
 
     // Cross-system integrity management
     private CrossSystemIntegrityManager integrityManager;
+    private WorkspaceFileIndex workspaceFileIndex; // built in the background on first auto-load
+    private File workspaceIndexRoot; // root of the index above, or of the one being built
 
     public MainWindow() {
         setTitle("WARNO Mod Maker");
@@ -474,13 +481,20 @@ public class MainWindow extends JFrame implements FileLoader {
         }
 
         try {
+            String fileName = currentTab.getFile() != null ? currentTab.getFile().getName() : null;
             AdditiveOperationsDialog dialog = new AdditiveOperationsDialog(
-                this, objects, currentTab.getFileType(), currentTab.getModificationTracker());
+                this, objects, currentTab.getFileType(), currentTab.getModificationTracker(),
+                integrityManager.getGuidManager().getAllocator(), integrityManager.getKnowledgeBase(), fileName);
             dialog.setVisible(true);
 
             if (dialog.wasOperationPerformed()) {
                 currentTab.setModified(true);
 
+                // Learn the added and edited objects in the background
+                if (fileName != null && integrityManager.getKnowledgeBase().hasFile(fileName)) {
+                    integrityManager.getKnowledgeBase().learnFile(fileName, objects);
+                }
+
                 // Refresh all UI components to show newly added objects
                 refreshCurrentTab();
                 updateTitle();
@@ -605,9 +619,10 @@ public class MainWindow extends JFrame implements FileLoader {
         StringBuilder results = new StringBuilder();
         results.append("Auto-loading results:\n\n");
 
-        int loaded = 0;
+        int[] loaded = {0};
         int alreadyOpen = 0;
-        int notFound = 0;
+        int[] notFound = {0};
+        List<File> filesToLoad = new ArrayList<>();
 
         for (String fileName : fileNames) {
             // Extract just the filename for comparison (in case of paths like GameData/Generated/Sound/SoundDescriptors.ndf)
@@ -630,29 +645,74 @@ public class MainWindow extends JFrame implements FileLoader {
 
             // Try to find and load the file using smart location logic
             File file = findFileInWarnoStructure(directory, fileName);
-            System.out.println("Looking for: " + fileName + " at: " + (file != null ? file.getAbsolutePath() : "null") + " (exists: " + (file != null && file.exists()) + ")");
+            System.out.println("Looking for: " + fileName + " at: " + (file != null ? file.getAbsolutePath() : "null"));
 
-            // Extract just the filename for display (remove any path components)
-            String displayName = new File(fileName).getName();
+            if (file != null && file.isFile() && !filesToLoad.contains(file)) {
+                filesToLoad.add(file);
+            } else if (file == null || !file.isFile()) {
+                results.append("[FAIL] ").append(baseFileName).append(" (not found)\n");
+                notFound[0]++;
+            }
+        }
 
-            if (file != null && file.exists() && file.isFile()) {
-                try {
-                    loadFileInBackgroundSilent(file);
-                    results.append("[OK] ").append(displayName).append(" (loaded)\n");
-                    loaded++;
-                } catch (Exception e) {
-                    results.append("[ERROR] ").append(displayName).append(" (error: ").append(e.getMessage()).append(")\n");
-                    notFound++;
+        JDialog progressDialog = new JDialog(this, "Loading Files", true);
+        JProgressBar progressBar = new JProgressBar(0, Math.max(1, filesToLoad.size()));
+        progressBar.setString("Loading " + filesToLoad.size() + " files...");
+        progressBar.setStringPainted(true);
+        progressDialog.add(progressBar);
+        progressDialog.setSize(350, 100);
+        progressDialog.setLocationRelativeTo(this);
+
+        // Files open as they finish, in whatever order that is
+        long startTime = System.currentTimeMillis();
+        new FileLoadPipeline().load(filesToLoad, new FileLoadPipeline.Listener() {
+            @Override
+            public void fileLoaded(FileLoadPipeline.LoadedFile file) {
+                createNewTabWithPreprocessedData(file.file, file.objects, file.fileType, file.parser,
+                    file.propertyScanner, file.listModel);
+                // CRITICAL: Register file with cross-system integrity manager
+                integrityManager.registerFile(file.file.getName(), file.fileType, file.objects);
+
+                // Loaded on the pipeline's threads, so the phases are reported as fields rather than a duration
+                EditorEvents.FileLoaded event = new EditorEvents.FileLoaded();
+                if (event.shouldCommit()) {
+                    event.fileName = file.file.getName();
+                    event.fileType = file.fileType.name();
+                    event.objectCount = file.objects.size();
+                    event.bytes = file.file.length();
+                    event.readMillis = file.readTime;
+                    event.parseMillis = file.parseTime;
+                    event.scanMillis = file.scanTime;
+                    event.commit();
                 }
-            } else {
-                results.append("[FAIL] ").append(displayName).append(" (not found)\n");
-                notFound++;
+
+                results.append("[OK] ").append(file.file.getName()).append(" (loaded in ").append(file.getTotalTime())
+                    .append("ms: read ").append(file.readTime).append(", parse ").append(file.parseTime)
+                    .append(", scan ").append(file.scanTime).append(")\n");
+                loaded[0]++;
+                progressBar.setValue(progressBar.getValue() + 1);
+                progressBar.setString("Loaded " + file.file.getName());
             }
-        }
 
-        results.append("\nSummary: ").append(loaded).append(" loaded, ")
+            @Override
+            public void fileFailed(File file, Exception error) {
+                results.append("[ERROR] ").append(file.getName()).append(" (error: ").append(error.getMessage()).append(")\n");
+                notFound[0]++;
+                progressBar.setValue(progressBar.getValue() + 1);
+                error.printStackTrace();
+            }
+
+            @Override
+            public void finished() {
+                progressDialog.dispose();
+            }
+        });
+        progressDialog.setVisible(true);
+
+        results.append("\nSummary: ").append(loaded[0]).append(" loaded, ")
                 .append(alreadyOpen).append(" already open, ")
-                .append(notFound).append(" not found/failed");
+                .append(notFound[0]).append(" not found/failed")
+                .append(" (").append(System.currentTimeMillis() - startTime).append("ms)");
 
         JOptionPane.showMessageDialog(this,
             results.toString(),
@@ -689,139 +749,71 @@ public class MainWindow extends JFrame implements FileLoader {
     }
 
     /**
-     * Find a file in the directory tree, looking both in the specified directory
-     * and in parent/sibling directories for files with subdirectory paths
+     * Find the root directory that contains both main NDF files and GameData folder
      */
-    private File findFileInDirectoryTree(File baseDirectory, String fileName) {
-        // Try direct path first
-        File directFile = new File(baseDirectory, fileName);
-        if (directFile.exists()) {
-            return directFile;
-        }
-
-        // If fileName contains path separators, try more search strategies
-        if (fileName.contains("/") || fileName.contains("\\")) {
-            // Try looking in parent directory
-            File parentDir = baseDirectory.getParentFile();
-            if (parentDir != null) {
-                File parentFile = new File(parentDir, fileName);
-                if (parentFile.exists()) {
-                    return parentFile;
-                }
-            }
-
-            // Try recursive search in subdirectories
-            String targetFileName = new File(fileName).getName();
-            File foundFile = searchFileRecursively(baseDirectory, targetFileName);
-            if (foundFile != null) {
-                return foundFile;
-            }
-
-            // Try searching from parent directory
-            if (parentDir != null) {
-                foundFile = searchFileRecursively(parentDir, targetFileName);
-                if (foundFile != null) {
-                    return foundFile;
-                }
-            }
-        }
+    private File findRootDirectory(File startDir) {
+        return WorkspaceFileIndex.findRootDirectory(startDir);
+    }
 
-        return null;
+    /**
+     * Find a file in the WARNO directory structure, knowing where different file types are located
+     */
+    private File findFileInWarnoStructure(File rootDir, String fileName) {
+        WorkspaceFileIndex index = getWorkspaceFileIndex(rootDir);
+        File found = index != null ? index.find(fileName) : null;
+        return found != null ? found : WorkspaceFileIndex.probe(rootDir, fileName);
     }
 
     /**
-     * Recursively search for a file by name in directory tree
+     * Index of the workspace under rootDir, kept fresh by a file watcher. Only GameData roots are
+     * indexed. The first call starts building it in the background and returns null until it's ready.
      */
-    private File searchFileRecursively(File directory, String fileName) {
-        if (!directory.exists() || !directory.isDirectory()) {
-            return null;
+    private synchronized WorkspaceFileIndex getWorkspaceFileIndex(File rootDir) {
+        File root = rootDir.getAbsoluteFile().toPath().normalize().toFile();
+        if (root.equals(workspaceIndexRoot)) {
+            return workspaceFileIndex;
         }
-
-        File[] files = directory.listFiles();
-        if (files == null) {
+        closeWorkspaceFileIndex();
+        if (!new File(root, "GameData").isDirectory()) {
             return null;
         }
 
-        // First check direct children
-        for (File file : files) {
-            if (file.isFile() && file.getName().equals(fileName)) {
-                return file;
+        workspaceIndexRoot = root;
+        Thread builder = new Thread(() -> {
+            WorkspaceFileIndex index;
+            try {
+                index = new WorkspaceFileIndex(root);
+            } catch (IOException e) {
+                System.err.println("Could not index " + root + ": " + e.getMessage());
+                return;
             }
-        }
-
-        // Then search subdirectories (limit depth to avoid infinite recursion)
-        for (File file : files) {
-            if (file.isDirectory() && !file.getName().startsWith(".")) {
-                File found = searchFileRecursively(file, fileName);
-                if (found != null) {
-                    return found;
+            synchronized (MainWindow.this) {
+                if (root.equals(workspaceIndexRoot)) {
+                    workspaceFileIndex = index;
+                    return;
                 }
             }
-        }
-
-        return null;
-    }
-
-    /**
-     * Find the root directory that contains both main NDF files and GameData folder
-     */
-    private File findRootDirectory(File startDir) {
-        File current = startDir;
-
-        // Walk up the directory tree looking for a directory that contains GameData
-        while (current != null) {
-            File gameDataDir = new File(current, "GameData");
-            if (gameDataDir.exists() && gameDataDir.isDirectory()) {
-                // This looks like the root directory
-                return current;
+            try {
+                index.close(); // the workspace changed while this one was built
+            } catch (IOException e) {
+                System.err.println("Error closing workspace index: " + e.getMessage());
             }
-            current = current.getParentFile();
-        }
-
-        // If we can't find GameData, just use the original directory
-        return startDir;
+        }, "workspace-index");
+        builder.setDaemon(true);
+        builder.start();
+        return null;
     }
 
-    /**
-     * Find a file in the WARNO directory structure, knowing where different file types are located
-     */
-    private File findFileInWarnoStructure(File rootDir, String fileName) {
-        // Handle files with subdirectory paths (like GameData/Generated/Sound/SoundDescriptors.ndf)
-        if (fileName.contains("/") || fileName.contains("\\")) {
-            File directPath = new File(rootDir, fileName);
-            System.out.println("  Trying subdirectory path: " + directPath.getAbsolutePath() + " (exists: " + directPath.exists() + ")");
-            if (directPath.exists()) {
-                return directPath;
-            }
-        } else {
-            // For simple filenames, try the common WARNO locations
-            String[] commonLocations = {
-                // FIRST: Direct in root directory (most important for files like DepictionInfantry.ndf)
-                fileName,
-                // Then try subdirectories where most files are found
-                "GameData/Generated/Gameplay/Gfx/" + fileName,
-                "GameData/Generated/Gameplay/Gfx/Infanterie/" + fileName,  // Infantry files are in Infanterie subdirectory
-                "GameData/Generated/Gameplay/" + fileName,
-                "GameData/Gameplay/Gfx/" + fileName,
-                "GameData/Generated/" + fileName,
-                "GameData/" + fileName,
-                // Additional locations for generated depiction files
-                "GameData/Generated/Gfx/" + fileName,
-                "GameData/Gfx/" + fileName,
-                "Generated/" + fileName,
-                "Gfx/" + fileName
-            };
-
-            for (String location : commonLocations) {
-                File file = new File(rootDir, location);
-                System.out.println("  Trying: " + file.getAbsolutePath() + " (exists: " + file.exists() + ")");
-                if (file.exists() && file.isFile()) {
-                    return file;
-                }
+    private synchronized void closeWorkspaceFileIndex() {
+        if (workspaceFileIndex != null) {
+            try {
+                workspaceFileIndex.close();
+            } catch (IOException e) {
+                System.err.println("Error closing workspace index: " + e.getMessage());
             }
+            workspaceFileIndex = null;
         }
-
-        return null;
+        workspaceIndexRoot = null;
     }
 
     private String getFileTypeName(NDFValue.NDFFileType fileType) {
@@ -964,22 +956,34 @@ public class MainWindow extends JFrame implements FileLoader {
         }
         UserPreferences prefs = UserPreferences.getInstance();
         JFileChooser fileChooser = new JFileChooser(prefs.getLastProfileDirectory());
-        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+        javax.swing.filechooser.FileNameExtensionFilter jsonFilter = new javax.swing.filechooser.FileNameExtensionFilter(
             "JSON Profile Files (*.json)", "json"
-        ));
+        );
+        javax.swing.filechooser.FileNameExtensionFilter binaryFilter = new javax.swing.filechooser.FileNameExtensionFilter(
+            "Binary Profile Files (*." + BinaryProfileWriter.FILE_EXTENSION + ")", BinaryProfileWriter.FILE_EXTENSION
+        );
+        fileChooser.addChoosableFileFilter(binaryFilter);
+        fileChooser.setFileFilter(jsonFilter);
         fileChooser.setSelectedFile(new File(profileName + ".json"));
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
             prefs.setLastProfileDirectory(file.getParent());
-            if (!file.getName().toLowerCase().endsWith(".json")) {
-                file = new File(file.getPath() + ".json");
+            boolean binary = fileChooser.getFileFilter() == binaryFilter
+                || file.getName().toLowerCase().endsWith("." + BinaryProfileWriter.FILE_EXTENSION);
+            String extension = binary ? "." + BinaryProfileWriter.FILE_EXTENSION : ".json";
+            if (!file.getName().toLowerCase().endsWith(extension)) {
+                file = new File(file.getPath() + extension);
             }
 
             try {
                 String sourceFileName = currentTab.getFile() != null ? currentTab.getFile().getName() : "Unknown";
                 ModProfile profile = new ModProfile(profileName.trim(), currentTab.getModificationTracker(), sourceFileName);
-                profile.saveToFile(file);
+                if (binary) {
+                    profile.saveToBinaryFile(file);
+                } else {
+                    profile.saveToFile(file);
+                }
 
                 JOptionPane.showMessageDialog(
                     this,
@@ -1015,20 +1019,31 @@ public class MainWindow extends JFrame implements FileLoader {
         UserPreferences prefs = UserPreferences.getInstance();
         JFileChooser fileChooser = new JFileChooser(prefs.getLastProfileDirectory());
         fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
-            "JSON Profile Files (*.json)", "json"
+            "Profile Files (*.json, *." + BinaryProfileWriter.FILE_EXTENSION + ")", "json", BinaryProfileWriter.FILE_EXTENSION
         ));
 
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
             prefs.setLastProfileDirectory(file.getParent());
 
+            BinaryProfileReader binaryReader = null;
             try {
-                ModProfile profile = ModProfile.loadFromFile(file);
+                ModProfile profile;
+                ModificationRecordSource records;
+                if (BinaryProfileReader.isBinaryProfile(file)) {
+                    // Binary profiles are paged into the dialog on demand rather than loaded whole
+                    binaryReader = new BinaryProfileReader(file);
+                    profile = binaryReader.getProfile();
+                    records = binaryReader;
+                } else {
+                    profile = ModProfile.loadFromFile(file);
+                    records = profile;
+                }
 
-                // Silently attempt to migrate profile paths in background
-                integrityManager.migrateModProfile(profile);
+                // Silently attempt to migrate profile paths, the same way for both formats
+                integrityManager.migrateModProfile(records);
 
-                ProfileLoadDialog loadDialog = new ProfileLoadDialog(this, profile, currentTab.getUnitDescriptors(), currentTab.getModificationTracker());
+                ProfileLoadDialog loadDialog = new ProfileLoadDialog(this, profile, records, currentTab.getUnitDescriptors(), currentTab.getModificationTracker());
                 loadDialog.setVisible(true);
                 if (loadDialog.wasApplied()) {
                     currentTab.setModified(true);
@@ -1051,6 +1066,14 @@ public class MainWindow extends JFrame implements FileLoader {
                     JOptionPane.ERROR_MESSAGE
                 );
                 ex.printStackTrace();
+            } finally {
+                if (binaryReader != null) {
+                    try {
+                        binaryReader.close();
+                    } catch (IOException ignored) {
+                        // Nothing left to read
+                    }
+                }
             }
         }
     }
@@ -1162,6 +1185,7 @@ public class MainWindow extends JFrame implements FileLoader {
                              NDFValue.NDFFileType fileType, NDFParser parser) {
         FileTabState tabState = new FileTabState(file, ndfObjects, fileType, parser);
         FileTabPanel tabPanel = new FileTabPanel(tabState);
+        relearnKnowledgeOnEdit(tabState);
         tabPanel.addModificationListener(e -> {
             tabState.setModified(true);
             updateTabTitle(tabState);
@@ -1181,11 +1205,34 @@ public class MainWindow extends JFrame implements FileLoader {
     }
 
 
+    /**
+     * Edits change what the knowledge base learned from a file, so have it relearned before its next use
+     */
+    private void relearnKnowledgeOnEdit(FileTabState tabState) {
+        if (tabState.getFile() == null) {
+            return;
+        }
+        String fileName = tabState.getFile().getName();
+        tabState.getModificationTracker().addListener(new ModificationTracker.ModificationListener() {
+            @Override
+            public void onModificationAdded(ModificationRecord record) {
+                integrityManager.getKnowledgeBase().markModified(fileName);
+            }
+
+            @Override
+            public void onModificationsCleared() {
+                integrityManager.getKnowledgeBase().markModified(fileName);
+            }
+        });
+    }
+
+
     private void createNewTabWithPreprocessedData(File file, List<NDFValue.ObjectValue> ndfObjects,
                                                  NDFValue.NDFFileType fileType, NDFParser parser,
-                                                 PropertyScanner propertyScanner, DefaultListModel<NDFValue.ObjectValue> listModel) {
+                                                 PropertyScanner propertyScanner, ObjectListModel listModel) {
         FileTabState tabState = new FileTabState(file, ndfObjects, fileType, parser);
         FileTabPanel tabPanel = new FileTabPanel(tabState, propertyScanner, listModel);
+        relearnKnowledgeOnEdit(tabState);
         tabPanel.addModificationListener(e -> {
             tabState.setModified(true);
             updateTabTitle(tabState);
@@ -1251,6 +1298,7 @@ public class MainWindow extends JFrame implements FileLoader {
         progressDialog.setSize(450, 120);
         progressDialog.setLocationRelativeTo(this);
         SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
+            private final EditorEvents.FileLoaded loadedEvent = new EditorEvents.FileLoaded();
             private List<NDFValue.ObjectValue> ndfObjects;
             private NDFValue.NDFFileType fileType;
             private NDFParser parser;
@@ -1259,18 +1307,31 @@ public class MainWindow extends JFrame implements FileLoader {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
+                    loadedEvent.begin();
                     publish("Reading file...");
                     fileType = NDFValue.NDFFileType.fromFilename(file.getName());
 
+                    long startTime = System.currentTimeMillis();
                     String sourceContent = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+                    loadedEvent.readMillis = System.currentTimeMillis() - startTime;
 
                     publish("Parsing NDF content...");
+                    startTime = System.currentTimeMillis();
+                    EditorEvents.ParsePhase parseEvent = new EditorEvents.ParsePhase();
+                    parseEvent.begin();
                     try (Reader reader = new StringReader(sourceContent)) {
                         parser = new NDFParser(reader);
                         parser.setFileType(fileType);
                         parser.setOriginalSourceContent(sourceContent);
                         ndfObjects = parser.parse();
                     }
+                    if (parseEvent.shouldCommit()) {
+                        parseEvent.fileName = file.getName();
+                        parseEvent.fileType = fileType.name();
+                        parseEvent.objectCount = ndfObjects.size();
+                        parseEvent.commit();
+                    }
+                    loadedEvent.parseMillis = System.currentTimeMillis() - startTime;
 
                     publish("Parsed " + ndfObjects.size() + " objects");
                 } catch (Exception e) {
@@ -1314,14 +1375,12 @@ public class MainWindow extends JFrame implements FileLoader {
                             try {
                                 // Do heavy work in background thread
                                 // 1. Property scanning
-                                PropertyScanner propertyScanner = new PropertyScanner(ndfObjects, fileType);
-                                propertyScanner.scanProperties();
+                                long scanStart = System.currentTimeMillis();
+                                PropertyScanner propertyScanner = FileLoadPipeline.scanProperties(ndfObjects, fileType);
+                                loadedEvent.scanMillis = System.currentTimeMillis() - scanStart;
 
                                 // 2. Create list model
-                                DefaultListModel<NDFValue.ObjectValue> listModel = new DefaultListModel<>();
-                                for (NDFValue.ObjectValue obj : ndfObjects) {
-                                    listModel.addElement(obj);
-                                }
+                                ObjectListModel listModel = new ObjectListModel(ndfObjects);
 
                                 // Now update UI on EDT with pre-processed data
                                 SwingUtilities.invokeLater(() -> {
@@ -1330,6 +1389,14 @@ public class MainWindow extends JFrame implements FileLoader {
                                     // CRITICAL: Register file with cross-system integrity manager
                                     integrityManager.registerFile(file.getName(), fileType, ndfObjects);
 
+                                    if (loadedEvent.shouldCommit()) {
+                                        loadedEvent.fileName = file.getName();
+                                        loadedEvent.fileType = fileType.name();
+                                        loadedEvent.objectCount = ndfObjects.size();
+                                        loadedEvent.bytes = file.length();
+                                        loadedEvent.commit();
+                                    }
+
                                     progressDialog.dispose();
 
                                     String objectTypeName = getObjectTypeNameForFile(file.getName(), fileType);
@@ -1370,53 +1437,6 @@ public class MainWindow extends JFrame implements FileLoader {
         progressDialog.setVisible(true);
     }
 
-    /**
-     * Silent version of loadFileInBackground for auto-load functionality
-     */
-    private void loadFileInBackgroundSilent(File file) {
-        try {
-            // Determine file type
-            NDFValue.NDFFileType fileType = NDFValue.NDFFileType.fromFilename(file.getName());
-            List<NDFValue.ObjectValue> ndfObjects;
-            NDFParser parser;
-
-            try (Reader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
-                parser = new NDFParser(reader);
-                parser.setFileType(fileType);
-                ndfObjects = parser.parse();
-            }
-
-            // Do heavy work in background thread
-            PropertyScanner propertyScanner = new PropertyScanner(ndfObjects, fileType);
-            propertyScanner.scanProperties();
-
-            DefaultListModel<NDFValue.ObjectValue> listModel = new DefaultListModel<>();
-            for (NDFValue.ObjectValue obj : ndfObjects) {
-                listModel.addElement(obj);
-            }
-
-            // Update UI on EDT with pre-processed data (no dialog)
-            SwingUtilities.invokeLater(() -> {
-                createNewTabWithPreprocessedData(file, ndfObjects, fileType, parser, propertyScanner, listModel);
-                // CRITICAL: Register file with cross-system integrity manager
-                integrityManager.registerFile(file.getName(), fileType, ndfObjects);
-                // NO SUCCESS DIALOG for silent loading
-            });
-
-        } catch (Exception e) {
-            // Still show error dialogs for silent loading
-            SwingUtilities.invokeLater(() -> {
-                JOptionPane.showMessageDialog(
-                    MainWindow.this,
-                    "Error loading file: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-                );
-            });
-            throw new RuntimeException(e);
-        }
-    }
-
     private void saveTabToFile(FileTabState tabState, File file) {
         // Create progress dialog
         JDialog progressDialog = new JDialog(this, "Saving File", true);
@@ -1470,6 +1490,20 @@ public class MainWindow extends JFrame implements FileLoader {
     }
 
     private void saveTabToFileInternal(FileTabState tabState, File file) throws Exception {
+        EditorEvents.Save event = new EditorEvents.Save();
+        event.begin();
+        writeTabToFile(tabState, file);
+
+        if (event.shouldCommit()) {
+            event.fileName = file.getName();
+            event.fileType = tabState.getFileType() != null ? tabState.getFileType().name() : null;
+            event.objectCount = tabState.getUnitDescriptors().size();
+            event.recordCount = tabState.getModificationTracker().getModificationCount();
+            event.commit();
+        }
+    }
+
+    private void writeTabToFile(FileTabState tabState, File file) throws Exception {
         Path originalPath = file.toPath();
         Path dir = originalPath.getParent();
         if (dir == null) dir = Paths.get(".");
@@ -1622,27 +1656,23 @@ public class MainWindow extends JFrame implements FileLoader {
 
                 // Do the heavy work in background: property scanning
                 PropertyScanner propertyScanner = null;
-                DefaultListModel<NDFValue.ObjectValue> listModel = null;
+                ObjectListModel listModel = null;
 
                 if (tabState.hasData()) {
                     // Create property scanner in background
-                    propertyScanner = new PropertyScanner(tabState.getUnitDescriptors(), tabState.getFileType());
-                    propertyScanner.scanProperties();
+                    propertyScanner = FileLoadPipeline.scanProperties(tabState.getUnitDescriptors(), tabState.getFileType());
 
                     publish("Building list model...");
 
                     // Create list model in background
-                    listModel = new DefaultListModel<>();
-                    for (NDFValue.ObjectValue unit : tabState.getUnitDescriptors()) {
-                        listModel.addElement(unit);
-                    }
+                    listModel = new ObjectListModel(tabState.getUnitDescriptors());
                 }
 
                 publish("Updating UI...");
 
                 // Update UI on EDT with pre-processed data
                 final PropertyScanner finalScanner = propertyScanner;
-                final DefaultListModel<NDFValue.ObjectValue> finalModel = listModel;
+                final ObjectListModel finalModel = listModel;
 
                 SwingUtilities.invokeLater(() -> {
                     if (tabState.hasData() && finalScanner != null && finalModel != null) {
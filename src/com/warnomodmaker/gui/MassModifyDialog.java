@@ -7,6 +7,8 @@ import com.warnomodmaker.model.PropertyUpdater;
 import com.warnomodmaker.model.ModificationTracker;
 import com.warnomodmaker.model.ModuleResolver;
 import com.warnomodmaker.model.TagExtractor;
+import com.warnomodmaker.util.EditorEvents;
+import com.warnomodmaker.util.MetricsRegistry;
 
 import javax.swing.*;
 import java.awt.*;
@@ -948,22 +950,40 @@ public class MassModifyDialog extends JDialog {
         SwingWorker<Integer, int[]> worker = new SwingWorker<Integer, int[]>() {
             @Override
             protected Integer doInBackground() throws Exception {
+                MetricsRegistry metrics = MetricsRegistry.getInstance();
+                EditorEvents.MassModification event = new EditorEvents.MassModification();
+                event.begin();
                 int count = 0;
 
-                for (int i = 0; i < unitsWithProperty.size() && !cancelled.get(); i++) {
-                    ObjectValue unit = unitsWithProperty.get(i);
+                MetricsRegistry.Sample sample = metrics.timer("massModify.apply").start();
+                try {
+                    for (int i = 0; i < unitsWithProperty.size() && !cancelled.get(); i++) {
+                        ObjectValue unit = unitsWithProperty.get(i);
 
-                    // Apply modification
-                    if (updatePropertyDirect(unit, propertyPath, modificationType, value, valueText, replacementPropertyPath)) {
-                        count++;
-                    }
+                        // Apply modification
+                        if (updatePropertyDirect(unit, propertyPath, modificationType, value, valueText, replacementPropertyPath)) {
+                            count++;
+                        }
 
-                    // Update progress with both current index and modified count
-                    publish(new int[]{i, count});
+                        // Update progress with both current index and modified count
+                        publish(new int[]{i, count});
 
-                    // Small delay to prevent UI freezing
-                    if (i % 10 == 0) {
-                        Thread.sleep(1);
+                        // Small delay to prevent UI freezing
+                        if (i % 10 == 0) {
+                            Thread.sleep(1);
+                        }
+                    }
+                } finally {
+                    sample.close();
+                    metrics.counter("massModify.units").add(count);
+
+                    if (event.shouldCommit()) {
+                        event.fileType = fileType != null ? fileType.name() : null;
+                        event.propertyPath = propertyPath;
+                        event.modificationType = modificationType.name();
+                        event.objectCount = unitsWithProperty.size();
+                        event.modifiedCount = count;
+                        event.commit();
                     }
                 }
 
@@ -0,0 +1,152 @@
+package com.warnomodmaker.gui;
+
+import com.warnomodmaker.util.MetricsRegistry;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Timers, counters and gauges from the metrics registry, refreshed while open and exportable as JSON
+ */
+public class MetricsDialog extends JDialog {
+
+    private static final String[] TIMER_COLUMNS = {"Operation", "Count", "Mean (ms)", "Max (ms)", "Last (ms)", "Total (ms)", "Allocated (MB)"};
+    private static final String[] VALUE_COLUMNS = {"Name", "Value"};
+
+    private final MetricsRegistry metrics;
+    private final DefaultTableModel timerModel = createModel(TIMER_COLUMNS,
+        String.class, Long.class, Double.class, Double.class, Double.class, Double.class, Double.class);
+    private final DefaultTableModel valueModel = createModel(VALUE_COLUMNS, String.class, Long.class);
+    private final Timer refreshTimer;
+
+    public MetricsDialog(Window parent, MetricsRegistry metrics) {
+        super(parent, "Performance Metrics", ModalityType.MODELESS);
+        this.metrics = metrics;
+
+        initializeGUI();
+        refresh();
+
+        refreshTimer = new Timer(2000, e -> refresh());
+        refreshTimer.start();
+    }
+
+    private void initializeGUI() {
+        setSize(760, 460);
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        JPanel mainPanel = new JPanel(new BorderLayout(5, 5));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JTable timerTable = new JTable(timerModel);
+        timerTable.setAutoCreateRowSorter(true);
+        JScrollPane timerScrollPane = new JScrollPane(timerTable);
+        timerScrollPane.setBorder(BorderFactory.createTitledBorder("Timers"));
+
+        JTable valueTable = new JTable(valueModel);
+        valueTable.setAutoCreateRowSorter(true);
+        JScrollPane valueScrollPane = new JScrollPane(valueTable);
+        valueScrollPane.setBorder(BorderFactory.createTitledBorder("Counters and Gauges"));
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, timerScrollPane, valueScrollPane);
+        splitPane.setResizeWeight(0.6);
+        mainPanel.add(splitPane, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            metrics.reset();
+            refresh();
+        });
+        JButton exportButton = new JButton("Export JSON...");
+        exportButton.addActionListener(e -> exportJson());
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(resetButton);
+        buttonPanel.add(exportButton);
+        buttonPanel.add(closeButton);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+    }
+
+    private void refresh() {
+        timerModel.setRowCount(0);
+        for (MetricsRegistry.Timer timer : metrics.getTimers().values()) {
+            timerModel.addRow(new Object[] {
+                timer.getName(),
+                timer.getCount(),
+                millis(timer.getMeanNanos()),
+                millis(timer.getMaxNanos()),
+                millis(timer.getLastNanos()),
+                millis(timer.getTotalNanos()),
+                Math.round(timer.getAllocatedBytes() / (1024.0 * 1024.0) * 10) / 10.0
+            });
+        }
+
+        valueModel.setRowCount(0);
+        for (MetricsRegistry.Counter counter : metrics.getCounters().values()) {
+            valueModel.addRow(new Object[] {counter.getName(), counter.get()});
+        }
+        for (Map.Entry<String, LongSupplier> gauge : metrics.getGauges().entrySet()) {
+            valueModel.addRow(new Object[] {gauge.getKey(), MetricsRegistry.readGauge(gauge.getValue())});
+        }
+    }
+
+    private void exportJson() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("JSON Files (*.json)", "json"));
+        fileChooser.setSelectedFile(new File("metrics.json"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith(".json")) {
+            file = new File(file.getPath() + ".json");
+        }
+
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            metrics.writeJson(writer);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error exporting metrics: " + e.getMessage(),
+                "Export Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+        super.dispose();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static DefaultTableModel createModel(String[] columns, Class<?>... columnClasses) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return columnClasses[column];
+            }
+
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.warnomodmaker.gui;
+
+import com.warnomodmaker.model.NDFValue.ObjectValue;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List model over a file's objects showing either all of them or a view of their positions.
+ * Switching views swaps one array and fires a single contents-changed event, instead of
+ * building a new model element by element.
+ */
+public class ObjectListModel extends AbstractListModel<ObjectValue> {
+
+    private final List<ObjectValue> objects;
+    private int[] view; // positions in objects, or null for all of them
+
+    /**
+     * Copies the list, so positions stay valid if the file's list changes later
+     */
+    public ObjectListModel(List<ObjectValue> objects) {
+        this.objects = new ArrayList<>(objects);
+    }
+
+    public List<ObjectValue> getObjects() {
+        return objects;
+    }
+
+    @Override
+    public int getSize() {
+        return view != null ? view.length : objects.size();
+    }
+
+    @Override
+    public ObjectValue getElementAt(int index) {
+        return objects.get(view != null ? view[index] : index);
+    }
+
+    /**
+     * Show the objects at these positions, in this order
+     */
+    public void setView(int[] positions) {
+        int oldSize = getSize();
+        view = positions;
+        fireViewChanged(oldSize);
+    }
+
+    public void showAll() {
+        int oldSize = getSize();
+        view = null;
+        fireViewChanged(oldSize);
+    }
+
+    public boolean isShowingAll() {
+        return view == null;
+    }
+
+    /**
+     * Row of an object in the current view, or -1
+     */
+    public int indexOf(ObjectValue object) {
+        if (object == null) {
+            return -1;
+        }
+        int size = getSize();
+        for (int i = 0; i < size; i++) {
+            if (getElementAt(i) == object) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void fireViewChanged(int oldSize) {
+        int rows = Math.max(oldSize, getSize());
+        if (rows > 0) {
+            fireContentsChanged(this, 0, rows - 1);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.warnomodmaker.gui;
 
 import com.warnomodmaker.model.*;
 import com.warnomodmaker.model.NDFValue.ObjectValue;
+import com.warnomodmaker.util.EditorEvents;
 import com.warnomodmaker.util.StringSimilarity;
 
 import javax.swing.*;
@@ -10,15 +11,25 @@ import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class ProfileLoadDialog extends JDialog {
     private final ModProfile profile;
+    private final ModificationRecordSource records;
     private final List<ObjectValue> unitDescriptors;
     private final ModificationTracker modificationTracker;
-    private final List<ValidationResult> validationResults;
     private final MainWindow parentWindow;
     private boolean applied = false;
     private JTable validationTable;
@@ -28,6 +39,39 @@ public class ProfileLoadDialog extends JDialog {
     private JButton cancelButton;
     private JButton fixPathsButton;
 
+    // Validation runs in parallel chunks of one binary profile page each; the table pages rows in the same windows
+    private static final int VALIDATION_CHUNK_SIZE = BinaryProfileWriter.RECORDS_PER_PAGE;
+    private static final int CACHED_WINDOWS = 16;
+
+    // Per-row outcome of the current validation run, so the table never holds a result per record
+    private final BitSet validatedRows = new BitSet();
+    private final BitSet validRows = new BitSet();
+    private final BitSet selectedRows = new BitSet();
+    private final BitSet fixableRows = new BitSet();
+    // Records replaced by auto-fix, by row
+    private final Map<Integer, ModificationRecord> fixedRecords = new ConcurrentHashMap<>();
+
+    // Decoded and validated rows of recently shown windows, and windows being loaded for display (EDT only)
+    private final Map<Integer, ValidationResult[]> windowCache =
+        new LinkedHashMap<Integer, ValidationResult[]>(CACHED_WINDOWS * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ValidationResult[]> eldest) {
+                return size() > CACHED_WINDOWS;
+            }
+        };
+    private final Set<Integer> loadingWindows = new HashSet<>();
+    private int validationGeneration;
+    private final ExecutorService windowLoader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-rows");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile UnitNameIndex unitIndex;
+    private volatile NDFValue.NDFFileType validationFileType = NDFValue.NDFFileType.UNKNOWN;
+    private final Map<ObjectValue, List<String>> propertyPathCandidates = new ConcurrentHashMap<>();
+    private SwingWorker<Void, ValidatedWindow> validationWorker;
+
 
     public static class ValidationResult {
         public ModificationRecord modification; // Non-final to allow auto-fix updates
@@ -47,12 +91,20 @@ public class ProfileLoadDialog extends JDialog {
 
 
     public ProfileLoadDialog(JFrame parent, ModProfile profile, List<ObjectValue> unitDescriptors, ModificationTracker modificationTracker) {
+        this(parent, profile, profile, unitDescriptors, modificationTracker);
+    }
+
+    /**
+     * Validate records from a separate source, e.g. a binary profile paged in from disk
+     */
+    public ProfileLoadDialog(JFrame parent, ModProfile profile, ModificationRecordSource records,
+                             List<ObjectValue> unitDescriptors, ModificationTracker modificationTracker) {
         super(parent, "Load Profile: " + profile.getProfileName(), true);
 
         this.profile = profile;
+        this.records = records;
         this.unitDescriptors = unitDescriptors;
         this.modificationTracker = modificationTracker;
-        this.validationResults = new ArrayList<>();
         this.parentWindow = (MainWindow) parent;
 
         initializeGUI();
@@ -60,6 +112,16 @@ public class ProfileLoadDialog extends JDialog {
     }
 
 
+    @Override
+    public void dispose() {
+        if (validationWorker != null) {
+            validationWorker.cancel(true);
+        }
+        windowLoader.shutdownNow();
+        super.dispose();
+    }
+
+
     private void initializeGUI() {
         setSize(900, 600);
         setLocationRelativeTo(getParent());
@@ -79,8 +141,8 @@ public class ProfileLoadDialog extends JDialog {
             public String getToolTipText(java.awt.event.MouseEvent e) {
                 int row = rowAtPoint(e.getPoint());
                 int col = columnAtPoint(e.getPoint());
-                if (row >= 0 && row < validationResults.size()) {
-                    ValidationResult result = validationResults.get(row);
+                ValidationResult result = row >= 0 ? cachedResult(row) : null;
+                if (result != null) {
                     ModificationRecord mod = result.modification;
                     switch (col) {
                         case 1: return "Unit: " + mod.getUnitName();
@@ -168,7 +230,7 @@ public class ProfileLoadDialog extends JDialog {
         gbc.gridx = 2; gbc.gridy = 1;
         panel.add(new JLabel("Modifications:"), gbc);
         gbc.gridx = 3;
-        panel.add(new JLabel(String.valueOf(profile.getModificationCount())), gbc);
+        panel.add(new JLabel(String.valueOf(records.getRecordCount())), gbc);
 
         if (!profile.getDescription().isEmpty()) {
             gbc.gridx = 0; gbc.gridy = 2;
@@ -212,48 +274,203 @@ public class ProfileLoadDialog extends JDialog {
 
 
     private void validateProfile() {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+        if (validationWorker != null) {
+            validationWorker.cancel(true);
+        }
+
+        int recordCount = records.getRecordCount();
+        int generation = ++validationGeneration;
+        validationFileType = parentWindow.getCurrentFileType();
+        validatedRows.clear();
+        validRows.clear();
+        selectedRows.clear();
+        fixableRows.clear();
+        windowCache.clear();
+        loadingWindows.clear();
+        tableModel.fireTableDataChanged();
+        statusLabel.setText("Validating " + recordCount + " modifications...");
+        applyButton.setEnabled(false);
+        fixPathsButton.setEnabled(false);
+
+        SwingWorker<Void, ValidatedWindow> worker = new SwingWorker<Void, ValidatedWindow>() {
             @Override
             protected Void doInBackground() throws Exception {
-                validationResults.clear();
+                // Lookup structures are rebuilt for every validation run
+                unitIndex = new UnitNameIndex(unitDescriptors);
+                propertyPathCandidates.clear();
+
+                int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                    (recordCount + VALIDATION_CHUNK_SIZE - 1) / VALIDATION_CHUNK_SIZE));
+                ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                    Thread thread = new Thread(runnable, "profile-validation");
+                    thread.setDaemon(true);
+                    return thread;
+                });
 
-                for (ModificationRecord modification : profile.getModifications()) {
-                    ValidationResult result = validateModification(modification);
-                    validationResults.add(result);
+                try {
+                    // Only a few chunks run ahead of the table, so results for the whole profile are never held at once
+                    int windowCount = (recordCount + VALIDATION_CHUNK_SIZE - 1) / VALIDATION_CHUNK_SIZE;
+                    ArrayDeque<Future<ValidationResult[]>> chunks = new ArrayDeque<>();
+                    int submitted = 0;
+                    for (int window = 0; window < windowCount; window++) {
+                        while (submitted < windowCount && submitted < window + threads * 2) {
+                            int chunkWindow = submitted++;
+                            // Records are paged in per chunk, so lazy sources never load everything at once
+                            chunks.add(executor.submit(() -> validateWindow(chunkWindow)));
+                        }
+
+                        // Stream chunks to the table in profile order as they complete
+                        if (isCancelled()) {
+                            break;
+                        }
+                        publish(new ValidatedWindow(window, chunks.poll().get()));
+                    }
+                } finally {
+                    executor.shutdownNow();
                 }
 
                 return null;
             }
 
+            @Override
+            protected void process(List<ValidatedWindow> windows) {
+                if (isCancelled() || generation != validationGeneration) {
+                    return;
+                }
+                for (ValidatedWindow window : windows) {
+                    recordValidatedWindow(window.window, window.results, false);
+                }
+                statusLabel.setText(String.format("Validated %d of %d modifications...",
+                    validatedRows.cardinality(), recordCount));
+            }
+
             @Override
             protected void done() {
-                tableModel.fireTableDataChanged();
+                if (isCancelled() || generation != validationGeneration) {
+                    return;
+                }
+                try {
+                    get();
+                } catch (Exception e) {
+                    System.err.println("Profile validation failed: " + e.getMessage());
+                }
+
                 updateStatus();
                 applyButton.setEnabled(true);
 
                 // Enable auto-fix if there are fixable issues
-                boolean hasFixableIssues = validationResults.stream()
-                    .anyMatch(r -> !r.isValid && r.suggestedFix != null && !r.suggestedFix.isEmpty());
-                fixPathsButton.setEnabled(hasFixableIssues);
+                fixPathsButton.setEnabled(!fixableRows.isEmpty());
             }
         };
 
+        validationWorker = worker;
         worker.execute();
     }
 
 
+    /**
+     * Rows of one validation window as a validation run or the table decoded them
+     */
+    private static class ValidatedWindow {
+        final int window;
+        final ValidationResult[] results;
+
+        ValidatedWindow(int window, ValidationResult[] results) {
+            this.window = window;
+            this.results = results;
+        }
+    }
+
+
+    // Decode and validate one window of rows, with any auto-fixed records in place of the originals
+    private ValidationResult[] validateWindow(int window) throws IOException {
+        int from = window * VALIDATION_CHUNK_SIZE;
+        int to = Math.min(from + VALIDATION_CHUNK_SIZE, records.getRecordCount());
+        List<ModificationRecord> chunk = records.getRecords(from, to);
+        ValidationResult[] results = new ValidationResult[chunk.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = validateModification(fixedRecords.getOrDefault(from + i, chunk.get(i)));
+        }
+        return results;
+    }
+
+
+    // Fold a validated window into the row state (EDT only); rows keep their selection once validated
+    private void recordValidatedWindow(int window, ValidationResult[] results, boolean cache) {
+        int from = window * VALIDATION_CHUNK_SIZE;
+        for (int i = 0; i < results.length; i++) {
+            int row = from + i;
+            if (!validatedRows.get(row)) {
+                validatedRows.set(row);
+                validRows.set(row, results[i].isValid);
+                selectedRows.set(row, results[i].shouldApply);
+                fixableRows.set(row, !results[i].isValid && results[i].suggestedFix != null && !results[i].suggestedFix.isEmpty());
+            }
+        }
+        if (cache || windowCache.containsKey(window)) {
+            windowCache.put(window, results);
+        }
+        tableModel.fireTableRowsUpdated(from, from + results.length - 1);
+    }
+
+
+    /**
+     * The validated row if its window is loaded; otherwise starts loading the window for display and returns null
+     */
+    private ValidationResult cachedResult(int row) {
+        int window = row / VALIDATION_CHUNK_SIZE;
+        ValidationResult[] results = windowCache.get(window);
+        if (results != null) {
+            return results[row - window * VALIDATION_CHUNK_SIZE];
+        }
+
+        if (loadingWindows.add(window) && !windowLoader.isShutdown()) {
+            int generation = validationGeneration;
+            windowLoader.execute(() -> {
+                try {
+                    ValidationResult[] loaded = validateWindow(window);
+                    SwingUtilities.invokeLater(() -> {
+                        if (generation == validationGeneration) {
+                            loadingWindows.remove(window);
+                            recordValidatedWindow(window, loaded, true);
+                        }
+                    });
+                } catch (IOException e) {
+                    System.err.println("Failed to read profile records: " + e.getMessage());
+                }
+            });
+        }
+        return null;
+    }
+
+
+    // The validated row, decoding and validating it on the calling thread if its window is not loaded
+    private ValidationResult resultAt(int row) throws IOException {
+        int window = row / VALIDATION_CHUNK_SIZE;
+        ValidationResult[] results = windowCache.get(window);
+        if (results != null) {
+            return results[row - window * VALIDATION_CHUNK_SIZE];
+        }
+        ModificationRecord record = fixedRecords.get(row);
+        if (record == null) {
+            record = records.getRecords(row, row + 1).get(0);
+        }
+        return validateModification(record);
+    }
+
+
     private ValidationResult validateModification(ModificationRecord modification) {
         String unitName = modification.getUnitName();
         String propertyPath = modification.getPropertyPath();
         ObjectValue unit = findUnitByName(unitName);
         if (unit == null) {
-            String suggestedUnit = findSimilarUnitName(unitName);
+            String suggestedUnit = unitIndex.findSimilarName(unitName);
             String issue = String.format("Unit '%s' not found in current file", unitName);
             String suggestion = suggestedUnit != null ? "Try: " + suggestedUnit : "No similar units found";
             return new ValidationResult(modification, false, issue, suggestion);
         }
         // Use file type for proper property validation - ALIGNED with single/mass modifications!
-        NDFValue.NDFFileType fileType = parentWindow.getCurrentFileType();
+        NDFValue.NDFFileType fileType = validationFileType;
         if (!PropertyUpdater.hasProperty(unit, propertyPath, fileType)) {
             String suggestedPath = findSimilarPropertyPath(unit, propertyPath);
             String issue = String.format("Property '%s' not found in unit '%s'", propertyPath, unitName);
@@ -279,64 +496,12 @@ public class ProfileLoadDialog extends JDialog {
 
 
     private ObjectValue findUnitByName(String unitName) {
-        for (ObjectValue unit : unitDescriptors) {
-            if (unitName.equals(unit.getInstanceName())) {
-                return unit;
-            }
+        UnitNameIndex index = unitIndex;
+        if (index == null) {
+            index = new UnitNameIndex(unitDescriptors);
+            unitIndex = index;
         }
-        return null;
-    }
-
-
-    private String findSimilarUnitName(String targetName) {
-        if (targetName == null || targetName.trim().isEmpty()) {
-            return null;
-        }
-
-        String lowerTarget = targetName.toLowerCase().trim();
-        List<ScoredMatch> candidates = new ArrayList<>();
-
-        for (ObjectValue unit : unitDescriptors) {
-            String unitName = unit.getInstanceName();
-            if (unitName != null && !unitName.trim().isEmpty()) {
-                double score = calculateUnitNameSimilarity(lowerTarget, unitName.toLowerCase());
-                if (score > 0.3) { // Only consider reasonably similar names
-                    candidates.add(new ScoredMatch(unitName, score));
-                }
-            }
-        }
-
-        // Sort by score (highest first) and return the best match
-        candidates.sort((a, b) -> Double.compare(b.score, a.score));
-        return candidates.isEmpty() ? null : candidates.get(0).value;
-    }
-
-
-    private double calculateUnitNameSimilarity(String target, String candidate) {
-        // 1. Exact match
-        if (target.equals(candidate)) {
-            return 1.0;
-        }
-
-        // 2. Contains match (high score for substring matches)
-        if (candidate.contains(target)) {
-            return 0.9;
-        }
-        if (target.contains(candidate)) {
-            return 0.85;
-        }
-
-        // 3. Levenshtein distance (fuzzy matching for typos)
-        double levenshteinScore = StringSimilarity.calculateSimilarity(target, candidate);
-
-        // 4. Token-based matching (for multi-word names)
-        double tokenScore = StringSimilarity.calculateTokenSimilarity(target, candidate);
-
-        // 5. Common prefix/suffix matching
-        double affixScore = StringSimilarity.calculateAffixSimilarity(target, candidate);
-
-        // Combine scores with weights
-        return Math.max(levenshteinScore * 0.4 + tokenScore * 0.4 + affixScore * 0.2, 0.0);
+        return index.findUnit(unitName);
     }
 
 
@@ -351,26 +516,43 @@ public class ProfileLoadDialog extends JDialog {
             return wildcardPath;
         }
 
-        PropertyScanner scanner = new PropertyScanner(List.of(unit));
-        scanner.scanProperties();
+        // Every miss on the same unit scores against the same discovered paths
+        List<String> candidatePaths = propertyPathCandidates.computeIfAbsent(unit, u -> {
+            PropertyScanner scanner = new PropertyScanner(List.of(u));
+            scanner.scanProperties();
+            List<String> paths = new ArrayList<>();
+            for (PropertyScanner.PropertyInfo property : scanner.getDiscoveredProperties().values()) {
+                paths.add(property.path);
+            }
+            return paths;
+        });
 
         String lowerTarget = targetPath.toLowerCase().trim();
-        List<ScoredMatch> candidates = new ArrayList<>();
+        StringSimilarity.Matcher matcher = StringSimilarity.matcher(lowerTarget);
+
+        // Keep the first highest-scoring path; higher threshold for property paths
+        String bestPath = null;
+        double bestScore = 0.4;
 
-        for (PropertyScanner.PropertyInfo property : scanner.getDiscoveredProperties().values()) {
-            double score = calculatePropertyPathSimilarity(lowerTarget, property.path.toLowerCase());
-            if (score > 0.4) { // Higher threshold for property paths
-                candidates.add(new ScoredMatch(property.path, score));
+        for (String path : candidatePaths) {
+            double score = calculatePropertyPathSimilarity(matcher, path.toLowerCase(), bestScore);
+            if (score > bestScore) {
+                bestScore = score;
+                bestPath = path;
             }
         }
 
-        // Sort by score (highest first) and return the best match
-        candidates.sort((a, b) -> Double.compare(b.score, a.score));
-        return candidates.isEmpty() ? null : candidates.get(0).value;
+        return bestPath;
     }
 
 
-    private double calculatePropertyPathSimilarity(String target, String candidate) {
+    /**
+     * Score a property path against the matcher's target. Scores that cannot exceed minScore
+     * may come back lower than their exact value, which lets the edit distance stop early.
+     */
+    private double calculatePropertyPathSimilarity(StringSimilarity.Matcher matcher, String candidate, double minScore) {
+        String target = matcher.getQuery();
+
         // 1. Exact match
         if (target.equals(candidate)) {
             return 1.0;
@@ -395,8 +577,8 @@ public class ProfileLoadDialog extends JDialog {
             substringScore = 0.75;
         }
 
-        // 5. Levenshtein distance for typo tolerance
-        double levenshteinScore = StringSimilarity.calculateSimilarity(target, candidate);
+        // 5. Levenshtein distance for typo tolerance, only as exact as minScore needs
+        double levenshteinScore = matcher.similarity(candidate, minScore / 0.3 - 1e-9);
 
         // 6. End-of-path matching (property name similarity)
         String targetEnd = targetParts[targetParts.length - 1];
@@ -410,33 +592,38 @@ public class ProfileLoadDialog extends JDialog {
 
 
     private void updateStatus() {
-        int total = validationResults.size();
-        int valid = (int) validationResults.stream().mapToInt(r -> r.isValid ? 1 : 0).sum();
-        int selected = (int) validationResults.stream().mapToInt(r -> r.shouldApply ? 1 : 0).sum();
+        int total = records.getRecordCount();
+        int valid = validRows.cardinality();
+        int selected = selectedRows.cardinality();
 
         statusLabel.setText(String.format("Total: %d, Valid: %d, Selected for application: %d", total, valid, selected));
     }
 
 
     private void autoFixPaths(ActionEvent e) {
-        List<ValidationResult> fixableResults = validationResults.stream()
-            .filter(r -> !r.isValid && r.suggestedFix != null && !r.suggestedFix.isEmpty())
-            .collect(Collectors.toList());
+        BitSet fixable = (BitSet) fixableRows.clone();
+        int fixableCount = fixable.cardinality();
 
-        if (fixableResults.isEmpty()) {
+        if (fixableCount == 0) {
             JOptionPane.showMessageDialog(this, "No fixable issues found.",
                 "Auto-Fix Paths", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
         StringBuilder message = new StringBuilder();
-        message.append("Auto-fix will attempt to correct ").append(fixableResults.size()).append(" issues:\n\n");
+        message.append("Auto-fix will attempt to correct ").append(fixableCount).append(" issues:\n\n");
 
         int shown = 0;
-        for (ValidationResult result : fixableResults) {
+        for (int row = fixable.nextSetBit(0); row >= 0; row = fixable.nextSetBit(row + 1)) {
             if (shown >= 5) {
-                message.append("... and ").append(fixableResults.size() - shown).append(" more\n");
+                message.append("... and ").append(fixableCount - shown).append(" more\n");
                 break;
             }
+            ValidationResult result;
+            try {
+                result = resultAt(row);
+            } catch (IOException ex) {
+                continue;
+            }
             message.append("- ").append(result.modification.getUnitName()).append("\n");
             message.append("  ").append(result.issue).append("\n");
             message.append("  -> ").append(result.suggestedFix).append("\n\n");
@@ -449,50 +636,80 @@ public class ProfileLoadDialog extends JDialog {
             "Auto-Fix Paths", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
 
         if (choice == JOptionPane.YES_OPTION) {
-            performAutoFix(fixableResults);
+            performAutoFix(fixable);
         }
     }
 
 
-    private void performAutoFix(List<ValidationResult> fixableResults) {
-        int fixedCount = 0;
-        List<String> failedFixes = new ArrayList<>();
+    private void performAutoFix(BitSet fixableRowsToFix) {
+        fixPathsButton.setEnabled(false);
+        applyButton.setEnabled(false);
+        statusLabel.setText("Fixing " + fixableRowsToFix.cardinality() + " modifications...");
+
+        SwingWorker<List<String>, Void> worker = new SwingWorker<List<String>, Void>() {
+            private int fixedCount;
 
-        for (ValidationResult result : fixableResults) {
-            try {
-                if (applyAutoFix(result)) {
-                    fixedCount++;
-                } else {
-                    failedFixes.add(result.modification.getUnitName() + ": " + result.issue);
+            @Override
+            protected List<String> doInBackground() throws Exception {
+                List<String> failedFixes = new ArrayList<>();
+
+                // Fixable rows are validated again a window at a time for their suggestions
+                int window = -1;
+                ValidationResult[] results = null;
+                for (int row = fixableRowsToFix.nextSetBit(0); row >= 0; row = fixableRowsToFix.nextSetBit(row + 1)) {
+                    if (row / VALIDATION_CHUNK_SIZE != window) {
+                        window = row / VALIDATION_CHUNK_SIZE;
+                        results = validateWindow(window);
+                    }
+                    ValidationResult result = results[row - window * VALIDATION_CHUNK_SIZE];
+                    try {
+                        if (applyAutoFix(result)) {
+                            fixedRecords.put(row, result.modification);
+                            fixedCount++;
+                        } else {
+                            failedFixes.add(result.modification.getUnitName() + ": " + result.issue);
+                        }
+                    } catch (Exception ex) {
+                        failedFixes.add(result.modification.getUnitName() + ": " + ex.getMessage());
+                    }
                 }
-            } catch (Exception ex) {
-                failedFixes.add(result.modification.getUnitName() + ": " + ex.getMessage());
+                return failedFixes;
             }
-        }
 
-        // Re-validate after fixes
-        validateProfile();
-        StringBuilder resultMessage = new StringBuilder();
-        resultMessage.append("Auto-fix completed!\n\n");
-        resultMessage.append("Successfully fixed: ").append(fixedCount).append(" issues\n");
-
-        if (!failedFixes.isEmpty()) {
-            resultMessage.append("Failed to fix: ").append(failedFixes.size()).append(" issues\n\n");
-            resultMessage.append("Failed fixes:\n");
-            for (String failure : failedFixes) {
-                resultMessage.append("- ").append(failure).append("\n");
-            }
-        }
+            @Override
+            protected void done() {
+                List<String> failedFixes;
+                try {
+                    failedFixes = get();
+                } catch (Exception ex) {
+                    failedFixes = List.of(String.valueOf(ex.getMessage()));
+                }
 
-        JOptionPane.showMessageDialog(this, resultMessage.toString(),
-            "Auto-Fix Results", JOptionPane.INFORMATION_MESSAGE);
+                // Re-validate after fixes
+                validateProfile();
+                StringBuilder resultMessage = new StringBuilder();
+                resultMessage.append("Auto-fix completed!\n\n");
+                resultMessage.append("Successfully fixed: ").append(fixedCount).append(" issues\n");
+
+                if (!failedFixes.isEmpty()) {
+                    resultMessage.append("Failed to fix: ").append(failedFixes.size()).append(" issues\n\n");
+                    resultMessage.append("Failed fixes:\n");
+                    for (String failure : failedFixes) {
+                        resultMessage.append("- ").append(failure).append("\n");
+                    }
+                }
+
+                JOptionPane.showMessageDialog(ProfileLoadDialog.this, resultMessage.toString(),
+                    "Auto-Fix Results", JOptionPane.INFORMATION_MESSAGE);
+            }
+        };
+        worker.execute();
     }
 
 
     private void applyModifications(ActionEvent e) {
-        List<ValidationResult> toApply = validationResults.stream()
-            .filter(r -> r.shouldApply && r.isValid)
-            .collect(Collectors.toList());
+        BitSet toApply = (BitSet) selectedRows.clone();
+        toApply.and(validRows);
 
         if (toApply.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No valid modifications selected for application.",
@@ -501,7 +718,7 @@ public class ProfileLoadDialog extends JDialog {
         }
 
         int result = JOptionPane.showConfirmDialog(this,
-            String.format("Apply %d modifications to the current file?\n\nThis will modify the loaded units.", toApply.size()),
+            String.format("Apply %d modifications to the current file?\n\nThis will modify the loaded units.", toApply.cardinality()),
             "Confirm Application", JOptionPane.YES_NO_OPTION);
 
         if (result == JOptionPane.YES_OPTION) {
@@ -510,10 +727,10 @@ public class ProfileLoadDialog extends JDialog {
     }
 
 
-    private void applySelectedModifications(List<ValidationResult> toApply) {
+    private void applySelectedModifications(BitSet toApply) {
         // Create progress dialog with static text
         JDialog progressDialog = new JDialog(this, "Applying Profile", true);
-        JLabel progressLabel = new JLabel("Applying " + toApply.size() + " modifications...", SwingConstants.CENTER);
+        JLabel progressLabel = new JLabel("Applying " + toApply.cardinality() + " modifications...", SwingConstants.CENTER);
         progressLabel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         progressDialog.add(progressLabel);
@@ -523,10 +740,21 @@ public class ProfileLoadDialog extends JDialog {
         SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
             @Override
             protected Integer doInBackground() throws Exception {
+                EditorEvents.ProfileApply event = new EditorEvents.ProfileApply();
+                int recordsBefore = modificationTracker.getModificationCount();
+                event.begin();
                 int appliedCount = 0;
 
-                for (ValidationResult validationResult : toApply) {
-                    ModificationRecord mod = validationResult.modification;
+                // Selected records are paged in a window at a time
+                int window = -1;
+                List<ModificationRecord> windowRecords = null;
+                for (int row = toApply.nextSetBit(0); row >= 0; row = toApply.nextSetBit(row + 1)) {
+                    if (row / VALIDATION_CHUNK_SIZE != window) {
+                        window = row / VALIDATION_CHUNK_SIZE;
+                        int from = window * VALIDATION_CHUNK_SIZE;
+                        windowRecords = records.getRecords(from, Math.min(from + VALIDATION_CHUNK_SIZE, records.getRecordCount()));
+                    }
+                    ModificationRecord mod = fixedRecords.getOrDefault(row, windowRecords.get(row - window * VALIDATION_CHUNK_SIZE));
                     ObjectValue unit = findUnitByName(mod.getUnitName());
 
                     if (unit != null) {
@@ -544,6 +772,15 @@ public class ProfileLoadDialog extends JDialog {
                     }
                 }
 
+                if (event.shouldCommit()) {
+                    NDFValue.NDFFileType fileType = parentWindow.getCurrentFileType();
+                    event.profileName = profile.getProfileName();
+                    event.fileType = fileType != null ? fileType.name() : null;
+                    event.objectCount = unitDescriptors.size();
+                    event.recordCount = modificationTracker.getModificationCount() - recordsBefore;
+                    event.commit();
+                }
+
                 return appliedCount;
             }
 
@@ -587,44 +824,7 @@ public class ProfileLoadDialog extends JDialog {
 
 
     private NDFValue parseValueFromString(String valueStr, String valueType) {
-        switch (valueType) {
-            case "STRING":
-                // Handle quote type prefixes for string values
-                if (valueStr.startsWith("DQ:")) {
-                    // Double quotes
-                    String rawValue = valueStr.substring(3);
-                    return NDFValue.createString(rawValue, true);
-                } else if (valueStr.startsWith("SQ:")) {
-                    // Single quotes
-                    String rawValue = valueStr.substring(3);
-                    return NDFValue.createString(rawValue, false);
-                } else {
-                    // Legacy format without prefix - default to single quotes
-                    return NDFValue.createString(valueStr.replace("'", ""), false);
-                }
-            case "NUMBER":
-                // Preserve format information when parsing numbers from profiles
-                double numValue = Double.parseDouble(valueStr);
-                boolean wasInteger = !valueStr.contains(".");
-                return NDFValue.createNumber(numValue, wasInteger);
-            case "BOOLEAN":
-                return NDFValue.createBoolean(Boolean.parseBoolean(valueStr));
-            case "TEMPLATE_REF":
-                return NDFValue.createTemplateRef(valueStr);
-            case "RESOURCE_REF":
-                return NDFValue.createResourceRef(valueStr);
-            case "GUID":
-                return NDFValue.createGUID(valueStr);
-            default:
-                // For unknown types, try to parse as string with quote type detection
-                if (valueStr.startsWith("DQ:") || valueStr.startsWith("SQ:")) {
-                    boolean useDoubleQuotes = valueStr.startsWith("DQ:");
-                    String rawValue = valueStr.substring(3);
-                    return NDFValue.createString(rawValue, useDoubleQuotes);
-                } else {
-                    return NDFValue.createString(valueStr);
-                }
-        }
+        return ProfileApplier.parseValue(valueStr, valueType);
     }
 
 
@@ -633,12 +833,16 @@ public class ProfileLoadDialog extends JDialog {
     }
 
 
+    /**
+     * One row per profile record. Selection and validity come from the per-row state; other cells
+     * decode and validate their window of records on demand and show a placeholder until it is loaded.
+     */
     private class ValidationTableModel extends AbstractTableModel {
         private final String[] columnNames = {"Apply", "Unit", "Property", "Status", "Issue/Suggestion"};
 
         @Override
         public int getRowCount() {
-            return validationResults.size();
+            return records.getRecordCount();
         }
 
         @Override
@@ -663,10 +867,18 @@ public class ProfileLoadDialog extends JDialog {
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            ValidationResult result = validationResults.get(rowIndex);
+            if (columnIndex == 0) {
+                return selectedRows.get(rowIndex);
+            }
+            if (columnIndex == 3 && validatedRows.get(rowIndex)) {
+                return validRows.get(rowIndex) ? "Valid" : "Invalid";
+            }
+            ValidationResult result = cachedResult(rowIndex);
+            if (result == null) {
+                return columnIndex == 3 ? "Validating" : "...";
+            }
             ModificationRecord mod = result.modification;
             switch (columnIndex) {
-                case 0: return result.shouldApply;
                 case 1: return mod.getUnitName(); // No truncation - let column width determine display
                 case 2: return cleanPropertyPath(mod.getPropertyPath()); // Clean up redundant prefixes
                 case 3: return result.isValid ? "Valid" : "Invalid";
@@ -703,7 +915,7 @@ public class ProfileLoadDialog extends JDialog {
         @Override
         public void setValueAt(Object value, int rowIndex, int columnIndex) {
             if (columnIndex == 0) {
-                validationResults.get(rowIndex).shouldApply = (Boolean) value;
+                selectedRows.set(rowIndex, (Boolean) value);
                 updateStatus();
                 fireTableCellUpdated(rowIndex, columnIndex);
             }
@@ -721,9 +933,13 @@ public class ProfileLoadDialog extends JDialog {
                 if ("Valid".equals(value)) {
                     setBackground(new Color(220, 255, 220)); // Light green
                     setForeground(Color.BLACK); // Dark black text for better contrast
-                } else {
+                } else if ("Invalid".equals(value)) {
                     setBackground(new Color(255, 220, 220)); // Light red
                     setForeground(Color.BLACK); // Dark black text for better contrast
+                } else {
+                    // Not validated yet
+                    setBackground(table.getBackground());
+                    setForeground(table.getForeground());
                 }
             }
 
@@ -778,17 +994,6 @@ public class ProfileLoadDialog extends JDialog {
     }
 
 
-    private static class ScoredMatch {
-        final String value;
-        final double score;
-
-        ScoredMatch(String value, double score) {
-            this.value = value;
-            this.score = score;
-        }
-    }
-
-
 
 
 
@@ -822,7 +1027,7 @@ public class ProfileLoadDialog extends JDialog {
      */
     private boolean hasPropertyWithWildcards(ObjectValue unit, String propertyPath) {
         // If no wildcards, use regular property checking with file type
-        NDFValue.NDFFileType fileType = parentWindow.getCurrentFileType();
+        NDFValue.NDFFileType fileType = validationFileType;
         if (!propertyPath.contains("[*]")) {
             return PropertyUpdater.hasProperty(unit, propertyPath, fileType);
         }
@@ -0,0 +1,127 @@
+package com.warnomodmaker.gui;
+
+import com.warnomodmaker.model.NDFValue;
+import com.warnomodmaker.model.NDFValue.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every property path in an object, lowercased once and flattened in pre-order, so the property
+ * filter can test a whole unit in one pass instead of re-walking and re-lowercasing subtrees.
+ * Children are listed in the same order UnitEditor shows them; position -1 stands for the object itself.
+ */
+public class PropertyTreeFilterIndex {
+
+    private final ObjectValue root;
+    private String[] lowerPaths = new String[256];
+    private int[] parents = new int[256];
+    private int[] subtreeEnds = new int[256];
+    private int size;
+
+    private String lastFilter;
+    private boolean[] lastVisible;
+
+    public PropertyTreeFilterIndex(ObjectValue root) {
+        this.root = root;
+        for (Map.Entry<String, NDFValue> entry : root.getProperties().entrySet()) {
+            add(entry.getKey(), entry.getValue(), -1);
+        }
+        lowerPaths = Arrays.copyOf(lowerPaths, size);
+        parents = Arrays.copyOf(parents, size);
+        subtreeEnds = Arrays.copyOf(subtreeEnds, size);
+    }
+
+    public ObjectValue getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int firstChild(int position) {
+        int first = position + 1;
+        return first < subtreeEnd(position) ? first : -1;
+    }
+
+    public int nextSibling(int position) {
+        if (position < 0 || position >= size) {
+            return -1;
+        }
+        int next = subtreeEnds[position];
+        return next < subtreeEnd(parents[position]) ? next : -1;
+    }
+
+    /**
+     * Which positions to show for a filter: those whose path contains it, and their ancestors
+     */
+    public synchronized boolean[] visibleFor(String filter) {
+        String lowerFilter = filter.toLowerCase();
+        if (lowerFilter.equals(lastFilter)) {
+            return lastVisible;
+        }
+
+        boolean[] visible = new boolean[size];
+        for (int i = size - 1; i >= 0; i--) {
+            if (visible[i] || lowerPaths[i].contains(lowerFilter)) {
+                visible[i] = true;
+                if (parents[i] >= 0) {
+                    visible[parents[i]] = true;
+                }
+            }
+        }
+
+        lastFilter = lowerFilter;
+        lastVisible = visible;
+        return visible;
+    }
+
+    private int subtreeEnd(int position) {
+        return position < 0 ? size : subtreeEnds[position];
+    }
+
+    private void add(String path, NDFValue value, int parent) {
+        int position = size++;
+        if (position == lowerPaths.length) {
+            int capacity = position * 2;
+            lowerPaths = Arrays.copyOf(lowerPaths, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+        }
+        lowerPaths[position] = path.toLowerCase();
+        parents[position] = parent;
+
+        // A path ends with its own name, so matching the path also covers the name
+        switch (value.getType()) {
+            case OBJECT:
+                for (Map.Entry<String, NDFValue> entry : ((ObjectValue) value).getProperties().entrySet()) {
+                    add(path + "." + entry.getKey(), entry.getValue(), position);
+                }
+                break;
+
+            case ARRAY:
+                addElements(path, ((ArrayValue) value).getElements(), position);
+                break;
+
+            case MAP:
+                for (Map.Entry<NDFValue, NDFValue> entry : ((MapValue) value).getEntries()) {
+                    add(path + "(" + entry.getKey() + ")", entry.getValue(), position);
+                }
+                break;
+
+            case TUPLE:
+                addElements(path, ((TupleValue) value).getElements(), position);
+                break;
+        }
+
+        subtreeEnds[position] = size;
+    }
+
+    private void addElements(String path, List<NDFValue> elements, int parent) {
+        for (int i = 0; i < elements.size(); i++) {
+            add(path + "[" + i + "]", elements.get(i), parent);
+        }
+    }
+}
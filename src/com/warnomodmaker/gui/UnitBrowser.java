@@ -4,12 +4,15 @@ import com.warnomodmaker.gui.renderers.EnhancedListCellRenderer;
 import com.warnomodmaker.model.NDFValue;
 import com.warnomodmaker.model.NDFValue.ObjectValue;
 import com.warnomodmaker.model.PropertyScanner;
+import com.warnomodmaker.model.PropertySearchIndex;
 import com.warnomodmaker.model.ModificationTracker;
+import com.warnomodmaker.model.ModificationRecord;
 import java.util.Map;
 import com.warnomodmaker.model.NDFValue.NumberValue;
 import com.warnomodmaker.model.NDFValue.NDFFileType;
 import com.warnomodmaker.model.PropertyUpdater;
 import com.warnomodmaker.model.TagExtractor;
+import com.warnomodmaker.util.MetricsRegistry;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -22,27 +25,53 @@ import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 public class UnitBrowser extends JPanel {
     private List<ObjectValue> ndfObjects;
-    private List<ObjectValue> filteredObjects;
     private List<Consumer<ObjectValue>> selectionListeners;
     private List<Consumer<String>> propertyFilterListeners;
-    private List<ObjectValue> originalObjects;
     private NDFFileType currentFileType;
     private JTextField searchField;
     private JComboBox<String> searchTypeComboBox;
     private PropertyScanner propertyScanner;
     private JList<ObjectValue> objectList;
-    private DefaultListModel<ObjectValue> listModel;
+    private ObjectListModel listModel;
+    private boolean restoringSelection;
     private JLabel statusLabel;
     private Timer searchTimer;
     private SwingWorker<?, ?> currentSearchWorker;
     private ModificationTracker modificationTracker;
     private EnhancedListCellRenderer cellRenderer;
+    private CompletableFuture<PropertySearchIndex> propertySearchIndex;
+
+    // Builds property search indexes off the EDT, one file at a time
+    private static final ExecutorService INDEX_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "property-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Keeps the search index current as properties are modified
+    private final ModificationTracker.ModificationListener searchIndexUpdater = new ModificationTracker.ModificationListener() {
+        @Override
+        public void onModificationAdded(ModificationRecord record) {
+            if (propertySearchIndex != null) {
+                propertySearchIndex.thenAccept(index -> index.modificationRecorded(record));
+            }
+        }
+
+        @Override
+        public void onModificationsCleared() {
+            invalidatePropertySearchIndex();
+        }
+    };
 
     // Search types
     private static final String SEARCH_BY_NAME = "Search by Name";
@@ -61,8 +90,6 @@ public class UnitBrowser extends JPanel {
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createTitledBorder("Objects"));
         ndfObjects = new ArrayList<>();
-        filteredObjects = new ArrayList<>();
-        originalObjects = new ArrayList<>();
         selectionListeners = new ArrayList<>();
         propertyFilterListeners = new ArrayList<>();
         currentFileType = NDFFileType.UNKNOWN;
@@ -129,7 +156,7 @@ public class UnitBrowser extends JPanel {
         searchPanel.add(statusPanel, BorderLayout.SOUTH);
 
         add(searchPanel, BorderLayout.NORTH);
-        listModel = new DefaultListModel<>();
+        listModel = new ObjectListModel(new ArrayList<>());
         objectList = new JList<>(listModel);
         cellRenderer = new EnhancedListCellRenderer();
         objectList.setCellRenderer(cellRenderer);
@@ -137,7 +164,7 @@ public class UnitBrowser extends JPanel {
         objectList.addListSelectionListener(new ListSelectionListener() {
             @Override
             public void valueChanged(ListSelectionEvent e) {
-                if (!e.getValueIsAdjusting()) {
+                if (!e.getValueIsAdjusting() && !restoringSelection) {
                     ObjectValue selectedObject = objectList.getSelectedValue();
                     notifySelectionListeners(selectedObject);
                 }
@@ -206,24 +233,18 @@ public class UnitBrowser extends JPanel {
             propertyScanner.scanProperties();
         }
 
-        // Store a separate copy of the original objects
-        this.originalObjects = new ArrayList<>(this.ndfObjects);
-        this.filteredObjects = new ArrayList<>(this.ndfObjects);
+        // The model keeps its own copy of the objects, so searches and views agree on positions
+        listModel = new ObjectListModel(this.ndfObjects);
+        cellRenderer.invalidateCache();
+        buildPropertySearchIndex();
 
-        // Update search type options based on file type (after originalObjects is initialized)
+        // Update search type options based on file type
         updateSearchTypeOptions();
         String borderTitle = fileType != NDFFileType.UNKNOWN ? fileType.getDisplayName() + "s" : "Objects";
         setBorder(BorderFactory.createTitledBorder(borderTitle));
         String objectTypeName = fileType != NDFFileType.UNKNOWN ? fileType.getDisplayName().toLowerCase() + "s" : "objects";
         statusLabel.setText(this.ndfObjects.size() + " " + objectTypeName + " found");
-        DefaultListModel<ObjectValue> newModel = new DefaultListModel<>();
-        for (ObjectValue object : this.ndfObjects) {
-            newModel.addElement(object);
-        }
-
-        // Replace the entire model at once - this is much more efficient
-        objectList.setModel(newModel);
-        listModel = newModel;
+        objectList.setModel(listModel);
 
         // Select the first object if available and ensure tree is fully populated
         if (!this.ndfObjects.isEmpty()) {
@@ -243,7 +264,7 @@ public class UnitBrowser extends JPanel {
 
 
     public void setUnitDescriptorsWithPreprocessedData(List<ObjectValue> ndfObjects, NDFFileType fileType,
-                                                      PropertyScanner propertyScanner, DefaultListModel<ObjectValue> listModel) {
+                                                      PropertyScanner propertyScanner, ObjectListModel listModel) {
         // Store the original list and file type
         this.ndfObjects = ndfObjects != null ? ndfObjects : new ArrayList<>();
         this.currentFileType = fileType;
@@ -251,18 +272,18 @@ public class UnitBrowser extends JPanel {
         // Use the pre-processed PropertyScanner
         this.propertyScanner = propertyScanner;
 
-        // Store a separate copy of the original objects
-        this.originalObjects = new ArrayList<>(this.ndfObjects);
-        this.filteredObjects = new ArrayList<>(this.ndfObjects);
+        // Use the pre-built list model - it is already over these objects
+        this.listModel = listModel;
+        cellRenderer.invalidateCache();
+        buildPropertySearchIndex();
 
-        // Update search type options based on file type (after originalObjects is initialized)
+        // Update search type options based on file type
         updateSearchTypeOptions();
         String borderTitle = fileType != NDFFileType.UNKNOWN ? fileType.getDisplayName() + "s" : "Objects";
         setBorder(BorderFactory.createTitledBorder(borderTitle));
 
-        // Use the pre-processed list model - this is the key optimization!
+        listModel.showAll();
         objectList.setModel(listModel);
-        this.listModel = listModel;
 
         // Select the first object if available and ensure tree is fully populated
         if (!this.ndfObjects.isEmpty()) {
@@ -310,7 +331,13 @@ public class UnitBrowser extends JPanel {
 
 
     public void setModificationTracker(ModificationTracker tracker) {
+        if (modificationTracker != null) {
+            modificationTracker.removeListener(searchIndexUpdater);
+        }
         this.modificationTracker = tracker;
+        if (tracker != null) {
+            tracker.addListener(searchIndexUpdater);
+        }
         cellRenderer.setModificationTracker(tracker);
         objectList.repaint();
     }
@@ -398,24 +425,31 @@ public class UnitBrowser extends JPanel {
         searchField.setEnabled(false);
 
         // Use SwingWorker to perform the search in a background thread
-        currentSearchWorker = new SwingWorker<List<ObjectValue>, Void>() {
+        final ObjectListModel model = listModel;
+        currentSearchWorker = new SwingWorker<int[], Void>() {
             @Override
-            protected List<ObjectValue> doInBackground() throws Exception {
-                List<ObjectValue> results = new ArrayList<>();
+            protected int[] doInBackground() throws Exception {
+                return MetricsRegistry.getInstance().timer("filter.search").time(this::searchUnits);
+            }
+
+            private int[] searchUnits() {
+                List<ObjectValue> objects = model.getObjects();
+                IntStream.Builder results = IntStream.builder();
 
                 // For very short search terms (1-2 characters), only search by name to avoid performance issues
                 if (searchText.length() <= 2) {
-                    for (ObjectValue unit : ndfObjects) {
-                        String unitName = unit.getInstanceName().toLowerCase();
+                    for (int i = 0; i < objects.size(); i++) {
+                        String unitName = objects.get(i).getInstanceName().toLowerCase();
                         if (unitName.contains(searchText.toLowerCase())) {
-                            results.add(unit);
+                            results.add(i);
                         }
                     }
-                    return results;
+                    return results.build().toArray();
                 }
 
                 // For longer search terms or custom search, do the full search
-                for (ObjectValue unit : ndfObjects) {
+                for (int i = 0; i < objects.size(); i++) {
+                    ObjectValue unit = objects.get(i);
                     boolean matches = false;
 
                     try {
@@ -458,33 +492,23 @@ public class UnitBrowser extends JPanel {
                     }
 
                     if (matches) {
-                        results.add(unit);
+                        results.add(i);
                     }
                 }
 
-                return results;
+                return results.build().toArray();
             }
 
             @Override
             protected void done() {
                 try {
-                    List<ObjectValue> results = get();
-                    filteredObjects = results;
-                    DefaultListModel<ObjectValue> newModel = new DefaultListModel<>();
-                    for (ObjectValue unit : filteredObjects) {
-                        newModel.addElement(unit);
+                    int[] results = get();
+                    if (model != listModel) {
+                        return; // a different file was loaded meanwhile
                     }
-
-                    // Replace the entire model at once - this is much more efficient
-                    objectList.setModel(newModel);
-                    listModel = newModel;
+                    showView(results);
                     String objectTypeName = getObjectTypeNameForDisplay(currentFileType);
-                    statusLabel.setText(filteredObjects.size() + " " + objectTypeName + " found");
-
-                    // Select the first object if available
-                    if (!filteredObjects.isEmpty()) {
-                        objectList.setSelectedIndex(0);
-                    }
+                    statusLabel.setText(results.length + " " + objectTypeName + " found");
                 } catch (InterruptedException | ExecutionException e) {
                     statusLabel.setText("Error searching: " + e.getMessage());
                 } finally {
@@ -520,22 +544,9 @@ public class UnitBrowser extends JPanel {
 
 
     private void resetToAllUnits() {
-        DefaultListModel<ObjectValue> newModel = new DefaultListModel<>();
-        for (ObjectValue unit : originalObjects) {
-            newModel.addElement(unit);
-        }
-
-        // Replace the entire model at once - this is much more efficient
-        objectList.setModel(newModel);
-        listModel = newModel;
-        filteredObjects = new ArrayList<>(originalObjects);
+        showView(null);
         String objectTypeName = getObjectTypeNameForDisplay(currentFileType);
-        statusLabel.setText(filteredObjects.size() + " " + objectTypeName + " found");
-
-        // Select the first object if available
-        if (!filteredObjects.isEmpty()) {
-            objectList.setSelectedIndex(0);
-        }
+        statusLabel.setText(listModel.getSize() + " " + objectTypeName + " found");
 
         // Make sure the search field has focus
         searchField.requestFocusInWindow();
@@ -559,47 +570,31 @@ public class UnitBrowser extends JPanel {
         statusLabel.setText("Searching properties...");
 
         // Use SwingWorker to perform the search in a background thread
-        currentSearchWorker = new SwingWorker<List<ObjectValue>, Void>() {
+        final ObjectListModel model = listModel;
+        final CompletableFuture<PropertySearchIndex> searchIndex = propertySearchIndex;
+        currentSearchWorker = new SwingWorker<int[], Void>() {
             @Override
-            protected List<ObjectValue> doInBackground() throws Exception {
-                List<ObjectValue> results = new ArrayList<>();
-
-                for (ObjectValue unit : ndfObjects) {
-                    try {
-                        // Check if unit has any property containing the search text
-                        if (hasPropertyContaining(unit, searchText)) {
-                            results.add(unit);
-                        }
-                    } catch (Exception e) {
-                        // Skip units that cause errors
-                        continue;
-                    }
-                }
+            protected int[] doInBackground() throws Exception {
+                return MetricsRegistry.getInstance().timer("filter.property").time(this::searchProperties);
+            }
 
-                return results;
+            private int[] searchProperties() throws Exception {
+                // Waits for the index if the file has only just loaded
+                return searchIndex.get().findPositionsWithPropertyContaining(searchText);
             }
 
             @Override
             protected void done() {
                 try {
-                    List<ObjectValue> results = get();
-                    filteredObjects = results;
-                    DefaultListModel<ObjectValue> newModel = new DefaultListModel<>();
-                    for (ObjectValue unit : filteredObjects) {
-                        newModel.addElement(unit);
+                    int[] results = get();
+                    if (model != listModel) {
+                        return; // a different file was loaded meanwhile
                     }
-
-                    objectList.setModel(newModel);
-                    listModel = newModel;
+                    showView(results);
                     String objectTypeName = getObjectTypeNameForDisplay(currentFileType);
                     // Truncate long property names to prevent UI overlap
                     String displayText = searchText.length() > 15 ? searchText.substring(0, 15) + "..." : searchText;
-                    statusLabel.setText(filteredObjects.size() + " " + objectTypeName + " contain '" + displayText + "'");
-
-                    // Select the first object if available
-                    if (!filteredObjects.isEmpty()) {
-                        objectList.setSelectedIndex(0);
-                    }
+                    statusLabel.setText(results.length + " " + objectTypeName + " contain '" + displayText + "'");
                 } catch (InterruptedException | ExecutionException e) {
                     statusLabel.setText("Error searching: " + e.getMessage());
                 }
@@ -609,6 +604,26 @@ public class UnitBrowser extends JPanel {
         currentSearchWorker.execute();
     }
 
+    private void buildPropertySearchIndex() {
+        // Searches still holding the previous index must not answer from it
+        invalidatePropertySearchIndex();
+
+        List<ObjectValue> objects = listModel.getObjects();
+        propertySearchIndex = CompletableFuture.supplyAsync(() -> {
+            long startTime = System.currentTimeMillis();
+            PropertySearchIndex index = new PropertySearchIndex(objects);
+            System.out.println("Indexed properties of " + objects.size() + " objects in " +
+                (System.currentTimeMillis() - startTime) + "ms");
+            return index;
+        }, INDEX_EXECUTOR);
+    }
+
+    private void invalidatePropertySearchIndex() {
+        if (propertySearchIndex != null) {
+            propertySearchIndex.thenAccept(PropertySearchIndex::invalidate);
+        }
+    }
+
     private void filterByHasPropertyCurrent(String searchText) {
         if (searchText.isEmpty()) {
             // Clear the tree filter
@@ -711,38 +726,38 @@ public class UnitBrowser extends JPanel {
 
         statusLabel.setText(searchingMessage);
 
-        currentSearchWorker = new SwingWorker<List<ObjectValue>, Void>() {
+        final ObjectListModel model = listModel;
+        currentSearchWorker = new SwingWorker<int[], Void>() {
             @Override
-            protected List<ObjectValue> doInBackground() throws Exception {
-                List<ObjectValue> results = new ArrayList<>();
-                for (ObjectValue unit : ndfObjects) {
+            protected int[] doInBackground() throws Exception {
+                return MetricsRegistry.getInstance().timer("filter.tags").time(this::filterByTags);
+            }
+
+            private int[] filterByTags() {
+                List<ObjectValue> objects = model.getObjects();
+                IntStream.Builder results = IntStream.builder();
+                for (int i = 0; i < objects.size(); i++) {
                     try {
-                        if (matcher.test(unit)) {
-                            results.add(unit);
+                        if (matcher.test(objects.get(i))) {
+                            results.add(i);
                         }
                     } catch (Exception e) {
                         // Skip units that cause errors
                     }
                 }
-                return results;
+                return results.build().toArray();
             }
 
             @Override
             protected void done() {
                 try {
-                    List<ObjectValue> results = get();
-                    filteredObjects = results;
-                    DefaultListModel<ObjectValue> newModel = new DefaultListModel<>();
-                    for (ObjectValue unit : filteredObjects) {
-                        newModel.addElement(unit);
+                    int[] results = get();
+                    if (model != listModel) {
+                        return; // a different file was loaded meanwhile
                     }
-                    objectList.setModel(newModel);
-                    listModel = newModel;
+                    showView(results);
                     String objectTypeName = getObjectTypeNameForDisplay(currentFileType);
-                    statusLabel.setText(filteredObjects.size() + " " + objectTypeName + " " + resultMessage);
-                    if (!filteredObjects.isEmpty()) {
-                        objectList.setSelectedIndex(0);
-                    }
+                    statusLabel.setText(results.length + " " + objectTypeName + " " + resultMessage);
                 } catch (InterruptedException | ExecutionException e) {
                     statusLabel.setText(errorMessage + e.getMessage());
                 } finally {
@@ -822,6 +837,34 @@ public class UnitBrowser extends JPanel {
         return "objects";
     }
 
+    /**
+     * Swap the list to a view of the objects (null for all of them). The selected object stays
+     * selected if it is still shown, without notifying listeners; otherwise the first row is selected.
+     */
+    private void showView(int[] positions) {
+        ObjectValue selected = objectList.getSelectedValue();
+        if (positions != null) {
+            listModel.setView(positions);
+        } else {
+            listModel.showAll();
+        }
+
+        int row = listModel.indexOf(selected);
+        if (row >= 0) {
+            restoringSelection = true;
+            try {
+                objectList.setSelectedIndex(row);
+            } finally {
+                restoringSelection = false;
+            }
+            objectList.ensureIndexIsVisible(row);
+        } else if (listModel.getSize() > 0) {
+            objectList.setSelectedIndex(0);
+        } else {
+            objectList.clearSelection();
+        }
+    }
+
     /**
      * Dispose of resources to prevent memory leaks when the browser is no longer needed.
      * This should be called when the parent tab is closed.
@@ -845,20 +888,17 @@ public class UnitBrowser extends JPanel {
         if (ndfObjects != null) {
             ndfObjects = null;
         }
-        if (filteredObjects != null) {
-            filteredObjects = null;
-        }
-        if (originalObjects != null) {
-            originalObjects = null;
-        }
 
-        // Clear the list model
-        if (listModel != null) {
-            listModel.clear();
-        }
+        // Drop the list model and the objects it holds
+        listModel = new ObjectListModel(new ArrayList<>());
+        objectList.setModel(listModel);
 
         // Clear modification tracker reference
+        if (modificationTracker != null) {
+            modificationTracker.removeListener(searchIndexUpdater);
+        }
         modificationTracker = null;
+        propertySearchIndex = null;
         if (cellRenderer != null) {
             cellRenderer.setModificationTracker(null);
         }
@@ -11,12 +11,14 @@ import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +46,7 @@ public class UnitEditor extends JPanel {
     private TreePath currentSelectedPath;
     private boolean suppressSelectionEvents = false;
     private String propertyFilter;
+    private PropertyTreeFilterIndex propertyTreeFilterIndex;
     private EnhancedTreeCellRenderer treeCellRenderer;
 
 
@@ -128,9 +131,11 @@ public class UnitEditor extends JPanel {
         this.ndfObject = ndfObject;
         this.modificationTracker = modificationTracker;
         this.fileType = fileType;
+        treeCellRenderer.setModificationTracker(modificationTracker);
 
         // Clear any stale state when setting a new object
         clearEditorState();
+        propertyTreeFilterIndex = null;
 
         updatePropertyTree();
         clearEditor();
@@ -194,6 +199,7 @@ public class UnitEditor extends JPanel {
         String savedPath = selectedPath;
         TreePath savedTreePath = currentSelectedPath;
         Set<String> expandedPaths = getExpandedPaths();
+        propertyTreeFilterIndex = null; // the values may have changed shape
         updatePropertyTree();
 
         // Restore expanded paths
@@ -295,6 +301,11 @@ public class UnitEditor extends JPanel {
             return currentPath;
         }
 
+        // Only descend towards the target, so branches the user never opened stay unbuilt
+        if (!currentPathString.isEmpty() && !isAncestorPath(currentPathString, targetPath)) {
+            return null;
+        }
+
         // Search children
         for (int i = 0; i < node.getChildCount(); i++) {
             DefaultMutableTreeNode child = (DefaultMutableTreeNode) node.getChildAt(i);
@@ -310,22 +321,37 @@ public class UnitEditor extends JPanel {
     }
 
 
+    private boolean isAncestorPath(String ancestorPath, String path) {
+        if (path.length() <= ancestorPath.length() || !path.startsWith(ancestorPath)) {
+            return false;
+        }
+        char next = path.charAt(ancestorPath.length());
+        return next == '.' || next == '[';
+    }
+
+
     private void updatePropertyTree() {
         rootNode.removeAllChildren();
+        treeCellRenderer.invalidateCache();
 
         if (ndfObject != null) {
             DefaultMutableTreeNode typeNode = new DefaultMutableTreeNode(
                 new EnhancedTreeCellRenderer.PropertyNode("Type", NDFValue.createString(ndfObject.getTypeName()))
             );
             rootNode.add(typeNode);
-            for (Map.Entry<String, NDFValue> entry : ndfObject.getProperties().entrySet()) {
-                String propertyName = entry.getKey();
-                NDFValue propertyValue = entry.getValue();
 
-                DefaultMutableTreeNode propertyNode = createPropertyNode(propertyName, propertyValue, "");
-                if (propertyNode != null) {
-                    rootNode.add(propertyNode);
-                }
+            PropertyTreeFilterIndex index = null;
+            boolean[] visible = null;
+            if (propertyFilter != null && !propertyFilter.isEmpty()) {
+                index = getPropertyTreeFilterIndex();
+                visible = index.visibleFor(propertyFilter);
+            }
+
+            // Only the top-level properties are built here; deeper nodes are built when expanded
+            int position = index != null ? index.firstChild(-1) : -1;
+            for (Map.Entry<String, NDFValue> entry : ndfObject.getProperties().entrySet()) {
+                addPropertyNode(rootNode, entry.getKey(), entry.getValue(), "", position, index, visible);
+                position = index != null ? index.nextSibling(position) : -1;
             }
         }
 
@@ -336,82 +362,97 @@ public class UnitEditor extends JPanel {
     }
 
 
-    private DefaultMutableTreeNode createPropertyNode(String propertyName, NDFValue propertyValue, String currentPath) {
-        String fullPath = currentPath.isEmpty() ? propertyName : currentPath + "." + propertyName;
+    private PropertyTreeFilterIndex getPropertyTreeFilterIndex() {
+        if (propertyTreeFilterIndex == null || propertyTreeFilterIndex.getRoot() != ndfObject) {
+            propertyTreeFilterIndex = new PropertyTreeFilterIndex(ndfObject);
+        }
+        return propertyTreeFilterIndex;
+    }
 
-        // If we have a filter, check if this property or any of its children match
-        if (propertyFilter != null && !propertyFilter.isEmpty()) {
-            if (!propertyMatchesFilter(propertyName, propertyValue, fullPath)) {
-                return null; // Skip this property if it doesn't match the filter
-            }
+
+    /**
+     * Add the node for one property, unless the filter hides it. Its children are not built until
+     * the tree asks for them.
+     */
+    private void addPropertyNode(DefaultMutableTreeNode parent, String propertyName, NDFValue propertyValue,
+                                 String currentPath, int position, PropertyTreeFilterIndex index, boolean[] visible) {
+        if (visible != null && (position < 0 || !visible[position])) {
+            return; // Skip this property if neither it nor any of its children match the filter
         }
 
+        String fullPath = currentPath.isEmpty() ? propertyName : currentPath + "." + propertyName;
+
         // Create enhanced display name for better usability
         String displayName = createEnhancedDisplayName(propertyName, propertyValue, currentPath);
         EnhancedTreeCellRenderer.PropertyNode node = new EnhancedTreeCellRenderer.PropertyNode(displayName, propertyName, propertyValue);
 
-        // Check if this property has been modified
-        if (modificationTracker != null && ndfObject != null) {
-            String unitName = ndfObject.getInstanceName();
-            if (unitName != null) {
-                // Check both the full path and without the "Type." prefix for compatibility
-                boolean isModified = modificationTracker.hasModificationForProperty(unitName, fullPath);
-                if (!isModified && fullPath.startsWith("Type.")) {
-                    // Also check without the "Type." prefix since that's how modifications are stored
-                    String pathWithoutType = fullPath.substring(5);
-                    isModified = modificationTracker.hasModificationForProperty(unitName, pathWithoutType);
-                }
+        if (isPropertyModified(fullPath)) {
+            node.setModified(true);
+        }
 
-                // Also check if any child property has been modified (hierarchical highlighting)
-                if (!isModified) {
-                    isModified = modificationTracker.hasModificationForPropertyOrChildren(unitName, fullPath);
-                    if (!isModified && fullPath.startsWith("Type.")) {
-                        String pathWithoutType = fullPath.substring(5);
-                        isModified = modificationTracker.hasModificationForPropertyOrChildren(unitName, pathWithoutType);
-                    }
-                }
+        parent.add(new LazyPropertyNode(node, fullPath, position, index, visible));
+    }
 
-                if (isModified) {
-                    node.setModified(true);
-                }
+
+    private boolean isPropertyModified(String fullPath) {
+        if (modificationTracker == null || ndfObject == null) {
+            return false;
+        }
+        String unitName = ndfObject.getInstanceName();
+        if (unitName == null) {
+            return false;
+        }
+
+        // Check both the full path and without the "Type." prefix for compatibility
+        boolean isModified = modificationTracker.hasModificationForProperty(unitName, fullPath);
+        if (!isModified && fullPath.startsWith("Type.")) {
+            // Also check without the "Type." prefix since that's how modifications are stored
+            String pathWithoutType = fullPath.substring(5);
+            isModified = modificationTracker.hasModificationForProperty(unitName, pathWithoutType);
+        }
+
+        // Also check if any child property has been modified (hierarchical highlighting)
+        if (!isModified) {
+            isModified = modificationTracker.hasModificationForPropertyOrChildren(unitName, fullPath);
+            if (!isModified && fullPath.startsWith("Type.")) {
+                String pathWithoutType = fullPath.substring(5);
+                isModified = modificationTracker.hasModificationForPropertyOrChildren(unitName, pathWithoutType);
             }
         }
 
-        DefaultMutableTreeNode treeNode = new DefaultMutableTreeNode(node);
+        return isModified;
+    }
+
+
+    private void addChildNodes(LazyPropertyNode treeNode) {
+        EnhancedTreeCellRenderer.PropertyNode node = (EnhancedTreeCellRenderer.PropertyNode) treeNode.getUserObject();
+        NDFValue propertyValue = node.getValue();
+        String fullPath = treeNode.fullPath;
+        PropertyTreeFilterIndex index = treeNode.index;
+        boolean[] visible = treeNode.visible;
+
+        // The index lists every child in this order, so positions advance alongside
+        int position = index != null ? index.firstChild(treeNode.position) : -1;
 
         switch (propertyValue.getType()) {
             case OBJECT:
                 ObjectValue objectValue = (ObjectValue) propertyValue;
 
                 for (Map.Entry<String, NDFValue> entry : objectValue.getProperties().entrySet()) {
-                    String childName = entry.getKey();
-                    NDFValue childValue = entry.getValue();
-
-                    DefaultMutableTreeNode childNode = createPropertyNode(childName, childValue, fullPath);
-                    if (childNode != null) {
-                        treeNode.add(childNode);
-                    }
+                    addPropertyNode(treeNode, entry.getKey(), entry.getValue(), fullPath, position, index, visible);
+                    position = index != null ? index.nextSibling(position) : -1;
                 }
                 break;
 
             case ARRAY:
                 ArrayValue arrayValue = (ArrayValue) propertyValue;
 
-                // Determine if this array should be treated as a single property or expanded
-                if (shouldExpandArray(arrayValue, propertyName)) {
-                    // Expand complex arrays (arrays of objects, etc.)
+                // Simple arrays (like TraitsToken, BaseHitValueModifiers) stay single properties, editable as a whole
+                if (shouldExpandArray(arrayValue, node.getOriginalPropertyName())) {
                     for (int i = 0; i < arrayValue.getElements().size(); i++) {
-                        NDFValue element = arrayValue.getElements().get(i);
-                        String childName = "[" + i + "]";
-
-                        DefaultMutableTreeNode childNode = createPropertyNode(childName, element, fullPath);
-                        if (childNode != null) {
-                            treeNode.add(childNode);
-                        }
+                        addPropertyNode(treeNode, "[" + i + "]", arrayValue.getElements().get(i), fullPath, position, index, visible);
+                        position = index != null ? index.nextSibling(position) : -1;
                     }
-                } else {
-                    // Treat simple arrays as single properties (like TraitsToken, BaseHitValueModifiers)
-                    // No child nodes - the array will be editable as a whole
                 }
                 break;
 
@@ -420,12 +461,8 @@ public class UnitEditor extends JPanel {
 
                 for (int i = 0; i < mapValue.getEntries().size(); i++) {
                     Map.Entry<NDFValue, NDFValue> entry = mapValue.getEntries().get(i);
-                    String childName = "(" + entry.getKey() + ")";
-
-                    DefaultMutableTreeNode childNode = createPropertyNode(childName, entry.getValue(), fullPath);
-                    if (childNode != null) {
-                        treeNode.add(childNode);
-                    }
+                    addPropertyNode(treeNode, "(" + entry.getKey() + ")", entry.getValue(), fullPath, position, index, visible);
+                    position = index != null ? index.nextSibling(position) : -1;
                 }
                 break;
 
@@ -433,18 +470,84 @@ public class UnitEditor extends JPanel {
                 TupleValue tupleValue = (TupleValue) propertyValue;
 
                 for (int i = 0; i < tupleValue.getElements().size(); i++) {
-                    NDFValue element = tupleValue.getElements().get(i);
-                    String childName = "[" + i + "]";
-
-                    DefaultMutableTreeNode childNode = createPropertyNode(childName, element, fullPath);
-                    if (childNode != null) {
-                        treeNode.add(childNode);
-                    }
+                    addPropertyNode(treeNode, "[" + i + "]", tupleValue.getElements().get(i), fullPath, position, index, visible);
+                    position = index != null ? index.nextSibling(position) : -1;
                 }
                 break;
         }
+    }
+
 
-        return treeNode;
+    private boolean hasChildNodes(String propertyName, NDFValue propertyValue) {
+        switch (propertyValue.getType()) {
+            case OBJECT:
+                return !((ObjectValue) propertyValue).getProperties().isEmpty();
+            case ARRAY:
+                return shouldExpandArray((ArrayValue) propertyValue, propertyName);
+            case MAP:
+                return !((MapValue) propertyValue).getEntries().isEmpty();
+            case TUPLE:
+                return !((TupleValue) propertyValue).getElements().isEmpty();
+            default:
+                return false;
+        }
+    }
+
+
+    /**
+     * Tree node whose children are built from the NDF value the first time the tree asks for them,
+     * so selecting a unit only builds its top-level properties.
+     */
+    private class LazyPropertyNode extends DefaultMutableTreeNode {
+        private final String fullPath;
+        private final int position;
+        private final PropertyTreeFilterIndex index;
+        private final boolean[] visible;
+        private boolean childrenLoaded;
+
+        LazyPropertyNode(EnhancedTreeCellRenderer.PropertyNode node, String fullPath, int position,
+                         PropertyTreeFilterIndex index, boolean[] visible) {
+            super(node);
+            this.fullPath = fullPath;
+            this.position = position;
+            this.index = index;
+            this.visible = visible;
+        }
+
+        private void loadChildren() {
+            if (!childrenLoaded) {
+                childrenLoaded = true;
+                addChildNodes(this);
+            }
+        }
+
+        @Override
+        public boolean isLeaf() {
+            if (childrenLoaded) {
+                return super.isLeaf();
+            }
+            // A filtered node that is shown always has a shown child, so the unfiltered answer holds
+            EnhancedTreeCellRenderer.PropertyNode node = (EnhancedTreeCellRenderer.PropertyNode) getUserObject();
+            return !hasChildNodes(node.getOriginalPropertyName(), node.getValue());
+        }
+
+        @Override
+        public int getChildCount() {
+            loadChildren();
+            return super.getChildCount();
+        }
+
+        @Override
+        public TreeNode getChildAt(int childIndex) {
+            loadChildren();
+            return super.getChildAt(childIndex);
+        }
+
+        @Override
+        public Enumeration<TreeNode> children() {
+            loadChildren();
+            return super.children();
+        }
     }
 
     /**
@@ -567,74 +670,6 @@ public class UnitEditor extends JPanel {
         return templateRef;
     }
 
-    private boolean propertyMatchesFilter(String propertyName, NDFValue propertyValue, String fullPath) {
-        String filter = propertyFilter.toLowerCase();
-
-        // Check if the property name contains the filter text
-        if (propertyName.toLowerCase().contains(filter)) {
-            return true;
-        }
-
-        // Check if the full path contains the filter text
-        if (fullPath.toLowerCase().contains(filter)) {
-            return true;
-        }
-
-        // Recursively check children to see if any match
-        return hasChildMatchingFilter(propertyValue, fullPath, filter);
-    }
-
-    private boolean hasChildMatchingFilter(NDFValue value, String currentPath, String filter) {
-        switch (value.getType()) {
-            case OBJECT:
-                ObjectValue objectValue = (ObjectValue) value;
-                for (Map.Entry<String, NDFValue> entry : objectValue.getProperties().entrySet()) {
-                    String childName = entry.getKey();
-                    String childPath = currentPath + "." + childName;
-
-                    if (childName.toLowerCase().contains(filter) ||
-                        childPath.toLowerCase().contains(filter) ||
-                        hasChildMatchingFilter(entry.getValue(), childPath, filter)) {
-                        return true;
-                    }
-                }
-                break;
-
-            case ARRAY:
-                ArrayValue arrayValue = (ArrayValue) value;
-                for (int i = 0; i < arrayValue.getElements().size(); i++) {
-                    String childPath = currentPath + "[" + i + "]";
-                    if (hasChildMatchingFilter(arrayValue.getElements().get(i), childPath, filter)) {
-                        return true;
-                    }
-                }
-                break;
-
-            case MAP:
-                MapValue mapValue = (MapValue) value;
-                for (int i = 0; i < mapValue.getEntries().size(); i++) {
-                    Map.Entry<NDFValue, NDFValue> entry = mapValue.getEntries().get(i);
-                    String childPath = currentPath + "(" + entry.getKey() + ")";
-                    if (hasChildMatchingFilter(entry.getValue(), childPath, filter)) {
-                        return true;
-                    }
-                }
-                break;
-
-            case TUPLE:
-                TupleValue tupleValue = (TupleValue) value;
-                for (int i = 0; i < tupleValue.getElements().size(); i++) {
-                    String childPath = currentPath + "[" + i + "]";
-                    if (hasChildMatchingFilter(tupleValue.getElements().get(i), childPath, filter)) {
-                        return true;
-                    }
-                }
-                break;
-        }
-
-        return false;
-    }
-
 
     private void handlePropertySelection(TreePath path) {
         // Skip if we're suppressing selection events (during refresh)
@@ -1204,6 +1239,8 @@ public class UnitEditor extends JPanel {
         // Clear data references
         ndfObject = null;
         modificationTracker = null;
+        propertyTreeFilterIndex = null;
+        treeCellRenderer.setModificationTracker(null);
 
         // Clear the tree model
         if (propertyTree != null) {
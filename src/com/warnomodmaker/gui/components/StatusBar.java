@@ -1,11 +1,15 @@
 package com.warnomodmaker.gui.components;
 
+import com.warnomodmaker.gui.MetricsDialog;
 import com.warnomodmaker.gui.theme.WarnoTheme;
 import com.warnomodmaker.model.FileTabState;
+import com.warnomodmaker.util.MetricsRegistry;
 
 import javax.swing.*;
 import javax.swing.border.BevelBorder;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.text.DecimalFormat;
 
 public class StatusBar extends JPanel {
@@ -14,6 +18,8 @@ public class StatusBar extends JPanel {
     private JLabel objectCountLabel;
     private JLabel modificationCountLabel;
     private JLabel memoryLabel;
+    private JLabel metricsLabel;
+    private MetricsDialog metricsDialog;
     private JProgressBar operationProgress;
     private JLabel operationLabel;
 
@@ -48,6 +54,19 @@ public class StatusBar extends JPanel {
         memoryLabel.setForeground(Color.LIGHT_GRAY);
         memoryLabel.setFont(memoryLabel.getFont().deriveFont(Font.PLAIN, 11f));
 
+        // Latest operation timing; click for all metrics
+        metricsLabel = new JLabel("No timings yet");
+        metricsLabel.setForeground(Color.LIGHT_GRAY);
+        metricsLabel.setFont(metricsLabel.getFont().deriveFont(Font.PLAIN, 11f));
+        metricsLabel.setToolTipText("Click to show performance metrics");
+        metricsLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        metricsLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                showMetricsDialog();
+            }
+        });
+
         // Operation progress
         operationProgress = new JProgressBar();
         operationProgress.setVisible(false);
@@ -81,6 +100,8 @@ public class StatusBar extends JPanel {
         // Right panel with memory info
         JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 2));
         rightPanel.setOpaque(false);
+        rightPanel.add(metricsLabel);
+        rightPanel.add(createSeparator());
         rightPanel.add(memoryLabel);
 
         add(leftPanel, BorderLayout.WEST);
@@ -95,7 +116,10 @@ public class StatusBar extends JPanel {
     }
 
     private void startMemoryMonitoring() {
-        memoryUpdateTimer = new Timer(2000, e -> updateMemoryInfo());
+        memoryUpdateTimer = new Timer(2000, e -> {
+            updateMemoryInfo();
+            updateMetricsInfo();
+        });
         memoryUpdateTimer.start();
     }
 
@@ -125,6 +149,23 @@ public class StatusBar extends JPanel {
         }
     }
 
+    private void updateMetricsInfo() {
+        MetricsRegistry.Timer lastTimer = MetricsRegistry.getInstance().getLastStopped();
+        if (lastTimer != null) {
+            metricsLabel.setText(String.format("%s: %d ms", lastTimer.getName(), lastTimer.getLastNanos() / 1_000_000));
+        } else {
+            metricsLabel.setText("No timings yet");
+        }
+    }
+
+    private void showMetricsDialog() {
+        if (metricsDialog == null || !metricsDialog.isDisplayable()) {
+            metricsDialog = new MetricsDialog(SwingUtilities.getWindowAncestor(this), MetricsRegistry.getInstance());
+        }
+        metricsDialog.setVisible(true);
+        metricsDialog.toFront();
+    }
+
     public void updateFileInfo(FileTabState tabState) {
         if (tabState == null || !tabState.hasData()) {
             fileInfoLabel.setText("No file loaded");
@@ -212,5 +253,8 @@ public class StatusBar extends JPanel {
         if (memoryUpdateTimer != null) {
             memoryUpdateTimer.stop();
         }
+        if (metricsDialog != null) {
+            metricsDialog.dispose();
+        }
     }
 }
@@ -15,6 +15,7 @@ public class EnhancedListCellRenderer extends DefaultListCellRenderer {
 
     private ModificationTracker modificationTracker;
     private String highlightText;
+    private final RenderDataCache<ObjectValue> renderCache = new RenderDataCache<>();
 
     public EnhancedListCellRenderer() {
         this(null);
@@ -23,6 +24,7 @@ public class EnhancedListCellRenderer extends DefaultListCellRenderer {
     public EnhancedListCellRenderer(ModificationTracker modificationTracker) {
         this.modificationTracker = modificationTracker;
         this.highlightText = null;
+        renderCache.setModificationTracker(modificationTracker);
         setOpaque(true);
     }
 
@@ -35,7 +37,13 @@ public class EnhancedListCellRenderer extends DefaultListCellRenderer {
 
         if (value instanceof ObjectValue) {
             ObjectValue unit = (ObjectValue) value;
-            formatObjectCell(unit, isSelected);
+            // Formatting checks the tracker for modifications, so reuse it until something changes
+            String text = renderCache.get(unit, isSelected);
+            if (text == null) {
+                text = formatObjectCell(unit, isSelected);
+                renderCache.put(unit, isSelected, text);
+            }
+            setText(text);
         }
 
         // Apply theme colors
@@ -53,7 +61,7 @@ public class EnhancedListCellRenderer extends DefaultListCellRenderer {
         return this;
     }
 
-    private void formatObjectCell(ObjectValue unit, boolean isSelected) {
+    private String formatObjectCell(ObjectValue unit, boolean isSelected) {
         String name = unit.getInstanceName();
         String typeName = unit.getTypeName();
         int propertyCount = unit.getProperties().size();
@@ -89,7 +97,7 @@ public class EnhancedListCellRenderer extends DefaultListCellRenderer {
         html.append("</div>");
 
         html.append("</html>");
-        setText(html.toString());
+        return html.toString();
     }
 
     private boolean isObjectModified(ObjectValue unit) {
@@ -173,9 +181,20 @@ public class EnhancedListCellRenderer extends DefaultListCellRenderer {
 
     public void setModificationTracker(ModificationTracker tracker) {
         this.modificationTracker = tracker;
+        renderCache.setModificationTracker(tracker);
     }
 
     public void setHighlightText(String text) {
+        if (!java.util.Objects.equals(this.highlightText, text)) {
+            renderCache.invalidate();
+        }
         this.highlightText = text;
     }
+
+    /**
+     * Forget rendered cells, e.g. when the objects were reloaded
+     */
+    public void invalidateCache() {
+        renderCache.invalidate();
+    }
 }
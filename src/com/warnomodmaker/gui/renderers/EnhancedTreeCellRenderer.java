@@ -1,6 +1,7 @@
 package com.warnomodmaker.gui.renderers;
 
 import com.warnomodmaker.gui.theme.WarnoTheme;
+import com.warnomodmaker.model.ModificationTracker;
 import com.warnomodmaker.model.NDFValue;
 
 import javax.swing.*;
@@ -26,6 +27,7 @@ public class EnhancedTreeCellRenderer extends DefaultTreeCellRenderer {
     private static final String ICON_TUPLE = "[T]";
 
     private boolean showModificationIndicators = true;
+    private final RenderDataCache<PropertyNode> renderCache = new RenderDataCache<>();
 
     public EnhancedTreeCellRenderer() {
         setLeafIcon(null);
@@ -46,7 +48,13 @@ public class EnhancedTreeCellRenderer extends DefaultTreeCellRenderer {
 
             if (userObject instanceof PropertyNode) {
                 PropertyNode propertyNode = (PropertyNode) userObject;
-                formatPropertyNode(propertyNode, selected, tree);
+                String text = renderCache.get(propertyNode, selected);
+                if (text == null) {
+                    text = formatPropertyNode(propertyNode, selected);
+                    renderCache.put(propertyNode, selected, text);
+                }
+                setText(text);
+                setIcon(null);
             } else {
                 // Root or other nodes
                 setText(userObject.toString());
@@ -68,7 +76,7 @@ public class EnhancedTreeCellRenderer extends DefaultTreeCellRenderer {
         return this;
     }
 
-    private void formatPropertyNode(PropertyNode propertyNode, boolean selected, JTree tree) {
+    private String formatPropertyNode(PropertyNode propertyNode, boolean selected) {
         String propertyName = propertyNode.getName();
         NDFValue propertyValue = propertyNode.getValue();
 
@@ -90,8 +98,7 @@ public class EnhancedTreeCellRenderer extends DefaultTreeCellRenderer {
         }
 
         html.append("</html>");
-        setText(html.toString());
-        setIcon(null);
+        return html.toString();
     }
 
     private String getTypeIcon(NDFValue value) {
@@ -226,6 +233,18 @@ public class EnhancedTreeCellRenderer extends DefaultTreeCellRenderer {
 
     public void setShowModificationIndicators(boolean show) {
         this.showModificationIndicators = show;
+        renderCache.invalidate();
+    }
+
+    public void setModificationTracker(ModificationTracker tracker) {
+        renderCache.setModificationTracker(tracker);
+    }
+
+    /**
+     * Forget rendered nodes, e.g. when the tree was rebuilt
+     */
+    public void invalidateCache() {
+        renderCache.invalidate();
     }
 
     // Inner class to represent property nodes with modification tracking
@@ -0,0 +1,74 @@
+package com.warnomodmaker.gui.renderers;
+
+import com.warnomodmaker.model.ModificationRecord;
+import com.warnomodmaker.model.ModificationTracker;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cell text already rendered for an item, selected and unselected, keyed by identity.
+ * Modification status is part of the text, so everything is dropped whenever the tracker
+ * reports a change. Read and written on the EDT; invalidation may come from any thread.
+ */
+public class RenderDataCache<K> implements ModificationTracker.ModificationListener {
+
+    private final Map<K, String[]> entries = new IdentityHashMap<>();
+    private final AtomicInteger generation = new AtomicInteger();
+    private int entriesGeneration;
+    private ModificationTracker modificationTracker;
+
+    public String get(K key, boolean selected) {
+        dropIfStale();
+        String[] texts = entries.get(key);
+        return texts != null ? texts[selected ? 1 : 0] : null;
+    }
+
+    /**
+     * Remember text rendered after a missed get. Skipped if a change was reported in between,
+     * since the text may have been built from data that was already out of date.
+     */
+    public void put(K key, boolean selected, String text) {
+        if (generation.get() != entriesGeneration) {
+            return;
+        }
+        entries.computeIfAbsent(key, k -> new String[2])[selected ? 1 : 0] = text;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public void setModificationTracker(ModificationTracker tracker) {
+        if (modificationTracker == tracker) {
+            return;
+        }
+        if (modificationTracker != null) {
+            modificationTracker.removeListener(this);
+        }
+        modificationTracker = tracker;
+        if (tracker != null) {
+            tracker.addListener(this);
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onModificationAdded(ModificationRecord record) {
+        invalidate();
+    }
+
+    @Override
+    public void onModificationsCleared() {
+        invalidate();
+    }
+
+    private void dropIfStale() {
+        int current = generation.get();
+        if (current != entriesGeneration) {
+            entries.clear();
+            entriesGeneration = current;
+        }
+    }
+}
@@ -15,9 +15,26 @@ public class AdditiveOperationManager {
 
     
     public AdditiveOperationManager() {
-        this.schemaRegistry = new NDFSchemaRegistry();
-        this.templateManager = new NDFTemplateManager();
-        this.guidGenerator = new GUIDGenerator();
+        this(new GUIDAllocator());
+    }
+
+    public AdditiveOperationManager(GUIDAllocator guidAllocator) {
+        this(guidAllocator, new NDFSchemaRegistry(), new NDFTemplateManager());
+    }
+
+    /**
+     * Use schemas and templates that were already learned, e.g. from the workspace knowledge base.
+     * They may be shared, so call registerExistingGuids rather than learnFromExistingObjects.
+     */
+    public AdditiveOperationManager(GUIDAllocator guidAllocator, WorkspaceKnowledgeBase.FileKnowledge knowledge) {
+        this(guidAllocator, knowledge.getSchemaRegistry(), knowledge.getTemplateManager());
+    }
+
+    private AdditiveOperationManager(GUIDAllocator guidAllocator, NDFSchemaRegistry schemaRegistry,
+                                     NDFTemplateManager templateManager) {
+        this.schemaRegistry = schemaRegistry;
+        this.templateManager = templateManager;
+        this.guidGenerator = new GUIDGenerator(guidAllocator);
     }
 
     /**
@@ -33,20 +50,29 @@ public class AdditiveOperationManager {
             schemaRegistry.learnFromObjects(objects);
             templateManager.learnFromObjects(objects);
 
-            // Register existing GUIDs
-            for (NDFValue.ObjectValue obj : objects) {
-                if (obj != null && obj.hasProperty("DescriptorId")) {
-                    NDFValue guidValue = obj.getProperty("DescriptorId");
-                    if (guidValue instanceof NDFValue.GUIDValue) {
-                        guidGenerator.registerExistingGuid(((NDFValue.GUIDValue) guidValue).getGUID());
-                    }
-                }
-            }
+            registerExistingGuids(objects);
         } catch (Exception e) {
             System.err.println("Error learning from existing objects: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    /**
+     * Register the GUIDs of existing objects so new ones never collide with them
+     */
+    public void registerExistingGuids(List<NDFValue.ObjectValue> objects) {
+        if (objects == null) {
+            return;
+        }
+        for (NDFValue.ObjectValue obj : objects) {
+            if (obj != null && obj.hasProperty("DescriptorId")) {
+                NDFValue guidValue = obj.getProperty("DescriptorId");
+                if (guidValue instanceof NDFValue.GUIDValue) {
+                    guidGenerator.registerExistingGuid(((NDFValue.GUIDValue) guidValue).getGUID());
+                }
+            }
+        }
+    }
     
     /**
      * Add a new top-level object to the NDF file
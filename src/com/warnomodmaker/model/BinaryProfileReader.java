@@ -0,0 +1,280 @@
+package com.warnomodmaker.model;
+
+import com.warnomodmaker.model.PropertyUpdater.ModificationType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Reads profiles written by BinaryProfileWriter.
+ * Opening a file loads only the metadata, dictionary and page index; record pages are
+ * read and decoded on demand and a few recently used pages are kept. Safe for concurrent use.
+ */
+public class BinaryProfileReader implements ModificationRecordSource, Closeable {
+
+    private static final int TRAILER_SIZE = 32;
+    private static final int CACHED_PAGES = 16;
+    private static final ModificationType[] MODIFICATION_TYPES = ModificationType.values();
+
+    private final FileChannel channel;
+    private final ModProfile header;
+    private final String[] dictionary;
+    private final long[] pageOffsets;
+    private final long[] pageBaseSeconds;
+    private final long recordsEnd;
+    private final int recordCount;
+
+    private final Map<Integer, List<ModificationRecord>> pageCache =
+        new LinkedHashMap<Integer, List<ModificationRecord>>(CACHED_PAGES * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<ModificationRecord>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+
+    public BinaryProfileReader(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 8 + TRAILER_SIZE) {
+                throw new IOException("Not a binary profile: " + file.getName());
+            }
+            ByteBuffer head = read(0, 8);
+            if (head.getInt() != BinaryProfileWriter.MAGIC) {
+                throw new IOException("Not a binary profile: " + file.getName());
+            }
+            int version = head.getInt();
+            if (version != BinaryProfileWriter.VERSION) {
+                throw new IOException("Unsupported binary profile version " + version + ": " + file.getName());
+            }
+
+            ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+            long metadataOffset = trailer.getLong();
+            long dictionaryOffset = trailer.getLong();
+            long indexOffset = trailer.getLong();
+            recordCount = trailer.getInt();
+            if (trailer.getInt() != BinaryProfileWriter.MAGIC || metadataOffset < 8
+                    || dictionaryOffset < metadataOffset || indexOffset < dictionaryOffset
+                    || indexOffset > size - TRAILER_SIZE) {
+                throw new IOException("Binary profile is truncated or corrupt: " + file.getName());
+            }
+            recordsEnd = metadataOffset;
+
+            ByteBuffer sections = read(metadataOffset, (int) (size - TRAILER_SIZE - metadataOffset));
+            header = new ModProfile();
+            header.setProfileName(readString(sections));
+            header.setDescription(readString(sections));
+            header.setGameVersion(readString(sections));
+            header.setSourceFileName(readString(sections));
+            header.setCreatedBy(readString(sections));
+            header.setCreatedDate(readDateTime(sections));
+            header.setLastModified(readDateTime(sections));
+
+            dictionary = new String[(int) readVarLong(sections)];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(sections);
+            }
+
+            int pageCount = (int) readVarLong(sections);
+            pageOffsets = new long[pageCount];
+            pageBaseSeconds = new long[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                pageOffsets[i] = sections.getLong();
+                pageBaseSeconds[i] = sections.getLong();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Binary profile is corrupt: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check the magic number to tell binary profiles from JSON ones
+     */
+    public static boolean isBinaryProfile(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == BinaryProfileWriter.MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Read a whole binary profile into memory
+     */
+    public static ModProfile read(File file) throws IOException {
+        try (BinaryProfileReader reader = new BinaryProfileReader(file)) {
+            return reader.readProfile();
+        }
+    }
+
+    /**
+     * Profile metadata; the returned profile carries no modifications
+     */
+    public ModProfile getProfile() {
+        return header;
+    }
+
+    @Override
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public List<ModificationRecord> getRecords(int from, int to) throws IOException {
+        if (from < 0 || to > recordCount || from > to) {
+            throw new IndexOutOfBoundsException("Records " + from + " to " + to + " of " + recordCount);
+        }
+        List<ModificationRecord> records = new ArrayList<>(to - from);
+        int index = from;
+        while (index < to) {
+            int page = index / BinaryProfileWriter.RECORDS_PER_PAGE;
+            int pageStart = page * BinaryProfileWriter.RECORDS_PER_PAGE;
+            List<ModificationRecord> pageRecords = getPage(page);
+            int end = Math.min(to, pageStart + pageRecords.size());
+            records.addAll(pageRecords.subList(index - pageStart, end - pageStart));
+            index = end;
+        }
+        return records;
+    }
+
+    public ModificationRecord getRecord(int index) throws IOException {
+        return getRecords(index, index + 1).get(0);
+    }
+
+    /**
+     * Materialize the metadata and every record as a regular profile
+     */
+    public ModProfile readProfile() throws IOException {
+        ModProfile profile = new ModProfile();
+        profile.setProfileName(header.getProfileName());
+        profile.setDescription(header.getDescription());
+        profile.setGameVersion(header.getGameVersion());
+        profile.setSourceFileName(header.getSourceFileName());
+        profile.setCreatedBy(header.getCreatedBy());
+        profile.setModifications(getRecords(0, recordCount));
+        profile.setCreatedDate(header.getCreatedDate());
+        profile.setLastModified(header.getLastModified());
+        return profile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private List<ModificationRecord> getPage(int page) throws IOException {
+        synchronized (pageCache) {
+            List<ModificationRecord> cached = pageCache.get(page);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long start = pageOffsets[page];
+        long end = page + 1 < pageOffsets.length ? pageOffsets[page + 1] : recordsEnd;
+        ByteBuffer buffer = read(start, (int) (end - start));
+        int count = Math.min(BinaryProfileWriter.RECORDS_PER_PAGE, recordCount - page * BinaryProfileWriter.RECORDS_PER_PAGE);
+
+        List<ModificationRecord> records = new ArrayList<>(count);
+        try {
+            decodePage(buffer, pageBaseSeconds[page], count, records);
+        } catch (RuntimeException e) {
+            throw new IOException("Binary profile page " + page + " is corrupt: " + e.getMessage(), e);
+        }
+
+        List<ModificationRecord> pageRecords = Collections.unmodifiableList(records);
+        synchronized (pageCache) {
+            pageCache.put(page, pageRecords);
+        }
+        return pageRecords;
+    }
+
+    private void decodePage(ByteBuffer buffer, long previousSecond, int count, List<ModificationRecord> records) throws IOException {
+        for (int i = 0; i < count; i++) {
+            String unitName = dictionaryValue(readVarLong(buffer));
+            String propertyPath = dictionaryValue(readVarLong(buffer));
+            String oldValue = readString(buffer);
+            String newValue = readString(buffer);
+            String oldValueType = dictionaryValue(readVarLong(buffer));
+            String newValueType = dictionaryValue(readVarLong(buffer));
+
+            long second = previousSecond + unZigZag(readVarLong(buffer));
+            long nano = readVarLong(buffer);
+            LocalDateTime timestamp = nano == 0 ? null
+                : LocalDateTime.ofEpochSecond(second, (int) (nano - 1), ZoneOffset.UTC);
+            previousSecond = second;
+
+            int type = (int) readVarLong(buffer);
+            ModificationType modificationType = type == 0 ? null : MODIFICATION_TYPES[type - 1];
+            String modificationDetails = dictionaryValue(readVarLong(buffer));
+
+            records.add(new ModificationRecord(unitName, propertyPath, oldValue, newValue, oldValueType, newValueType,
+                timestamp, modificationType, modificationDetails));
+        }
+    }
+
+    private String dictionaryValue(long id) throws IOException {
+        if (id == 0) {
+            return null;
+        }
+        if (id > dictionary.length) {
+            throw new IOException("Binary profile references unknown string " + (id - 1));
+        }
+        return dictionary[(int) (id - 1)];
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of binary profile");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long nano = readVarLong(buffer);
+        if (nano == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), (int) (nano - 1), ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        long length = readVarLong(buffer);
+        if (length == 0) {
+            return null;
+        }
+        int byteCount = (int) (length - 1);
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), byteCount, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + byteCount);
+        return value;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,190 @@
+package com.warnomodmaker.model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Streams modification records into the compact binary profile format.
+ *
+ * Layout: header (magic, version), record pages, metadata, string dictionary,
+ * page index, trailer (section offsets, record count, magic). Unit names, property paths,
+ * value types and details are dictionary ids; timestamps are deltas from the previous record
+ * in the same page. Every page starts from a base time kept in the index, so pages decode
+ * independently. Sections after the records let the writer emit records as they arrive.
+ */
+public class BinaryProfileWriter implements Closeable {
+
+    public static final int MAGIC = 0x574D5042; // "WMPB"
+    public static final int VERSION = 1;
+    public static final int RECORDS_PER_PAGE = 256;
+    public static final String FILE_EXTENSION = "wmprofile";
+
+    private final DataOutputStream out;
+    private long position;
+
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final List<long[]> pages = new ArrayList<>(); // {offset, base epoch second}
+    private int recordCount;
+    private long previousSecond;
+
+    private final byte[] scratch = new byte[10];
+    private boolean finished;
+
+    public BinaryProfileWriter(File file) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        writeInt(MAGIC);
+        writeInt(VERSION);
+    }
+
+    /**
+     * Append the next record
+     */
+    public void write(ModificationRecord record) throws IOException {
+        LocalDateTime timestamp = record.getTimestamp();
+        long second = timestamp != null ? timestamp.toEpochSecond(ZoneOffset.UTC) : 0;
+        if (recordCount % RECORDS_PER_PAGE == 0) {
+            pages.add(new long[] {position, second});
+            previousSecond = second;
+        }
+
+        writeVarLong(id(record.getUnitName()));
+        writeVarLong(id(record.getPropertyPath()));
+        writeString(record.getOldValue());
+        writeString(record.getNewValue());
+        writeVarLong(id(record.getOldValueType()));
+        writeVarLong(id(record.getNewValueType()));
+
+        // Nano + 1 so that 0 can mark a missing timestamp
+        writeVarLong(zigZag(second - previousSecond));
+        writeVarLong(timestamp != null ? timestamp.getNano() + 1L : 0);
+        previousSecond = second;
+
+        writeVarLong(record.getModificationType() != null ? record.getModificationType().ordinal() + 1 : 0);
+        writeVarLong(id(record.getModificationDetails()));
+        recordCount++;
+    }
+
+    /**
+     * Write the metadata, dictionary, index and trailer. The profile's own records are not written.
+     */
+    public void finish(ModProfile header) throws IOException {
+        long metadataOffset = position;
+        writeString(header.getProfileName());
+        writeString(header.getDescription());
+        writeString(header.getGameVersion());
+        writeString(header.getSourceFileName());
+        writeString(header.getCreatedBy());
+        writeDateTime(header.getCreatedDate());
+        writeDateTime(header.getLastModified());
+
+        long dictionaryOffset = position;
+        writeVarLong(dictionary.size());
+        for (String value : dictionary) {
+            writeString(value);
+        }
+
+        long indexOffset = position;
+        writeVarLong(pages.size());
+        for (long[] page : pages) {
+            writeLong(page[0]);
+            writeLong(page[1]);
+        }
+
+        writeLong(metadataOffset);
+        writeLong(dictionaryOffset);
+        writeLong(indexOffset);
+        writeInt(recordCount);
+        writeInt(MAGIC);
+        out.flush();
+        finished = true;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        if (!finished) {
+            throw new IOException("Binary profile closed before finish() - file is incomplete");
+        }
+    }
+
+    /**
+     * Write a whole profile in binary form
+     */
+    public static void write(ModProfile profile, File file) throws IOException {
+        try (BinaryProfileWriter writer = new BinaryProfileWriter(file)) {
+            for (ModificationRecord record : profile.getModifications()) {
+                writer.write(record);
+            }
+            writer.finish(profile);
+        }
+    }
+
+    // Dictionary id + 1, with 0 for null
+    private long id(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = dictionaryIds.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.add(value);
+            dictionaryIds.put(value, id);
+        }
+        return id + 1L;
+    }
+
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(dateTime.getNano() + 1L);
+        writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    // Byte length + 1, with 0 for null, then UTF-8 bytes
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        int length = 0;
+        while ((value & ~0x7FL) != 0) {
+            scratch[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        scratch[length++] = (byte) value;
+        out.write(scratch, 0, length);
+        position += length;
+    }
+
+    private void writeLong(long value) throws IOException {
+        out.writeLong(value);
+        position += 8;
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.writeInt(value);
+        position += 4;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
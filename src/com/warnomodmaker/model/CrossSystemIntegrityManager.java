@@ -1,5 +1,8 @@
 package com.warnomodmaker.model;
 
+import com.warnomodmaker.util.MetricsRegistry;
+
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -12,6 +15,7 @@ public class CrossSystemIntegrityManager {
     private final CrossFileReferenceManager referenceManager;
     private final GlobalGUIDManager guidManager;
     private final PropertyPathMigrationManager migrationManager;
+    private final WorkspaceKnowledgeBase knowledgeBase;
     
     // File registration tracking
     private final Map<String, NDFValue.NDFFileType> registeredFiles = new HashMap<>();
@@ -21,6 +25,7 @@ public class CrossSystemIntegrityManager {
         this.referenceManager = new CrossFileReferenceManager();
         this.guidManager = new GlobalGUIDManager();
         this.migrationManager = new PropertyPathMigrationManager();
+        this.knowledgeBase = new WorkspaceKnowledgeBase();
     }
     
     /**
@@ -29,14 +34,20 @@ public class CrossSystemIntegrityManager {
     public void registerFile(String fileName, NDFValue.NDFFileType fileType, List<NDFValue.ObjectValue> objects) {
         System.out.println("Registering file: " + fileName + " (" + fileType + ")");
         
-        // Store file information
-        registeredFiles.put(fileName, fileType);
-        fileContents.put(fileName, new ArrayList<>(objects));
-        
-        // Register with all subsystems
-        referenceManager.registerFile(fileName, objects);
-        guidManager.registerFile(fileName, objects);
-        migrationManager.learnValidPaths(fileType, objects);
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().timer("registerFile").start();
+        try {
+            // Store file information
+            registeredFiles.put(fileName, fileType);
+            fileContents.put(fileName, new ArrayList<>(objects));
+
+            // Register with all subsystems
+            referenceManager.registerFile(fileName, objects);
+            guidManager.registerFile(fileName, objects);
+            migrationManager.learnValidPaths(fileType, objects);
+            knowledgeBase.learnFile(fileName, objects); // background
+        } finally {
+            sample.close();
+        }
         
         System.out.println("File registration complete for: " + fileName);
     }
@@ -50,6 +61,7 @@ public class CrossSystemIntegrityManager {
         // Unregister from all subsystems
         referenceManager.unregisterFile(fileName);
         guidManager.unregisterFile(fileName);
+        knowledgeBase.removeFile(fileName);
         
         // Remove from tracking
         registeredFiles.remove(fileName);
@@ -223,6 +235,13 @@ public class CrossSystemIntegrityManager {
         return migrationManager.migrateModProfile(profile);
     }
     
+    /**
+     * Migrate the records of a profile in either format, paging through binary profiles
+     */
+    public PropertyPathMigrationManager.ModProfileMigrationResult migrateModProfile(ModificationRecordSource records) throws IOException {
+        return migrationManager.migrateModProfile(records);
+    }
+    
     /**
      * Add explicit path mapping for migration
      */
@@ -279,7 +298,14 @@ public class CrossSystemIntegrityManager {
     public PropertyPathMigrationManager getMigrationManager() {
         return migrationManager;
     }
-    
+
+    /**
+     * Get the schemas and templates learned from registered files
+     */
+    public WorkspaceKnowledgeBase getKnowledgeBase() {
+        return knowledgeBase;
+    }
+
     /**
      * Cross-system validation result
      */
@@ -1,6 +1,8 @@
 package com.warnomodmaker.model;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 /**
  * Comprehensive entity creation system based on actual NDF cross-file dependency analysis.
@@ -14,8 +16,10 @@ import java.util.*;
 public class EntityCreationManager {
     
     private final Map<String, EntityBlueprint> entityBlueprints;
-    private final AdditiveOperationManager additiveManager;
+    private AdditiveOperationManager additiveManager;
+    private final GUIDAllocator guidAllocator;
     private final GUIDGenerator guidGenerator;
+    private final WorkspaceKnowledgeBase knowledgeBase; // null = learn open files on every analysis
 
     // Template learning system for perfect placeholder values
     private final Map<String, NDFValue.ObjectValue> templateExamples = new HashMap<>(); // entityType -> example unit
@@ -26,10 +30,26 @@ public class EntityCreationManager {
     private final Map<String, NDFTemplateManager> fileTypeTemplates = new HashMap<>(); // fileType -> template manager
     private final Map<String, String> fileTypeObjectTypes = new HashMap<>(); // fileType -> primary object type
 
+    // Template path -> file/object type; classification depends only on the path
+    private static final Map<String, TemplatePathTarget> templatePathTargets = new ConcurrentHashMap<>();
+
     public EntityCreationManager() {
+        this(new GUIDAllocator());
+    }
+
+    public EntityCreationManager(GUIDAllocator guidAllocator) {
+        this(guidAllocator, null);
+    }
+
+    /**
+     * Take learned schemas and templates from the knowledge base instead of learning the open files again
+     */
+    public EntityCreationManager(GUIDAllocator guidAllocator, WorkspaceKnowledgeBase knowledgeBase) {
         this.entityBlueprints = new HashMap<>();
-        this.additiveManager = new AdditiveOperationManager();
-        this.guidGenerator = new GUIDGenerator();
+        this.additiveManager = new AdditiveOperationManager(guidAllocator);
+        this.guidAllocator = guidAllocator;
+        this.guidGenerator = new GUIDGenerator(guidAllocator);
+        this.knowledgeBase = knowledgeBase;
         initializeFileTypeObjectTypes();
     }
 
@@ -109,40 +129,74 @@ public class EntityCreationManager {
         optionalDependencies.clear();
 
         // Learn templates from ALL open files for on-demand creation
-        learnTemplatesFromOpenFiles(openFiles);
+        Map<String, WorkspaceKnowledgeBase.FileKnowledge> knowledge = learnTemplatesFromOpenFiles(openFiles);
 
         // Only analyze entity creation if we have UniteDescriptor.ndf (primary file)
         if (!openFiles.containsKey("UniteDescriptor.ndf")) {
             return;
         }
 
-        // Learn from existing objects
-        additiveManager.learnFromExistingObjects(getAllObjects(openFiles));
+        // Schemas and templates across all files, combined from what each file taught us
+        additiveManager = new AdditiveOperationManager(guidAllocator, WorkspaceKnowledgeBase.merge(knowledge.values()));
+        additiveManager.registerExistingGuids(getAllObjects(openFiles));
+
+        // Classify and analyze every unit once; both passes below reuse the results
+        List<UnitAnalysis> unitAnalyses = analyzeUnits(openFiles);
 
         // Learn template examples and property defaults
-        learnFromExistingEntities(openFiles);
+        learnFromExistingEntities(unitAnalyses);
 
         // Discover entity types and their requirements
-        discoverEntityBlueprints(openFiles);
+        discoverEntityBlueprints(unitAnalyses, openFiles);
+    }
+
+    /**
+     * Classify each unit and work out the files it depends on, in parallel. Results are in unit order.
+     */
+    private List<UnitAnalysis> analyzeUnits(Map<String, List<NDFValue.ObjectValue>> openFiles) {
+        List<NDFValue.ObjectValue> units = openFiles.get("UniteDescriptor.ndf");
+        UnitAnalysis[] analyses = new UnitAnalysis[units.size()];
+
+        // Read-only walk over the units, so they can be analyzed independently
+        IntStream.range(0, analyses.length).parallel().forEach(i -> {
+            NDFValue.ObjectValue unit = units.get(i);
+            String entityType = classifyUnit(unit);
+            if (entityType != null) {
+                EntityTypeAnalysis dependencies = new EntityTypeAnalysis();
+                analyzeFileDependencies(unit, dependencies, openFiles);
+                analyses[i] = new UnitAnalysis(unit, entityType, dependencies.fileRequirements);
+            }
+        });
+
+        List<UnitAnalysis> classified = new ArrayList<>(analyses.length);
+        for (UnitAnalysis analysis : analyses) {
+            if (analysis != null) {
+                classified.add(analysis);
+            }
+        }
+        return classified;
     }
 
     /**
      * Learn templates from all open files for on-demand object creation
      */
-    private void learnTemplatesFromOpenFiles(Map<String, List<NDFValue.ObjectValue>> openFiles) {
+    private Map<String, WorkspaceKnowledgeBase.FileKnowledge> learnTemplatesFromOpenFiles(
+            Map<String, List<NDFValue.ObjectValue>> openFiles) {
+        Map<String, WorkspaceKnowledgeBase.FileKnowledge> knowledge = new LinkedHashMap<>();
         for (Map.Entry<String, List<NDFValue.ObjectValue>> entry : openFiles.entrySet()) {
             String fileType = entry.getKey();
             List<NDFValue.ObjectValue> objects = entry.getValue();
 
             if (objects != null && !objects.isEmpty()) {
-                // Create template manager for this file type
-                NDFTemplateManager templateManager = new NDFTemplateManager();
-                templateManager.learnFromObjects(objects);
-                fileTypeTemplates.put(fileType, templateManager);
-
-
+                // Usually already learned in the background when the file was opened
+                WorkspaceKnowledgeBase.FileKnowledge fileKnowledge = knowledgeBase != null
+                    ? knowledgeBase.getKnowledge(fileType, objects)
+                    : WorkspaceKnowledgeBase.learn(objects);
+                knowledge.put(fileType, fileKnowledge);
+                fileTypeTemplates.put(fileType, fileKnowledge.getTemplateManager());
             }
         }
+        return knowledge;
     }
     
     private List<NDFValue.ObjectValue> getAllObjects(Map<String, List<NDFValue.ObjectValue>> openFiles) {
@@ -158,22 +212,21 @@ public class EntityCreationManager {
     /**
      * Learn from existing entities to create perfect templates with realistic placeholder values
      */
-    private void learnFromExistingEntities(Map<String, List<NDFValue.ObjectValue>> openFiles) {
-        List<NDFValue.ObjectValue> units = openFiles.get("UniteDescriptor.ndf");
-        Map<String, List<NDFValue.ObjectValue>> entitiesByType = new HashMap<>();
+    private void learnFromExistingEntities(List<UnitAnalysis> unitAnalyses) {
+        Map<String, List<UnitAnalysis>> analysesByType = new HashMap<>();
 
         // Group units by entity type
-        for (NDFValue.ObjectValue unit : units) {
-            String entityType = classifyUnit(unit);
-            if (entityType != null) {
-                entitiesByType.computeIfAbsent(entityType, k -> new ArrayList<>()).add(unit);
-            }
+        for (UnitAnalysis analysis : unitAnalyses) {
+            analysesByType.computeIfAbsent(analysis.entityType, k -> new ArrayList<>()).add(analysis);
         }
 
         // Learn from each entity type
-        for (Map.Entry<String, List<NDFValue.ObjectValue>> entry : entitiesByType.entrySet()) {
+        for (Map.Entry<String, List<UnitAnalysis>> entry : analysesByType.entrySet()) {
             String entityType = entry.getKey();
-            List<NDFValue.ObjectValue> entities = entry.getValue();
+            List<NDFValue.ObjectValue> entities = new ArrayList<>(entry.getValue().size());
+            for (UnitAnalysis analysis : entry.getValue()) {
+                entities.add(analysis.unit);
+            }
 
             if (!entities.isEmpty()) {
                 // Use the first complete entity as template example
@@ -185,7 +238,7 @@ public class EntityCreationManager {
                 learnedPropertyDefaults.put(entityType, propertyDefaults);
 
                 // Analyze which dependencies are optional vs required
-                Set<String> optionalDeps = analyzeOptionalDependencies(entities, openFiles);
+                Set<String> optionalDeps = analyzeOptionalDependencies(entry.getValue());
                 optionalDependencies.put(entityType, optionalDeps);
             }
         }
@@ -289,17 +342,13 @@ public class EntityCreationManager {
     /**
      * Analyze which dependencies are optional by checking how many entities actually use them
      */
-    private Set<String> analyzeOptionalDependencies(List<NDFValue.ObjectValue> entities,
-                                                   Map<String, List<NDFValue.ObjectValue>> openFiles) {
+    private Set<String> analyzeOptionalDependencies(List<UnitAnalysis> entities) {
         Set<String> optionalDeps = new HashSet<>();
         Map<String, Integer> dependencyUsage = new HashMap<>();
 
         // Count how many entities actually use each dependency
-        for (NDFValue.ObjectValue entity : entities) {
-            EntityTypeAnalysis tempAnalysis = new EntityTypeAnalysis();
-            analyzeFileDependencies(entity, tempAnalysis, openFiles);
-
-            for (String fileType : tempAnalysis.fileRequirements.keySet()) {
+        for (UnitAnalysis entity : entities) {
+            for (String fileType : entity.fileRequirements.keySet()) {
                 dependencyUsage.merge(fileType, 1, Integer::sum);
             }
         }
@@ -405,18 +454,15 @@ public class EntityCreationManager {
     /**
      * Discover entity blueprints based on actual cross-file dependencies
      */
-    private void discoverEntityBlueprints(Map<String, List<NDFValue.ObjectValue>> openFiles) {
-        List<NDFValue.ObjectValue> units = openFiles.get("UniteDescriptor.ndf");
+    private void discoverEntityBlueprints(List<UnitAnalysis> unitAnalyses,
+                                          Map<String, List<NDFValue.ObjectValue>> openFiles) {
         Map<String, EntityTypeAnalysis> analysis = new HashMap<>();
         
-        // Analyze each unit to understand entity patterns
-        for (NDFValue.ObjectValue unit : units) {
-            String entityType = classifyUnit(unit);
-            if (entityType != null) {
-                EntityTypeAnalysis typeAnalysis = analysis.computeIfAbsent(entityType, k -> new EntityTypeAnalysis());
-                typeAnalysis.addExample(unit);
-                analyzeFileDependencies(unit, typeAnalysis, openFiles);
-            }
+        // Combine unit dependencies per entity type, in unit order so later units win as before
+        for (UnitAnalysis unitAnalysis : unitAnalyses) {
+            EntityTypeAnalysis typeAnalysis = analysis.computeIfAbsent(unitAnalysis.entityType, k -> new EntityTypeAnalysis());
+            typeAnalysis.addExample(unitAnalysis.unit);
+            typeAnalysis.fileRequirements.putAll(unitAnalysis.fileRequirements);
         }
         
         // Convert analysis to blueprints
@@ -681,10 +727,11 @@ public class EntityCreationManager {
             visited.add(path);
 
             // Determine what file this template reference points to
-            String requiredFile = determineFileFromTemplatePath(path);
-            if (requiredFile != null) {
-                String objectType = determineObjectTypeFromTemplatePath(path);
-                analysis.addFileRequirement(requiredFile, objectType);
+            TemplatePathTarget target = path != null
+                ? templatePathTargets.computeIfAbsent(path, this::classifyTemplatePath)
+                : classifyTemplatePath(null);
+            if (target.fileType != null) {
+                analysis.addFileRequirement(target.fileType, target.objectType);
             }
         } else if (value instanceof NDFValue.ObjectValue) {
             NDFValue.ObjectValue obj = (NDFValue.ObjectValue) value;
@@ -705,6 +752,11 @@ public class EntityCreationManager {
         }
     }
 
+    private TemplatePathTarget classifyTemplatePath(String templatePath) {
+        String fileType = determineFileFromTemplatePath(templatePath);
+        return new TemplatePathTarget(fileType, fileType != null ? determineObjectTypeFromTemplatePath(templatePath) : null);
+    }
+
     /**
      * Determine which file a template path points to
      */
@@ -1218,7 +1270,7 @@ public class EntityCreationManager {
 
         // Copy all properties from template
         for (Map.Entry<String, NDFValue> entry : template.getProperties().entrySet()) {
-            newObject.setProperty(entry.getKey(), entry.getValue());
+            newObject.setProperty(entry.getKey(), entry.getValue().copy()); // templates are shared
         }
 
         // Apply custom properties
@@ -1663,6 +1715,34 @@ public class EntityCreationManager {
         }
     }
     
+    /**
+     * Entity type and file requirements found for one unit
+     */
+    private static class UnitAnalysis {
+        final NDFValue.ObjectValue unit;
+        final String entityType;
+        final Map<String, String> fileRequirements; // fileType -> objectType
+
+        UnitAnalysis(NDFValue.ObjectValue unit, String entityType, Map<String, String> fileRequirements) {
+            this.unit = unit;
+            this.entityType = entityType;
+            this.fileRequirements = fileRequirements;
+        }
+    }
+
+    /**
+     * The file type and object type a template path points at
+     */
+    private static class TemplatePathTarget {
+        final String fileType; // null when the path doesn't point at a known file
+        final String objectType;
+
+        TemplatePathTarget(String fileType, String objectType) {
+            this.fileType = fileType;
+            this.objectType = objectType;
+        }
+    }
+
     /**
      * Analysis data for an entity type
      */
@@ -0,0 +1,116 @@
+package com.warnomodmaker.model;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Single allocation service for new GUIDs.
+ * Checks candidates against the GUIDs registered in loaded files (the global GUID index)
+ * and against GUIDs already handed out or reserved, so every GUID it returns is unique
+ * across the workspace. Allocation and reservation are atomic for concurrent callers.
+ */
+public class GUIDAllocator {
+
+    private static final int MAX_ATTEMPTS_PER_GUID = 1000;
+
+    // GUIDs used in registered files - owned by GlobalGUIDManager, only read here
+    private final GUIDIndex usedGuids;
+
+    // GUIDs handed out by this allocator or explicitly reserved
+    private final GUIDIndex reservedGuids = new GUIDIndex();
+
+    private final long[] parsed = new long[2];
+
+    /**
+     * Standalone allocator that only knows about its own reservations
+     */
+    public GUIDAllocator() {
+        this(new GUIDIndex());
+    }
+
+    /**
+     * Allocator backed by an existing GUID index
+     */
+    public GUIDAllocator(GUIDIndex usedGuids) {
+        this.usedGuids = usedGuids;
+    }
+
+    /**
+     * Allocate a single new GUID in NDF form (GUID:{...})
+     */
+    public synchronized String allocate() {
+        return allocateOne();
+    }
+
+    /**
+     * Allocate a batch of new GUIDs in one atomic step
+     */
+    public synchronized List<String> allocate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("GUID count cannot be negative: " + count);
+        }
+        List<String> guids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            guids.add(allocateOne());
+        }
+        return guids;
+    }
+
+    private String allocateOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS_PER_GUID; attempt++) {
+            // Random (version 4) UUID layout
+            long hi = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+            long lo = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+            if (usedGuids.find(hi, lo) == GUIDIndex.NOT_FOUND && reservedGuids.find(hi, lo) == GUIDIndex.NOT_FOUND) {
+                String guid = GUIDIndex.format(hi, lo);
+                reservedGuids.add(hi, lo, guid);
+                return guid;
+            }
+        }
+        throw new RuntimeException("Failed to generate unique GUID after " + MAX_ATTEMPTS_PER_GUID + " attempts");
+    }
+
+    /**
+     * Reserve a GUID so it is never allocated, even after the file using it is closed
+     *
+     * @return true if the GUID was not already known
+     */
+    public synchronized boolean reserve(String guid) {
+        if (guid == null || guid.isEmpty()) {
+            return false;
+        }
+        boolean known = isTaken(guid);
+        reservedGuids.add(guid);
+        return !known;
+    }
+
+    /**
+     * Check if a GUID is used in a registered file or already reserved
+     */
+    public synchronized boolean isTaken(String guid) {
+        if (guid == null) {
+            return false;
+        }
+        if (GUIDIndex.parse(guid, parsed)) {
+            return usedGuids.find(parsed[0], parsed[1]) != GUIDIndex.NOT_FOUND
+                || reservedGuids.find(parsed[0], parsed[1]) != GUIDIndex.NOT_FOUND;
+        }
+        return usedGuids.find(guid) != GUIDIndex.NOT_FOUND || reservedGuids.find(guid) != GUIDIndex.NOT_FOUND;
+    }
+
+    /**
+     * Forget all reservations. GUIDs used in registered files stay taken.
+     */
+    public synchronized void clearReservations() {
+        reservedGuids.clear();
+    }
+
+    /**
+     * Get count of reserved GUIDs
+     */
+    public synchronized int getReservedCount() {
+        return reservedGuids.size();
+    }
+}
@@ -1,64 +1,90 @@
 package com.warnomodmaker.model;
 
-import java.util.UUID;
-import java.util.Set;
-import java.util.HashSet;
+import java.util.List;
 
 /**
  * Generates unique GUIDs for new NDF objects.
  * Ensures no collisions with existing GUIDs in the file.
+ * Delegates to a GUIDAllocator; pass the workspace allocator from GlobalGUIDManager
+ * to also avoid collisions with every other loaded file.
  */
 public class GUIDGenerator {
-    
-    private final Set<String> existingGuids;
-    
+
+    private final GUIDAllocator allocator;
+
+    // GUIDs registered with or generated by this generator
+    private final GUIDIndex knownGuids = new GUIDIndex();
+
     public GUIDGenerator() {
-        this.existingGuids = new HashSet<>();
+        this(new GUIDAllocator());
+    }
+
+    public GUIDGenerator(GUIDAllocator allocator) {
+        this.allocator = allocator;
     }
-    
+
     /**
      * Register an existing GUID to avoid collisions
      */
     public void registerExistingGuid(String guid) {
         if (guid != null && !guid.isEmpty()) {
-            existingGuids.add(guid.toLowerCase());
+            knownGuids.add(guid);
         }
     }
-    
+
     /**
      * Generate a new unique GUID
      */
     public String generateGUID() {
-        String newGuid;
+        String guid;
         do {
-            UUID uuid = UUID.randomUUID();
-            newGuid = "GUID:{" + uuid.toString() + "}";
-        } while (existingGuids.contains(newGuid.toLowerCase()));
-        
-        // Register the new GUID to prevent future collisions
-        existingGuids.add(newGuid.toLowerCase());
-        
-        return newGuid;
+            guid = allocator.allocate();
+        } while (knownGuids.find(guid) != GUIDIndex.NOT_FOUND);
+        knownGuids.add(guid);
+        return guid;
     }
-    
+
+    /**
+     * Generate a batch of new unique GUIDs
+     */
+    public List<String> generateGUIDs(int count) {
+        List<String> guids = allocator.allocate(count);
+        for (int i = 0; i < guids.size(); i++) {
+            if (knownGuids.find(guids.get(i)) != GUIDIndex.NOT_FOUND) {
+                guids.set(i, generateGUID());
+            } else {
+                knownGuids.add(guids.get(i));
+            }
+        }
+        return guids;
+    }
+
     /**
      * Check if a GUID already exists
      */
     public boolean guidExists(String guid) {
-        return guid != null && existingGuids.contains(guid.toLowerCase());
+        return guid != null && (knownGuids.find(guid) != GUIDIndex.NOT_FOUND || allocator.isTaken(guid));
     }
-    
+
     /**
-     * Clear all registered GUIDs (useful when switching files)
+     * Clear the GUIDs registered with this generator (useful when switching files).
+     * The shared allocator keeps its reservations.
      */
     public void clear() {
-        existingGuids.clear();
+        knownGuids.clear();
     }
-    
+
     /**
-     * Get count of registered GUIDs
+     * Get count of GUIDs registered with or generated by this generator
      */
     public int getRegisteredGuidCount() {
-        return existingGuids.size();
+        return knownGuids.size();
+    }
+
+    /**
+     * Get the allocator backing this generator
+     */
+    public GUIDAllocator getAllocator() {
+        return allocator;
     }
 }
@@ -0,0 +1,260 @@
+package com.warnomodmaker.model;
+
+import java.util.*;
+
+/**
+ * Dense GUID -> int id interner backed by an open-addressing table of 128-bit keys.
+ * Canonical GUIDs (32 hex digits, with or without the GUID:{...} wrapper and dashes)
+ * are stored as two longs, so no String is hashed or compared on lookup.
+ * Anything that does not parse as a GUID is interned through a small fallback map.
+ * Ids only change when retain() renumbers them, which lets callers keep per-GUID data
+ * in parallel arrays.
+ */
+public class GUIDIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Open-addressing table - slot -> (hi, lo) key and id + 1 (0 marks an empty slot)
+    private long[] slotHi = new long[INITIAL_CAPACITY];
+    private long[] slotLo = new long[INITIAL_CAPACITY];
+    private int[] slotId = new int[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+
+    // Id -> original text as first seen
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private int size;
+
+    // Non-canonical GUID strings
+    private final Map<String, Integer> irregularIds = new HashMap<>();
+
+    // Scratch buffer for parsing, guarded by the instance lock
+    private final long[] parsed = new long[2];
+
+    /**
+     * Find the id of a GUID, or NOT_FOUND if it was never added
+     */
+    public synchronized int find(String guid) {
+        if (guid == null) {
+            return NOT_FOUND;
+        }
+        if (parse(guid, parsed)) {
+            return find(parsed[0], parsed[1]);
+        }
+        Integer id = irregularIds.get(guid);
+        return id != null ? id : NOT_FOUND;
+    }
+
+    /**
+     * Find the id of a 128-bit GUID, or NOT_FOUND if it was never added
+     */
+    public synchronized int find(long hi, long lo) {
+        int slot = (int) mix(hi, lo) & mask;
+        while (slotId[slot] != 0) {
+            if (slotHi[slot] == hi && slotLo[slot] == lo) {
+                return slotId[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Add a GUID if not already present and return its id
+     */
+    public synchronized int add(String guid) {
+        if (parse(guid, parsed)) {
+            return add(parsed[0], parsed[1], guid);
+        }
+        Integer id = irregularIds.get(guid);
+        if (id != null) {
+            return id;
+        }
+        int newId = appendText(guid);
+        irregularIds.put(guid, newId);
+        return newId;
+    }
+
+    /**
+     * Add a 128-bit GUID if not already present and return its id.
+     * The text is only stored when the GUID is new.
+     */
+    public synchronized int add(long hi, long lo, String text) {
+        int slot = (int) mix(hi, lo) & mask;
+        while (slotId[slot] != 0) {
+            if (slotHi[slot] == hi && slotLo[slot] == lo) {
+                return slotId[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = appendText(text != null ? text : format(hi, lo));
+        slotHi[slot] = hi;
+        slotLo[slot] = lo;
+        slotId[slot] = id + 1;
+
+        // Keep the load factor at or below 1/2
+        if ((size << 1) > slotId.length) {
+            rehash(slotId.length << 1);
+        }
+        return id;
+    }
+
+    /**
+     * Get the text a GUID id was first registered with
+     */
+    public synchronized String getText(int id) {
+        return id >= 0 && id < size ? texts[id] : null;
+    }
+
+    /**
+     * Number of distinct GUIDs ever added
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Remove every GUID and reset ids
+     */
+    public synchronized void clear() {
+        Arrays.fill(slotId, 0);
+        Arrays.fill(texts, 0, size, null);
+        irregularIds.clear();
+        size = 0;
+    }
+
+    /**
+     * Drop every GUID whose id is not set in keep and renumber the rest densely, in order
+     *
+     * @return old id -> new id, or NOT_FOUND for dropped GUIDs
+     */
+    public synchronized int[] retain(BitSet keep) {
+        String[] oldTexts = texts;
+        int oldSize = size;
+        texts = new String[oldTexts.length];
+        clear();
+
+        int[] remap = new int[oldSize];
+        for (int id = 0; id < oldSize; id++) {
+            remap[id] = keep.get(id) ? add(oldTexts[id]) : NOT_FOUND;
+        }
+        return remap;
+    }
+
+    private int appendText(String text) {
+        if (size == texts.length) {
+            texts = Arrays.copyOf(texts, size << 1);
+        }
+        texts[size] = text;
+        return size++;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldHi = slotHi;
+        long[] oldLo = slotLo;
+        int[] oldId = slotId;
+
+        slotHi = new long[newCapacity];
+        slotLo = new long[newCapacity];
+        slotId = new int[newCapacity];
+        mask = newCapacity - 1;
+
+        for (int i = 0; i < oldId.length; i++) {
+            if (oldId[i] != 0) {
+                int slot = (int) mix(oldHi[i], oldLo[i]) & mask;
+                while (slotId[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slotHi[slot] = oldHi[i];
+                slotLo[slot] = oldLo[i];
+                slotId[slot] = oldId[i];
+            }
+        }
+    }
+
+    private static long mix(long hi, long lo) {
+        // MurmurHash3 fmix64 over the folded key
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85A53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Parse a GUID into two longs. Accepts "GUID:{8-4-4-4-12}", "{...}" and bare forms,
+     * with or without dashes, in either case.
+     *
+     * @return true if the text held exactly 32 hex digits
+     */
+    public static boolean parse(CharSequence text, long[] out) {
+        int start = 0;
+        int end = text.length();
+        if (end - start >= 5 && text.charAt(0) == 'G' && text.charAt(1) == 'U' && text.charAt(2) == 'I'
+                && text.charAt(3) == 'D' && text.charAt(4) == ':') {
+            start = 5;
+        }
+        if (start < end && text.charAt(start) == '{') {
+            if (text.charAt(end - 1) != '}') {
+                return false;
+            }
+            start++;
+            end--;
+        }
+
+        long hi = 0;
+        long lo = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            int nibble = Character.digit(c, 16);
+            if (nibble < 0 || digits == 32) {
+                return false;
+            }
+            if (digits < 16) {
+                hi = (hi << 4) | nibble;
+            } else {
+                lo = (lo << 4) | nibble;
+            }
+            digits++;
+        }
+        if (digits != 32) {
+            return false;
+        }
+        out[0] = hi;
+        out[1] = lo;
+        return true;
+    }
+
+    /**
+     * Format a 128-bit GUID in NDF form: GUID:{xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx}
+     */
+    public static String format(long hi, long lo) {
+        char[] chars = new char[43];
+        chars[0] = 'G';
+        chars[1] = 'U';
+        chars[2] = 'I';
+        chars[3] = 'D';
+        chars[4] = ':';
+        chars[5] = '{';
+        int pos = 6;
+        for (int i = 0; i < 32; i++) {
+            if (i == 8 || i == 12 || i == 16 || i == 20) {
+                chars[pos++] = '-';
+            }
+            long word = i < 16 ? hi : lo;
+            int shift = (15 - (i & 15)) << 2;
+            chars[pos++] = HEX_DIGITS[(int) (word >>> shift) & 0xF];
+        }
+        chars[pos] = '}';
+        return new String(chars);
+    }
+}
@@ -1,26 +1,56 @@
 package com.warnomodmaker.model;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages GUID uniqueness across all NDF files.
  * Ensures no GUID conflicts exist and provides conflict resolution.
  * NO FALLBACKS - all GUIDs must be explicitly tracked and validated.
+ * GUIDs are held as 128-bit keys in a GUIDIndex and every usage is a compact int handle
+ * into a location side table; GUIDLocation objects are only built for query results.
  */
 public class GlobalGUIDManager {
     
-    // GUID ownership tracking - GUID -> file that owns it
-    private final Map<String, String> guidToFile = new ConcurrentHashMap<>();
+    private static final int NO_FILE = -1;
+    private static final int NO_LOCATION = -1;
+    private static final byte LOCATION_DEFINITION = 1;
+    private static final byte LOCATION_REMOVED = 2;
     
-    // GUID locations - GUID -> list of (file, object, property path) where it's used
-    private final Map<String, List<GUIDLocation>> guidLocations = new ConcurrentHashMap<>();
+    // GUID -> dense id, GUIDs stored as 128-bit keys
+    private final GUIDIndex guidIndex = new GUIDIndex();
     
-    // File GUID sets - file -> set of GUIDs used in that file
-    private final Map<String, Set<String>> fileGuids = new ConcurrentHashMap<>();
+    // Per GUID id - owning file id, live usage counts and the head/tail of its location chain
+    private int[] guidOwner = new int[256];
+    private int[] guidUsageCount = new int[256];
+    private int[] guidDefinitionCount = new int[256];
+    private int[] guidFirstLocation = new int[256];
+    private int[] guidLastLocation = new int[256];
     
-    // Reserved GUIDs that should never be generated
-    private final Set<String> reservedGuids = new HashSet<>();
+    // Location side table - location handle -> (GUID id, file, object, property path, flags, next in chain)
+    private int[] locationGuid = new int[1024];
+    private int[] locationFile = new int[1024];
+    private int[] locationObject = new int[1024];
+    private int[] locationPath = new int[1024];
+    private byte[] locationFlags = new byte[1024];
+    private int[] locationNext = new int[1024];
+    private int locationCount;
+    private int removedLocationCount;
+    
+    // Interned file names, object names and property paths referenced by the side table
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    
+    // File -> location handles registered for that file
+    private final Map<String, IntList> fileLocations = new LinkedHashMap<>();
+    
+    // Allocation service for new GUIDs, backed by the index above
+    private final GUIDAllocator allocator = new GUIDAllocator(guidIndex);
+    
+    public GlobalGUIDManager() {
+        Arrays.fill(guidOwner, NO_FILE);
+        Arrays.fill(guidFirstLocation, NO_LOCATION);
+        Arrays.fill(guidLastLocation, NO_LOCATION);
+    }
     
     /**
      * GUID location tracking
@@ -53,214 +83,437 @@ public class GlobalGUIDManager {
         }
     }
     
+    /**
+     * Growable list of primitive ints
+     */
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+    }
+    
     /**
      * Register a file and scan it for GUID usage
      */
-    public void registerFile(String fileName, List<NDFValue.ObjectValue> objects) {
+    public synchronized void registerFile(String fileName, List<NDFValue.ObjectValue> objects) {
         // Clear existing data for this file
         unregisterFile(fileName);
         
-        Set<String> fileGuidSet = new HashSet<>();
+        int fileId = intern(fileName);
+        IntList handles = new IntList();
+        StringBuilder path = new StringBuilder(128);
         
         // Scan all objects for GUID usage
         for (NDFValue.ObjectValue obj : objects) {
-            scanObjectForGuids(fileName, obj.getInstanceName(), obj, "", fileGuidSet);
+            path.setLength(0);
+            scanObjectForGuids(fileId, intern(obj.getInstanceName()), obj, path, handles);
         }
         
-        // Store file GUID set
-        fileGuids.put(fileName, fileGuidSet);
+        // Store file locations
+        fileLocations.put(fileName, handles);
         
-        System.out.println("Registered file " + fileName + " with " + fileGuidSet.size() + " GUIDs");
+        System.out.println("Registered file " + fileName + " with " + countDistinctGuids(handles) + " GUIDs");
     }
     
     /**
      * Unregister a file and clean up all its GUID tracking
      */
-    public void unregisterFile(String fileName) {
-        Set<String> fileGuidSet = fileGuids.get(fileName);
-        if (fileGuidSet != null) {
+    public synchronized void unregisterFile(String fileName) {
+        IntList handles = fileLocations.remove(fileName);
+        if (handles == null) {
+            return;
+        }
+        
+        int fileId = stringIds.get(fileName);
+        for (int i = 0; i < handles.size; i++) {
+            int location = handles.values[i];
+            int guid = locationGuid[location];
+            
             // Remove GUID ownership for this file
-            for (String guid : fileGuidSet) {
-                if (fileName.equals(guidToFile.get(guid))) {
-                    guidToFile.remove(guid);
-                }
+            if (guidOwner[guid] == fileId) {
+                guidOwner[guid] = NO_FILE;
             }
             
-            // Remove GUID locations from this file
-            for (List<GUIDLocation> locations : guidLocations.values()) {
-                locations.removeIf(loc -> loc.getFileName().equals(fileName));
+            // Remove the location from this file
+            guidUsageCount[guid]--;
+            if ((locationFlags[location] & LOCATION_DEFINITION) != 0) {
+                guidDefinitionCount[guid]--;
             }
+            locationFlags[location] |= LOCATION_REMOVED;
         }
+        removedLocationCount += handles.size;
         
-        fileGuids.remove(fileName);
+        if (removedLocationCount > locationCount / 2) {
+            compactLocations();
+        }
     }
     
     /**
-     * Recursively scan an object for GUID usage
+     * Recursively scan an object for GUID usage.
+     * The path is only turned into a String when a GUID is found.
      */
-    private void scanObjectForGuids(String fileName, String objectName, NDFValue value, String currentPath, Set<String> fileGuidSet) {
+    private void scanObjectForGuids(int fileId, int objectId, NDFValue value, StringBuilder currentPath, IntList handles) {
+        int pathLength = currentPath.length();
         if (value instanceof NDFValue.ObjectValue) {
             NDFValue.ObjectValue obj = (NDFValue.ObjectValue) value;
             for (Map.Entry<String, NDFValue> entry : obj.getProperties().entrySet()) {
-                String propertyName = entry.getKey();
-                String newPath = currentPath.isEmpty() ? propertyName : currentPath + "." + propertyName;
-                scanObjectForGuids(fileName, objectName, entry.getValue(), newPath, fileGuidSet);
+                if (pathLength > 0) {
+                    currentPath.append('.');
+                }
+                currentPath.append(entry.getKey());
+                scanObjectForGuids(fileId, objectId, entry.getValue(), currentPath, handles);
+                currentPath.setLength(pathLength);
             }
         } else if (value instanceof NDFValue.ArrayValue) {
-            NDFValue.ArrayValue array = (NDFValue.ArrayValue) value;
-            for (int i = 0; i < array.getElements().size(); i++) {
-                String newPath = currentPath + "[" + i + "]";
-                scanObjectForGuids(fileName, objectName, array.getElements().get(i), newPath, fileGuidSet);
+            List<NDFValue> elements = ((NDFValue.ArrayValue) value).getElements();
+            for (int i = 0; i < elements.size(); i++) {
+                currentPath.append('[').append(i).append(']');
+                scanObjectForGuids(fileId, objectId, elements.get(i), currentPath, handles);
+                currentPath.setLength(pathLength);
             }
         } else if (value instanceof NDFValue.GUIDValue) {
-            NDFValue.GUIDValue guidValue = (NDFValue.GUIDValue) value;
-            String guid = guidValue.getGUID();
-            
-            // Track this GUID
-            fileGuidSet.add(guid);
+            int guid = guidIndex.add(((NDFValue.GUIDValue) value).getGUID());
+            ensureGuidCapacity(guid);
             
             // Determine if this is a definition or reference
-            boolean isDefinition = currentPath.equals("DescriptorId") || currentPath.endsWith(".DescriptorId");
+            String path = currentPath.toString();
+            boolean isDefinition = path.equals("DescriptorId") || path.endsWith(".DescriptorId");
             
             // Record ownership (definitions take precedence)
-            if (isDefinition || !guidToFile.containsKey(guid)) {
-                guidToFile.put(guid, fileName);
+            if (isDefinition || guidOwner[guid] == NO_FILE) {
+                guidOwner[guid] = fileId;
             }
             
             // Record the location
-            String fullPath = objectName + "." + currentPath;
-            GUIDLocation location = new GUIDLocation(fileName, objectName, currentPath, fullPath, isDefinition);
-            guidLocations.computeIfAbsent(guid, k -> new ArrayList<>()).add(location);
+            handles.add(addLocation(guid, fileId, objectId, intern(path), isDefinition));
         }
     }
     
-    /**
-     * Check if a GUID is unique across all files
-     */
-    public boolean isGuidUnique(String guid) {
-        List<GUIDLocation> locations = guidLocations.get(guid);
-        if (locations == null || locations.isEmpty()) {
-            return true; // Not used anywhere
+    private int addLocation(int guid, int fileId, int objectId, int pathId, boolean isDefinition) {
+        if (locationCount == locationGuid.length) {
+            int capacity = locationCount << 1;
+            locationGuid = Arrays.copyOf(locationGuid, capacity);
+            locationFile = Arrays.copyOf(locationFile, capacity);
+            locationObject = Arrays.copyOf(locationObject, capacity);
+            locationPath = Arrays.copyOf(locationPath, capacity);
+            locationFlags = Arrays.copyOf(locationFlags, capacity);
+            locationNext = Arrays.copyOf(locationNext, capacity);
+        }
+        
+        int location = locationCount++;
+        locationGuid[location] = guid;
+        locationFile[location] = fileId;
+        locationObject[location] = objectId;
+        locationPath[location] = pathId;
+        locationFlags[location] = isDefinition ? LOCATION_DEFINITION : 0;
+        locationNext[location] = NO_LOCATION;
+        
+        // Append to the GUID's chain so locations keep registration order
+        if (guidFirstLocation[guid] == NO_LOCATION) {
+            guidFirstLocation[guid] = location;
+        } else {
+            locationNext[guidLastLocation[guid]] = location;
         }
+        guidLastLocation[guid] = location;
         
-        // Count definitions (should be exactly 1)
-        long definitionCount = locations.stream().filter(GUIDLocation::isDefinition).count();
-        return definitionCount <= 1;
+        guidUsageCount[guid]++;
+        if (isDefinition) {
+            guidDefinitionCount[guid]++;
+        }
+        return location;
     }
     
     /**
-     * Find all GUID conflicts (GUIDs used in multiple files or multiple definitions)
+     * Drop removed locations from the side table and rebuild chains and file handle lists.
+     * GUID ids and strings only referenced by unregistered files are released and the
+     * survivors renumbered, so the tables shrink back as files are closed.
      */
-    public Map<String, List<GUIDLocation>> findGuidConflicts() {
-        Map<String, List<GUIDLocation>> conflicts = new HashMap<>();
+    private void compactLocations() {
+        BitSet liveGuids = new BitSet(guidIndex.size());
+        BitSet liveStrings = new BitSet(strings.size());
+        for (int location = 0; location < locationCount; location++) {
+            if ((locationFlags[location] & LOCATION_REMOVED) == 0) {
+                liveGuids.set(locationGuid[location]);
+                liveStrings.set(locationFile[location]);
+                liveStrings.set(locationObject[location]);
+                liveStrings.set(locationPath[location]);
+            }
+        }
+        for (String fileName : fileLocations.keySet()) {
+            liveStrings.set(stringIds.get(fileName));
+        }
         
-        for (Map.Entry<String, List<GUIDLocation>> entry : guidLocations.entrySet()) {
-            String guid = entry.getKey();
-            List<GUIDLocation> locations = entry.getValue();
-            
-            // Check for multiple definitions
-            long definitionCount = locations.stream().filter(GUIDLocation::isDefinition).count();
-            if (definitionCount > 1) {
-                conflicts.put(guid, new ArrayList<>(locations));
+        int[] guidRemap = guidIndex.retain(liveGuids);
+        int[] stringRemap = retainStrings(liveStrings);
+        
+        // Move per-GUID data to the new ids; chains are rebuilt from the locations below
+        int capacity = guidOwner.length;
+        int[] owner = new int[capacity];
+        int[] usageCount = new int[capacity];
+        int[] definitionCount = new int[capacity];
+        Arrays.fill(owner, NO_FILE);
+        for (int guid = 0; guid < guidRemap.length; guid++) {
+            int newGuid = guidRemap[guid];
+            if (newGuid != GUIDIndex.NOT_FOUND) {
+                owner[newGuid] = guidOwner[guid] != NO_FILE ? stringRemap[guidOwner[guid]] : NO_FILE;
+                usageCount[newGuid] = guidUsageCount[guid];
+                definitionCount[newGuid] = guidDefinitionCount[guid];
+            }
+        }
+        guidOwner = owner;
+        guidUsageCount = usageCount;
+        guidDefinitionCount = definitionCount;
+        Arrays.fill(guidFirstLocation, NO_LOCATION);
+        Arrays.fill(guidLastLocation, NO_LOCATION);
+        
+        int[] remap = new int[locationCount];
+        int live = 0;
+        for (int location = 0; location < locationCount; location++) {
+            if ((locationFlags[location] & LOCATION_REMOVED) != 0) {
+                remap[location] = NO_LOCATION;
                 continue;
             }
+            int guid = guidRemap[locationGuid[location]];
+            locationGuid[live] = guid;
+            locationFile[live] = stringRemap[locationFile[location]];
+            locationObject[live] = stringRemap[locationObject[location]];
+            locationPath[live] = stringRemap[locationPath[location]];
+            locationFlags[live] = locationFlags[location];
+            locationNext[live] = NO_LOCATION;
             
-            // Check for usage across multiple files
-            Set<String> filesUsing = new HashSet<>();
-            for (GUIDLocation location : locations) {
-                filesUsing.add(location.getFileName());
+            if (guidFirstLocation[guid] == NO_LOCATION) {
+                guidFirstLocation[guid] = live;
+            } else {
+                locationNext[guidLastLocation[guid]] = live;
             }
-            
-            if (filesUsing.size() > 1) {
-                conflicts.put(guid, new ArrayList<>(locations));
+            guidLastLocation[guid] = live;
+            remap[location] = live++;
+        }
+        
+        for (IntList handles : fileLocations.values()) {
+            for (int i = 0; i < handles.size; i++) {
+                handles.values[i] = remap[handles.values[i]];
             }
         }
         
-        return conflicts;
+        locationCount = live;
+        removedLocationCount = 0;
     }
     
     /**
-     * Generate a new unique GUID
+     * Keep only the strings set in keep, renumbered in order
+     *
+     * @return old id -> new id, -1 for released strings
      */
-    public String generateUniqueGuid() {
-        String guid;
-        int attempts = 0;
-        do {
-            guid = generateRandomGuid();
-            attempts++;
-            if (attempts > 1000) {
-                throw new RuntimeException("Failed to generate unique GUID after 1000 attempts");
+    private int[] retainStrings(BitSet keep) {
+        int[] remap = new int[strings.size()];
+        List<String> kept = new ArrayList<>(keep.cardinality());
+        stringIds.clear();
+        for (int id = 0; id < remap.length; id++) {
+            if (keep.get(id)) {
+                String value = strings.get(id);
+                remap[id] = kept.size();
+                stringIds.put(value, kept.size());
+                kept.add(value);
+            } else {
+                remap[id] = -1;
             }
-        } while (guidToFile.containsKey(guid) || reservedGuids.contains(guid));
-        
-        return guid;
+        }
+        strings.clear();
+        strings.addAll(kept);
+        return remap;
+    }
+    
+    private void ensureGuidCapacity(int guid) {
+        int oldCapacity = guidOwner.length;
+        if (guid < oldCapacity) {
+            return;
+        }
+        int capacity = Math.max(oldCapacity << 1, guid + 1);
+        guidOwner = Arrays.copyOf(guidOwner, capacity);
+        guidUsageCount = Arrays.copyOf(guidUsageCount, capacity);
+        guidDefinitionCount = Arrays.copyOf(guidDefinitionCount, capacity);
+        guidFirstLocation = Arrays.copyOf(guidFirstLocation, capacity);
+        guidLastLocation = Arrays.copyOf(guidLastLocation, capacity);
+        Arrays.fill(guidOwner, oldCapacity, capacity, NO_FILE);
+        Arrays.fill(guidFirstLocation, oldCapacity, capacity, NO_LOCATION);
+        Arrays.fill(guidLastLocation, oldCapacity, capacity, NO_LOCATION);
+    }
+    
+    private int intern(String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+    
+    private int countDistinctGuids(IntList handles) {
+        BitSet seen = new BitSet(guidIndex.size());
+        for (int i = 0; i < handles.size; i++) {
+            seen.set(locationGuid[handles.values[i]]);
+        }
+        return seen.cardinality();
     }
     
     /**
-     * Generate a random GUID in WARNO format
+     * Materialise the live locations of a GUID id as GUIDLocation views
      */
-    private String generateRandomGuid() {
-        Random random = new Random();
-        StringBuilder guid = new StringBuilder();
-        
-        // WARNO GUIDs are typically 8-4-4-4-12 format
-        for (int i = 0; i < 32; i++) {
-            if (i == 8 || i == 12 || i == 16 || i == 20) {
-                guid.append('-');
+    private List<GUIDLocation> buildLocations(int guid) {
+        List<GUIDLocation> locations = new ArrayList<>(guidUsageCount[guid]);
+        for (int location = guidFirstLocation[guid]; location != NO_LOCATION; location = locationNext[location]) {
+            byte flags = locationFlags[location];
+            if ((flags & LOCATION_REMOVED) != 0) {
+                continue;
             }
-            guid.append(Integer.toHexString(random.nextInt(16)).toUpperCase());
+            String objectName = strings.get(locationObject[location]);
+            String propertyPath = strings.get(locationPath[location]);
+            locations.add(new GUIDLocation(strings.get(locationFile[location]), objectName, propertyPath,
+                                           objectName + "." + propertyPath, (flags & LOCATION_DEFINITION) != 0));
         }
+        return locations;
+    }
+    
+    /**
+     * Check if a GUID is unique across all files
+     */
+    public synchronized boolean isGuidUnique(String guid) {
+        int id = guidIndex.find(guid);
+        // Count definitions (should be at most 1)
+        return id == GUIDIndex.NOT_FOUND || guidDefinitionCount[id] <= 1;
+    }
+    
+    /**
+     * Single linear pass over the location table marking GUIDs with multiple
+     * definitions or usages in more than one file
+     */
+    private BitSet findConflictingGuidIds() {
+        int guidCount = guidIndex.size();
+        BitSet conflicting = new BitSet(guidCount);
+        int[] firstFile = new int[guidCount];
+        Arrays.fill(firstFile, NO_FILE);
         
-        return guid.toString();
+        for (int location = 0; location < locationCount; location++) {
+            if ((locationFlags[location] & LOCATION_REMOVED) != 0) {
+                continue;
+            }
+            int guid = locationGuid[location];
+            if (guidDefinitionCount[guid] > 1) {
+                conflicting.set(guid);
+            } else if (firstFile[guid] == NO_FILE) {
+                firstFile[guid] = locationFile[location];
+            } else if (firstFile[guid] != locationFile[location]) {
+                conflicting.set(guid);
+            }
+        }
+        return conflicting;
+    }
+    
+    /**
+     * Find all GUID conflicts (GUIDs used in multiple files or multiple definitions)
+     */
+    public synchronized Map<String, List<GUIDLocation>> findGuidConflicts() {
+        BitSet conflicting = findConflictingGuidIds();
+        Map<String, List<GUIDLocation>> conflicts = new LinkedHashMap<>();
+        for (int guid = conflicting.nextSetBit(0); guid >= 0; guid = conflicting.nextSetBit(guid + 1)) {
+            conflicts.put(guidIndex.getText(guid), buildLocations(guid));
+        }
+        return conflicts;
+    }
+    
+    /**
+     * Generate a new unique GUID in WARNO format (bare upper-case 8-4-4-4-12)
+     */
+    public String generateUniqueGuid() {
+        return toWarnoFormat(allocator.allocate());
+    }
+    
+    /**
+     * Generate a batch of new unique GUIDs in WARNO format
+     */
+    public List<String> generateUniqueGuids(int count) {
+        List<String> guids = allocator.allocate(count);
+        guids.replaceAll(GlobalGUIDManager::toWarnoFormat);
+        return guids;
+    }
+    
+    /**
+     * Strip the NDF wrapper from an allocated GUID:{...}
+     */
+    private static String toWarnoFormat(String ndfGuid) {
+        return ndfGuid.substring(6, ndfGuid.length() - 1).toUpperCase(Locale.ROOT);
     }
     
     /**
      * Reserve a GUID to prevent it from being generated
      */
     public void reserveGuid(String guid) {
-        reservedGuids.add(guid);
+        allocator.reserve(guid);
+    }
+    
+    /**
+     * Get the GUID allocation service backed by this manager's index
+     */
+    public GUIDAllocator getAllocator() {
+        return allocator;
     }
     
     /**
      * Get the file that owns a specific GUID
      */
-    public String getFileOwningGuid(String guid) {
-        return guidToFile.get(guid);
+    public synchronized String getFileOwningGuid(String guid) {
+        int id = guidIndex.find(guid);
+        if (id == GUIDIndex.NOT_FOUND || guidOwner[id] == NO_FILE) {
+            return null;
+        }
+        return strings.get(guidOwner[id]);
     }
     
     /**
      * Get all GUIDs used in a specific file
      */
-    public Set<String> getGuidsInFile(String fileName) {
-        Set<String> guids = fileGuids.get(fileName);
-        return guids != null ? new HashSet<>(guids) : new HashSet<>();
+    public synchronized Set<String> getGuidsInFile(String fileName) {
+        Set<String> guids = new HashSet<>();
+        IntList handles = fileLocations.get(fileName);
+        if (handles != null) {
+            for (int i = 0; i < handles.size; i++) {
+                guids.add(guidIndex.getText(locationGuid[handles.values[i]]));
+            }
+        }
+        return guids;
     }
     
     /**
      * Get all locations where a GUID is used
      */
-    public List<GUIDLocation> getGuidLocations(String guid) {
-        List<GUIDLocation> locations = guidLocations.get(guid);
-        return locations != null ? new ArrayList<>(locations) : new ArrayList<>();
+    public synchronized List<GUIDLocation> getGuidLocations(String guid) {
+        int id = guidIndex.find(guid);
+        return id != GUIDIndex.NOT_FOUND ? buildLocations(id) : new ArrayList<>();
     }
     
     /**
      * Validate all GUID usage across files
      */
-    public GUIDValidationResult validateAllGuids() {
+    public synchronized GUIDValidationResult validateAllGuids() {
         Map<String, List<GUIDLocation>> conflicts = findGuidConflicts();
         List<String> orphanedGuids = new ArrayList<>();
         
         // Find orphaned GUIDs (referenced but not defined)
-        for (Map.Entry<String, List<GUIDLocation>> entry : guidLocations.entrySet()) {
-            String guid = entry.getKey();
-            List<GUIDLocation> locations = entry.getValue();
-            
-            boolean hasDefinition = locations.stream().anyMatch(GUIDLocation::isDefinition);
-            boolean hasReferences = locations.stream().anyMatch(loc -> !loc.isDefinition());
+        int guidCount = guidIndex.size();
+        for (int guid = 0; guid < guidCount; guid++) {
+            boolean hasDefinition = guidDefinitionCount[guid] > 0;
+            boolean hasReferences = guidUsageCount[guid] > guidDefinitionCount[guid];
             
             if (hasReferences && !hasDefinition) {
-                orphanedGuids.add(guid);
+                orphanedGuids.add(guidIndex.getText(guid));
             }
         }
         
@@ -298,11 +551,16 @@ public class GlobalGUIDManager {
     /**
      * Get comprehensive statistics
      */
-    public String getStatistics() {
-        int totalGuids = guidToFile.size();
-        int totalFiles = fileGuids.size();
-        int conflicts = findGuidConflicts().size();
-        int totalUsages = guidLocations.values().stream().mapToInt(List::size).sum();
+    public synchronized String getStatistics() {
+        int totalGuids = 0;
+        for (int guid = 0; guid < guidIndex.size(); guid++) {
+            if (guidOwner[guid] != NO_FILE) {
+                totalGuids++;
+            }
+        }
+        int totalFiles = fileLocations.size();
+        int conflicts = findConflictingGuidIds().cardinality();
+        int totalUsages = locationCount - removedLocationCount;
         
         return String.format("Global GUIDs: %d unique GUIDs across %d files, %d conflicts, %d total usages",
                            totalGuids, totalFiles, conflicts, totalUsages);
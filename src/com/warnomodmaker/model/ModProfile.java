@@ -2,13 +2,17 @@ package com.warnomodmaker.model;
 
 import com.warnomodmaker.model.PropertyUpdater.ModificationType;
 
+import com.warnomodmaker.util.JsonReader;
+import com.warnomodmaker.util.JsonWriter;
+
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 
-public class ModProfile {
+public class ModProfile implements ModificationRecordSource {
     private String profileName;
     private String description;
     private LocalDateTime createdDate;
@@ -104,6 +108,16 @@ public class ModProfile {
         return !modifications.isEmpty();
     }
 
+    @Override
+    public int getRecordCount() {
+        return modifications.size();
+    }
+
+    @Override
+    public List<ModificationRecord> getRecords(int from, int to) {
+        return new ArrayList<>(modifications.subList(from, to));
+    }
+
     
     public String getFormattedCreatedDate() {
         return createdDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
@@ -123,262 +137,365 @@ public class ModProfile {
      * SPYBORG ENHANCEMENT: Save with _meta/_input structure separation
      */
     public void saveToFile(File file, boolean useMetaInputStructure) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
+        saveToFile(file, this, useMetaInputStructure);
+    }
+
+    /**
+     * Save this profile's metadata with records from another source, page by page
+     */
+    private void saveToFile(File file, ModificationRecordSource records, boolean useMetaInputStructure) throws IOException {
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8)))) {
             if (useMetaInputStructure) {
-                saveWithMetaInputStructure(writer);
+                saveWithMetaInputStructure(writer, records);
             } else {
-                saveLegacyStructure(writer);
+                saveLegacyStructure(writer, records);
             }
         }
     }
 
-    private void saveWithMetaInputStructure(PrintWriter writer) {
-        writer.println("{");
-        writer.println("  \"_meta\": {");
-        writer.println("    \"description\": \"Profile metadata and tracking information\",");
-        writer.println("    \"author\": \"" + escapeJson(createdBy) + "\",");
-        writer.println("    \"created\": \"" + createdDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-        writer.println("    \"lastModified\": \"" + lastModified.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-        writer.println("    \"version\": \"1.0\",");
-        writer.println("    \"modificationCount\": " + modifications.size() + ",");
-        writer.println("    \"tags\": [\"warno\", \"mod\", \"profile\"]");
-        writer.println("  },");
-        writer.println("  \"_input\": {");
-        writer.println("    \"formatVersion\": \"" + FORMAT_VERSION + "\",");
-        writer.println("    \"profileName\": \"" + escapeJson(profileName) + "\",");
-        writer.println("    \"description\": \"" + escapeJson(description) + "\",");
-        writer.println("    \"gameVersion\": \"" + escapeJson(gameVersion) + "\",");
-        writer.println("    \"sourceFileName\": \"" + escapeJson(sourceFileName) + "\",");
-        writer.println("    \"createdBy\": \"" + escapeJson(createdBy) + "\",");
-        writer.println("    \"createdDate\": \"" + createdDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-        writer.println("    \"lastModified\": \"" + lastModified.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-        writer.println("    \"modificationCount\": " + modifications.size() + ",");
-        writer.println("    \"modifications\": [");
-
-        for (int i = 0; i < modifications.size(); i++) {
-            ModificationRecord mod = modifications.get(i);
-            writer.println("      {");
-            writer.println("        \"unitName\": \"" + escapeJson(mod.getUnitName()) + "\",");
-            writer.println("        \"propertyPath\": \"" + escapeJson(mod.getPropertyPath()) + "\",");
-            writer.println("        \"oldValue\": \"" + escapeJson(mod.getOldValue()) + "\",");
-            writer.println("        \"newValue\": \"" + escapeJson(mod.getNewValue()) + "\",");
-            writer.println("        \"oldValueType\": \"" + mod.getOldValueType() + "\",");
-            writer.println("        \"newValueType\": \"" + mod.getNewValueType() + "\",");
-            writer.println("        \"timestamp\": \"" + mod.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-            writer.println("        \"modificationType\": \"" + mod.getModificationType().name() + "\",");
-            writer.println("        \"modificationDetails\": \"" + escapeJson(mod.getModificationDetails()) + "\"");
-            writer.print("      }");
-            if (i < modifications.size() - 1) {
-                writer.println(",");
-            } else {
-                writer.println();
-            }
-        }
+    /**
+     * Save in the compact binary format (see BinaryProfileWriter)
+     */
+    public void saveToBinaryFile(File file) throws IOException {
+        BinaryProfileWriter.write(this, file);
+    }
 
-        writer.println("    ]");
-        writer.println("  }");
-        writer.println("}");
-    }
-
-    private void saveLegacyStructure(PrintWriter writer) {
-        writer.println("{");
-        writer.println("  \"formatVersion\": \"" + FORMAT_VERSION + "\",");
-        writer.println("  \"profileName\": \"" + escapeJson(profileName) + "\",");
-        writer.println("  \"description\": \"" + escapeJson(description) + "\",");
-        writer.println("  \"createdDate\": \"" + createdDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-        writer.println("  \"lastModified\": \"" + lastModified.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-        writer.println("  \"gameVersion\": \"" + escapeJson(gameVersion) + "\",");
-        writer.println("  \"sourceFileName\": \"" + escapeJson(sourceFileName) + "\",");
-        writer.println("  \"createdBy\": \"" + escapeJson(createdBy) + "\",");
-        writer.println("  \"modificationCount\": " + modifications.size() + ",");
-        writer.println("  \"modifications\": [");
-
-        for (int i = 0; i < modifications.size(); i++) {
-            ModificationRecord mod = modifications.get(i);
-            writer.println("    {");
-            writer.println("      \"unitName\": \"" + escapeJson(mod.getUnitName()) + "\",");
-            writer.println("      \"propertyPath\": \"" + escapeJson(mod.getPropertyPath()) + "\",");
-            writer.println("      \"oldValue\": \"" + escapeJson(mod.getOldValue()) + "\",");
-            writer.println("      \"newValue\": \"" + escapeJson(mod.getNewValue()) + "\",");
-            writer.println("      \"oldValueType\": \"" + mod.getOldValueType() + "\",");
-            writer.println("      \"newValueType\": \"" + mod.getNewValueType() + "\",");
-            writer.println("      \"timestamp\": \"" + mod.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\",");
-            writer.println("      \"modificationType\": \"" + mod.getModificationType().name() + "\",");
-            writer.println("      \"modificationDetails\": \"" + escapeJson(mod.getModificationDetails()) + "\"");
-            writer.print("    }");
-            if (i < modifications.size() - 1) {
-                writer.println(",");
-            } else {
-                writer.println();
-            }
+    /**
+     * Convert a JSON profile (either layout) to the binary format, one record at a time
+     */
+    public static void convertJsonToBinary(File jsonFile, File binaryFile) throws IOException {
+        try (BinaryProfileWriter writer = new BinaryProfileWriter(binaryFile)) {
+            ModProfile header = loadFromFile(jsonFile, record -> {
+                try {
+                    writer.write(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish(header);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+    }
 
-        writer.println("  ]");
-        writer.println("}");
+    /**
+     * Convert a binary profile back to JSON, one page of records at a time
+     */
+    public static void convertBinaryToJson(File binaryFile, File jsonFile, boolean useMetaInputStructure) throws IOException {
+        try (BinaryProfileReader reader = new BinaryProfileReader(binaryFile)) {
+            reader.getProfile().saveToFile(jsonFile, reader, useMetaInputStructure);
+        }
     }
 
-    
-    public static ModProfile loadFromFile(File file) throws IOException {
-        ModProfile profile = new ModProfile();
-        List<ModificationRecord> mods = new ArrayList<>();
+    private void saveWithMetaInputStructure(JsonWriter writer, ModificationRecordSource records) throws IOException {
+        writer.beginObject();
+        writer.name("_meta").beginObject();
+        writer.name("description").value("Profile metadata and tracking information");
+        writer.name("author").value(nullToEmpty(createdBy));
+        writer.name("created").value(createdDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.name("lastModified").value(lastModified.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.name("version").value("1.0");
+        writer.name("modificationCount").value(records.getRecordCount());
+        writer.name("tags").inlineArray("warno", "mod", "profile");
+        writer.endObject();
+        writer.name("_input").beginObject();
+        writer.name("formatVersion").value(FORMAT_VERSION);
+        writer.name("profileName").value(nullToEmpty(profileName));
+        writer.name("description").value(nullToEmpty(description));
+        writer.name("gameVersion").value(nullToEmpty(gameVersion));
+        writer.name("sourceFileName").value(nullToEmpty(sourceFileName));
+        writer.name("createdBy").value(nullToEmpty(createdBy));
+        writer.name("createdDate").value(createdDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.name("lastModified").value(lastModified.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.name("modificationCount").value(records.getRecordCount());
+        writeModifications(writer, records);
+        writer.endObject();
+        writer.endObject();
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
-            StringBuilder jsonContent = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                jsonContent.append(line).append("\n");
-            }
-            String content = jsonContent.toString();
+    private void saveLegacyStructure(JsonWriter writer, ModificationRecordSource records) throws IOException {
+        writer.beginObject();
+        writer.name("formatVersion").value(FORMAT_VERSION);
+        writer.name("profileName").value(nullToEmpty(profileName));
+        writer.name("description").value(nullToEmpty(description));
+        writer.name("createdDate").value(createdDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.name("lastModified").value(lastModified.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.name("gameVersion").value(nullToEmpty(gameVersion));
+        writer.name("sourceFileName").value(nullToEmpty(sourceFileName));
+        writer.name("createdBy").value(nullToEmpty(createdBy));
+        writer.name("modificationCount").value(records.getRecordCount());
+        writeModifications(writer, records);
+        writer.endObject();
+    }
 
-            // SPYBORG ENHANCEMENT: Detect if this is a _meta/_input structure or legacy structure
-            if (content.contains("\"_input\"") && content.contains("\"_meta\"")) {
-                loadFromMetaInputStructure(profile, content);
-            } else {
-                loadFromLegacyStructure(profile, content);
+    private static void writeModifications(JsonWriter writer, ModificationRecordSource records) throws IOException {
+        writer.name("modifications").beginArray();
+        int count = records.getRecordCount();
+        for (int from = 0; from < count; from += BinaryProfileWriter.RECORDS_PER_PAGE) {
+            for (ModificationRecord mod : records.getRecords(from, Math.min(count, from + BinaryProfileWriter.RECORDS_PER_PAGE))) {
+                writeModification(writer, mod);
             }
         }
+        writer.endArray();
+    }
 
-        return profile;
+    private static void writeModification(JsonWriter writer, ModificationRecord mod) throws IOException {
+        writer.beginObject();
+        writer.name("unitName").value(nullToEmpty(mod.getUnitName()));
+        writer.name("propertyPath").value(nullToEmpty(mod.getPropertyPath()));
+        writer.name("oldValue").value(nullToEmpty(mod.getOldValue()));
+        writer.name("newValue").value(nullToEmpty(mod.getNewValue()));
+        writer.name("oldValueType").value(String.valueOf(mod.getOldValueType()));
+        writer.name("newValueType").value(String.valueOf(mod.getNewValueType()));
+        writer.name("timestamp").value(formatTimestamp(mod.getTimestamp()));
+        writer.name("modificationType").value(mod.getModificationType().name());
+        writer.name("modificationDetails").value(nullToEmpty(mod.getModificationDetails()));
+        writer.endObject();
     }
 
-    private static void loadFromMetaInputStructure(ModProfile profile, String content) {
-        // Extract from _input section
-        String inputSection = extractJsonSection(content, "_input");
-        if (!inputSection.isEmpty()) {
-            profile.profileName = extractJsonValue(inputSection, "profileName");
-            profile.description = extractJsonValue(inputSection, "description");
-            profile.gameVersion = extractJsonValue(inputSection, "gameVersion");
-            profile.sourceFileName = extractJsonValue(inputSection, "sourceFileName");
-            profile.createdBy = extractJsonValue(inputSection, "createdBy");
+    /**
+     * Same text as DateTimeFormatter.ISO_LOCAL_DATE_TIME, without the formatter overhead for four-digit years
+     */
+    static String formatTimestamp(LocalDateTime timestamp) {
+        int year = timestamp.getYear();
+        if (year < 0 || year > 9999) {
+            return timestamp.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
 
-            String createdDateStr = extractJsonValue(inputSection, "createdDate");
-            if (!createdDateStr.isEmpty()) {
-                profile.createdDate = LocalDateTime.parse(createdDateStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        char[] chars = new char[29];
+        appendDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        appendDigits(chars, 5, timestamp.getMonthValue(), 2);
+        chars[7] = '-';
+        appendDigits(chars, 8, timestamp.getDayOfMonth(), 2);
+        chars[10] = 'T';
+        appendDigits(chars, 11, timestamp.getHour(), 2);
+        chars[13] = ':';
+        appendDigits(chars, 14, timestamp.getMinute(), 2);
+        chars[16] = ':';
+        appendDigits(chars, 17, timestamp.getSecond(), 2);
+
+        int length = 19;
+        int nano = timestamp.getNano();
+        if (nano != 0) {
+            // Fraction digits with trailing zeros removed
+            chars[19] = '.';
+            appendDigits(chars, 20, nano, 9);
+            length = 29;
+            while (chars[length - 1] == '0') {
+                length--;
             }
+        }
+        return new String(chars, 0, length);
+    }
 
-            String lastModifiedStr = extractJsonValue(inputSection, "lastModified");
-            if (!lastModifiedStr.isEmpty()) {
-                profile.lastModified = LocalDateTime.parse(lastModifiedStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    /**
+     * Parse ISO_LOCAL_DATE_TIME text, taking a direct path for the yyyy-MM-ddTHH:mm:ss[.fraction] form
+     */
+    static LocalDateTime parseTimestamp(String text) {
+        int length = text.length();
+        if (length >= 19 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int year = parseDigits(text, 0, 4);
+            int month = parseDigits(text, 5, 2);
+            int day = parseDigits(text, 8, 2);
+            int hour = parseDigits(text, 11, 2);
+            int minute = parseDigits(text, 14, 2);
+            int second = parseDigits(text, 17, 2);
+            int nano = 0;
+            boolean valid = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0;
+            if (valid && length > 19) {
+                int fractionDigits = length - 20;
+                valid = text.charAt(19) == '.' && fractionDigits >= 1 && fractionDigits <= 9;
+                if (valid) {
+                    nano = parseDigits(text, 20, fractionDigits);
+                    for (int i = fractionDigits; i < 9 && nano >= 0; i++) {
+                        nano *= 10;
+                    }
+                    valid = nano >= 0;
+                }
+            }
+            if (valid) {
+                // LocalDateTime.of rejects out-of-range fields just like the formatter
+                return LocalDateTime.of(year, month, day, hour, minute, second, nano);
             }
-
-            profile.modifications = parseModifications(inputSection);
         }
+        return LocalDateTime.parse(text, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
 
-    private static void loadFromLegacyStructure(ModProfile profile, String content) {
-        // Extract basic profile information from root level
-        profile.profileName = extractJsonValue(content, "profileName");
-        profile.description = extractJsonValue(content, "description");
-        profile.gameVersion = extractJsonValue(content, "gameVersion");
-        profile.sourceFileName = extractJsonValue(content, "sourceFileName");
-        profile.createdBy = extractJsonValue(content, "createdBy");
-
-        String createdDateStr = extractJsonValue(content, "createdDate");
-        if (!createdDateStr.isEmpty()) {
-            profile.createdDate = LocalDateTime.parse(createdDateStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private static void appendDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
         }
+    }
 
-        String lastModifiedStr = extractJsonValue(content, "lastModified");
-        if (!lastModifiedStr.isEmpty()) {
-            profile.lastModified = LocalDateTime.parse(lastModifiedStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private static int parseDigits(String text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
         }
+        return value;
+    }
 
-        profile.modifications = parseModifications(content);
+    private static String nullToEmpty(String str) {
+        return str != null ? str : "";
     }
 
-    private static String extractJsonSection(String content, String sectionName) {
-        String pattern = "\"" + sectionName + "\"\\s*:\\s*\\{";
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-        java.util.regex.Matcher m = p.matcher(content);
 
-        if (m.find()) {
-            int start = m.end() - 1; // Include the opening brace
-            int braceCount = 1;
-            int i = start + 1;
+    public static ModProfile loadFromFile(File file) throws IOException {
+        if (BinaryProfileReader.isBinaryProfile(file)) {
+            return BinaryProfileReader.read(file);
+        }
 
-            while (i < content.length() && braceCount > 0) {
-                char c = content.charAt(i);
-                if (c == '{') braceCount++;
-                else if (c == '}') braceCount--;
-                i++;
-            }
+        List<ModificationRecord> mods = new ArrayList<>();
+        ModProfile profile = loadFromFile(file, mods::add);
+        profile.modifications = mods;
+        return profile;
+    }
 
-            if (braceCount == 0) {
-                return content.substring(start, i);
+    /**
+     * Stream a profile file, handing each modification record to the consumer as it is read
+     * instead of keeping them. The returned profile carries the metadata and no modifications.
+     * Accepts both JSON layouts (legacy and _meta/_input) and binary profiles.
+     */
+    public static ModProfile loadFromFile(File file, Consumer<ModificationRecord> recordConsumer) throws IOException {
+        if (BinaryProfileReader.isBinaryProfile(file)) {
+            try (BinaryProfileReader reader = new BinaryProfileReader(file)) {
+                int count = reader.getRecordCount();
+                for (int from = 0; from < count; from += BinaryProfileWriter.RECORDS_PER_PAGE) {
+                    reader.getRecords(from, Math.min(count, from + BinaryProfileWriter.RECORDS_PER_PAGE)).forEach(recordConsumer);
+                }
+                return reader.getProfile();
             }
         }
 
-        return "";
-    }
+        ModProfile profile = new ModProfile();
+        Map<String, String> rootFields = new HashMap<>();
+        Map<String, String> inputFields = null;
+        boolean hasMeta = false;
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            RecordReader records = new RecordReader(recordConsumer);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("_meta")) {
+                    hasMeta = true;
+                    reader.skipValue();
+                } else if (name.equals("_input") && reader.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                    inputFields = new HashMap<>();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        readProfileMember(reader, reader.nextName(), inputFields, records);
+                    }
+                    reader.endObject();
+                } else {
+                    readProfileMember(reader, name, rootFields, records);
+                }
+            }
+            reader.endObject();
+        }
 
-    
-    private String escapeJson(String str) {
-        if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t");
+        // SPYBORG ENHANCEMENT: _meta/_input files keep the profile fields in the _input section
+        profile.applyFields(hasMeta && inputFields != null ? inputFields : rootFields);
+        return profile;
     }
 
-    
-    private static String extractJsonValue(String content, String key) {
-        String pattern = "\"" + key + "\"\\s*:\\s*\"([^\"]*?)\"";
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-        java.util.regex.Matcher m = p.matcher(content);
-        if (m.find()) {
-            return m.group(1);
+    private static void readProfileMember(JsonReader reader, String name, Map<String, String> fields,
+                                          RecordReader records) throws IOException {
+        JsonReader.Token token = reader.peek();
+        if (name.equals("modifications") && token == JsonReader.Token.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                records.read(reader);
+            }
+            reader.endArray();
+        } else if (token == JsonReader.Token.STRING) {
+            fields.put(name, reader.nextString());
+        } else {
+            reader.skipValue();
         }
-        return "";
     }
 
-    
-    private static List<ModificationRecord> parseModifications(String content) {
-        List<ModificationRecord> modifications = new ArrayList<>();
-        int modificationsStart = content.indexOf("\"modifications\": [");
-        if (modificationsStart == -1) {
-            return modifications;
-        }
+    private void applyFields(Map<String, String> fields) {
+        profileName = fields.getOrDefault("profileName", "");
+        description = fields.getOrDefault("description", "");
+        gameVersion = fields.getOrDefault("gameVersion", "");
+        sourceFileName = fields.getOrDefault("sourceFileName", "");
+        createdBy = fields.getOrDefault("createdBy", "");
 
-        int arrayStart = content.indexOf("[", modificationsStart);
-        int arrayEnd = findMatchingBracket(content, arrayStart);
+        String createdDateStr = fields.getOrDefault("createdDate", "");
+        if (!createdDateStr.isEmpty()) {
+            createdDate = LocalDateTime.parse(createdDateStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
 
-        if (arrayStart == -1 || arrayEnd == -1) {
-            return modifications;
+        String lastModifiedStr = fields.getOrDefault("lastModified", "");
+        if (!lastModifiedStr.isEmpty()) {
+            lastModified = LocalDateTime.parse(lastModifiedStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         }
+    }
 
-        String modificationsArray = content.substring(arrayStart + 1, arrayEnd);
+    /**
+     * Reads modification record objects one at a time, sharing repeated strings between records
+     */
+    private static class RecordReader {
+        private final Consumer<ModificationRecord> consumer;
+        private final Map<String, String> sharedStrings = new HashMap<>();
 
-        // Split by objects (simple approach)
-        String[] objects = modificationsArray.split("\\},\\s*\\{");
+        RecordReader(Consumer<ModificationRecord> consumer) {
+            this.consumer = consumer;
+        }
 
-        for (String obj : objects) {
-            // Clean up the object string
-            obj = obj.trim();
-            if (obj.startsWith("{")) {
-                obj = obj.substring(1);
-            }
-            if (obj.endsWith("}")) {
-                obj = obj.substring(0, obj.length() - 1);
+        void read(JsonReader reader) throws IOException {
+            if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+                reader.skipValue();
+                return;
             }
 
-            if (obj.trim().isEmpty()) {
-                continue;
+            String unitName = "";
+            String propertyPath = "";
+            String oldValue = "";
+            String newValue = "";
+            String oldValueType = "";
+            String newValueType = "";
+            String timestampStr = "";
+            String modificationTypeStr = "";
+            String modificationDetails = "";
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                JsonReader.Token token = reader.peek();
+                if (token != JsonReader.Token.STRING && token != JsonReader.Token.NUMBER && token != JsonReader.Token.BOOLEAN) {
+                    reader.skipValue();
+                    continue;
+                }
+                String value = reader.nextString();
+                switch (name) {
+                    case "unitName": unitName = shared(value); break;
+                    case "propertyPath": propertyPath = value; break;
+                    case "oldValue": oldValue = value; break;
+                    case "newValue": newValue = value; break;
+                    case "oldValueType": oldValueType = shared(value); break;
+                    case "newValueType": newValueType = shared(value); break;
+                    case "timestamp": timestampStr = value; break;
+                    case "modificationType": modificationTypeStr = value; break;
+                    case "modificationDetails": modificationDetails = value; break;
+                    default: break;
+                }
             }
-            try {
-                String unitName = extractValueFromObject(obj, "unitName");
-                String propertyPath = extractValueFromObject(obj, "propertyPath");
-                String oldValue = extractValueFromObject(obj, "oldValue");
-                String newValue = extractValueFromObject(obj, "newValue");
-                String oldValueType = extractValueFromObject(obj, "oldValueType");
-                String newValueType = extractValueFromObject(obj, "newValueType");
-                String timestampStr = extractValueFromObject(obj, "timestamp");
-                String modificationTypeStr = extractValueFromObject(obj, "modificationType");
-                String modificationDetails = extractValueFromObject(obj, "modificationDetails");
+            reader.endObject();
 
+            ModificationRecord record;
+            try {
                 LocalDateTime timestamp = LocalDateTime.now();
                 if (!timestampStr.isEmpty()) {
-                    timestamp = LocalDateTime.parse(timestampStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                    timestamp = parseTimestamp(timestampStr);
                 }
 
                 PropertyUpdater.ModificationType modificationType = PropertyUpdater.ModificationType.SET;
@@ -390,51 +507,24 @@ public class ModProfile {
                     }
                 }
 
-                ModificationRecord record = new ModificationRecord(
+                record = new ModificationRecord(
                     unitName, propertyPath, oldValue, newValue, oldValueType, newValueType,
                     timestamp, modificationType, modificationDetails
                 );
-
-                modifications.add(record);
             } catch (Exception e) {
                 // Skip malformed modification records
                 System.err.println("Failed to parse modification record: " + e.getMessage());
+                return;
             }
-        }
-
-        return modifications;
-    }
-
-    
-    private static int findMatchingBracket(String content, int openIndex) {
-        if (openIndex >= content.length() || content.charAt(openIndex) != '[') {
-            return -1;
-        }
 
-        int count = 1;
-        for (int i = openIndex + 1; i < content.length(); i++) {
-            char c = content.charAt(i);
-            if (c == '[') {
-                count++;
-            } else if (c == ']') {
-                count--;
-                if (count == 0) {
-                    return i;
-                }
-            }
+            // Outside the try so failures in the consumer (e.g. a full disk) reach the caller
+            consumer.accept(record);
         }
-        return -1;
-    }
 
-    
-    private static String extractValueFromObject(String objectStr, String key) {
-        String pattern = "\"" + key + "\"\\s*:\\s*\"([^\"]*?)\"";
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-        java.util.regex.Matcher m = p.matcher(objectStr);
-        if (m.find()) {
-            return m.group(1);
+        private String shared(String value) {
+            String existing = sharedStrings.putIfAbsent(value, value);
+            return existing != null ? existing : value;
         }
-        return "";
     }
 
     @Override
@@ -0,0 +1,17 @@
+package com.warnomodmaker.model;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Random access to a profile's modification records, in profile order.
+ * Lets callers page through records without holding them all (e.g. binary profiles on disk).
+ */
+public interface ModificationRecordSource {
+    int getRecordCount();
+
+    /**
+     * Records from (inclusive) to (exclusive)
+     */
+    List<ModificationRecord> getRecords(int from, int to) throws IOException;
+}
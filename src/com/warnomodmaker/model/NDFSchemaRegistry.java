@@ -42,6 +42,25 @@ public class NDFSchemaRegistry {
         }
     }
 
+    /**
+     * Add everything another registry has learned, as if its objects had been learned here
+     */
+    public void mergeFrom(NDFSchemaRegistry other) {
+        for (Map.Entry<String, DynamicObjectSchema> entry : other.objectSchemas.entrySet()) {
+            objectSchemas.computeIfAbsent(entry.getKey(), DynamicObjectSchema::new).mergeFrom(entry.getValue());
+        }
+        for (Map.Entry<String, DynamicModuleSchema> entry : other.moduleSchemas.entrySet()) {
+            moduleSchemas.computeIfAbsent(entry.getKey(), DynamicModuleSchema::new).mergeFrom(entry.getValue());
+        }
+        validEnumValues.addAll(other.validEnumValues);
+        for (Map.Entry<String, Set<NDFValue.ValueType>> entry : other.propertyTypes.entrySet()) {
+            propertyTypes.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+        }
+        for (Map.Entry<String, Integer> entry : other.propertyFrequency.entrySet()) {
+            propertyFrequency.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+    }
+
     /**
      * Learn schema from a single object
      */
@@ -335,6 +354,15 @@ public class NDFSchemaRegistry {
             propertyFrequency.merge(propertyName, 1, Integer::sum);
         }
 
+        public void mergeFrom(DynamicObjectSchema other) {
+            for (Map.Entry<String, Set<NDFValue.ValueType>> entry : other.propertyTypes.entrySet()) {
+                propertyTypes.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+            }
+            for (Map.Entry<String, Integer> entry : other.propertyFrequency.entrySet()) {
+                propertyFrequency.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+        }
+
         public Set<String> getAllProperties() {
             return new HashSet<>(propertyTypes.keySet());
         }
@@ -371,6 +399,15 @@ public class NDFSchemaRegistry {
             propertyFrequency.merge(propertyName, 1, Integer::sum);
         }
 
+        public void mergeFrom(DynamicModuleSchema other) {
+            for (Map.Entry<String, Set<NDFValue.ValueType>> entry : other.propertyTypes.entrySet()) {
+                propertyTypes.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+            }
+            for (Map.Entry<String, Integer> entry : other.propertyFrequency.entrySet()) {
+                propertyFrequency.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+        }
+
         public Set<String> getAllProperties() {
             return new HashSet<>(propertyTypes.keySet());
         }
@@ -50,6 +50,29 @@ public class NDFTemplateManager {
         generateDynamicTemplates();
     }
 
+    /**
+     * Add everything another manager has learned, as if its objects had been learned here.
+     * Templates are regenerated from the combined patterns.
+     */
+    public void mergeFrom(NDFTemplateManager other) {
+        topLevelObjectTypes.addAll(other.topLevelObjectTypes);
+        nestedObjectTypes.addAll(other.nestedObjectTypes);
+        for (Map.Entry<String, Map<String, Object>> entry : other.propertyDefaults.entrySet()) {
+            Map<String, Object> defaults = propertyDefaults.computeIfAbsent(entry.getKey(), k -> new HashMap<>());
+            for (Map.Entry<String, Object> defaultEntry : entry.getValue().entrySet()) {
+                defaults.putIfAbsent(defaultEntry.getKey(), defaultEntry.getValue());
+            }
+        }
+        for (Map.Entry<String, Integer> entry : other.propertyFrequency.entrySet()) {
+            propertyFrequency.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+
+        // A type may have become top-level, so rebuild rather than patch
+        objectTemplates.clear();
+        moduleTemplates.clear();
+        generateDynamicTemplates();
+    }
+
     /**
      * Analyze an object to learn template patterns
      */
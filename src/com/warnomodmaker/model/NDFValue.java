@@ -246,6 +246,13 @@ public abstract class NDFValue {
         return new NumberValue(value, originalFormat);
     }
 
+    /**
+     * A number from its literal text, parsed when first read
+     */
+    public static NDFValue createNumber(String originalFormat) {
+        return new NumberValue(originalFormat);
+    }
+
     
     public static NDFValue createBoolean(boolean value) {
         return new BooleanValue(value);
@@ -350,32 +357,58 @@ public abstract class NDFValue {
 
     
     public static class NumberValue extends NDFValue {
-        private final double value;
+        // Powers of ten that are exact doubles, for the literal fast path
+        private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        private double value;
+        private volatile boolean parsed; // false while value still has to be parsed from originalFormat
         private final boolean wasOriginallyInteger; // Track if the original value was an integer
         private final String originalFormat; // Store original format for preservation
 
         public NumberValue(double value) {
             this.value = value;
+            this.parsed = true;
             this.wasOriginallyInteger = (value == Math.floor(value) && !Double.isInfinite(value));
             this.originalFormat = null;
         }
 
         public NumberValue(double value, boolean wasOriginallyInteger) {
             this.value = value;
+            this.parsed = true;
             this.wasOriginallyInteger = wasOriginallyInteger;
             this.originalFormat = null;
         }
 
         public NumberValue(double value, String originalFormat) {
             this.value = value;
+            this.parsed = true;
             this.originalFormat = originalFormat;
             // Determine if original was integer by checking if format contains decimal point
-            this.wasOriginallyInteger = originalFormat != null && !originalFormat.contains(".");
-
+            this.wasOriginallyInteger = originalFormat != null && originalFormat.indexOf('.') < 0;
+        }
 
+        /**
+         * A number parsed from its literal text the first time its value is needed.
+         * Literals that aren't plain decimals are parsed here, so bad text still fails up front.
+         */
+        public NumberValue(String originalFormat) {
+            this.originalFormat = originalFormat;
+            this.wasOriginallyInteger = originalFormat.indexOf('.') < 0;
+            if (!isPlainDecimal(originalFormat)) {
+                this.value = Double.parseDouble(originalFormat);
+                this.parsed = true;
+            }
         }
 
         public double getValue() {
+            if (!parsed) {
+                // Racing threads compute the same value; the volatile write publishes it
+                value = parseDecimal(originalFormat);
+                parsed = true;
+            }
             return value;
         }
 
@@ -390,14 +423,73 @@ public abstract class NDFValue {
         
         public double getRoundedValue() {
             if (wasOriginallyInteger) {
-                return Math.round(value);
+                return Math.round(getValue());
             }
-            return value;
+            return getValue();
         }
 
         
         public int getIntValue() {
-            return (int) Math.round(value);
+            return (int) Math.round(getValue());
+        }
+
+        // -?digits(.digits?)? as produced by the tokenizer
+        private static boolean isPlainDecimal(String text) {
+            int length = text.length();
+            int i = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+            int digitsStart = i;
+            while (i < length && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == digitsStart) {
+                return false;
+            }
+            if (i < length && text.charAt(i) == '.') {
+                i++;
+                while (i < length && isDigit(text.charAt(i))) {
+                    i++;
+                }
+            }
+            return i == length;
+        }
+
+        /**
+         * Parse a plain decimal literal to exactly the double Double.parseDouble gives. Up to 15
+         * significant digits and 22 decimals, digits / 10^decimals is a single correctly rounded
+         * division of two exact doubles; anything longer goes to Double.parseDouble.
+         */
+        private static double parseDecimal(String text) {
+            int length = text.length();
+            boolean negative = text.charAt(0) == '-';
+            long digits = 0;
+            int significantDigits = 0;
+            int decimals = 0;
+            boolean afterPoint = false;
+            for (int i = negative ? 1 : 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (c == '.') {
+                    afterPoint = true;
+                    continue;
+                }
+                if (significantDigits > 0 || c != '0') {
+                    if (++significantDigits > 15) {
+                        return Double.parseDouble(text);
+                    }
+                }
+                digits = digits * 10 + (c - '0');
+                if (afterPoint) {
+                    decimals++;
+                }
+            }
+            if (decimals >= EXACT_POWERS_OF_TEN.length) {
+                return Double.parseDouble(text);
+            }
+            double result = decimals == 0 ? (double) digits : digits / EXACT_POWERS_OF_TEN[decimals];
+            return negative ? -result : result;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
         }
 
         @Override
@@ -409,7 +501,9 @@ public abstract class NDFValue {
         public NDFValue copy() {
             NumberValue copy;
 
-            if (originalFormat != null) {
+            if (originalFormat != null && !parsed) {
+                copy = new NumberValue(originalFormat);
+            } else if (originalFormat != null) {
                 copy = new NumberValue(value, originalFormat);
             } else {
                 copy = new NumberValue(value, wasOriginallyInteger);
@@ -428,11 +522,11 @@ public abstract class NDFValue {
 
             // For values that were originally integers, return integer representation
             if (wasOriginallyInteger) {
-                return Integer.toString((int) Math.round(value));
+                return Integer.toString((int) Math.round(getValue()));
             }
 
             // For float values, ensure we return a float representation even if it's a whole number
-            String formattedValue = formatDecimalNumber(value);
+            String formattedValue = formatDecimalNumber(getValue());
             if (!formattedValue.contains(".")) {
                 return formattedValue + ".0";
             }
@@ -0,0 +1,180 @@
+package com.warnomodmaker.model;
+
+import com.warnomodmaker.model.NDFValue.ObjectValue;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Applies a profile's modification records to parsed objects without any UI.
+ * Paths missing from the objects are migrated through the PropertyPathMigrationManager when a
+ * confident match exists; everything else is counted and skipped, the same records the
+ * profile dialog would flag as invalid.
+ */
+public class ProfileApplier {
+
+    private static final int PAGE_SIZE = BinaryProfileWriter.RECORDS_PER_PAGE;
+
+    // Fuzzy matches at or below this are only suggestions in the dialog, so they aren't applied here
+    private static final double MIN_MIGRATION_CONFIDENCE = 0.8;
+
+    private final List<ObjectValue> objects;
+    private final NDFValue.NDFFileType fileType;
+    private final ModificationTracker tracker;
+    private final PropertyPathMigrationManager migrationManager;
+    private final UnitNameIndex unitIndex;
+
+    /**
+     * @param migrationManager used to migrate stale paths; null applies paths as recorded
+     */
+    public ProfileApplier(List<ObjectValue> objects, NDFValue.NDFFileType fileType, ModificationTracker tracker,
+                          PropertyPathMigrationManager migrationManager) {
+        this.objects = objects;
+        this.fileType = fileType;
+        this.tracker = tracker;
+        this.migrationManager = migrationManager;
+        this.unitIndex = new UnitNameIndex(objects);
+
+        if (migrationManager != null) {
+            migrationManager.learnValidPaths(fileType, objects);
+        }
+    }
+
+    /**
+     * Apply every record in profile order
+     */
+    public Result apply(ModificationRecordSource records) throws IOException {
+        Result result = new Result();
+        int count = records.getRecordCount();
+        for (int from = 0; from < count; from += PAGE_SIZE) {
+            for (ModificationRecord record : records.getRecords(from, Math.min(count, from + PAGE_SIZE))) {
+                apply(record, result);
+            }
+        }
+        return result;
+    }
+
+    private void apply(ModificationRecord record, Result result) {
+        ObjectValue unit = unitIndex.findUnit(record.getUnitName());
+        if (unit == null) {
+            result.missingUnits++;
+            return;
+        }
+
+        String propertyPath = record.getPropertyPath();
+        if (!PropertyUpdater.hasProperty(unit, propertyPath, fileType)) {
+            propertyPath = migratePath(unit, propertyPath);
+            if (propertyPath == null) {
+                result.missingProperties++;
+                return;
+            }
+            result.migrated++;
+        }
+
+        try {
+            NDFValue newValue = parseValue(record.getNewValue(), record.getNewValueType());
+            if (PropertyUpdater.updateProperty(unit, propertyPath, newValue, tracker, fileType)) {
+                result.applied++;
+            } else {
+                result.unchanged++;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to apply modification to " + record.getUnitName() + "." + propertyPath + ": " + e.getMessage());
+            result.failed++;
+        }
+    }
+
+    private String migratePath(ObjectValue unit, String propertyPath) {
+        if (migrationManager == null) {
+            return null;
+        }
+        PropertyPathMigrationManager.MigrationResult migration = migrationManager.migratePath(propertyPath, fileType);
+        if (!migration.isSuccessful() || migration.getConfidence() < MIN_MIGRATION_CONFIDENCE) {
+            return null;
+        }
+        String migratedPath = migration.getMigratedPath();
+        return PropertyUpdater.hasProperty(unit, migratedPath, fileType) ? migratedPath : null;
+    }
+
+    /**
+     * Rebuild a value stored in a modification record from its text and type name
+     */
+    public static NDFValue parseValue(String valueStr, String valueType) {
+        switch (valueType) {
+            case "STRING":
+                // Handle quote type prefixes for string values
+                if (valueStr.startsWith("DQ:")) {
+                    // Double quotes
+                    String rawValue = valueStr.substring(3);
+                    return NDFValue.createString(rawValue, true);
+                } else if (valueStr.startsWith("SQ:")) {
+                    // Single quotes
+                    String rawValue = valueStr.substring(3);
+                    return NDFValue.createString(rawValue, false);
+                } else {
+                    // Legacy format without prefix - default to single quotes
+                    return NDFValue.createString(valueStr.replace("'", ""), false);
+                }
+            case "NUMBER":
+                // Preserve format information when parsing numbers from profiles
+                double numValue = Double.parseDouble(valueStr);
+                boolean wasInteger = !valueStr.contains(".");
+                return NDFValue.createNumber(numValue, wasInteger);
+            case "BOOLEAN":
+                return NDFValue.createBoolean(Boolean.parseBoolean(valueStr));
+            case "TEMPLATE_REF":
+                return NDFValue.createTemplateRef(valueStr);
+            case "RESOURCE_REF":
+                return NDFValue.createResourceRef(valueStr);
+            case "GUID":
+                return NDFValue.createGUID(valueStr);
+            default:
+                // For unknown types, try to parse as string with quote type detection
+                if (valueStr.startsWith("DQ:") || valueStr.startsWith("SQ:")) {
+                    boolean useDoubleQuotes = valueStr.startsWith("DQ:");
+                    String rawValue = valueStr.substring(3);
+                    return NDFValue.createString(rawValue, useDoubleQuotes);
+                } else {
+                    return NDFValue.createString(valueStr);
+                }
+        }
+    }
+
+    /**
+     * What happened to each record of one apply() call
+     */
+    public static class Result {
+        private int applied;
+        private int unchanged;
+        private int migrated;
+        private int missingUnits;
+        private int missingProperties;
+        private int failed;
+
+        public int getApplied() { return applied; }
+        public int getUnchanged() { return unchanged; }
+        public int getMigrated() { return migrated; }
+        public int getMissingUnits() { return missingUnits; }
+        public int getMissingProperties() { return missingProperties; }
+        public int getFailed() { return failed; }
+
+        public int getSkipped() {
+            return missingUnits + missingProperties + failed;
+        }
+
+        public void add(Result other) {
+            applied += other.applied;
+            unchanged += other.unchanged;
+            migrated += other.migrated;
+            missingUnits += other.missingUnits;
+            missingProperties += other.missingProperties;
+            failed += other.failed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d applied, %d unchanged, %d migrated, %d skipped (%d missing units, %d missing properties, %d failed)",
+                applied, unchanged, migrated, getSkipped(), missingUnits, missingProperties, failed);
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.warnomodmaker.model;
+
+import java.util.*;
+import com.warnomodmaker.util.StringSimilarity;
+
+/**
+ * Candidate index over learned property paths for fuzzy path migration.
+ * Paths are split once into components interned in a shared dictionary and bucketed
+ * by component count, and every dictionary component is indexed by its bigrams.
+ * A query only visits buckets whose component count can still reach the threshold and
+ * bounds each candidate with the length difference and the q-gram lemma (an edit
+ * destroys at most two bigrams) before any Levenshtein distance is computed.
+ * Results are identical to scoring every path with calculatePathSimilarity.
+ */
+public class PropertyPathIndex {
+
+    // Slack for bound comparisons so floating point rounding never prunes a real match
+    private static final double BOUND_EPSILON = 1e-9;
+    private static final int MAX_CACHED_QUERY_COMPONENTS = 512;
+
+    // Path ordinal -> path text and component ids; ordinals follow the source collection's order
+    private final String[] paths;
+    private final int[][] pathComponents;
+
+    // Component dictionary - id -> text and length
+    private final String[] components;
+    private final int[] componentLengths;
+
+    // Bigram of a lower-cased component -> (component id, occurrence count) pairs
+    private final Map<Integer, int[]> bigramPostings = new HashMap<>();
+    // False for components whose lower-cased form changes length; the bigram bound is skipped for them
+    private final boolean[] bigramBoundUsable;
+
+    // Component count -> path ordinals (ascending)
+    private final int[][] pathsByComponentCount;
+
+    // Query component -> cached similarities and bigram overlaps against the dictionary
+    private final Map<String, QueryComponent> queryCache = new HashMap<>();
+
+    /**
+     * Scored candidate
+     */
+    public static class Match {
+        private final String path;
+        private final double similarity;
+        private final int ordinal;
+
+        public Match(String path, double similarity, int ordinal) {
+            this.path = path;
+            this.similarity = similarity;
+            this.ordinal = ordinal;
+        }
+
+        public String getPath() { return path; }
+        public double getSimilarity() { return similarity; }
+    }
+
+    /**
+     * One component of a query path scored against the whole dictionary
+     */
+    private static class QueryComponent {
+        final String text;
+        final int length;
+        final boolean bigramBoundUsable;
+        final int[] sharedBigrams;    // component id -> shared bigram count (multiset intersection)
+        final double[] similarities;  // component id -> similarity, NaN until computed
+        final StringSimilarity.Matcher matcher;
+
+        QueryComponent(String text, boolean bigramBoundUsable, int[] sharedBigrams, int dictionarySize) {
+            this.text = text;
+            this.matcher = StringSimilarity.matcher(text);
+            this.length = text.length();
+            this.bigramBoundUsable = bigramBoundUsable;
+            this.sharedBigrams = sharedBigrams;
+            this.similarities = new double[dictionarySize];
+            Arrays.fill(similarities, Double.NaN);
+        }
+    }
+
+    public PropertyPathIndex(Collection<String> validPaths) {
+        Map<String, Integer> componentIds = new HashMap<>();
+        List<String> componentList = new ArrayList<>();
+        int[] bucketSizes = new int[8];
+
+        paths = new String[validPaths.size()];
+        pathComponents = new int[paths.length][];
+
+        int ordinal = 0;
+        for (String path : validPaths) {
+            List<String> parts = splitComponents(path);
+            int[] ids = new int[parts.size()];
+            for (int i = 0; i < ids.length; i++) {
+                String part = parts.get(i);
+                Integer id = componentIds.get(part);
+                if (id == null) {
+                    id = componentList.size();
+                    componentList.add(part);
+                    componentIds.put(part, id);
+                }
+                ids[i] = id;
+            }
+            paths[ordinal] = path;
+            pathComponents[ordinal] = ids;
+
+            if (ids.length >= bucketSizes.length) {
+                bucketSizes = Arrays.copyOf(bucketSizes, ids.length + 1);
+            }
+            bucketSizes[ids.length]++;
+            ordinal++;
+        }
+
+        components = componentList.toArray(new String[0]);
+        componentLengths = new int[components.length];
+        bigramBoundUsable = new boolean[components.length];
+        Map<Integer, List<int[]>> postingLists = new HashMap<>();
+        for (int id = 0; id < components.length; id++) {
+            componentLengths[id] = components[id].length();
+            String lower = components[id].toLowerCase();
+            bigramBoundUsable[id] = lower.length() == components[id].length();
+            for (Map.Entry<Integer, Integer> bigram : countBigrams(lower).entrySet()) {
+                postingLists.computeIfAbsent(bigram.getKey(), k -> new ArrayList<>()).add(new int[] { id, bigram.getValue() });
+            }
+        }
+        for (Map.Entry<Integer, List<int[]>> entry : postingLists.entrySet()) {
+            List<int[]> postings = entry.getValue();
+            int[] packed = new int[postings.size() * 2];
+            for (int i = 0; i < postings.size(); i++) {
+                packed[i * 2] = postings.get(i)[0];
+                packed[i * 2 + 1] = postings.get(i)[1];
+            }
+            bigramPostings.put(entry.getKey(), packed);
+        }
+
+        pathsByComponentCount = new int[bucketSizes.length][];
+        int[] fill = new int[bucketSizes.length];
+        for (int count = 0; count < bucketSizes.length; count++) {
+            pathsByComponentCount[count] = new int[bucketSizes[count]];
+        }
+        for (int i = 0; i < pathComponents.length; i++) {
+            int count = pathComponents[i].length;
+            pathsByComponentCount[count][fill[count]++] = i;
+        }
+    }
+
+    /**
+     * Find all learned paths whose similarity to the target is above the threshold,
+     * highest similarity first. Ties keep the source collection's order.
+     */
+    public synchronized List<Match> findMatches(String targetPath, double threshold) {
+        List<Match> matches = new ArrayList<>();
+        QueryComponent[] query = prepareQuery(targetPath);
+        if (query == null) {
+            return matches;
+        }
+
+        double[] upperBounds = new double[query.length];
+        for (int count = 1; count < pathsByComponentCount.length; count++) {
+            // Components missing on one side score 0, so the shorter path caps the average
+            int maxCount = Math.max(query.length, count);
+            int minCount = Math.min(query.length, count);
+            if ((double) minCount / maxCount <= threshold) {
+                continue;
+            }
+            double required = threshold * maxCount - BOUND_EPSILON;
+
+            for (int ordinal : pathsByComponentCount[count]) {
+                double totalSimilarity = score(query, pathComponents[ordinal], minCount, required, upperBounds);
+                if (totalSimilarity >= 0 && totalSimilarity / maxCount > threshold) {
+                    matches.add(new Match(paths[ordinal], totalSimilarity / maxCount, ordinal));
+                }
+            }
+        }
+
+        // Sort by similarity (highest first), then by source order
+        matches.sort((x, y) -> {
+            int bySimilarity = Double.compare(y.similarity, x.similarity);
+            return bySimilarity != 0 ? bySimilarity : Integer.compare(x.ordinal, y.ordinal);
+        });
+        return matches;
+    }
+
+    /**
+     * Find the single best match above the threshold, or null if there is none.
+     * Same result as the first entry of findMatches, but candidates are scored best-first
+     * by upper bound and the search stops once no remaining bound can beat the best.
+     */
+    public synchronized Match findBestMatch(String targetPath, double threshold) {
+        QueryComponent[] query = prepareQuery(targetPath);
+        if (query == null) {
+            return null;
+        }
+        int targetCount = query.length;
+
+        // Normalised upper bound of every candidate that can still pass the threshold
+        int candidateCount = 0;
+        int[] candidates = new int[paths.length];
+        double[] candidateBounds = new double[paths.length];
+        for (int count = 1; count < pathsByComponentCount.length; count++) {
+            int maxCount = Math.max(targetCount, count);
+            int minCount = Math.min(targetCount, count);
+            if ((double) minCount / maxCount <= threshold) {
+                continue;
+            }
+            for (int ordinal : pathsByComponentCount[count]) {
+                int[] ids = pathComponents[ordinal];
+                double bound = 0.0;
+                for (int i = 0; i < minCount; i++) {
+                    bound += upperBound(query[i], ids[i]);
+                }
+                bound /= maxCount;
+                if (bound > threshold) {
+                    candidates[candidateCount] = ordinal;
+                    candidateBounds[ordinal] = bound;
+                    candidateCount++;
+                }
+            }
+        }
+
+        // Max-heap on bound (source order on ties), so only the candidates actually scored are ordered
+        for (int i = candidateCount / 2 - 1; i >= 0; i--) {
+            siftDown(candidates, candidateCount, i, candidateBounds);
+        }
+
+        double[] upperBounds = new double[targetCount];
+        double bestSimilarity = threshold;
+        int bestOrdinal = -1;
+
+        while (candidateCount > 0) {
+            int ordinal = candidates[0];
+            candidates[0] = candidates[--candidateCount];
+            siftDown(candidates, candidateCount, 0, candidateBounds);
+
+            if (bestOrdinal >= 0 && candidateBounds[ordinal] < bestSimilarity) {
+                break;
+            }
+
+            int count = pathComponents[ordinal].length;
+            int maxCount = Math.max(targetCount, count);
+            int minCount = Math.min(targetCount, count);
+
+            // Ties go to the earliest path, so a later one has to beat the best strictly
+            double required = bestOrdinal >= 0 && ordinal > bestOrdinal
+                ? bestSimilarity * maxCount + BOUND_EPSILON
+                : bestSimilarity * maxCount - BOUND_EPSILON;
+
+            double totalSimilarity = score(query, pathComponents[ordinal], minCount, required, upperBounds);
+            if (totalSimilarity < 0) {
+                continue;
+            }
+
+            double similarity = totalSimilarity / maxCount;
+            if (bestOrdinal < 0 ? similarity > threshold
+                    : similarity > bestSimilarity || (similarity == bestSimilarity && ordinal < bestOrdinal)) {
+                bestSimilarity = similarity;
+                bestOrdinal = ordinal;
+            }
+        }
+
+        return bestOrdinal >= 0 ? new Match(paths[bestOrdinal], bestSimilarity, bestOrdinal) : null;
+    }
+
+    private static void siftDown(int[] heap, int size, int index, double[] bounds) {
+        int ordinal = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksBefore(heap[child + 1], heap[child], bounds)) {
+                child++;
+            }
+            if (!ranksBefore(heap[child], ordinal, bounds)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = ordinal;
+    }
+
+    private static boolean ranksBefore(int a, int b, double[] bounds) {
+        return bounds[a] > bounds[b] || (bounds[a] == bounds[b] && a < b);
+    }
+
+    /**
+     * Sum the component similarities of a candidate, or return -1 as soon as its
+     * upper bound cannot exceed the required total
+     */
+    private double score(QueryComponent[] query, int[] ids, int minCount, double required, double[] upperBounds) {
+        double bound = 0.0;
+        for (int i = 0; i < minCount; i++) {
+            upperBounds[i] = upperBound(query[i], ids[i]);
+            bound += upperBounds[i];
+        }
+        if (bound <= required) {
+            return -1;
+        }
+
+        double totalSimilarity = 0.0;
+        double remaining = bound;
+        for (int i = 0; i < minCount; i++) {
+            remaining -= upperBounds[i];
+            totalSimilarity += similarity(query[i], ids[i]);
+            if (totalSimilarity + remaining <= required) {
+                return -1;
+            }
+        }
+        return totalSimilarity;
+    }
+
+    private double upperBound(QueryComponent query, int componentId) {
+        double known = query.similarities[componentId];
+        if (!Double.isNaN(known)) {
+            return known + BOUND_EPSILON;
+        }
+
+        int a = query.length;
+        int b = componentLengths[componentId];
+        int maxLength = Math.max(a, b);
+
+        // Levenshtein distance is at least the length difference
+        int minDistance = Math.abs(a - b);
+
+        // q-gram lemma: within distance k the strings share at least maxLength - 1 - 2k bigrams
+        if (query.bigramBoundUsable && bigramBoundUsable[componentId]) {
+            int missing = maxLength - 1 - query.sharedBigrams[componentId];
+            minDistance = Math.max(minDistance, (missing + 1) / 2);
+        }
+
+        return 1.0 - (double) minDistance / maxLength + BOUND_EPSILON;
+    }
+
+    private double similarity(QueryComponent query, int componentId) {
+        double value = query.similarities[componentId];
+        if (Double.isNaN(value)) {
+            value = query.matcher.similarity(components[componentId]);
+            query.similarities[componentId] = value;
+        }
+        return value;
+    }
+
+    private QueryComponent[] prepareQuery(String targetPath) {
+        List<String> parts = splitComponents(targetPath);
+        if (parts.isEmpty()) {
+            return null;
+        }
+        QueryComponent[] query = new QueryComponent[parts.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = queryComponent(parts.get(i));
+        }
+        return query;
+    }
+
+    private QueryComponent queryComponent(String text) {
+        QueryComponent cached = queryCache.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        if (queryCache.size() >= MAX_CACHED_QUERY_COMPONENTS) {
+            queryCache.clear();
+        }
+
+        // Shared bigram counts against every dictionary component, from the posting lists
+        String lower = text.toLowerCase();
+        int[] shared = new int[components.length];
+        for (Map.Entry<Integer, Integer> bigram : countBigrams(lower).entrySet()) {
+            int[] postings = bigramPostings.get(bigram.getKey());
+            if (postings == null) {
+                continue;
+            }
+            int queryCount = bigram.getValue();
+            for (int i = 0; i < postings.length; i += 2) {
+                shared[postings[i]] += Math.min(queryCount, postings[i + 1]);
+            }
+        }
+
+        QueryComponent component = new QueryComponent(text, lower.length() == text.length(), shared, components.length);
+        queryCache.put(text, component);
+        return component;
+    }
+
+    private static Map<Integer, Integer> countBigrams(String text) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i + 1 < text.length(); i++) {
+            counts.merge((text.charAt(i) << 16) | text.charAt(i + 1), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Number of indexed paths
+     */
+    public int size() {
+        return paths.length;
+    }
+
+    /**
+     * Split a property path into its non-empty components at '.', '[' and ']'
+     */
+    public static List<String> splitComponents(String path) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '.' || path.charAt(i) == '[' || path.charAt(i) == ']') {
+                if (i > start) {
+                    parts.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Calculate similarity between two property paths: the mean component similarity,
+     * comparing components position by position
+     */
+    public static double calculatePathSimilarity(String path1, String path2) {
+        List<String> parts1 = splitComponents(path1);
+        List<String> parts2 = splitComponents(path2);
+
+        double totalSimilarity = 0.0;
+        int maxLength = Math.max(parts1.size(), parts2.size());
+
+        for (int i = 0; i < maxLength; i++) {
+            String part1 = i < parts1.size() ? parts1.get(i) : "";
+            String part2 = i < parts2.size() ? parts2.get(i) : "";
+            totalSimilarity += StringSimilarity.calculateSimilarity(part1, part2);
+        }
+
+        return totalSimilarity / maxLength;
+    }
+}
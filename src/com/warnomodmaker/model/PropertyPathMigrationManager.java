@@ -1,8 +1,9 @@
 package com.warnomodmaker.model;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import com.warnomodmaker.util.StringSimilarity;
+import java.util.regex.Pattern;
 
 /**
  * Manages property path migration when WARNO updates change NDF structure.
@@ -11,6 +12,8 @@ import com.warnomodmaker.util.StringSimilarity;
  */
 public class PropertyPathMigrationManager {
     
+    private static final Pattern ARRAY_INDEX_PATTERN = Pattern.compile("\\[\\d+\\]");
+    
     // Path mappings - old path -> new path
     private final Map<String, String> pathMappings = new ConcurrentHashMap<>();
     
@@ -23,8 +26,11 @@ public class PropertyPathMigrationManager {
     // Migration history - track what migrations have been applied
     private final List<MigrationRecord> migrationHistory = new ArrayList<>();
     
-    // Fuzzy matching cache for performance
-    private final Map<String, List<String>> fuzzyMatchCache = new ConcurrentHashMap<>();
+    // Fuzzy matching candidate index - file type -> index over its valid paths
+    private final Map<NDFValue.NDFFileType, PropertyPathIndex> pathIndexes = new ConcurrentHashMap<>();
+    
+    // Fuzzy matching cache for performance - file type + path -> best match
+    private final Map<String, Optional<PropertyPathIndex.Match>> fuzzyMatchCache = new ConcurrentHashMap<>();
     
     /**
      * Migration record for tracking applied migrations
@@ -97,6 +103,7 @@ public class PropertyPathMigrationManager {
         }
         
         validPaths.put(fileType, paths);
+        pathIndexes.put(fileType, new PropertyPathIndex(paths));
         
         // Clear fuzzy match cache when paths change
         fuzzyMatchCache.clear();
@@ -174,24 +181,25 @@ public class PropertyPathMigrationManager {
 
         // INTELLIGENT: Check if this is an array path that matches our pattern
         if (validPathsForType != null && oldPath.contains("[") && oldPath.contains("]")) {
-            String arrayPattern = oldPath.replaceAll("\\[\\d+\\]", "[*]");
+            String arrayPattern = ARRAY_INDEX_PATTERN.matcher(oldPath).replaceAll("[*]");
             if (validPathsForType.contains(arrayPattern)) {
                 return MigrationResult.success(oldPath, oldPath, "Array path matches learned pattern", 1.0);
             }
 
             // Also check if the base structure exists (e.g., ModulesDescriptors[0].MaxPhysicalDamages)
-            String basePattern = oldPath.replaceAll("\\[\\d+\\]", "[0]");
+            String basePattern = ARRAY_INDEX_PATTERN.matcher(oldPath).replaceAll("[0]");
             if (validPathsForType.contains(basePattern)) {
                 return MigrationResult.success(oldPath, oldPath, "Array path structure valid", 1.0);
             }
         }
 
         // Try fuzzy matching
-        if (validPathsForType != null) {
-            List<String> candidates = findFuzzyMatches(oldPath, validPathsForType);
-            if (!candidates.isEmpty()) {
-                String bestMatch = candidates.get(0);
-                double confidence = calculatePathSimilarity(oldPath, bestMatch);
+        PropertyPathIndex pathIndex = pathIndexes.get(fileType);
+        if (validPathsForType != null && pathIndex != null) {
+            Optional<PropertyPathIndex.Match> candidate = findFuzzyMatch(oldPath, fileType, pathIndex);
+            if (candidate.isPresent()) {
+                String bestMatch = candidate.get().getPath();
+                double confidence = candidate.get().getSimilarity();
 
                 if (confidence > 0.8) {
                     return MigrationResult.success(oldPath, bestMatch, "Fuzzy match", confidence);
@@ -206,95 +214,60 @@ public class PropertyPathMigrationManager {
 
     
     /**
-     * Find fuzzy matches for a property path
+     * Find the best fuzzy match for a property path
      */
-    private List<String> findFuzzyMatches(String targetPath, Set<String> validPaths) {
+    private Optional<PropertyPathIndex.Match> findFuzzyMatch(String targetPath, NDFValue.NDFFileType fileType,
+                                                             PropertyPathIndex pathIndex) {
         // Check cache first
-        List<String> cached = fuzzyMatchCache.get(targetPath);
+        String cacheKey = fileType + ":" + targetPath;
+        Optional<PropertyPathIndex.Match> cached = fuzzyMatchCache.get(cacheKey);
         if (cached != null) {
             return cached;
         }
         
-        List<PathMatch> matches = new ArrayList<>();
-        
-        for (String validPath : validPaths) {
-            double similarity = calculatePathSimilarity(targetPath, validPath);
-            if (similarity > 0.5) { // Only consider reasonable matches
-                matches.add(new PathMatch(validPath, similarity));
-            }
-        }
-        
-        // Sort by similarity (highest first)
-        matches.sort((a, b) -> Double.compare(b.similarity, a.similarity));
-        
-        List<String> result = new ArrayList<>();
-        for (PathMatch match : matches) {
-            result.add(match.path);
-        }
+        // Only consider reasonable matches (similarity above 0.5)
+        Optional<PropertyPathIndex.Match> result = Optional.ofNullable(pathIndex.findBestMatch(targetPath, 0.5));
         
         // Cache the result
-        fuzzyMatchCache.put(targetPath, result);
+        fuzzyMatchCache.put(cacheKey, result);
         
         return result;
     }
     
     /**
-     * Calculate similarity between two property paths
+     * Migrate an entire mod profile
      */
-    private double calculatePathSimilarity(String path1, String path2) {
-        // Split paths into components
-        String[] parts1 = path1.split("\\.|\\[|\\]");
-        String[] parts2 = path2.split("\\.|\\[|\\]");
-        
-        // Remove empty parts
-        parts1 = Arrays.stream(parts1).filter(s -> !s.isEmpty()).toArray(String[]::new);
-        parts2 = Arrays.stream(parts2).filter(s -> !s.isEmpty()).toArray(String[]::new);
-        
-        // Calculate Levenshtein distance for each component
-        double totalSimilarity = 0.0;
-        int maxLength = Math.max(parts1.length, parts2.length);
-        
-        for (int i = 0; i < maxLength; i++) {
-            String part1 = i < parts1.length ? parts1[i] : "";
-            String part2 = i < parts2.length ? parts2[i] : "";
-            
-            double componentSimilarity = calculateStringSimilarity(part1, part2);
-            totalSimilarity += componentSimilarity;
-        }
+    public ModProfileMigrationResult migrateModProfile(ModProfile profile) {
+        List<MigrationResult> results = new ArrayList<>();
+        Map<String, String> successfulMigrations = new HashMap<>();
+        List<String> failedPaths = new ArrayList<>();
         
-        return totalSimilarity / maxLength;
-    }
-    
-    /**
-     * Calculate string similarity using Levenshtein distance
-     */
-    private double calculateStringSimilarity(String s1, String s2) {
-        return StringSimilarity.calculateSimilarity(s1, s2);
-    }
-    
-    /**
-     * Helper class for path matching
-     */
-    private static class PathMatch {
-        final String path;
-        final double similarity;
+        // Get all modification records from the profile
+        migrateRecords(profile.getModifications(), results, successfulMigrations, failedPaths);
         
-        PathMatch(String path, double similarity) {
-            this.path = path;
-            this.similarity = similarity;
-        }
+        return new ModProfileMigrationResult(results, successfulMigrations, failedPaths);
     }
     
     /**
-     * Migrate an entire mod profile
+     * Migrate the records of any profile source, e.g. a binary profile, a page at a time
      */
-    public ModProfileMigrationResult migrateModProfile(ModProfile profile) {
+    public ModProfileMigrationResult migrateModProfile(ModificationRecordSource records) throws IOException {
         List<MigrationResult> results = new ArrayList<>();
         Map<String, String> successfulMigrations = new HashMap<>();
         List<String> failedPaths = new ArrayList<>();
         
-        // Get all modification records from the profile
-        for (ModificationRecord record : profile.getModifications()) {
+        int count = records.getRecordCount();
+        for (int from = 0; from < count; from += BinaryProfileWriter.RECORDS_PER_PAGE) {
+            migrateRecords(records.getRecords(from, Math.min(count, from + BinaryProfileWriter.RECORDS_PER_PAGE)),
+                results, successfulMigrations, failedPaths);
+        }
+        
+        return new ModProfileMigrationResult(results, successfulMigrations, failedPaths);
+    }
+    
+    private void migrateRecords(List<ModificationRecord> records, List<MigrationResult> results,
+                                Map<String, String> successfulMigrations, List<String> failedPaths) {
+        for (ModificationRecord record : records) {
             String propertyPath = record.getPropertyPath();
             
             // Determine file type from unit name or other context
@@ -310,8 +283,6 @@ public class PropertyPathMigrationManager {
                 failedPaths.add(propertyPath);
             }
         }
-        
-        return new ModProfileMigrationResult(results, successfulMigrations, failedPaths);
     }
     
     /**
@@ -1,6 +1,7 @@
 package com.warnomodmaker.model;
 
 import com.warnomodmaker.model.NDFValue.*;
+import com.warnomodmaker.util.MetricsRegistry;
 import java.util.*;
 
 public class PropertyScanner {
@@ -61,6 +62,15 @@ public class PropertyScanner {
 
 
     public void scanProperties() {
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().timer("scanProperties").start();
+        try {
+            scanAllProperties();
+        } finally {
+            sample.close();
+        }
+    }
+
+    private void scanAllProperties() {
         discoveredProperties.clear();
         categorizedProperties.clear();
 
@@ -0,0 +1,207 @@
+package com.warnomodmaker.model;
+
+import com.warnomodmaker.model.NDFValue.ObjectValue;
+
+import java.util.*;
+
+/**
+ * Which units have a property whose name contains some text, for "Search by Property".
+ * Every distinct property name is lowercased once and indexed by its three-character grams;
+ * a query intersects the grams' name sets, checks the few surviving names, and ORs their unit sets.
+ * Units that modifications were recorded against are re-indexed one at a time before the next query;
+ * added objects and invalidate() rebuild the whole index instead.
+ */
+public class PropertySearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final List<ObjectValue> units;
+    private final Map<String, Integer> unitPositions = new HashMap<>();
+    private final List<int[]> unitNameIds = new ArrayList<>();
+
+    // Distinct lower-cased property names, the units using each, and the names holding each gram
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final List<BitSet> unitsByName = new ArrayList<>();
+    private final Map<Long, BitSet> namesByGram = new HashMap<>();
+
+    private final Set<String> changedUnits = new HashSet<>();
+    private boolean stale;
+
+    public PropertySearchIndex(List<ObjectValue> units) {
+        this.units = units;
+        build();
+    }
+
+    /**
+     * Units (in list order) with a property, at any depth, whose name contains the text, ignoring case
+     */
+    public synchronized List<ObjectValue> findUnitsWithPropertyContaining(String text) {
+        int[] positions = findPositionsWithPropertyContaining(text);
+        List<ObjectValue> results = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            results.add(units.get(position));
+        }
+        return results;
+    }
+
+    /**
+     * Positions in the unit list of the units findUnitsWithPropertyContaining would return
+     */
+    public synchronized int[] findPositionsWithPropertyContaining(String text) {
+        if (stale || units.size() != unitNameIds.size()) {
+            build();
+        } else if (!changedUnits.isEmpty()) {
+            reindexChangedUnits();
+        }
+
+        BitSet matches = new BitSet(units.size());
+        String lowerText = text.toLowerCase();
+        BitSet candidates = candidateNames(lowerText);
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (names.get(id).contains(lowerText)) {
+                matches.or(unitsByName.get(id));
+            }
+        }
+
+        return matches.stream().toArray();
+    }
+
+    /**
+     * Note that a unit's properties changed; it is re-indexed before the next query
+     */
+    public synchronized void unitChanged(String unitName) {
+        if (!stale) {
+            changedUnits.add(unitName);
+        }
+    }
+
+    /**
+     * Keep the index current with a modification reported by a ModificationTracker
+     */
+    public synchronized void modificationRecorded(ModificationRecord record) {
+        if (record.getModificationType() == PropertyUpdater.ModificationType.OBJECT_ADDED) {
+            invalidate();
+        } else {
+            unitChanged(record.getUnitName());
+        }
+    }
+
+    /**
+     * Rebuild on the next query, e.g. after objects were added or removed
+     */
+    public synchronized void invalidate() {
+        stale = true;
+    }
+
+    private void reindexChangedUnits() {
+        for (String unitName : changedUnits) {
+            Integer position = unitName != null ? unitPositions.get(unitName) : null;
+            if (position == null || !unitName.equals(units.get(position).getInstanceName())) {
+                // A unit the index hasn't seen, or the list was reordered
+                build();
+                return;
+            }
+
+            int unit = position;
+            for (int id : unitNameIds.get(unit)) {
+                unitsByName.get(id).clear(unit);
+            }
+            unitNameIds.set(unit, indexUnit(unit));
+        }
+        changedUnits.clear();
+    }
+
+    private void build() {
+        unitPositions.clear();
+        unitNameIds.clear();
+        names.clear();
+        nameIds.clear();
+        unitsByName.clear();
+        namesByGram.clear();
+        changedUnits.clear();
+
+        for (int i = 0; i < units.size(); i++) {
+            String name = units.get(i).getInstanceName();
+            if (name != null) {
+                unitPositions.putIfAbsent(name, i);
+            }
+            unitNameIds.add(indexUnit(i));
+        }
+        stale = false;
+    }
+
+    private int[] indexUnit(int unit) {
+        Set<String> unitNames = new HashSet<>();
+        collectPropertyNames(units.get(unit), unitNames);
+
+        int[] ids = new int[unitNames.size()];
+        int count = 0;
+        for (String name : unitNames) {
+            int id = nameId(name.toLowerCase());
+            unitsByName.get(id).set(unit);
+            ids[count++] = id;
+        }
+        return ids;
+    }
+
+    private int nameId(String lowerName) {
+        Integer existing = nameIds.get(lowerName);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = names.size();
+        names.add(lowerName);
+        nameIds.put(lowerName, id);
+        unitsByName.add(new BitSet());
+        for (int i = 0; i + GRAM_LENGTH <= lowerName.length(); i++) {
+            namesByGram.computeIfAbsent(gram(lowerName, i), k -> new BitSet()).set(id);
+        }
+        return id;
+    }
+
+    // Names that may contain the text: those sharing all its grams, or every name for short text
+    private BitSet candidateNames(String lowerText) {
+        BitSet candidates = new BitSet(names.size());
+        if (lowerText.length() < GRAM_LENGTH) {
+            candidates.set(0, names.size());
+            return candidates;
+        }
+
+        for (int i = 0; i + GRAM_LENGTH <= lowerText.length(); i++) {
+            BitSet gramNames = namesByGram.get(gram(lowerText, i));
+            if (gramNames == null) {
+                return new BitSet();
+            }
+            if (i == 0) {
+                candidates.or(gramNames);
+            } else {
+                candidates.and(gramNames);
+            }
+        }
+        return candidates;
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    // Property names reachable through nested objects and arrays of objects
+    private static void collectPropertyNames(ObjectValue object, Set<String> names) {
+        for (Map.Entry<String, NDFValue> entry : object.getProperties().entrySet()) {
+            names.add(entry.getKey());
+
+            NDFValue value = entry.getValue();
+            if (value instanceof ObjectValue) {
+                collectPropertyNames((ObjectValue) value, names);
+            } else if (value instanceof NDFValue.ArrayValue) {
+                for (NDFValue element : ((NDFValue.ArrayValue) value).getElements()) {
+                    if (element instanceof ObjectValue) {
+                        collectPropertyNames((ObjectValue) element, names);
+                    }
+                }
+            }
+        }
+    }
+}
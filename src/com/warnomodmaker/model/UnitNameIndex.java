@@ -0,0 +1,226 @@
+package com.warnomodmaker.model;
+
+import com.warnomodmaker.model.NDFValue.ObjectValue;
+import com.warnomodmaker.util.StringSimilarity;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unit lookup by instance name for profile validation.
+ * Exact names resolve through a hash map. For a name that misses, trigram postings count
+ * the grams each candidate shares with it. Candidates are scored most-shared first, so a
+ * good suggestion is found early; the shared count rules out containment for most of them
+ * and bounds their edit distance, which is skipped when it cannot lift the score past the
+ * best so far. Every candidate is still visited, so suggestions equal a full scan's.
+ * The suggestion is remembered per name.
+ * Built once over a fixed unit list and safe for concurrent lookups afterwards.
+ */
+public class UnitNameIndex {
+
+    // Only reasonably similar names are suggested
+    private static final double MIN_SUGGESTION_SCORE = 0.3;
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, ObjectValue> unitsByName = new HashMap<>();
+
+    // Fuzzy candidates in unit order - original name, lower-cased name and its tokens
+    private final String[] candidateNames;
+    private final String[] lowerCandidateNames;
+    private final String[][] candidateTokens;
+
+    // Trigram -> candidates containing it, and each candidate's distinct trigram count
+    private final Map<Long, int[]> candidatesByGram = new HashMap<>();
+    private final int[] candidateGramCounts;
+
+    private final Map<String, Optional<String>> suggestions = new ConcurrentHashMap<>();
+
+    public UnitNameIndex(List<ObjectValue> units) {
+        List<String> names = new ArrayList<>();
+        for (ObjectValue unit : units) {
+            String name = unit.getInstanceName();
+            if (name == null) {
+                continue;
+            }
+            // First unit wins, matching a front-to-back scan
+            unitsByName.putIfAbsent(name, unit);
+            if (!name.trim().isEmpty()) {
+                names.add(name);
+            }
+        }
+
+        candidateNames = names.toArray(new String[0]);
+        lowerCandidateNames = new String[candidateNames.length];
+        candidateTokens = new String[candidateNames.length][];
+        for (int i = 0; i < candidateNames.length; i++) {
+            lowerCandidateNames[i] = candidateNames[i].toLowerCase();
+            candidateTokens[i] = StringSimilarity.tokenize(lowerCandidateNames[i]);
+        }
+
+        candidateGramCounts = new int[candidateNames.length];
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < candidateNames.length; i++) {
+            Map<Long, Integer> grams = gramCounts(lowerCandidateNames[i]);
+            candidateGramCounts[i] = grams.size();
+            for (Long gram : grams.keySet()) {
+                postings.computeIfAbsent(gram, k -> new ArrayList<>()).add(i);
+            }
+        }
+        for (Map.Entry<Long, List<Integer>> entry : postings.entrySet()) {
+            candidatesByGram.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    /**
+     * Find the first unit with exactly this instance name, or null
+     */
+    public ObjectValue findUnit(String name) {
+        return name != null ? unitsByName.get(name) : null;
+    }
+
+    /**
+     * Find the most similar unit name for a name that is not in the index, or null if none is close
+     */
+    public String findSimilarName(String targetName) {
+        if (targetName == null || targetName.trim().isEmpty()) {
+            return null;
+        }
+
+        Optional<String> cached = suggestions.get(targetName);
+        if (cached == null) {
+            cached = Optional.ofNullable(computeSimilarName(targetName));
+            suggestions.putIfAbsent(targetName, cached);
+        }
+        return cached.orElse(null);
+    }
+
+    public int size() {
+        return unitsByName.size();
+    }
+
+    private String computeSimilarName(String targetName) {
+        String lowerTarget = targetName.toLowerCase().trim();
+        String[] targetTokens = StringSimilarity.tokenize(lowerTarget);
+        StringSimilarity.Matcher matcher = StringSimilarity.matcher(lowerTarget);
+
+        // Distinct grams shared with each candidate, and the target occurrences of those grams
+        Map<Long, Integer> targetGrams = gramCounts(lowerTarget);
+        int[] sharedGrams = new int[candidateNames.length];
+        int[] sharedOccurrences = new int[candidateNames.length];
+        int maxShared = 0;
+        for (Map.Entry<Long, Integer> entry : targetGrams.entrySet()) {
+            int[] candidates = candidatesByGram.get(entry.getKey());
+            if (candidates == null) {
+                continue;
+            }
+            for (int i : candidates) {
+                sharedOccurrences[i] += entry.getValue();
+                maxShared = Math.max(maxShared, ++sharedGrams[i]);
+            }
+        }
+
+        // Visit candidates by shared gram count, descending, then in unit order
+        int[] bucketStarts = new int[maxShared + 2];
+        for (int shared : sharedGrams) {
+            bucketStarts[maxShared - shared + 1]++;
+        }
+        for (int b = 1; b < bucketStarts.length; b++) {
+            bucketStarts[b] += bucketStarts[b - 1];
+        }
+        int[] order = new int[candidateNames.length];
+        for (int i = 0; i < candidateNames.length; i++) {
+            order[bucketStarts[maxShared - sharedGrams[i]]++] = i;
+        }
+
+        // Keep the first (lowest unit order) highest-scoring name, as a front-to-back scan would
+        int bestIndex = -1;
+        double bestScore = MIN_SUGGESTION_SCORE;
+
+        for (int i : order) {
+            // Containment (and equality) needs every gram of the shorter name to be shared
+            boolean mayContain = sharedGrams[i] >= Math.min(targetGrams.size(), candidateGramCounts[i]);
+            double score = calculateNameSimilarity(matcher, targetTokens, i, bestScore, mayContain,
+                                                   levenshteinBound(lowerTarget, i, sharedOccurrences[i]));
+            if (score > bestScore || (score == bestScore && bestIndex >= 0 && i < bestIndex)) {
+                bestScore = score;
+                bestIndex = i;
+            }
+        }
+        return bestIndex >= 0 ? candidateNames[bestIndex] : null;
+    }
+
+    /**
+     * An upper bound on the Levenshtein similarity of candidate i, from the lengths and the number of
+     * target gram occurrences the candidate also contains
+     */
+    private double levenshteinBound(String target, int i, int sharedOccurrences) {
+        int targetLength = target.length();
+        int candidateLength = lowerCandidateNames[i].length();
+        int maxLength = Math.max(targetLength, candidateLength);
+        if (maxLength == 0) {
+            return 1.0;
+        }
+
+        // Each edit destroys at most GRAM_LENGTH of the longer name's grams (the q-gram lemma)
+        int lostGrams = maxLength - GRAM_LENGTH + 1 - sharedOccurrences;
+        int minDistance = Math.max(Math.abs(targetLength - candidateLength),
+                                   (lostGrams + GRAM_LENGTH - 1) / GRAM_LENGTH);
+        return 1.0 - (double) minDistance / maxLength;
+    }
+
+    private static Map<Long, Integer> gramCounts(String text) {
+        Map<Long, Integer> grams = new HashMap<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.merge(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2), 1, Integer::sum);
+        }
+        return grams;
+    }
+
+    /**
+     * Score candidate i against the matcher's target. Scores that cannot reach minScore
+     * may come back lower than their exact value, which lets the edit distance stop early
+     * or be skipped. The containment checks only run when mayContain is set.
+     */
+    private double calculateNameSimilarity(StringSimilarity.Matcher matcher, String[] targetTokens, int i, double minScore,
+                                           boolean mayContain, double levenshteinBound) {
+        String target = matcher.getQuery();
+        String candidate = lowerCandidateNames[i];
+
+        if (mayContain) {
+            // 1. Exact match
+            if (target.equals(candidate)) {
+                return 1.0;
+            }
+
+            // 2. Contains match (high score for substring matches)
+            if (candidate.contains(target)) {
+                return 0.9;
+            }
+            if (target.contains(candidate)) {
+                return 0.85;
+            }
+        }
+
+        // 4. Common prefix/suffix matching
+        double affixScore = StringSimilarity.calculateAffixSimilarity(target, candidate);
+
+        // Even every target token matching and the smallest edit distance the shared grams allow would fall short
+        double maxTokenScore = (double) targetTokens.length / Math.max(targetTokens.length, candidateTokens[i].length);
+        if (levenshteinBound * 0.4 + maxTokenScore * 0.4 + affixScore * 0.2 < minScore) {
+            return 0.0;
+        }
+
+        // 3. Token-based matching (for multi-word names)
+        double tokenScore = StringSimilarity.calculateTokenSimilarity(targetTokens, candidateTokens[i]);
+        if (levenshteinBound * 0.4 + tokenScore * 0.4 + affixScore * 0.2 < minScore) {
+            return 0.0;
+        }
+
+        // 5. Levenshtein distance (fuzzy matching for typos), only as exact as minScore needs
+        double minLevenshtein = (minScore - tokenScore * 0.4 - affixScore * 0.2) / 0.4 - 1e-9;
+        double levenshteinScore = matcher.similarity(candidate, minLevenshtein);
+
+        // Combine scores with weights
+        return Math.max(levenshteinScore * 0.4 + tokenScore * 0.4 + affixScore * 0.2, 0.0);
+    }
+}
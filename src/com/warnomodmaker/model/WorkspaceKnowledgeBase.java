@@ -0,0 +1,267 @@
+package com.warnomodmaker.model;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Schemas and templates learned from the open files, kept per file so entity creation and
+ * additive operations don't re-learn every object each time a dialog opens.
+ * Files are learned in the background when they are registered; re-registering a file only
+ * learns the objects added since. Removed objects or edits reported through markModified
+ * make the file relearn in the background, while dialogs keep using the last finished
+ * knowledge plus whatever objects were added after it.
+ * The learner reads the live objects without copying them. An edit racing with it is always
+ * reported through markModified, which schedules another relearn, so a torn read only lives
+ * until then; a read that trips over a concurrent change is retried.
+ */
+public class WorkspaceKnowledgeBase {
+
+    private static final int LEARN_ATTEMPTS = 3;
+
+    private final ExecutorService learner = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "workspace-knowledge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One learner thread, so each file's updates run in the order they were submitted
+    private final Map<String, LearnedFile> files = new HashMap<>();
+
+    /**
+     * Learn a file in the background, or bring its knowledge up to date with the objects it now holds.
+     * Call on the thread that owns the objects.
+     */
+    public synchronized void learnFile(String fileName, List<NDFValue.ObjectValue> objects) {
+        List<NDFValue.ObjectValue> current = objects != null ? new ArrayList<>(objects) : Collections.emptyList();
+        current.removeIf(Objects::isNull);
+        LearnedFile file = files.computeIfAbsent(fileName, name -> new LearnedFile());
+
+        // Anything edited or removed invalidates what was learned from it, so start over
+        if (file.pending == null || file.modified || !file.stillContainedIn(current)) {
+            Learned learned = new Learned(identitySet(current));
+            file.modified = false;
+            file.submit(learned, learner.submit(() -> publish(fileName, file, learned, relearn(fileName, current))));
+            return;
+        }
+
+        List<NDFValue.ObjectValue> added = new ArrayList<>();
+        for (NDFValue.ObjectValue object : current) {
+            if (!file.submittedObjects.contains(object)) {
+                added.add(object);
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+
+        Future<Learned> previous = file.pending;
+        Learned learned = new Learned(identitySet(current));
+        file.submit(learned, learner.submit(() -> publish(fileName, file, learned, extend(previous.get().knowledge, added))));
+    }
+
+    /**
+     * Note that objects of a file were edited in place, so its knowledge is relearned on its next use
+     */
+    public synchronized void markModified(String fileName) {
+        LearnedFile file = files.get(fileName);
+        if (file != null) {
+            file.modified = true;
+        }
+    }
+
+    public synchronized void removeFile(String fileName) {
+        LearnedFile removed = files.remove(fileName);
+        if (removed != null && removed.pending != null) {
+            removed.pending.cancel(false);
+        }
+    }
+
+    public synchronized boolean hasFile(String fileName) {
+        return files.containsKey(fileName);
+    }
+
+    /**
+     * Knowledge for a file without waiting on the learner: the last finished knowledge, extended with
+     * any objects added after it. Edited files start relearning in the background and are served from
+     * the knowledge learned before the edit until that finishes. Only the first learning of a file is
+     * waited for, and files that were never registered are learned on the spot and not kept.
+     * Call on the thread that owns the objects.
+     */
+    public FileKnowledge getKnowledge(String fileName, List<NDFValue.ObjectValue> objects) {
+        List<NDFValue.ObjectValue> current = objects != null ? objects : Collections.emptyList();
+        Learned finished = null;
+        Future<Learned> pending = null;
+        synchronized (this) {
+            LearnedFile file = files.get(fileName);
+            if (file != null) {
+                if (file.modified || !file.stillContainedIn(current)) {
+                    learnFile(fileName, current);
+                }
+                finished = file.finished;
+                pending = file.pending;
+            }
+        }
+
+        if (finished == null && pending != null) {
+            try {
+                finished = pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | CancellationException e) {
+                System.err.println("Learning " + fileName + " failed, relearning: " + e.getMessage());
+            }
+        }
+        if (finished == null || finished.knowledge == null) {
+            return learn(current);
+        }
+
+        List<NDFValue.ObjectValue> added = new ArrayList<>();
+        for (NDFValue.ObjectValue object : current) {
+            if (object != null && !finished.objects.contains(object)) {
+                added.add(object);
+            }
+        }
+        return added.isEmpty() ? finished.knowledge : extend(finished.knowledge, added);
+    }
+
+    /**
+     * Learn schemas and templates from a list of objects without registering it
+     */
+    public static FileKnowledge learn(List<NDFValue.ObjectValue> objects) {
+        NDFSchemaRegistry schemas = new NDFSchemaRegistry();
+        NDFTemplateManager templates = new NDFTemplateManager();
+        List<NDFValue.ObjectValue> learned = objects != null ? objects : Collections.emptyList();
+        schemas.learnFromObjects(learned);
+        templates.learnFromObjects(learned);
+        return new FileKnowledge(schemas, templates);
+    }
+
+    /**
+     * Combine the knowledge of several files, as if all their objects were learned together
+     */
+    public static FileKnowledge merge(Collection<FileKnowledge> knowledge) {
+        NDFSchemaRegistry schemas = new NDFSchemaRegistry();
+        NDFTemplateManager templates = new NDFTemplateManager();
+        for (FileKnowledge fileKnowledge : knowledge) {
+            schemas.mergeFrom(fileKnowledge.schemas);
+            templates.mergeFrom(fileKnowledge.templates);
+        }
+        return new FileKnowledge(schemas, templates);
+    }
+
+    // Make a finished result the file's current knowledge; submissions finish in order on the one learner thread
+    private Learned publish(String fileName, LearnedFile file, Learned learned, FileKnowledge knowledge) {
+        learned.knowledge = knowledge;
+        synchronized (this) {
+            if (files.get(fileName) == file) {
+                file.finished = learned;
+            }
+        }
+        return learned;
+    }
+
+    private static FileKnowledge relearn(String fileName, List<NDFValue.ObjectValue> objects) {
+        long startTime = System.currentTimeMillis();
+        FileKnowledge knowledge = null;
+        for (int attempt = 1; knowledge == null; attempt++) {
+            try {
+                knowledge = learn(objects);
+            } catch (RuntimeException e) {
+                // An edit on the owning thread changed an object mid-read
+                if (attempt == LEARN_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+        System.out.println("Learned " + fileName + " (" + objects.size() + " objects) in " +
+            (System.currentTimeMillis() - startTime) + "ms");
+        return knowledge;
+    }
+
+    private static FileKnowledge extend(FileKnowledge known, List<NDFValue.ObjectValue> added) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Published knowledge may be in use by an open dialog, so learn into copies
+                NDFSchemaRegistry schemas = new NDFSchemaRegistry();
+                NDFTemplateManager templates = new NDFTemplateManager();
+                schemas.mergeFrom(known.schemas);
+                templates.mergeFrom(known.templates);
+                schemas.learnFromObjects(added);
+                templates.learnFromObjects(added);
+                return new FileKnowledge(schemas, templates);
+            } catch (RuntimeException e) {
+                if (attempt == LEARN_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static Set<NDFValue.ObjectValue> identitySet(List<NDFValue.ObjectValue> objects) {
+        Set<NDFValue.ObjectValue> set = Collections.newSetFromMap(new IdentityHashMap<>(objects.size() * 2));
+        set.addAll(objects);
+        return set;
+    }
+
+    /**
+     * One learning submission: the objects it covers and, once finished, what was learned from them
+     */
+    private static class Learned {
+        private final Set<NDFValue.ObjectValue> objects;
+        private volatile FileKnowledge knowledge;
+
+        private Learned(Set<NDFValue.ObjectValue> objects) {
+            this.objects = objects;
+        }
+    }
+
+    /**
+     * A file's latest submission, and the last one that finished
+     */
+    private static class LearnedFile {
+        private Set<NDFValue.ObjectValue> submittedObjects = Collections.emptySet();
+        private Future<Learned> pending;
+        private Learned finished;
+        private boolean modified;
+
+        private void submit(Learned learned, Future<Learned> future) {
+            submittedObjects = learned.objects;
+            pending = future;
+        }
+
+        private boolean stillContainedIn(List<NDFValue.ObjectValue> objects) {
+            int kept = 0;
+            for (NDFValue.ObjectValue object : objects) {
+                if (object != null && submittedObjects.contains(object)) {
+                    kept++;
+                }
+            }
+            return kept == submittedObjects.size();
+        }
+    }
+
+    /**
+     * What was learned from one file. Treat as read-only once published.
+     */
+    public static class FileKnowledge {
+        private final NDFSchemaRegistry schemas;
+        private final NDFTemplateManager templates;
+
+        private FileKnowledge(NDFSchemaRegistry schemas, NDFTemplateManager templates) {
+            this.schemas = schemas;
+            this.templates = templates;
+        }
+
+        public NDFSchemaRegistry getSchemaRegistry() {
+            return schemas;
+        }
+
+        public NDFTemplateManager getTemplateManager() {
+            return templates;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.warnomodmaker.model.NDFValue;
 import com.warnomodmaker.model.ModificationTracker;
 import com.warnomodmaker.model.ModificationRecord;
 import com.warnomodmaker.model.PropertyUpdater;
+import com.warnomodmaker.util.EditorEvents;
+import com.warnomodmaker.util.MetricsRegistry;
 
 import java.io.IOException;
 import java.io.Writer;
@@ -29,12 +31,31 @@ public class LineBasedWriter {
      * Write the file with line-based modifications applied
      */
     public void write(List<NDFValue.ObjectValue> objects) throws IOException {
-        // Apply all modifications to the line tracker
-        applyModifications();
-
-        // Write the complete output with modifications
-        String output = lineTracker.generateOutput();
-        writer.write(output);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        EditorEvents.WritePhase event = new EditorEvents.WritePhase();
+        event.begin();
+        int recordCount = modificationTracker != null ? modificationTracker.getModificationCount() : 0;
+        int outputChars;
+        MetricsRegistry.Sample sample = metrics.timer("write").start();
+        try {
+            // Apply all modifications to the line tracker
+            applyModifications();
+
+            // Write the complete output with modifications
+            String output = lineTracker.generateOutput();
+            writer.write(output);
+            outputChars = output.length();
+        } finally {
+            sample.close();
+        }
+        metrics.counter("write.records").add(recordCount);
+
+        if (event.shouldCommit()) {
+            event.objectCount = objects != null ? objects.size() : 0;
+            event.recordCount = recordCount;
+            event.outputChars = outputChars;
+            event.commit();
+        }
     }
 
     /**
@@ -2,6 +2,7 @@ package com.warnomodmaker.parser;
 
 import com.warnomodmaker.model.NDFValue;
 import com.warnomodmaker.model.NDFValue.*;
+import com.warnomodmaker.util.MetricsRegistry;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -18,6 +19,11 @@ public class NDFParser {
     private String originalSourceContent;
     private List<NDFToken> originalTokens;
     private NDFFileType fileType;
+
+    // Unite, Fire and Smoke descriptor files are read in a normalized form: identifiers and enums
+    // stay raw expressions, '|' joins operands anywhere, and values keep no per-value formatting
+    private boolean descriptorGrammar;
+
     public NDFParser(Reader reader) {
         this.tokenizer = new NDFTokenizer(reader);
         this.currentTokenIndex = 0;
@@ -34,6 +40,19 @@ public class NDFParser {
     }
 
     public List<ObjectValue> parse() throws IOException, NDFParseException {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        List<ObjectValue> objects;
+        MetricsRegistry.Sample sample = metrics.timer("parse").start();
+        try {
+            objects = parseObjects();
+        } finally {
+            sample.close();
+        }
+        metrics.counter("parse.objects").add(objects.size());
+        return objects;
+    }
+
+    private List<ObjectValue> parseObjects() throws IOException, NDFParseException {
         tokens = tokenizer.tokenize();
         originalTokens = new ArrayList<>(tokens);
         currentTokenIndex = 0;
@@ -41,12 +60,10 @@ public class NDFParser {
 
         initializeSourceLines();
 
-        if (fileType == NDFFileType.UNITE_DESCRIPTOR) {
-            return parseUniteDescriptor();
-        } else if (fileType == NDFFileType.FIRE_DESCRIPTOR || fileType == NDFFileType.SMOKE_DESCRIPTOR) {
-            // Fire and Smoke descriptors have the same structure as Unite descriptors (exported objects)
-            return parseUniteDescriptor();
-        }
+        // Fire and Smoke descriptors have the same structure as Unite descriptors (exported objects)
+        descriptorGrammar = fileType == NDFFileType.UNITE_DESCRIPTOR ||
+                            fileType == NDFFileType.FIRE_DESCRIPTOR ||
+                            fileType == NDFFileType.SMOKE_DESCRIPTOR;
 
         List<ObjectValue> ndfObjects = new ArrayList<>();
         while (currentToken.getType() != NDFToken.TokenType.EOF) {
@@ -59,6 +76,8 @@ public class NDFParser {
 
                 if (currentToken.getType() == NDFToken.TokenType.EXPORT) {
                     ndfObjects.add(parseExportedDescriptor());
+                } else if (descriptorGrammar) {
+                    advance(); // descriptor files are read for their exported descriptors only
                 } else if (currentToken.getType() == NDFToken.TokenType.RESOURCE_REF) {
 
                     ndfObjects.add(parseStandaloneObjectDefinition());
@@ -92,47 +111,23 @@ public class NDFParser {
         int exportTokenIndex = currentTokenIndex;
 
         expect(NDFToken.TokenType.EXPORT);
-        String descriptorName;
-        if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER) {
-            descriptorName = currentToken.getValue();
+        String descriptorName = expect(NDFToken.TokenType.IDENTIFIER).getValue();
+        if (currentToken.getType() == NDFToken.TokenType.OPEN_BRACKET) {
             advance();
-            if (currentToken.getType() == NDFToken.TokenType.OPEN_BRACKET) {
+            while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET &&
+                   currentToken.getType() != NDFToken.TokenType.EOF) {
+                advance();
+            }
+            if (currentToken.getType() == NDFToken.TokenType.CLOSE_BRACKET) {
                 advance();
-                while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET &&
-                       currentToken.getType() != NDFToken.TokenType.EOF) {
-                    advance();
-                }
-                if (currentToken.getType() == NDFToken.TokenType.CLOSE_BRACKET) {
-                    advance();
-                }
             }
-        } else {
-            throw new NDFParseException("Expected descriptor name after export", currentToken);
         }
 
         expect(NDFToken.TokenType.IS);
-        NDFToken typeNameToken = expect(NDFToken.TokenType.IDENTIFIER);
-        String typeName = typeNameToken.getValue();
-        int typeNameTokenIndex = currentTokenIndex - 1;
-        ObjectValue descriptor = NDFValue.createObject(typeName);
+        String typeName = expect(NDFToken.TokenType.IDENTIFIER).getValue();
+        ObjectValue descriptor = parseObject(typeName, exportTokenIndex);
         descriptor.setInstanceName(descriptorName);
         descriptor.setExported(true);
-        if (exportTokenIndex >= 0) {
-            descriptor.setOriginalTokenStartIndex(exportTokenIndex);
-        }
-        NDFToken openParenToken = currentToken;
-        expect(NDFToken.TokenType.OPEN_PAREN);
-        descriptor.setOriginalOpeningParen(openParenToken.getExactText());
-
-        parseObjectProperties(descriptor);
-
-        NDFToken closeParenToken = currentToken;
-        expect(NDFToken.TokenType.CLOSE_PAREN);
-        descriptor.setOriginalClosingParen(closeParenToken.getExactText());
-
-        int closeParenTokenIndex = currentTokenIndex - 1;
-        descriptor.setOriginalTokenEndIndex(closeParenTokenIndex);
-
         return descriptor;
     }
 
@@ -330,8 +325,13 @@ public class NDFParser {
 
 
     private void parseObjectProperties(ObjectValue object) throws NDFParseException {
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN) {
+        while (currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN &&
+               currentToken.getType() != NDFToken.TokenType.EOF) {
             String propertyPrefix = currentToken.getLeadingWhitespace();
+            if (descriptorGrammar && !propertyPrefix.isEmpty()) {
+                // Descriptor properties are written back with consistent 4-space indentation
+                propertyPrefix = "    ";
+            }
 
             String propertyName;
             if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER) {
@@ -350,7 +350,11 @@ public class NDFParser {
             String originalEquals = equalsToken.getExactText();
             NDFValue propertyValue;
             try {
-                propertyValue = parseValue();
+                if (descriptorGrammar && "ModulesDescriptors".equals(propertyName)) {
+                    propertyValue = parseArray(true);
+                } else {
+                    propertyValue = parseValue();
+                }
             } catch (NDFParseException e) {
                 while (currentToken.getType() != NDFToken.TokenType.COMMA &&
                        currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN &&
@@ -363,19 +367,9 @@ public class NDFParser {
                 }
                 continue;
             }
-            if (currentToken.getType() == NDFToken.TokenType.PIPE) {
-                StringBuilder bitwiseExpr = new StringBuilder();
-                bitwiseExpr.append(propertyValue.toString());
-
-                while (currentToken.getType() == NDFToken.TokenType.PIPE) {
-                    bitwiseExpr.append(" | ");
-                    advance(); // Consume the '|'
-
-                    NDFValue rightOperand = parseValue();
-                    bitwiseExpr.append(rightOperand.toString());
-                }
-
-                propertyValue = NDFValue.createRawExpression(bitwiseExpr.toString());
+            if (!descriptorGrammar && currentToken.getType() == NDFToken.TokenType.PIPE) {
+                // Descriptor values consume their own pipes; elsewhere any values can be or'ed at property level
+                propertyValue = parsePipeExpression(propertyValue.toString());
             }
             boolean hasComma = currentToken.getType() == NDFToken.TokenType.COMMA;
             String propertySuffix = "";
@@ -387,6 +381,9 @@ public class NDFParser {
                 String commaText = commaToken.getExactText();
                 String followingWhitespace = currentToken.getLeadingWhitespace();
                 propertySuffix = commaText + followingWhitespace;
+            } else if (descriptorGrammar) {
+                // Descriptor properties are separated by newlines rather than commas
+                propertySuffix = currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN ? "\n    " : "\n";
             } else {
                 propertySuffix = currentToken.getLeadingWhitespace();
             }
@@ -402,52 +399,80 @@ public class NDFParser {
 
 
     private NDFValue parseValue() throws NDFParseException {
+        NDFToken.TokenType type = currentToken.getType();
+        if (descriptorGrammar && (type == NDFToken.TokenType.IDENTIFIER ||
+                                  type == NDFToken.TokenType.ENUM_VALUE ||
+                                  type == NDFToken.TokenType.TEMPLATE_REF)) {
+            NDFToken.TokenType nextType = nextSignificantType();
+            if (nextType == NDFToken.TokenType.PIPE) {
+                // e.g. EGameplayBehavior/Nothing | EGameplayBehavior/TacticalAttackNearCover
+                String firstOperand = currentToken.getValue();
+                advance();
+                return parsePipeExpression(firstOperand);
+            }
+            if (type == NDFToken.TokenType.IDENTIFIER) {
+                String identifier = currentToken.getValue();
+                int identifierTokenIndex = currentTokenIndex;
+                advance();
+                if (nextType == NDFToken.TokenType.OPEN_PAREN) {
+                    return parseObject(identifier, identifierTokenIndex);
+                }
+                // The enum type isn't known, so the identifier is kept as written
+                return NDFValue.createRawExpression(identifier);
+            }
+            if (type == NDFToken.TokenType.ENUM_VALUE) {
+                String enumValue = currentToken.getValue();
+                advance();
+                return NDFValue.createRawExpression(enumValue);
+            }
+        }
+
         String valuePrefix = currentToken.getLeadingWhitespace();
         int lineNumber = currentToken.getLine();
 
-        switch (currentToken.getType()) {
+        switch (type) {
             case STRING_LITERAL:
                 String stringValue = currentToken.getValue();
                 boolean useDoubleQuotes = currentToken.getOriginalText().startsWith("\"");
                 String stringTrailingWhitespace = currentToken.getTrailingWhitespace();
                 advance();
                 NDFValue stringVal = NDFValue.createString(stringValue, useDoubleQuotes);
-                stringVal.setOriginalFormatting(valuePrefix, stringTrailingWhitespace);
-                setLineInfo(stringVal, lineNumber);
+                recordFormatting(stringVal, valuePrefix, stringTrailingWhitespace, lineNumber);
                 return stringVal;
 
             case NUMBER_LITERAL:
-                double numberValue = Double.parseDouble(currentToken.getValue());
+                // The literal is kept as written and only converted to a double when read
                 String originalFormat = currentToken.getOriginalText();
                 String numberTrailingWhitespace = currentToken.getTrailingWhitespace();
                 advance();
-                NDFValue numberVal = NDFValue.createNumber(numberValue, originalFormat);
-                numberVal.setOriginalFormatting(valuePrefix, numberTrailingWhitespace);
-                setLineInfo(numberVal, lineNumber);
+                NDFValue numberVal = NDFValue.createNumber(originalFormat);
+                recordFormatting(numberVal, valuePrefix, numberTrailingWhitespace, lineNumber);
                 return numberVal;
 
             case BOOLEAN_LITERAL:
-                boolean booleanValue = currentToken.getValue().equals("True");
+                boolean booleanValue = Boolean.parseBoolean(currentToken.getValue());
                 String booleanTrailingWhitespace = currentToken.getTrailingWhitespace();
                 advance();
                 NDFValue booleanVal = NDFValue.createBoolean(booleanValue);
-                booleanVal.setOriginalFormatting(valuePrefix, booleanTrailingWhitespace);
-                setLineInfo(booleanVal, lineNumber);
+                recordFormatting(booleanVal, valuePrefix, booleanTrailingWhitespace, lineNumber);
                 return booleanVal;
 
             case OPEN_BRACKET:
-                NDFValue arrayVal = parseArray();
-                arrayVal.setOriginalFormatting(valuePrefix, "");
+                NDFValue arrayVal = parseArray(false);
+                recordFormatting(arrayVal, valuePrefix, "", -1);
                 return arrayVal;
 
             case OPEN_PAREN:
+                if (descriptorGrammar) {
+                    break; // descriptor tuples only appear as array elements
+                }
                 NDFValue tupleVal = parseTuple();
-                tupleVal.setOriginalFormatting(valuePrefix, "");
+                recordFormatting(tupleVal, valuePrefix, "", -1);
                 return tupleVal;
 
             case MAP:
                 NDFValue mapVal = parseMap();
-                mapVal.setOriginalFormatting(valuePrefix, "");
+                recordFormatting(mapVal, valuePrefix, "", -1);
                 return mapVal;
 
             case GUID:
@@ -455,7 +480,7 @@ public class NDFParser {
                 String guidTrailingWhitespace = currentToken.getTrailingWhitespace();
                 advance();
                 NDFValue guidVal = NDFValue.createGUID(guidValue);
-                guidVal.setOriginalFormatting(valuePrefix, guidTrailingWhitespace);
+                recordFormatting(guidVal, valuePrefix, guidTrailingWhitespace, -1);
                 return guidVal;
 
             case ENUM_VALUE:
@@ -472,7 +497,7 @@ public class NDFParser {
                 String templateTrailingWhitespace = currentToken.getTrailingWhitespace();
                 advance();
                 NDFValue templateVal = NDFValue.createTemplateRef(templatePath);
-                templateVal.setOriginalFormatting(valuePrefix, templateTrailingWhitespace);
+                recordFormatting(templateVal, valuePrefix, templateTrailingWhitespace, -1);
                 return templateVal;
 
             case RESOURCE_REF:
@@ -480,7 +505,7 @@ public class NDFParser {
                 String resourceTrailingWhitespace = currentToken.getTrailingWhitespace();
                 advance();
                 NDFValue resourceVal = NDFValue.createResourceRef(resourcePath);
-                resourceVal.setOriginalFormatting(valuePrefix, resourceTrailingWhitespace);
+                recordFormatting(resourceVal, valuePrefix, resourceTrailingWhitespace, -1);
                 return resourceVal;
 
             case IDENTIFIER:
@@ -498,28 +523,7 @@ public class NDFParser {
 
                 if (currentToken.getType() == NDFToken.TokenType.IS) {
                     advance();
-
-                    while (currentToken.getType() == NDFToken.TokenType.UNKNOWN &&
-                           Character.isWhitespace(currentToken.getValue().charAt(0))) {
-                        advance();
-                    }
-                    if (currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF) {
-                        String refPath = currentToken.getValue();
-                        String refTrailingWhitespace = currentToken.getTrailingWhitespace();
-                        advance();
-                        TemplateRefValue templateRef = (TemplateRefValue) NDFValue.createTemplateRef(refPath);
-                        templateRef.setInstanceName(identifier);
-                        templateRef.setOriginalFormatting(valuePrefix, refTrailingWhitespace);
-                        return templateRef;
-                    } else {
-                        NDFToken typeNameToken = expect(NDFToken.TokenType.IDENTIFIER);
-                        String typeName = typeNameToken.getValue();
-                        // PERFECT FIX: Use identifierTokenIndex (instance name) as start of token range
-                        // This ensures the token range includes "instanceName is typeName(...)"
-                        ObjectValue object = parseObject(typeName, identifierTokenIndex);
-                        object.setInstanceName(identifier);
-                        return object;
-                    }
+                    return parseNamedValue(identifier, identifierTokenIndex, valuePrefix);
                 } else if (currentToken.getType() == NDFToken.TokenType.OPEN_PAREN) {
                     // This could be either:
                     // 1. Anonymous object: 'Type(...)'
@@ -605,7 +609,7 @@ public class NDFParser {
                     return parseObject(identifier, identifierTokenIndex);
 
                 } else if (currentToken.getType() == NDFToken.TokenType.OPEN_BRACKET) {
-                    ArrayValue array = parseArray();
+                    ArrayValue array = parseArray(false);
                     ObjectValue functionCall = NDFValue.createObject(identifier);
                     functionCall.setProperty("values", array);
                     return functionCall;
@@ -618,21 +622,119 @@ public class NDFParser {
                 }
 
             default:
-                throw new NDFParseException("Unexpected token: " + currentToken, currentToken);
+                break;
+        }
+        throw new NDFParseException("Unexpected token: " + currentToken, currentToken);
+    }
+
+    /**
+     * The value after 'Name is': a template or resource reference, or an object of the given type
+     */
+    private NDFValue parseNamedValue(String name, int startTokenIndex, String valuePrefix) throws NDFParseException {
+        skipWhitespaceAndComments();
+
+        if (currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF) {
+            // e.g. FacingInfos is ~/FacingInfosModuleDescriptor
+            String refPath = currentToken.getValue();
+            String refTrailingWhitespace = currentToken.getTrailingWhitespace();
+            advance();
+            TemplateRefValue templateRef = (TemplateRefValue) NDFValue.createTemplateRef(refPath);
+            templateRef.setInstanceName(name);
+            recordFormatting(templateRef, valuePrefix, refTrailingWhitespace, -1);
+            return templateRef;
+        } else if (currentToken.getType() == NDFToken.TokenType.RESOURCE_REF) {
+            // e.g. WeaponManager is $/GFX/Weapon/WeaponDescriptor_2K11_KRUG_DDR
+            String resourcePath = currentToken.getValue();
+            String resourceTrailingWhitespace = currentToken.getTrailingWhitespace();
+            advance();
+            ResourceRefValue resourceRef = (ResourceRefValue) NDFValue.createResourceRef(resourcePath);
+            resourceRef.setInstanceName(name);
+            recordFormatting(resourceRef, valuePrefix, resourceTrailingWhitespace, -1);
+            return resourceRef;
+        }
+
+        String typeName = expect(NDFToken.TokenType.IDENTIFIER).getValue();
+        // The token range starts at the instance name so it covers "Name is Type(...)"
+        ObjectValue object = parseObject(typeName, startTokenIndex);
+        object.setInstanceName(name);
+        return object;
+    }
+
+    /**
+     * One entry of a descriptor's ModulesDescriptors list: a template reference, 'Name is ...',
+     * an anonymous module object, or any other value
+     */
+    private NDFValue parseModuleDescriptor() throws NDFParseException {
+        NDFToken.TokenType type = currentToken.getType();
+        if (type != NDFToken.TokenType.TEMPLATE_REF && type != NDFToken.TokenType.IDENTIFIER) {
+            return parseValue();
+        }
+
+        String name = currentToken.getValue();
+        int startTokenIndex = currentTokenIndex;
+        advance();
+
+        if (type == NDFToken.TokenType.IDENTIFIER) {
+            if (currentToken.getType() == NDFToken.TokenType.IS) {
+                advance();
+                return parseNamedValue(name, startTokenIndex, "");
+            } else if (currentToken.getType() == NDFToken.TokenType.OPEN_PAREN) {
+                return parseObject(name, startTokenIndex);
+            }
+        }
+        return NDFValue.createTemplateRef(name);
+    }
+
+    /**
+     * Joins 'A | B | C' into one raw expression; the first operand has already been consumed.
+     * Descriptor operands are single enum, identifier or template tokens, elsewhere any value.
+     */
+    private NDFValue parsePipeExpression(String firstOperand) throws NDFParseException {
+        StringBuilder expression = new StringBuilder(firstOperand);
+
+        while (currentToken.getType() == NDFToken.TokenType.PIPE) {
+            expression.append(" | ");
+            advance(); // Consume the '|'
+
+            if (!descriptorGrammar) {
+                expression.append(parseValue().toString());
+                continue;
+            }
+
+            while (isWhitespaceToken(currentToken)) {
+                advance();
+            }
+            if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER ||
+                currentToken.getType() == NDFToken.TokenType.ENUM_VALUE ||
+                currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF) {
+                expression.append(currentToken.getValue());
+                advance();
+            } else {
+                throw new NDFParseException("Expected IDENTIFIER, ENUM_VALUE, or TEMPLATE_REF after pipe", currentToken);
+            }
         }
+
+        return NDFValue.createRawExpression(expression.toString());
     }
 
 
     private TupleValue parseTuple() throws NDFParseException {
         expect(NDFToken.TokenType.OPEN_PAREN);
         TupleValue tuple = NDFValue.createTuple();
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN) {
+        while (currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN &&
+               currentToken.getType() != NDFToken.TokenType.EOF) {
+            if (descriptorGrammar && isWhitespaceOrComment(currentToken)) {
+                advance();
+                continue;
+            }
+
             NDFValue element = parseValue();
             boolean hasComma = currentToken.getType() == NDFToken.TokenType.COMMA;
             if (hasComma) {
                 advance(); // Consume the comma
             }
-            tuple.add(element, hasComma);
+            // Descriptor tuples don't record their commas
+            tuple.add(element, hasComma && !descriptorGrammar);
         }
 
         expect(NDFToken.TokenType.CLOSE_PAREN);
@@ -640,27 +742,59 @@ public class NDFParser {
     }
 
 
-    private ArrayValue parseArray() throws NDFParseException {
+    /**
+     * @param moduleList parse a descriptor's ModulesDescriptors, whose entries may be named
+     *                   ('Name is ...') and separated by leading commas
+     */
+    private ArrayValue parseArray(boolean moduleList) throws NDFParseException {
+        // Plain descriptor arrays keep no layout; module lists and arrays in other files do
+        boolean recordLayout = moduleList || !descriptorGrammar;
+
         // CAPTURE ORIGINAL OPENING BRACKET WITH EXACT FORMATTING
         NDFToken openBracketToken = currentToken;
         expect(NDFToken.TokenType.OPEN_BRACKET);
 
         ArrayValue array = NDFValue.createArray();
 
-        // Store original opening bracket formatting (including any trailing whitespace/newlines)
-        array.setOriginalOpeningBracket(openBracketToken.getExactText());
+        if (recordLayout) {
+            // Store original opening bracket formatting (including any trailing whitespace/newlines)
+            array.setOriginalOpeningBracket(openBracketToken.getExactText());
 
-        // Determine if this is originally multi-line by checking if opening bracket has newlines
-        boolean isMultiLine = openBracketToken.getTrailingWhitespace().contains("\n");
-        array.setOriginallyMultiLine(isMultiLine);
+            // Determine if this is originally multi-line by checking if opening bracket has newlines
+            boolean isMultiLine = openBracketToken.getTrailingWhitespace().contains("\n");
+            array.setOriginallyMultiLine(isMultiLine);
+        }
 
         int elementIndex = 0;
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET) {
+        while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET &&
+               currentToken.getType() != NDFToken.TokenType.EOF) {
+            if (descriptorGrammar && isWhitespaceOrComment(currentToken)) {
+                advance();
+                continue;
+            }
+
+            // Handle leading comma (NEW format: ",element")
+            boolean hasLeadingComma = moduleList && currentToken.getType() == NDFToken.TokenType.COMMA;
+            String leadingCommaText = "";
+            if (hasLeadingComma) {
+                leadingCommaText = currentToken.getExactText();
+                advance();
+            }
+
             // CAPTURE WHITESPACE/INDENTATION BEFORE ELEMENT
-            String elementPrefix = currentToken.getLeadingWhitespace();
-            array.setOriginalElementPrefix(elementIndex, elementPrefix);
+            String elementPrefix = hasLeadingComma ? leadingCommaText + currentToken.getLeadingWhitespace()
+                                                   : currentToken.getLeadingWhitespace();
+
+            NDFValue element;
+            if (moduleList) {
+                element = parseModuleDescriptor();
+            } else if (descriptorGrammar && currentToken.getType() == NDFToken.TokenType.OPEN_PAREN) {
+                // Tuples like (EVisionUnitType/Standard, 3500.0)
+                element = parseTuple();
+            } else {
+                element = parseValue();
+            }
 
-            NDFValue element = parseValue();
             boolean hasComma = currentToken.getType() == NDFToken.TokenType.COMMA;
             String elementSuffix = "";
 
@@ -669,17 +803,25 @@ public class NDFParser {
                 NDFToken commaToken = currentToken;
                 advance(); // Consume the comma
 
-                // CRITICAL FIX: Include comma + whitespace that follows the comma
-                String commaText = commaToken.getExactText();
-                String followingWhitespace = currentToken.getLeadingWhitespace();
-                elementSuffix = commaText + followingWhitespace;
+                if (recordLayout) {
+                    // CRITICAL FIX: Include comma + whitespace that follows the comma
+                    String commaText = commaToken.getExactText();
+                    String followingWhitespace = currentToken.getLeadingWhitespace();
+                    elementSuffix = commaText + followingWhitespace;
+                }
             } else {
                 // CAPTURE ANY TRAILING WHITESPACE/NEWLINES AFTER ELEMENT
                 elementSuffix = currentToken.getLeadingWhitespace();
             }
 
-            array.setOriginalElementSuffix(elementIndex, elementSuffix);
-            array.add(element, hasComma);
+            if (recordLayout) {
+                array.setOriginalElementPrefix(elementIndex, elementPrefix);
+                array.setOriginalElementSuffix(elementIndex, elementSuffix);
+                // Element has comma if either leading or trailing comma was found
+                array.add(element, hasLeadingComma || hasComma);
+            } else {
+                array.add(element);
+            }
             elementIndex++;
         }
 
@@ -687,8 +829,10 @@ public class NDFParser {
         NDFToken closeBracketToken = currentToken;
         expect(NDFToken.TokenType.CLOSE_BRACKET);
 
-        // Store original closing bracket formatting (including any leading whitespace/indentation)
-        array.setOriginalClosingBracket(closeBracketToken.getExactText());
+        if (recordLayout) {
+            // Store original closing bracket formatting (including any leading whitespace/indentation)
+            array.setOriginalClosingBracket(closeBracketToken.getExactText());
+        }
 
         return array;
     }
@@ -698,7 +842,13 @@ public class NDFParser {
         expect(NDFToken.TokenType.MAP);
         expect(NDFToken.TokenType.OPEN_BRACKET);
         MapValue map = NDFValue.createMap();
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET) {
+        while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET &&
+               currentToken.getType() != NDFToken.TokenType.EOF) {
+            if (descriptorGrammar && isWhitespaceOrComment(currentToken)) {
+                advance();
+                continue;
+            }
+
             expect(NDFToken.TokenType.OPEN_PAREN);
             NDFValue key = parseValue();
             expect(NDFToken.TokenType.COMMA);
@@ -841,693 +991,32 @@ public class NDFParser {
     }
 
 
-    public List<ObjectValue> parseUniteDescriptor() throws IOException, NDFParseException {
-        List<ObjectValue> ndfObjects = new ArrayList<>();
-
-        while (currentToken.getType() != NDFToken.TokenType.EOF) {
-            try {
-                if (currentToken.getType() == NDFToken.TokenType.COMMENT) {
-                    advance();
-                    continue;
-                }
-
-                if (currentToken.getType() == NDFToken.TokenType.EXPORT) {
-                    ndfObjects.add(parseUniteDescriptorExportedObject());
-                } else {
-                    advance(); // Skip any other tokens
-                }
-            } catch (NDFParseException e) {
-                // CRITICAL: Log parsing errors to help debug missing objects
-                System.err.println("WARNING: UniteDescriptor parsing error at line " + currentToken.getLine() +
-                                 ", token: " + currentToken.getValue() + " (" + currentToken.getType() + "): " + e.getMessage());
-
-                // Try to recover more gracefully - advance just one token instead of skipping to next export
-                // This prevents losing entire objects due to minor parsing issues
-                if (currentToken.getType() != NDFToken.TokenType.EOF) {
-                    advance();
-                }
-            }
-        }
-
-        return ndfObjects;
-    }
-
     /**
-     * Parse exported objects in UniteDescriptor.ndf (TEntityDescriptor objects) with ENHANCED MEMORY MODEL
+     * Check if a token is whitespace or comment
      */
-    private ObjectValue parseUniteDescriptorExportedObject() throws NDFParseException {
-        int exportTokenIndex = currentTokenIndex;
-
-        expect(NDFToken.TokenType.EXPORT);
-        String descriptorName = expect(NDFToken.TokenType.IDENTIFIER).getValue();
-        expect(NDFToken.TokenType.IS);
-        String typeName = expect(NDFToken.TokenType.IDENTIFIER).getValue();
-
-        ObjectValue descriptor = NDFValue.createObject(typeName);
-        descriptor.setInstanceName(descriptorName);
-        descriptor.setExported(true);
-        descriptor.setOriginalTokenStartIndex(exportTokenIndex);
-
-        // ENHANCED MEMORY MODEL: CAPTURE ORIGINAL OPENING PARENTHESIS WITH EXACT FORMATTING
-        NDFToken openParenToken = currentToken;
-        expect(NDFToken.TokenType.OPEN_PAREN);
-        descriptor.setOriginalOpeningParen(openParenToken.getExactText());
-
-        parseUniteDescriptorObjectProperties(descriptor);
-
-        // ENHANCED MEMORY MODEL: CAPTURE ORIGINAL CLOSING PARENTHESIS WITH EXACT FORMATTING
-        NDFToken closeParenToken = currentToken;
-        expect(NDFToken.TokenType.CLOSE_PAREN);
-        descriptor.setOriginalClosingParen(closeParenToken.getExactText());
-
-        int endTokenIndex = currentTokenIndex - 1;
-        descriptor.setOriginalTokenEndIndex(endTokenIndex);
-
-        return descriptor;
+    private boolean isWhitespaceOrComment(NDFToken token) {
+        return token.getType() == NDFToken.TokenType.COMMENT || isWhitespaceToken(token);
     }
 
     /**
-     * Parse object properties in UniteDescriptor.ndf with ENHANCED MEMORY MODEL formatting capture
+     * Type of the first token after the current one that isn't whitespace or a comment
      */
-    private void parseUniteDescriptorObjectProperties(ObjectValue object) throws NDFParseException {
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN) {
-            if (currentToken.getType() == NDFToken.TokenType.COMMENT) {
-                advance();
-                continue;
-            }
-
-            // ENHANCED MEMORY MODEL: CAPTURE ORIGINAL WHITESPACE/INDENTATION BEFORE PROPERTY
-            String propertyPrefix = currentToken.getLeadingWhitespace();
-
-            // UNITEDESCRIPTOR NORMALIZATION: Ensure consistent 4-space indentation
-            if (!propertyPrefix.isEmpty()) {
-                // Normalize to consistent 4-space indentation for UniteDescriptor files
-                propertyPrefix = "    ";
-            }
-
-            String propertyName;
-            if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER) {
-                propertyName = currentToken.getValue();
-                advance();
-            } else if (currentToken.getType() == NDFToken.TokenType.UNKNOWN) {
-                propertyName = currentToken.getValue();
-                advance();
-            } else {
-                // Skip unexpected tokens and try to continue
-                advance();
-                continue;
-            }
-
-            // ENHANCED MEMORY MODEL: CAPTURE ORIGINAL EQUALS SIGN WITH EXACT FORMATTING
-            NDFToken equalsToken = currentToken;
-            expect(NDFToken.TokenType.EQUALS);
-            String originalEquals = equalsToken.getExactText();
-
-            NDFValue propertyValue;
-            try {
-                if ("ModulesDescriptors".equals(propertyName)) {
-                    // Special handling for ModulesDescriptors array
-                    propertyValue = parseUniteDescriptorModulesArray();
-                } else {
-                    // Use completely standalone UniteDescriptor value parsing
-                    propertyValue = parseUniteDescriptorValueStandalone();
-                }
-
-                // ENHANCED MEMORY MODEL: CAPTURE PROPERTY SUFFIX WITH COMMA + WHITESPACE
-                boolean hasComma = currentToken.getType() == NDFToken.TokenType.COMMA;
-                String propertySuffix = "";
-
-                if (hasComma) {
-                    // CAPTURE COMMA AND ANY TRAILING WHITESPACE/NEWLINES
-                    NDFToken commaToken = currentToken;
-                    advance(); // Consume the comma
-
-                    // CRITICAL FIX: Include comma + whitespace that follows the comma
-                    String commaText = commaToken.getExactText();
-                    String followingWhitespace = currentToken.getLeadingWhitespace();
-                    propertySuffix = commaText + followingWhitespace;
-                } else {
-                    // UNITEDESCRIPTOR FIX: In UniteDescriptor files, properties don't have commas
-                    // Each property should end with a newline + indentation for the next property
-                    // The suffix should be the newline that separates this property from the next
-
-                    // Look ahead to see if there's another property coming
-                    if (currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN) {
-                        // There's another property coming, so we need a newline + indentation
-                        String nextPropertyWhitespace = currentToken.getLeadingWhitespace();
-                        if (!nextPropertyWhitespace.isEmpty() && nextPropertyWhitespace.contains("\n")) {
-                            // NORMALIZE: Use consistent single newline + 4-space indentation
-                            // Don't preserve excessive whitespace that causes formatting issues
-                            propertySuffix = "\n    ";
-                        } else {
-                            // Default: newline + 4-space indentation
-                            propertySuffix = "\n    ";
-                        }
-                    } else {
-                        // This is the last property, normalize to single newline before closing paren
-                        propertySuffix = "\n";
-                    }
-                }
-
-                // ENHANCED MEMORY MODEL: Store original formatting for this property
-                object.setOriginalPropertyPrefix(propertyName, propertyPrefix);
-                object.setOriginalPropertyEquals(propertyName, originalEquals);
-                object.setOriginalPropertySuffix(propertyName, propertySuffix);
-                object.setProperty(propertyName, propertyValue, hasComma);
-
-            } catch (NDFParseException e) {
-                // Skip failed property parsing and continue - only log if debugging
-                // System.err.println("Warning: Failed to parse property '" + propertyName + "': " + e.getMessage());
-                while (currentToken.getType() != NDFToken.TokenType.COMMA &&
-                       currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN &&
-                       currentToken.getType() != NDFToken.TokenType.EOF) {
-                    advance();
-                }
-                if (currentToken.getType() == NDFToken.TokenType.COMMA) {
-                    advance();
-                }
+    private NDFToken.TokenType nextSignificantType() {
+        for (int i = currentTokenIndex + 1; i < tokens.size(); i++) {
+            NDFToken token = tokens.get(i);
+            if (!isWhitespaceOrComment(token)) {
+                return token.getType();
             }
         }
+        return NDFToken.TokenType.EOF;
     }
 
-    /**
-     * Parse ModulesDescriptors array with special handling for named object assignments
-     */
-    private ArrayValue parseUniteDescriptorModulesArray() throws NDFParseException {
-        NDFToken openBracketToken = currentToken;
-        expect(NDFToken.TokenType.OPEN_BRACKET);
-
-        ArrayValue array = NDFValue.createArray();
-        array.setOriginalOpeningBracket(openBracketToken.getExactText());
-
-        boolean isMultiLine = openBracketToken.getTrailingWhitespace().contains("\n");
-        array.setOriginallyMultiLine(isMultiLine);
-
-        int elementIndex = 0;
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET) {
-            // Skip whitespace and comments
-            if (currentToken.getType() == NDFToken.TokenType.UNKNOWN && isWhitespaceToken(currentToken)) {
-                advance();
-                continue;
-            }
-            if (currentToken.getType() == NDFToken.TokenType.COMMENT) {
-                advance();
-                continue;
-            }
-
-            // Handle leading comma (NEW format: ",element")
-            boolean hasLeadingComma = false;
-            String leadingCommaText = "";
-            if (currentToken.getType() == NDFToken.TokenType.COMMA) {
-                hasLeadingComma = true;
-                NDFToken commaToken = currentToken;
-                leadingCommaText = commaToken.getExactText();
-                advance();
-            }
-
-            String elementPrefix = currentToken.getLeadingWhitespace();
-            // If we had a leading comma, include it in the prefix
-            if (hasLeadingComma) {
-                elementPrefix = leadingCommaText + elementPrefix;
-            }
-            array.setOriginalElementPrefix(elementIndex, elementPrefix);
-
-            NDFValue element = parseUniteDescriptorModuleElement();
-
-            // Handle trailing comma (OLD format: "element,")
-            boolean hasTrailingComma = currentToken.getType() == NDFToken.TokenType.COMMA;
-            String elementSuffix = "";
-
-            if (hasTrailingComma) {
-                NDFToken commaToken = currentToken;
-                advance();
-
-                // CRITICAL FIX: Include comma + whitespace that follows the comma
-                String commaText = commaToken.getExactText();
-                String followingWhitespace = currentToken.getLeadingWhitespace();
-                elementSuffix = commaText + followingWhitespace;
-            } else {
-                elementSuffix = currentToken.getLeadingWhitespace();
-            }
-
-            array.setOriginalElementSuffix(elementIndex, elementSuffix);
-            // Element has comma if either leading or trailing comma was found
-            array.add(element, hasLeadingComma || hasTrailingComma);
-            elementIndex++;
-        }
-
-        NDFToken closeBracketToken = currentToken;
-        expect(NDFToken.TokenType.CLOSE_BRACKET);
-        array.setOriginalClosingBracket(closeBracketToken.getExactText());
-
-        return array;
-    }
-
-
-    private NDFValue parseUniteDescriptorModuleElement() throws NDFParseException {
-        if (currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF) {
-            String templatePath = currentToken.getValue();
-            advance();
-            return NDFValue.createTemplateRef(templatePath);
-        } else if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER) {
-            String firstIdentifier = currentToken.getValue();
-            int identifierTokenIndex = currentTokenIndex;
-            advance();
-
-            if (currentToken.getType() == NDFToken.TokenType.IS) {
-                // Named assignment: "Name is Type(...)" or "Name is ~/TemplateRef"
-                advance(); // consume 'is'
-
-                if (currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF) {
-                    // Named assignment with template ref: "FacingInfos is ~/FacingInfosModuleDescriptor"
-                    String templatePath = currentToken.getValue();
-                    advance();
-                    NDFValue.TemplateRefValue templateRef = (NDFValue.TemplateRefValue) NDFValue.createTemplateRef(templatePath);
-                    templateRef.setInstanceName(firstIdentifier);
-                    return templateRef;
-                } else if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER) {
-                    // Named assignment with object: "ApparenceModel is VehicleApparenceModuleDescriptor(...)"
-                    String typeName = currentToken.getValue();
-                    advance();
-
-                    ObjectValue namedObject = parseUniteDescriptorObject(typeName, identifierTokenIndex);
-                    namedObject.setInstanceName(firstIdentifier);
-                    return namedObject;
-                } else if (currentToken.getType() == NDFToken.TokenType.RESOURCE_REF) {
-                    // NEW FORMAT: Named assignment with resource ref: "WeaponManager is $/GFX/Weapon/WeaponDescriptor_2K11_KRUG_DDR"
-                    String resourcePath = currentToken.getValue();
-                    advance();
-                    NDFValue.ResourceRefValue resourceRef = (NDFValue.ResourceRefValue) NDFValue.createResourceRef(resourcePath);
-                    resourceRef.setInstanceName(firstIdentifier);
-                    return resourceRef;
-                } else {
-                    throw new NDFParseException("Expected IDENTIFIER, TEMPLATE_REF, or RESOURCE_REF after 'is' but got " + currentToken.getType() + " at line " + currentToken.getLine() + ", column " + currentToken.getColumn(), currentToken);
-                }
-            } else if (currentToken.getType() == NDFToken.TokenType.OPEN_PAREN) {
-                // Simple object: "Type(...)"
-                return parseUniteDescriptorObject(firstIdentifier, identifierTokenIndex);
-            } else {
-                // Just an identifier (shouldn't happen in ModulesDescriptors, but handle gracefully)
-                return NDFValue.createTemplateRef(firstIdentifier);
-            }
-        } else {
-            // Fallback to UniteDescriptor-specific value parsing
-            return parseUniteDescriptorValueStandalone();
-        }
-    }
-
-
-    private ObjectValue parseUniteDescriptorObject(String typeName, int startTokenIndex) throws NDFParseException {
-        ObjectValue object = NDFValue.createObject(typeName);
-        object.setOriginalTokenStartIndex(startTokenIndex);
-
-        NDFToken openParenToken = currentToken;
-        expect(NDFToken.TokenType.OPEN_PAREN);
-        object.setOriginalOpeningParen(openParenToken.getExactText());
-
-        parseUniteDescriptorObjectProperties(object);
-
-        // ENHANCED MEMORY MODEL: CAPTURE ORIGINAL CLOSING PARENTHESIS WITH EXACT FORMATTING
-        NDFToken closeParenToken = currentToken;
-        expect(NDFToken.TokenType.CLOSE_PAREN);
-        object.setOriginalClosingParen(closeParenToken.getExactText());
-
-        int endTokenIndex = currentTokenIndex - 1;
-        object.setOriginalTokenEndIndex(endTokenIndex);
-
-        return object;
-    }
-
-    /**
-     * COMPLETELY STANDALONE UniteDescriptor value parsing
-     * Handles all the unique patterns in UniteDescriptor.ndf without using standard parsing
-     */
-    private NDFValue parseUniteDescriptorValueStandalone() throws NDFParseException {
-
-        if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER || currentToken.getType() == NDFToken.TokenType.ENUM_VALUE) {
-            // Look ahead to see if there's a pipe after this value
-            int lookAheadIndex = currentTokenIndex + 1;
-            while (lookAheadIndex < tokens.size()) {
-                NDFToken lookAheadToken = tokens.get(lookAheadIndex);
-                if (lookAheadToken.getType() == NDFToken.TokenType.PIPE) {
-                    // This is a pipe-separated value, parse it specially
-                    return parseUniteDescriptorPipeSeparatedEnum();
-                } else if (lookAheadToken.getType() == NDFToken.TokenType.COMMA ||
-                          lookAheadToken.getType() == NDFToken.TokenType.CLOSE_PAREN ||
-                          lookAheadToken.getType() == NDFToken.TokenType.CLOSE_BRACKET) {
-                    // End of value, no pipe found
-                    break;
-                } else if (!isWhitespaceOrComment(lookAheadToken)) {
-                    // Non-whitespace, non-comment token that's not a pipe
-                    break;
-                }
-                lookAheadIndex++;
-            }
-        }
-
-        if (currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF) {
-            int lookAheadIndex = currentTokenIndex + 1;
-            while (lookAheadIndex < tokens.size()) {
-                NDFToken lookAheadToken = tokens.get(lookAheadIndex);
-                if (lookAheadToken.getType() == NDFToken.TokenType.PIPE) {
-                    // This is a pipe-separated template ref, parse it specially
-                    return parseUniteDescriptorPipeSeparatedTemplateRefs();
-                } else if (lookAheadToken.getType() == NDFToken.TokenType.COMMA ||
-                          lookAheadToken.getType() == NDFToken.TokenType.CLOSE_PAREN ||
-                          lookAheadToken.getType() == NDFToken.TokenType.CLOSE_BRACKET) {
-                    // End of value, no pipe found - treat as simple template ref
-                    break;
-                } else if (!isWhitespaceOrComment(lookAheadToken)) {
-                    break;
-                }
-                lookAheadIndex++;
-            }
-
-            String templateValue = currentToken.getValue();
-            advance();
-            return NDFValue.createTemplateRef(templateValue);
-        }
-
-        if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER) {
-            int lookAheadIndex = currentTokenIndex + 1;
-            while (lookAheadIndex < tokens.size()) {
-                NDFToken lookAheadToken = tokens.get(lookAheadIndex);
-                if (lookAheadToken.getType() == NDFToken.TokenType.OPEN_PAREN) {
-                    // This is an object, parse it with UniteDescriptor logic
-                    String typeName = currentToken.getValue();
-                    int startTokenIndex = currentTokenIndex;
-                    advance();
-                    return parseUniteDescriptorObjectStandalone(typeName, startTokenIndex);
-                } else if (!isWhitespaceOrComment(lookAheadToken)) {
-                    // Not an object, treat as enum or identifier
-                    break;
-                }
-                lookAheadIndex++;
-            }
-
-            // Not an object, check if it's a simple identifier or enum
-            String identifierValue = currentToken.getValue();
-            advance();
-            // For UniteDescriptor, treat as raw expression since we don't know the enum type
-            return NDFValue.createRawExpression(identifierValue);
-        }
-
-        // 4. Handle arrays (like [value1, value2])
-        if (currentToken.getType() == NDFToken.TokenType.OPEN_BRACKET) {
-            return parseUniteDescriptorArrayStandalone();
-        }
-
-        // 5. Handle MAP constructs
-        if (currentToken.getType() == NDFToken.TokenType.MAP) {
-            return parseUniteDescriptorMapStandalone(); // Parse as proper map, not array
-        }
-
-        // 6. Handle basic values (numbers, strings, booleans, etc.)
-        return parseUniteDescriptorBasicValue();
-    }
-
-    /**
-     * Parse pipe-separated enum values like: EGameplayBehavior/Nothing | EGameplayBehavior/TacticalAttackNearCover
-     */
-    private NDFValue parseUniteDescriptorPipeSeparatedEnum() throws NDFParseException {
-        StringBuilder pipeSeparatedValue = new StringBuilder();
-
-        // Parse the first enum value
-        pipeSeparatedValue.append(currentToken.getValue());
-        advance();
-
-        // Parse additional pipe-separated enum values
-        while (currentToken.getType() == NDFToken.TokenType.PIPE) {
-            pipeSeparatedValue.append(" | ");
-            advance(); // consume pipe
-
-            // Skip whitespace
-            while (currentToken.getType() == NDFToken.TokenType.UNKNOWN && isWhitespaceToken(currentToken)) {
-                advance();
-            }
-
-            if (currentToken.getType() == NDFToken.TokenType.IDENTIFIER ||
-                currentToken.getType() == NDFToken.TokenType.ENUM_VALUE ||
-                currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF) {
-                pipeSeparatedValue.append(currentToken.getValue());
-                advance();
-            } else {
-                throw new NDFParseException("Expected IDENTIFIER, ENUM_VALUE, or TEMPLATE_REF after pipe in enum", currentToken);
-            }
-        }
-
-        return NDFValue.createRawExpression(pipeSeparatedValue.toString());
-    }
-
-    /**
-     * Parse pipe-separated template refs like: ~/ETerrainType/None | ~/ETerrainType/ForetLegere | ~/ETerrainType/ForetDense
-     */
-    private NDFValue parseUniteDescriptorPipeSeparatedTemplateRefs() throws NDFParseException {
-        StringBuilder pipeSeparatedValue = new StringBuilder();
-
-        // Parse the first template ref
-        pipeSeparatedValue.append(currentToken.getValue());
-        advance();
-
-        // Parse additional pipe-separated template refs
-        while (currentToken.getType() == NDFToken.TokenType.PIPE) {
-            pipeSeparatedValue.append(" | ");
-            advance(); // consume pipe
-
-            // Skip whitespace
-            while (currentToken.getType() == NDFToken.TokenType.UNKNOWN && isWhitespaceToken(currentToken)) {
-                advance();
-            }
-
-            if (currentToken.getType() == NDFToken.TokenType.TEMPLATE_REF ||
-                currentToken.getType() == NDFToken.TokenType.IDENTIFIER ||
-                currentToken.getType() == NDFToken.TokenType.ENUM_VALUE) {
-                pipeSeparatedValue.append(currentToken.getValue());
-                advance();
-            } else {
-                throw new NDFParseException("Expected TEMPLATE_REF, IDENTIFIER, or ENUM_VALUE after pipe", currentToken);
-            }
-        }
-
-        return NDFValue.createRawExpression(pipeSeparatedValue.toString());
-    }
-
-    /**
-     * Parse objects in UniteDescriptor.ndf with ENHANCED MEMORY MODEL
-     */
-    private NDFValue.ObjectValue parseUniteDescriptorObjectStandalone(String typeName, int startTokenIndex) throws NDFParseException {
-        NDFValue.ObjectValue object = NDFValue.createObject(typeName);
-        object.setOriginalTokenStartIndex(startTokenIndex);
-
-        // ENHANCED MEMORY MODEL: CAPTURE ORIGINAL OPENING PARENTHESIS WITH EXACT FORMATTING
-        NDFToken openParenToken = currentToken;
-        expect(NDFToken.TokenType.OPEN_PAREN);
-        object.setOriginalOpeningParen(openParenToken.getExactText());
-
-        parseUniteDescriptorObjectProperties(object);
-
-        // ENHANCED MEMORY MODEL: CAPTURE ORIGINAL CLOSING PARENTHESIS WITH EXACT FORMATTING
-        NDFToken closeParenToken = currentToken;
-        expect(NDFToken.TokenType.CLOSE_PAREN);
-        object.setOriginalClosingParen(closeParenToken.getExactText());
-
-        int endTokenIndex = currentTokenIndex - 1;
-        object.setOriginalTokenEndIndex(endTokenIndex);
-
-        return object;
-    }
-
-    /**
-     * Parse arrays in UniteDescriptor.ndf with standalone logic
-     */
-    private NDFValue parseUniteDescriptorArrayStandalone() throws NDFParseException {
-        expect(NDFToken.TokenType.OPEN_BRACKET);
-
-        List<NDFValue> elements = new ArrayList<>();
-
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET && currentToken.getType() != NDFToken.TokenType.EOF) {
-            // Skip whitespace and comments
-            if (currentToken.getType() == NDFToken.TokenType.UNKNOWN && isWhitespaceToken(currentToken)) {
-                advance();
-                continue;
-            }
-            if (currentToken.getType() == NDFToken.TokenType.COMMENT) {
-                advance();
-                continue;
-            }
-
-            // Parse array element using standalone logic
-            // Handle tuples like (EVisionUnitType/Standard, 3500.0)
-            if (currentToken.getType() == NDFToken.TokenType.OPEN_PAREN) {
-                NDFValue element = parseUniteDescriptorTupleStandalone();
-                elements.add(element);
-            } else {
-                NDFValue element = parseUniteDescriptorValueStandalone();
-                elements.add(element);
-            }
-
-            // Skip optional comma
-            if (currentToken.getType() == NDFToken.TokenType.COMMA) {
-                advance();
-            }
-        }
-
-        expect(NDFToken.TokenType.CLOSE_BRACKET);
-
-        // Create array and add elements
-        NDFValue.ArrayValue array = NDFValue.createArray();
-        for (NDFValue element : elements) {
-            array.add(element);
-        }
-        return array;
-    }
-
-    /**
-     * Parse tuples in UniteDescriptor.ndf like (EVisionUnitType/Standard, 3500.0)
-     */
-    private NDFValue parseUniteDescriptorTupleStandalone() throws NDFParseException {
-        expect(NDFToken.TokenType.OPEN_PAREN);
-
-        List<NDFValue> elements = new ArrayList<>();
-
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_PAREN && currentToken.getType() != NDFToken.TokenType.EOF) {
-            // Skip whitespace and comments
-            if (currentToken.getType() == NDFToken.TokenType.UNKNOWN && isWhitespaceToken(currentToken)) {
-                advance();
-                continue;
-            }
-            if (currentToken.getType() == NDFToken.TokenType.COMMENT) {
-                advance();
-                continue;
-            }
-
-            // Parse tuple element using standalone logic
-            NDFValue element = parseUniteDescriptorValueStandalone();
-            elements.add(element);
-
-            // Skip optional comma
-            if (currentToken.getType() == NDFToken.TokenType.COMMA) {
-                advance();
-            }
-        }
-
-        expect(NDFToken.TokenType.CLOSE_PAREN);
-
-        // Create tuple and add elements
-        NDFValue.TupleValue tuple = NDFValue.createTuple();
-        for (NDFValue element : elements) {
-            tuple.add(element);
-        }
-        return tuple;
-    }
-
-    /**
-     * Parse MAP constructs in UniteDescriptor.ndf like MAP [(key1, value1), (key2, value2)]
-     * This creates proper MapValue objects instead of arrays to fix type mismatch errors
-     */
-    private NDFValue.MapValue parseUniteDescriptorMapStandalone() throws NDFParseException {
-        expect(NDFToken.TokenType.MAP);
-        expect(NDFToken.TokenType.OPEN_BRACKET);
-
-        NDFValue.MapValue map = NDFValue.createMap();
-
-        while (currentToken.getType() != NDFToken.TokenType.CLOSE_BRACKET && currentToken.getType() != NDFToken.TokenType.EOF) {
-            // Skip whitespace and comments
-            if (currentToken.getType() == NDFToken.TokenType.UNKNOWN && isWhitespaceToken(currentToken)) {
-                advance();
-                continue;
-            }
-            if (currentToken.getType() == NDFToken.TokenType.COMMENT) {
-                advance();
-                continue;
-            }
-
-            // Parse map entry as tuple (key, value)
-            expect(NDFToken.TokenType.OPEN_PAREN);
-            NDFValue key = parseUniteDescriptorValueStandalone();
-            expect(NDFToken.TokenType.COMMA);
-            NDFValue value = parseUniteDescriptorValueStandalone();
-            expect(NDFToken.TokenType.CLOSE_PAREN);
-
-            // Check for comma after the entry
-            boolean hasComma = currentToken.getType() == NDFToken.TokenType.COMMA;
-            if (hasComma) {
-                advance(); // Consume the comma
-            }
-
-            map.add(key, value, hasComma);
+    // Descriptor files are normalized on write, so only other files keep each value's layout
+    private void recordFormatting(NDFValue value, String prefix, String suffix, int lineNumber) {
+        if (!descriptorGrammar) {
+            value.setOriginalFormatting(prefix, suffix);
+            setLineInfo(value, lineNumber);
         }
-
-        expect(NDFToken.TokenType.CLOSE_BRACKET);
-        return map;
-    }
-
-    /**
-     * Parse basic values (numbers, strings, booleans, etc.) in UniteDescriptor.ndf
-     */
-    private NDFValue parseUniteDescriptorBasicValue() throws NDFParseException {
-        switch (currentToken.getType()) {
-            case NUMBER_LITERAL:
-                String numberValue = currentToken.getValue();
-                advance();
-                try {
-                    double numValue = Double.parseDouble(numberValue);
-                    return NDFValue.createNumber(numValue, numberValue);
-                } catch (NumberFormatException e) {
-                    // Fallback to raw expression if parsing fails
-                    return NDFValue.createRawExpression(numberValue);
-                }
-
-            case STRING_LITERAL:
-                String stringValue = currentToken.getValue();
-                boolean useDoubleQuotes = currentToken.getOriginalText().startsWith("\"");
-                advance();
-                return NDFValue.createString(stringValue, useDoubleQuotes);
-
-            case BOOLEAN_LITERAL:
-                String boolValue = currentToken.getValue();
-                advance();
-                return NDFValue.createBoolean(Boolean.parseBoolean(boolValue));
-
-            case IDENTIFIER:
-                String identifierValue = currentToken.getValue();
-                advance();
-                // Treat as raw expression for UniteDescriptor
-                return NDFValue.createRawExpression(identifierValue);
-
-            case ENUM_VALUE:
-                String enumValue = currentToken.getValue();
-                advance();
-                return NDFValue.createRawExpression(enumValue);
-
-            case TEMPLATE_REF:
-                String templateValue = currentToken.getValue();
-                advance();
-                return NDFValue.createTemplateRef(templateValue);
-
-            case RESOURCE_REF:
-                String resourceValue = currentToken.getValue();
-                advance();
-                return NDFValue.createResourceRef(resourceValue);
-
-            case GUID:
-                String guidValue = currentToken.getValue();
-                advance();
-                return NDFValue.createGUID(guidValue);
-
-            case MAP:
-                return parseUniteDescriptorMapStandalone(); // Parse as proper map, not array
-
-            default:
-                throw new NDFParseException("Unexpected token type in UniteDescriptor basic value: " + currentToken.getType(), currentToken);
-        }
-    }
-
-    /**
-     * Check if a token is whitespace or comment
-     */
-    private boolean isWhitespaceOrComment(NDFToken token) {
-        return token.getType() == NDFToken.TokenType.COMMENT || isWhitespaceToken(token);
     }
 
 
@@ -6,6 +6,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class NDFTokenizer {
+    // Canonical instances of the whitespace runs seen so far, shared by every tokenizer. Files repeat
+    // the same few dozen indentation patterns, so each token and formatted value can point at one copy.
+    // Slots are a direct-mapped cache keyed by content hash; a collision just replaces the entry, and
+    // racing writes are harmless because any String in a slot is a valid, immutable canonical copy.
+    private static final int WHITESPACE_CACHE_SIZE = 512;
+    private static final int MAX_CACHED_WHITESPACE = 64;
+    private static final String[] WHITESPACE_CACHE = new String[WHITESPACE_CACHE_SIZE];
+
     private final Reader reader;
     private StringBuilder buffer;
     private StringBuilder whitespaceBuffer;
@@ -276,119 +284,131 @@ public class NDFTokenizer {
     
     private NDFToken scanNumber(int tokenLine, int tokenColumn, String leadingWhitespace) throws IOException {
         buffer.setLength(0);
-        StringBuilder originalTextBuffer = new StringBuilder();
         if (currentChar == '-') {
             buffer.append('-');
-            originalTextBuffer.append('-');
             advance();
         }
         while (!reachedEOF && Character.isDigit(currentChar)) {
-            char c = (char) currentChar;
-            buffer.append(c);
-            originalTextBuffer.append(c);
+            buffer.append((char) currentChar);
             advance();
         }
         if (currentChar == '.') {
             buffer.append('.');
-            originalTextBuffer.append('.');
             advance();
             while (!reachedEOF && Character.isDigit(currentChar)) {
-                char c = (char) currentChar;
-                buffer.append(c);
-                originalTextBuffer.append(c);
+                buffer.append((char) currentChar);
                 advance();
             }
         }
 
-        String originalText = originalTextBuffer.toString();
+        // Value and original text are the same characters, so they share one string
+        String number = buffer.toString();
         String trailingWhitespace = preserveFormatting ? collectWhitespace() : "";
 
-        return new NDFToken(NDFToken.TokenType.NUMBER_LITERAL, buffer.toString(), tokenLine, tokenColumn,
-                           leadingWhitespace, trailingWhitespace, originalText);
+        return new NDFToken(NDFToken.TokenType.NUMBER_LITERAL, number, tokenLine, tokenColumn,
+                           leadingWhitespace, trailingWhitespace, number);
     }
 
     
     private NDFToken scanIdentifier(int tokenLine, int tokenColumn, String leadingWhitespace) throws IOException {
         buffer.setLength(0);
-        StringBuilder originalTextBuffer = new StringBuilder();
         while (!reachedEOF && (Character.isLetterOrDigit(currentChar) || currentChar == '_')) {
-            char c = (char) currentChar;
-            buffer.append(c);
-            originalTextBuffer.append(c);
+            buffer.append((char) currentChar);
             advance();
         }
 
-        String identifier = buffer.toString();
-        String originalText = originalTextBuffer.toString();
-
         // Collect whitespace after identifier
         String trailingWhitespace = preserveFormatting ? collectWhitespace() : "";
-        switch (identifier.toLowerCase()) {
-            case "export":
-                return new NDFToken(NDFToken.TokenType.EXPORT, identifier, tokenLine, tokenColumn,
-                                   leadingWhitespace, trailingWhitespace, originalText);
-            case "is":
-                return new NDFToken(NDFToken.TokenType.IS, identifier, tokenLine, tokenColumn,
-                                   leadingWhitespace, trailingWhitespace, originalText);
-            case "map":
-                return new NDFToken(NDFToken.TokenType.MAP, identifier, tokenLine, tokenColumn,
-                                   leadingWhitespace, trailingWhitespace, originalText);
-            case "true":
-            case "false":
-                return new NDFToken(NDFToken.TokenType.BOOLEAN_LITERAL, identifier, tokenLine, tokenColumn,
-                                   leadingWhitespace, trailingWhitespace, originalText);
-            default:
-                if (currentChar == '/') {
-                    buffer.append('/');
-                    originalTextBuffer.append('/');
+
+        // Keywords are recognised in the buffer, so only the token's own text is ever allocated
+        NDFToken.TokenType keywordType = keywordType(buffer);
+        if (keywordType != null) {
+            String identifier = buffer.toString();
+            return new NDFToken(keywordType, identifier, tokenLine, tokenColumn,
+                               leadingWhitespace, trailingWhitespace, identifier);
+        }
+
+        if (currentChar == '/') {
+            buffer.append('/');
+            advance();
+            while (!reachedEOF && (Character.isLetterOrDigit(currentChar) || currentChar == '_')) {
+                buffer.append((char) currentChar);
+                advance();
+            }
+
+            String enumValue = buffer.toString();
+            trailingWhitespace = preserveFormatting ? collectWhitespace() : "";
+
+            return new NDFToken(NDFToken.TokenType.ENUM_VALUE, enumValue, tokenLine, tokenColumn,
+                               leadingWhitespace, trailingWhitespace, enumValue);
+        }
+        if (currentChar == ':' && isGuidPrefix(buffer)) {
+            buffer.append(':');
+            advance();
+            if (currentChar == '{') {
+                buffer.append('{');
+                advance();
+                while (!reachedEOF && currentChar != '}') {
+                    buffer.append((char) currentChar);
                     advance();
-                    while (!reachedEOF && (Character.isLetterOrDigit(currentChar) || currentChar == '_')) {
-                        char c = (char) currentChar;
-                        buffer.append(c);
-                        originalTextBuffer.append(c);
-                        advance();
-                    }
-
-                    originalText = originalTextBuffer.toString();
-                    trailingWhitespace = preserveFormatting ? collectWhitespace() : "";
-
-                    return new NDFToken(NDFToken.TokenType.ENUM_VALUE, buffer.toString(), tokenLine, tokenColumn,
-                                       leadingWhitespace, trailingWhitespace, originalText);
                 }
-                if (identifier.equals("GUID") && currentChar == ':') {
-                    buffer.append(':');
-                    originalTextBuffer.append(':');
+
+                if (currentChar == '}') {
+                    buffer.append('}');
                     advance();
-                    if (currentChar == '{') {
-                        buffer.append('{');
-                        originalTextBuffer.append('{');
-                        advance();
-                        while (!reachedEOF && currentChar != '}') {
-                            char c = (char) currentChar;
-                            buffer.append(c);
-                            originalTextBuffer.append(c);
-                            advance();
-                        }
-
-                        if (currentChar == '}') {
-                            buffer.append('}');
-                            originalTextBuffer.append('}');
-                            advance();
-                        }
-
-                        originalText = originalTextBuffer.toString();
-                        trailingWhitespace = preserveFormatting ? collectWhitespace() : "";
-
-                        return new NDFToken(NDFToken.TokenType.GUID, buffer.toString(), tokenLine, tokenColumn,
-                                           leadingWhitespace, trailingWhitespace, originalText);
-                    }
                 }
 
-                // Return just the identifier - don't consume 'is' or '(' here
-                // The parser will handle these tokens separately
-                return new NDFToken(NDFToken.TokenType.IDENTIFIER, identifier, tokenLine, tokenColumn,
-                                   leadingWhitespace, trailingWhitespace, originalText);
+                String guid = buffer.toString();
+                trailingWhitespace = preserveFormatting ? collectWhitespace() : "";
+
+                return new NDFToken(NDFToken.TokenType.GUID, guid, tokenLine, tokenColumn,
+                                   leadingWhitespace, trailingWhitespace, guid);
+            }
+            // The ':' is consumed either way; the token is still the bare identifier
+            buffer.setLength(buffer.length() - 1);
         }
+
+        // Return just the identifier - don't consume 'is' or '(' here
+        // The parser will handle these tokens separately
+        String identifier = buffer.toString();
+        return new NDFToken(NDFToken.TokenType.IDENTIFIER, identifier, tokenLine, tokenColumn,
+                           leadingWhitespace, trailingWhitespace, identifier);
+    }
+
+    /**
+     * Case-insensitive match of export, is, MAP, true and false, dispatched on length
+     */
+    private static NDFToken.TokenType keywordType(CharSequence text) {
+        switch (text.length()) {
+            case 2:
+                return matchesIgnoreCase(text, "is") ? NDFToken.TokenType.IS : null;
+            case 3:
+                return matchesIgnoreCase(text, "map") ? NDFToken.TokenType.MAP : null;
+            case 4:
+                return matchesIgnoreCase(text, "true") ? NDFToken.TokenType.BOOLEAN_LITERAL : null;
+            case 5:
+                return matchesIgnoreCase(text, "false") ? NDFToken.TokenType.BOOLEAN_LITERAL : null;
+            case 6:
+                return matchesIgnoreCase(text, "export") ? NDFToken.TokenType.EXPORT : null;
+            default:
+                return null;
+        }
+    }
+
+    // keyword is lower-case ASCII; setting bit 0x20 lower-cases exactly the ASCII capitals and
+    // can't turn any other character into an ASCII letter, matching toLowerCase() for these words
+    private static boolean matchesIgnoreCase(CharSequence text, String keyword) {
+        for (int i = 0; i < keyword.length(); i++) {
+            if ((text.charAt(i) | 0x20) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isGuidPrefix(CharSequence text) {
+        return text.length() == 4 && text.charAt(0) == 'G' && text.charAt(1) == 'U'
+            && text.charAt(2) == 'I' && text.charAt(3) == 'D';
     }
 
     
@@ -454,6 +474,31 @@ public class NDFTokenizer {
             advance();
         }
 
-        return whitespaceBuffer.toString();
+        return canonicalWhitespace(whitespaceBuffer);
+    }
+
+    
+    private static String canonicalWhitespace(StringBuilder whitespace) {
+        int length = whitespace.length();
+        if (length == 0) {
+            return "";
+        }
+        if (length > MAX_CACHED_WHITESPACE) {
+            return whitespace.toString();
+        }
+
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + whitespace.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (WHITESPACE_CACHE_SIZE - 1);
+
+        String cached = WHITESPACE_CACHE[slot];
+        if (cached != null && cached.contentEquals(whitespace)) {
+            return cached;
+        }
+        String canonical = whitespace.toString();
+        WHITESPACE_CACHE[slot] = canonical;
+        return canonical;
     }
 }
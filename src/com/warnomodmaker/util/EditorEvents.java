@@ -0,0 +1,149 @@
+package com.warnomodmaker.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder events for editor operations, so a recording lines up loads, scans, modifications
+ * and saves with GC and lock activity. Call begin() before the work and commit() after it;
+ * without a recording both are no-ops the JIT removes.
+ */
+public class EditorEvents {
+
+    private static final String CATEGORY = "WARNO Mod Maker";
+
+    @Name("warnomodmaker.FileLoaded")
+    @Label("File Loaded")
+    @Description("A file was read, parsed, scanned and opened in a tab")
+    @Category(CATEGORY)
+    public static class FileLoaded extends Event {
+        @Label("File Name")
+        public String fileName;
+
+        @Label("File Type")
+        public String fileType;
+
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Read Time")
+        @Timespan(Timespan.MILLISECONDS)
+        public long readMillis;
+
+        @Label("Parse Time")
+        @Timespan(Timespan.MILLISECONDS)
+        public long parseMillis;
+
+        @Label("Scan Time")
+        @Timespan(Timespan.MILLISECONDS)
+        public long scanMillis;
+    }
+
+    @Name("warnomodmaker.ParsePhase")
+    @Label("Parse Phase")
+    @Category(CATEGORY)
+    public static class ParsePhase extends Event {
+        @Label("File Name")
+        public String fileName;
+
+        @Label("File Type")
+        public String fileType;
+
+        @Label("Object Count")
+        public int objectCount;
+    }
+
+    @Name("warnomodmaker.PropertyScan")
+    @Label("Property Scan")
+    @Category(CATEGORY)
+    public static class PropertyScan extends Event {
+        @Label("File Type")
+        public String fileType;
+
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Property Count")
+        public int propertyCount;
+    }
+
+    @Name("warnomodmaker.MassModification")
+    @Label("Mass Modification Batch")
+    @Category(CATEGORY)
+    public static class MassModification extends Event {
+        @Label("File Type")
+        public String fileType;
+
+        @Label("Property Path")
+        public String propertyPath;
+
+        @Label("Modification Type")
+        public String modificationType;
+
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Modified Count")
+        public int modifiedCount;
+    }
+
+    @Name("warnomodmaker.ProfileApply")
+    @Label("Profile Apply")
+    @Category(CATEGORY)
+    public static class ProfileApply extends Event {
+        @Label("Profile Name")
+        public String profileName;
+
+        @Label("File Type")
+        public String fileType;
+
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Record Count")
+        @Description("Modifications recorded while the profile was applied")
+        public int recordCount;
+    }
+
+    @Name("warnomodmaker.Save")
+    @Label("Save")
+    @Description("A tab was written to disk, including the temp file and backup moves")
+    @Category(CATEGORY)
+    public static class Save extends Event {
+        @Label("File Name")
+        public String fileName;
+
+        @Label("File Type")
+        public String fileType;
+
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Record Count")
+        public int recordCount;
+    }
+
+    @Name("warnomodmaker.WritePhase")
+    @Label("Write Phase")
+    @Description("Modification records applied to the source lines and the output written")
+    @Category(CATEGORY)
+    public static class WritePhase extends Event {
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Record Count")
+        public int recordCount;
+
+        @Label("Output Characters")
+        public long outputChars;
+    }
+}
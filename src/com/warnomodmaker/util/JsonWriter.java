@@ -0,0 +1,186 @@
+package com.warnomodmaker.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal streaming JSON emitter with the indented layout used by profile files:
+ * one member or element per line, two spaces per nesting level.
+ */
+public class JsonWriter implements Closeable {
+
+    private static final String INDENT = "  ";
+    private static final String NEWLINE = System.lineSeparator();
+
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private final Writer out;
+
+    // Output is assembled here and handed to the writer in large chunks
+    private final StringBuilder pending = new StringBuilder(FLUSH_THRESHOLD + 256);
+
+    // Element count per open object/array
+    private int[] counts = new int[32];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        beforeElement();
+        writeString(name);
+        pending.append(": ");
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            pending.append("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        pending.append(value);
+        return this;
+    }
+
+    /**
+     * Write an array of strings on a single line, e.g. ["a", "b"]
+     */
+    public JsonWriter inlineArray(String... values) throws IOException {
+        beforeValue();
+        pending.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                pending.append(", ");
+            }
+            writeString(values[i]);
+        }
+        pending.append(']');
+        return this;
+    }
+
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (pending.length() > 0) {
+            out.append(pending);
+            pending.setLength(0);
+        }
+    }
+
+    private JsonWriter open(char bracket) throws IOException {
+        beforeValue();
+        pending.append(bracket);
+        if (depth == counts.length) {
+            int[] grown = new int[counts.length * 2];
+            System.arraycopy(counts, 0, grown, 0, depth);
+            counts = grown;
+        }
+        counts[depth++] = 0;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        depth--;
+        pending.append(NEWLINE);
+        indent(depth);
+        pending.append(bracket);
+        if (depth == 0) {
+            pending.append(NEWLINE);
+        }
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else if (depth > 0) {
+            beforeElement();
+        }
+    }
+
+    private void beforeElement() throws IOException {
+        if (pending.length() >= FLUSH_THRESHOLD) {
+            drain();
+        }
+        if (counts[depth - 1]++ > 0) {
+            pending.append(',');
+        }
+        pending.append(NEWLINE);
+        indent(depth);
+    }
+
+    private void indent(int level) throws IOException {
+        for (int i = 0; i < level; i++) {
+            pending.append(INDENT);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        pending.append('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c == '"') {
+                replacement = "\\\"";
+            } else if (c == '\\') {
+                replacement = "\\\\";
+            } else if (c == '\n') {
+                replacement = "\\n";
+            } else if (c == '\r') {
+                replacement = "\\r";
+            } else if (c == '\t') {
+                replacement = "\\t";
+            } else if (c < 0x20) {
+                replacement = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            pending.append(value, start, i);
+            pending.append(replacement);
+            start = i + 1;
+        }
+        pending.append(value, start, length);
+        pending.append('"');
+    }
+}
@@ -0,0 +1,283 @@
+package com.warnomodmaker.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process timers, counters and gauges for the load, parse, scan, filter, modify and save paths.
+ * Recording is a few atomic adds, so instrumented code can call it unconditionally.
+ * Timers also record the bytes the timing thread allocated, where the JVM can measure it.
+ */
+public class MetricsRegistry {
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private volatile Timer lastStopped;
+
+    public MetricsRegistry() {
+        gauge("memory.heapUsedBytes", () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        gauge("memory.heapCommittedBytes", () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getCommitted());
+        gauge("gc.count", () -> {
+            long count = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, collector.getCollectionCount());
+            }
+            return count;
+        });
+        gauge("gc.timeMillis", () -> {
+            long time = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                time += Math.max(0, collector.getCollectionTime());
+            }
+            return time;
+        });
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Register a value read whenever metrics are shown or exported, replacing any gauge of that name
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public Map<String, Timer> getTimers() {
+        return timers;
+    }
+
+    public Map<String, Counter> getCounters() {
+        return counters;
+    }
+
+    public Map<String, LongSupplier> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * The timer that most recently finished a sample, or null
+     */
+    public Timer getLastStopped() {
+        return lastStopped;
+    }
+
+    public void reset() {
+        timers.values().forEach(Timer::reset);
+        counters.values().forEach(Counter::reset);
+        lastStopped = null;
+    }
+
+    /**
+     * Write every metric as one JSON document, durations in microseconds
+     */
+    public void writeJson(Writer out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject();
+        json.name("timestamp").value(System.currentTimeMillis());
+
+        json.name("timers").beginObject();
+        for (Timer timer : timers.values()) {
+            json.name(timer.getName()).beginObject();
+            json.name("count").value(timer.getCount());
+            json.name("totalMicros").value(timer.getTotalNanos() / 1000);
+            json.name("meanMicros").value(timer.getMeanNanos() / 1000);
+            json.name("maxMicros").value(timer.getMaxNanos() / 1000);
+            json.name("lastMicros").value(timer.getLastNanos() / 1000);
+            json.name("allocatedBytes").value(timer.getAllocatedBytes());
+            json.endObject();
+        }
+        json.endObject();
+
+        json.name("counters").beginObject();
+        for (Counter counter : counters.values()) {
+            json.name(counter.getName()).value(counter.get());
+        }
+        json.endObject();
+
+        json.name("gauges").beginObject();
+        for (Map.Entry<String, LongSupplier> gauge : gauges.entrySet()) {
+            json.name(gauge.getKey()).value(readGauge(gauge.getValue()));
+        }
+        json.endObject();
+
+        json.endObject();
+        json.flush();
+    }
+
+    public static long readGauge(LongSupplier gauge) {
+        try {
+            return gauge.getAsLong();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Durations of one operation. Use time(...), or start() a Sample and close it in a finally block.
+     */
+    public class Timer {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Sample start() {
+            return new Sample(this);
+        }
+
+        /**
+         * Run the work and record how long it took, even if it throws
+         */
+        public <T> T time(Callable<T> work) throws Exception {
+            Sample sample = start();
+            try {
+                return work.call();
+            } finally {
+                sample.close();
+            }
+        }
+
+        public void record(long nanos, long allocated) {
+            count.increment();
+            totalNanos.add(nanos);
+            allocatedBytes.add(allocated);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            lastNanos = nanos;
+            lastStopped = this;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMeanNanos() {
+            long samples = getCount();
+            return samples > 0 ? getTotalNanos() / samples : 0;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getLastNanos() {
+            return lastNanos;
+        }
+
+        /**
+         * Bytes allocated by the threads that ran the samples; work handed to other threads isn't included
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        private void reset() {
+            count.reset();
+            totalNanos.reset();
+            allocatedBytes.reset();
+            maxNanos.set(0);
+            lastNanos = 0;
+        }
+    }
+
+    /**
+     * One running timing; closing it records the elapsed time
+     */
+    public static class Sample implements AutoCloseable {
+        private final Timer timer;
+        private final long startNanos;
+        private final long startAllocated;
+
+        private Sample(Timer timer) {
+            this.timer = timer;
+            this.startAllocated = currentThreadAllocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - startNanos;
+            timer.record(elapsed, Math.max(0, currentThreadAllocatedBytes() - startAllocated));
+        }
+    }
+
+    public static class Counter {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        private void reset() {
+            value.reset();
+        }
+    }
+}
@@ -1,40 +1,106 @@
 package com.warnomodmaker.util;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
 /**
- * Utility class for string similarity calculations
+ * Utility class for string similarity calculations.
+ * Levenshtein distances use the Myers/Hyyrö bit-vector algorithm when the shorter string
+ * fits in 64 characters and a two-row table otherwise. Both run on reused per-thread
+ * buffers and stop early once a distance bound is exceeded.
  */
 public class StringSimilarity {
 
+    private static final int WORD_SIZE = 64;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[\\s_-]+");
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
     /**
-     * Calculate Levenshtein distance between two strings
+     * Reusable scratch buffers for distance calculations
      */
-    public static int levenshteinDistance(String s1, String s2) {
-        if (s1.length() == 0) return s2.length();
-        if (s2.length() == 0) return s1.length();
+    private static final class Workspace {
+        // Pattern bit masks for ASCII characters, kept all-zero between calls
+        final long[] asciiPeq = new long[128];
+        char[] first = new char[64];
+        char[] second = new char[64];
+        int firstLength;
+        int secondLength;
+        int[] previousRow = new int[65];
+        int[] currentRow = new int[65];
 
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
+        void loadFirst(String s, boolean lowerCase) {
+            first = load(s, lowerCase, first);
+            firstLength = loadedLength;
+        }
 
-        for (int i = 0; i <= s1.length(); i++) {
-            dp[i][0] = i;
+        void loadSecond(String s, boolean lowerCase) {
+            second = load(s, lowerCase, second);
+            secondLength = loadedLength;
         }
-        for (int j = 0; j <= s2.length(); j++) {
-            dp[0][j] = j;
+
+        private int loadedLength;
+
+        private char[] load(String s, boolean lowerCase, char[] buffer) {
+            if (lowerCase && !isAsciiLowerCaseSafe(s)) {
+                s = s.toLowerCase();
+                lowerCase = false;
+            }
+            int length = s.length();
+            if (buffer.length < length) {
+                buffer = new char[Math.max(length, buffer.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(i);
+                buffer[i] = lowerCase && c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            }
+            loadedLength = length;
+            return buffer;
         }
 
-        for (int i = 1; i <= s1.length(); i++) {
-            for (int j = 1; j <= s2.length(); j++) {
-                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
-                dp[i][j] = Math.min(Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1), dp[i - 1][j - 1] + cost);
+        void ensureRows(int length) {
+            if (previousRow.length <= length) {
+                previousRow = new int[length + 1];
+                currentRow = new int[length + 1];
             }
         }
+    }
+
+    /**
+     * Calculate Levenshtein distance between two strings
+     */
+    public static int levenshteinDistance(String s1, String s2) {
+        return levenshteinDistance(s1, s2, Integer.MAX_VALUE - 1);
+    }
 
-        return dp[s1.length()][s2.length()];
+    /**
+     * Calculate Levenshtein distance between two strings, giving up once it exceeds maxDistance.
+     *
+     * @return the exact distance if it is at most maxDistance, otherwise maxDistance + 1
+     */
+    public static int levenshteinDistance(String s1, String s2, int maxDistance) {
+        Workspace workspace = WORKSPACE.get();
+        workspace.loadFirst(s1, false);
+        workspace.loadSecond(s2, false);
+        return distance(workspace, workspace.first, workspace.firstLength, workspace.second, workspace.secondLength,
+                        null, maxDistance);
     }
 
     /**
      * Calculate string similarity using Levenshtein distance (0.0 to 1.0)
      */
     public static double calculateSimilarity(String s1, String s2) {
+        return calculateSimilarity(s1, s2, 0.0);
+    }
+
+    /**
+     * Calculate string similarity using Levenshtein distance (0.0 to 1.0), bounded by a threshold.
+     * Returns the same value as calculateSimilarity(s1, s2) whenever that value is at least
+     * minSimilarity; otherwise returns some value below minSimilarity.
+     */
+    public static double calculateSimilarity(String s1, String s2, double minSimilarity) {
         if (s1.equals(s2)) {
             return 1.0;
         }
@@ -44,17 +110,262 @@ public class StringSimilarity {
             return 1.0;
         }
 
-        int distance = levenshteinDistance(s1.toLowerCase(), s2.toLowerCase());
+        Workspace workspace = WORKSPACE.get();
+        workspace.loadFirst(s1, true);
+        workspace.loadSecond(s2, true);
+        int maxDistance = maxDistanceFor(minSimilarity, maxLength);
+        int distance = distance(workspace, workspace.first, workspace.firstLength, workspace.second, workspace.secondLength,
+                                null, maxDistance);
         return 1.0 - (double) distance / maxLength;
     }
 
+    /**
+     * Score one query against many candidates with calculateSimilarity semantics,
+     * reusing the query's bit masks and buffers across the batch
+     */
+    public static double[] calculateSimilarities(String query, List<String> candidates) {
+        Matcher matcher = matcher(query);
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = matcher.similarity(candidates.get(i));
+        }
+        return scores;
+    }
+
+    /**
+     * Create a reusable matcher for scoring one query against many candidates
+     */
+    public static Matcher matcher(String query) {
+        return new Matcher(query);
+    }
+
+    /**
+     * Scores a fixed query against candidates with calculateSimilarity semantics.
+     * The lower-cased query and its pattern bit masks are prepared once.
+     * Not thread-safe; create one per thread.
+     */
+    public static final class Matcher {
+        private final String query;
+        private final Workspace workspace = new Workspace();
+        private final char[] loweredQuery;
+        private final int queryLength;
+        // Pattern bit masks for the lower-cased query when it fits in a machine word
+        private final long[] queryPeq;
+
+        private Matcher(String query) {
+            this.query = query;
+            workspace.loadFirst(query, true);
+            this.loweredQuery = workspace.first.clone();
+            this.queryLength = workspace.firstLength;
+            if (queryLength > 0 && queryLength <= WORD_SIZE) {
+                queryPeq = new long[128];
+                for (int i = 0; i < queryLength; i++) {
+                    if (loweredQuery[i] < 128) {
+                        queryPeq[loweredQuery[i]] |= 1L << i;
+                    }
+                }
+            } else {
+                queryPeq = null;
+            }
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public double similarity(String candidate) {
+            return similarity(candidate, 0.0);
+        }
+
+        /**
+         * Same contract as StringSimilarity.calculateSimilarity(query, candidate, minSimilarity)
+         */
+        public double similarity(String candidate, double minSimilarity) {
+            if (query.equals(candidate)) {
+                return 1.0;
+            }
+
+            int maxLength = Math.max(query.length(), candidate.length());
+            if (maxLength == 0) {
+                return 1.0;
+            }
+
+            workspace.loadSecond(candidate, true);
+            int maxDistance = maxDistanceFor(minSimilarity, maxLength);
+            int distance = distance(workspace, loweredQuery, queryLength, workspace.second, workspace.secondLength,
+                                    queryPeq, maxDistance);
+            return 1.0 - (double) distance / maxLength;
+        }
+    }
+
+    private static int maxDistanceFor(double minSimilarity, int maxLength) {
+        if (minSimilarity <= 0.0) {
+            return maxLength;
+        }
+        // One extra edit of slack so rounding never cuts off a qualifying distance
+        return Math.max(0, Math.min(maxLength, (int) Math.floor((1.0 - minSimilarity) * maxLength) + 1));
+    }
+
+    /**
+     * Bounded Levenshtein distance between a[0..aLength) and b[0..bLength).
+     * aPeq, when non-null, holds prepared ASCII bit masks for a (aLength <= 64).
+     */
+    private static int distance(Workspace workspace, char[] a, int aLength, char[] b, int bLength,
+                                long[] aPeq, int maxDistance) {
+        if (aLength == 0) return bLength <= maxDistance ? bLength : maxDistance + 1;
+        if (bLength == 0) return aLength <= maxDistance ? aLength : maxDistance + 1;
+        if (Math.abs(aLength - bLength) > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        if (aPeq != null) {
+            return myersDistance(a, aLength, aPeq, false, b, bLength, maxDistance);
+        }
+        if (aLength <= bLength && aLength <= WORD_SIZE) {
+            return myersDistance(a, aLength, workspace.asciiPeq, true, b, bLength, maxDistance);
+        }
+        if (bLength <= WORD_SIZE) {
+            return myersDistance(b, bLength, workspace.asciiPeq, true, a, aLength, maxDistance);
+        }
+        return twoRowDistance(workspace, a, aLength, b, bLength, maxDistance);
+    }
+
+    /**
+     * Myers/Hyyrö bit-vector edit distance with the pattern in one 64-bit word.
+     * When buildPeq is set the ASCII masks are filled here and cleared before returning.
+     */
+    private static int myersDistance(char[] pattern, int patternLength, long[] peq, boolean buildPeq,
+                                     char[] text, int textLength, int maxDistance) {
+        boolean nonAsciiPattern = false;
+        for (int i = 0; i < patternLength; i++) {
+            char c = pattern[i];
+            if (c < 128) {
+                if (buildPeq) {
+                    peq[c] |= 1L << i;
+                }
+            } else {
+                nonAsciiPattern = true;
+            }
+        }
+
+        long vp = -1L;
+        long vn = 0L;
+        long last = 1L << (patternLength - 1);
+        int score = patternLength;
+        int result = -1;
+
+        for (int j = 0; j < textLength; j++) {
+            char c = text[j];
+            long eq = c < 128 ? peq[c] : (nonAsciiPattern ? matchMask(pattern, patternLength, c) : 0L);
+
+            long x = eq | vn;
+            long d0 = (((x & vp) + vp) ^ vp) | x;
+            long hp = vn | ~(d0 | vp);
+            long hn = d0 & vp;
+
+            if ((hp & last) != 0) {
+                score++;
+            } else if ((hn & last) != 0) {
+                score--;
+            }
+
+            // Each remaining text character can lower the score by at most one
+            if (score - (textLength - j - 1) > maxDistance) {
+                result = maxDistance + 1;
+                break;
+            }
+
+            hp = (hp << 1) | 1L;
+            hn = hn << 1;
+            vp = hn | ~(d0 | hp);
+            vn = hp & d0;
+        }
+
+        if (buildPeq) {
+            for (int i = 0; i < patternLength; i++) {
+                if (pattern[i] < 128) {
+                    peq[pattern[i]] = 0L;
+                }
+            }
+        }
+
+        if (result >= 0) {
+            return result;
+        }
+        return score <= maxDistance ? score : maxDistance + 1;
+    }
+
+    private static long matchMask(char[] pattern, int patternLength, char c) {
+        long mask = 0L;
+        for (int i = 0; i < patternLength; i++) {
+            if (pattern[i] == c) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Two-row dynamic programming edit distance with row-minimum early exit
+     */
+    private static int twoRowDistance(Workspace workspace, char[] a, int aLength, char[] b, int bLength, int maxDistance) {
+        workspace.ensureRows(bLength);
+        int[] previous = workspace.previousRow;
+        int[] current = workspace.currentRow;
+
+        for (int j = 0; j <= bLength; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= aLength; i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            char ca = a[i - 1];
+            for (int j = 1; j <= bLength; j++) {
+                int cost = ca == b[j - 1] ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = value;
+                if (value < rowMinimum) {
+                    rowMinimum = value;
+                }
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int distance = previous[bLength];
+        return distance <= maxDistance ? distance : maxDistance + 1;
+    }
+
+    /**
+     * ASCII strings can be lower-cased char by char unless the default locale
+     * has special casing rules for ASCII letters (Turkish/Azeri dotted and dotless i)
+     */
+    private static boolean isAsciiLowerCaseSafe(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        String language = Locale.getDefault().getLanguage();
+        return !"tr".equals(language) && !"az".equals(language);
+    }
+
     /**
      * Calculate token-based similarity for multi-word strings
      */
     public static double calculateTokenSimilarity(String target, String candidate) {
-        String[] targetTokens = target.split("[\\s_-]+");
-        String[] candidateTokens = candidate.split("[\\s_-]+");
+        return calculateTokenSimilarity(tokenize(target), tokenize(candidate));
+    }
 
+    /**
+     * Calculate token-based similarity for strings already split with tokenize()
+     */
+    public static double calculateTokenSimilarity(String[] targetTokens, String[] candidateTokens) {
         int matches = 0;
         for (String targetToken : targetTokens) {
             for (String candidateToken : candidateTokens) {
@@ -70,6 +381,13 @@ public class StringSimilarity {
         return (double) matches / Math.max(targetTokens.length, candidateTokens.length);
     }
 
+    /**
+     * Split a string into the tokens used by calculateTokenSimilarity
+     */
+    public static String[] tokenize(String text) {
+        return TOKEN_SEPARATOR.split(text);
+    }
+
     /**
      * Calculate similarity based on common prefix and suffix
      */
@@ -0,0 +1,334 @@
+package com.warnomodmaker.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Index of every file under a workspace root by file name, built with one directory walk.
+ * The constructor does the walk, so build it off the EDT; probe() covers lookups until then.
+ * A WatchService keeps it up to date as files are added or removed. Lookups still check that
+ * a hit exists, so a missed event can't hand out a deleted file.
+ * Names are matched without regard to case when the file system ignores case.
+ */
+public class WorkspaceFileIndex implements Closeable {
+
+    // Where WARNO keeps each kind of file, most likely first; used to pick between same-named files
+    private static final String[] PREFERRED_LOCATIONS = {
+        "",
+        "GameData/Generated/Gameplay/Gfx/",
+        "GameData/Generated/Gameplay/Gfx/Infanterie/",
+        "GameData/Generated/Gameplay/",
+        "GameData/Gameplay/Gfx/",
+        "GameData/Generated/",
+        "GameData/",
+        "GameData/Generated/Gfx/",
+        "GameData/Gfx/",
+        "Generated/",
+        "Gfx/"
+    };
+
+    private final Path root;
+    private final boolean caseInsensitive;
+    private final Map<String, List<Path>> filesByName = new HashMap<>();
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private volatile boolean closed;
+
+    public WorkspaceFileIndex(File rootDirectory) throws IOException {
+        this.root = rootDirectory.toPath().toAbsolutePath().normalize();
+        this.caseInsensitive = isCaseInsensitive(root);
+
+        WatchService watcher;
+        try {
+            watcher = root.getFileSystem().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("File watching unavailable, workspace index won't refresh: " + e.getMessage());
+            watcher = null;
+        }
+        this.watchService = watcher;
+
+        long startTime = System.currentTimeMillis();
+        int fileCount = indexTree(root);
+        System.out.println("Indexed " + fileCount + " files under " + root + " in " +
+            (System.currentTimeMillis() - startTime) + "ms");
+
+        if (watchService != null) {
+            Thread thread = new Thread(this::processEvents, "workspace-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Walk up from startDir to the directory containing GameData, or startDir itself if there is none
+     */
+    public static File findRootDirectory(File startDir) {
+        File current = startDir;
+        while (current != null) {
+            File gameDataDir = new File(current, "GameData");
+            if (gameDataDir.exists() && gameDataDir.isDirectory()) {
+                return current;
+            }
+            current = current.getParentFile();
+        }
+        return startDir;
+    }
+
+    /**
+     * Look for a file in the usual WARNO locations under rootDir without an index
+     */
+    public static File probe(File rootDir, String fileName) {
+        if (fileName.contains("/") || fileName.contains("\\")) {
+            File direct = new File(rootDir, fileName);
+            return direct.isFile() ? direct : null;
+        }
+        for (String location : PREFERRED_LOCATIONS) {
+            File file = new File(rootDir, location + fileName);
+            if (file.isFile()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    public File getRoot() {
+        return root.toFile();
+    }
+
+    /**
+     * Find a file by name or by a path relative to the root (e.g. GameData/Generated/Sound/SoundDescriptors.ndf).
+     * Relative paths that don't exist fall back to a lookup by file name.
+     */
+    public File find(String fileName) {
+        if (fileName.contains("/") || fileName.contains("\\")) {
+            Path direct = root.resolve(fileName.replace('\\', '/')).normalize();
+            if (Files.isRegularFile(direct)) {
+                return direct.toFile();
+            }
+            fileName = direct.getFileName().toString();
+        }
+
+        List<Path> candidates;
+        synchronized (this) {
+            List<Path> indexed = filesByName.get(key(fileName));
+            if (indexed == null) {
+                return null;
+            }
+            candidates = new ArrayList<>(indexed);
+        }
+
+        Path best = null;
+        int bestRank = Integer.MAX_VALUE;
+        for (Path candidate : candidates) {
+            if (!Files.isRegularFile(candidate)) {
+                remove(candidate);
+                continue;
+            }
+            int rank = rank(candidate);
+            if (rank < bestRank) {
+                best = candidate;
+                bestRank = rank;
+            }
+        }
+        return best != null ? best.toFile() : null;
+    }
+
+    public synchronized int size() {
+        int count = 0;
+        for (List<Path> paths : filesByName.values()) {
+            count += paths.size();
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private String key(String fileName) {
+        return caseInsensitive ? fileName.toLowerCase(Locale.ROOT) : fileName;
+    }
+
+    // Checks whether the root can also be reached with the case of its name flipped
+    private static boolean isCaseInsensitive(Path root) {
+        Path name = root.getFileName();
+        Path parent = root.getParent();
+        if (name != null && parent != null) {
+            String flipped = flipCase(name.toString());
+            if (!flipped.equals(name.toString())) {
+                Path other = parent.resolve(flipped);
+                try {
+                    return Files.exists(other) && Files.isSameFile(root, other);
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+        }
+        // No letters to try, so go by the platform's default file system
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        return os.startsWith("windows") || os.startsWith("mac");
+    }
+
+    private static String flipCase(String text) {
+        StringBuilder flipped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            flipped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return flipped.toString();
+    }
+
+    // Preferred locations in order, then anything else by depth and path
+    private int rank(Path file) {
+        String parent = root.relativize(file.getParent()).toString().replace('\\', '/');
+        if (!parent.isEmpty()) {
+            parent += "/";
+        }
+        for (int i = 0; i < PREFERRED_LOCATIONS.length; i++) {
+            if (caseInsensitive ? PREFERRED_LOCATIONS[i].equalsIgnoreCase(parent) : PREFERRED_LOCATIONS[i].equals(parent)) {
+                return i;
+            }
+        }
+        return PREFERRED_LOCATIONS.length + root.relativize(file).getNameCount();
+    }
+
+    private int indexTree(Path start) throws IOException {
+        int[] fileCount = new int[1];
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && dir.getFileName().toString().startsWith(".")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                watch(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    add(file);
+                    fileCount[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE; // unreadable entries are simply not indexed
+            }
+        });
+        return fileCount[0];
+    }
+
+    private void watch(Path dir) {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE);
+            synchronized (this) {
+                watchedDirectories.put(key, dir);
+            }
+        } catch (IOException | ClosedWatchServiceException e) {
+            // e.g. out of inotify watches; lookups still verify their hits
+        }
+    }
+
+    private synchronized void add(Path file) {
+        List<Path> paths = filesByName.computeIfAbsent(key(file.getFileName().toString()), k -> new ArrayList<>(1));
+        if (!paths.contains(file)) {
+            paths.add(file);
+        }
+    }
+
+    private synchronized boolean remove(Path file) {
+        String name = key(file.getFileName().toString());
+        List<Path> paths = filesByName.get(name);
+        if (paths == null || !paths.remove(file)) {
+            return false;
+        }
+        if (paths.isEmpty()) {
+            filesByName.remove(name);
+        }
+        return true;
+    }
+
+    // A deleted directory takes everything indexed beneath it along
+    private synchronized void removeTree(Path dir) {
+        Iterator<List<Path>> lists = filesByName.values().iterator();
+        while (lists.hasNext()) {
+            List<Path> paths = lists.next();
+            paths.removeIf(path -> path.startsWith(dir));
+            if (paths.isEmpty()) {
+                lists.remove();
+            }
+        }
+    }
+
+    private void processEvents() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir;
+            synchronized (this) {
+                dir = watchedDirectories.get(key);
+            }
+            if (dir != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    handleEvent(dir, event);
+                }
+            }
+
+            if (!key.reset()) {
+                synchronized (this) {
+                    watchedDirectories.remove(key);
+                }
+            }
+        }
+    }
+
+    private void handleEvent(Path dir, WatchEvent<?> event) {
+        WatchEvent.Kind<?> kind = event.kind();
+        if (kind == StandardWatchEventKinds.OVERFLOW) {
+            // Events were lost; walk the directory again to catch up
+            try {
+                indexTree(dir);
+            } catch (IOException e) {
+                System.err.println("Could not re-index " + dir + ": " + e.getMessage());
+            }
+            return;
+        }
+
+        Path path = dir.resolve((Path) event.context());
+        if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                try {
+                    indexTree(path);
+                } catch (IOException e) {
+                    System.err.println("Could not index " + path + ": " + e.getMessage());
+                }
+            } else if (Files.isRegularFile(path)) {
+                add(path);
+            }
+        } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            if (!remove(path)) {
+                removeTree(path); // not an indexed file, so it was a directory
+            }
+        }
+    }
+}
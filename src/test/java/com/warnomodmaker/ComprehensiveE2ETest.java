@@ -1,8 +1,12 @@
 package test.java.com.warnomodmaker;
 
+import com.warnomodmaker.ProfileBatch;
+import com.warnomodmaker.ProfileWatcher;
 import com.warnomodmaker.model.*;
 import com.warnomodmaker.parser.*;
 import com.warnomodmaker.gui.ManualListDialog;
+import com.warnomodmaker.util.MetricsRegistry;
+import com.warnomodmaker.util.StringSimilarity;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
@@ -2109,6 +2113,24 @@ public class ComprehensiveE2ETest {
         testConcurrentModifications();
         testLargeScaleMassModifications();
         testMemoryAndPerformance();
+        testProfileMigrationPerformance();
+        testUnitNameIndex();
+        testProfileJsonRoundTrip();
+        testBinaryProfileConversion();
+        testWorkspaceKnowledgeBase();
+        testWorkspaceFileIndex();
+        testPropertyTreeFilterIndex();
+        testPropertySearchIndex();
+        testSyntheticCorpus();
+        testMetricsRegistry();
+        testProfileBatch();
+        testProfileWatcher();
+        testTokenizerIdentifiers();
+        testLazyNumberParsing();
+        testWhitespaceCanonicalization();
+        testDescriptorGrammar();
+        testGuidManagerReclaim();
+        testGuidGeneratorScope();
 
         System.out.println("+ All stress tests passed");
     }
@@ -2253,6 +2275,1085 @@ public class ComprehensiveE2ETest {
             (memoryUsed / 1024 / 1024) + "MB, cloned objects: " + clonedObjects.size());
     }
 
+    private void testProfileMigrationPerformance() {
+        System.out.println("Testing profile migration on a large synthetic profile...");
+
+        // Synthetic unit file: 400 units with 60 modules drawn from a pool of property names
+        Random random = new Random(42);
+        String[] syllables = {"Max", "Min", "Speed", "Damage", "Range", "Armor", "Fuel", "Sight", "Turn", "Reload",
+                              "Ammo", "Salvo", "Weapon", "Stealth", "Supply", "Cost", "Time", "Radius", "Front", "Rear"};
+        List<String> propertyNames = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            propertyNames.add(syllables[random.nextInt(syllables.length)] + syllables[random.nextInt(syllables.length)]
+                + syllables[random.nextInt(syllables.length)] + (i % 7 == 0 ? "" : String.valueOf(i % 97)));
+        }
+
+        List<NDFValue.ObjectValue> units = new ArrayList<>();
+        for (int u = 0; u < 400; u++) {
+            NDFValue.ObjectValue unit = NDFValue.createObject("TEntityDescriptor");
+            unit.setInstanceName("Descriptor_Unit_Synthetic_" + u);
+            NDFValue.ArrayValue modules = NDFValue.createArray();
+            for (int m = 0; m < 60; m++) {
+                NDFValue.ObjectValue module = NDFValue.createObject("TModuleDescriptor");
+                for (int p = 0; p < 4; p++) {
+                    module.setProperty(propertyNames.get(random.nextInt(propertyNames.size())), NDFValue.createNumber(p));
+                }
+                modules.add(module);
+            }
+            unit.setProperty("ModulesDescriptors", modules);
+            unit.setProperty(propertyNames.get(random.nextInt(propertyNames.size())), NDFValue.createNumber(u));
+            units.add(unit);
+        }
+
+        PropertyPathMigrationManager migrationManager = new PropertyPathMigrationManager();
+        migrationManager.learnValidPaths(NDFValue.NDFFileType.UNITE_DESCRIPTOR, units);
+
+        // Synthetic profile: 10k records, most with typos or renamed components
+        List<String> learnedPaths = new ArrayList<>();
+        for (NDFValue.ObjectValue unit : units) {
+            NDFValue.ArrayValue modules = (NDFValue.ArrayValue) unit.getProperty("ModulesDescriptors");
+            NDFValue.ObjectValue module = (NDFValue.ObjectValue) modules.getElements().get(0);
+            for (String property : module.getProperties().keySet()) {
+                learnedPaths.add("ModulesDescriptors[0]." + property);
+            }
+        }
+        ModProfile profile = new ModProfile();
+        for (int i = 0; i < 10000; i++) {
+            String path = learnedPaths.get(random.nextInt(learnedPaths.size()));
+            if (i % 5 != 0) {
+                int pos = path.lastIndexOf('.') + 1 + random.nextInt(5);
+                path = path.substring(0, pos) + (char) ('a' + random.nextInt(26)) + path.substring(pos + 1);
+                path = path.replace("ModulesDescriptors[0]", "ModulesDescriptors[" + random.nextInt(60) + "]");
+            }
+            profile.addModification(new ModificationRecord("Descriptor_Unit_Synthetic_" + (i % 400), path,
+                NDFValue.createNumber(1), NDFValue.createNumber(2)));
+        }
+
+        long startTime = System.currentTimeMillis();
+        PropertyPathMigrationManager.ModProfileMigrationResult result = migrationManager.migrateModProfile(profile);
+        long migrationTime = System.currentTimeMillis() - startTime;
+
+        TestAssert.assertEquals("Every record should produce a migration result",
+            profile.getModifications().size(), result.getAllResults().size());
+
+        // Indexed candidate search must match scoring every learned path
+        Set<String> validPaths = new LinkedHashSet<>(learnedPaths);
+        PropertyPathIndex index = new PropertyPathIndex(validPaths);
+        long bruteForceTime = 0;
+        for (int i = 0; i < 200; i++) {
+            String target = profile.getModifications().get(i).getPropertyPath();
+            List<PropertyPathIndex.Match> indexed = index.findMatches(target, 0.5);
+
+            long bruteForceStart = System.nanoTime();
+            List<PropertyPathIndex.Match> expected = new ArrayList<>();
+            for (String validPath : validPaths) {
+                double similarity = PropertyPathIndex.calculatePathSimilarity(target, validPath);
+                if (similarity > 0.5) {
+                    expected.add(new PropertyPathIndex.Match(validPath, similarity, expected.size()));
+                }
+            }
+            expected.sort((a, b) -> Double.compare(b.getSimilarity(), a.getSimilarity()));
+            bruteForceTime += System.nanoTime() - bruteForceStart;
+
+            TestAssert.assertEquals("Indexed match count should equal brute force for " + target,
+                expected.size(), indexed.size());
+            PropertyPathIndex.Match best = index.findBestMatch(target, 0.5);
+            TestAssert.assertEquals("Best match should be the first brute force match for " + target,
+                expected.isEmpty() ? null : expected.get(0).getPath(), best != null ? best.getPath() : null);
+            for (int m = 0; m < expected.size(); m++) {
+                TestAssert.assertEquals("Indexed match order should equal brute force for " + target,
+                    expected.get(m).getPath(), indexed.get(m).getPath());
+                TestAssert.assertEquals("Indexed similarity should equal brute force for " + target,
+                    expected.get(m).getSimilarity(), indexed.get(m).getSimilarity());
+            }
+        }
+
+        System.out.println("  + Migrated " + result.getAllResults().size() + " records in " + migrationTime + "ms ("
+            + result.getSuccessCount() + " successful), brute force scoring averaged "
+            + (bruteForceTime / 200 / 1000) + "us per record");
+    }
+
+    private void testUnitNameIndex() {
+        System.out.println("Testing unit name index for profile validation...");
+
+        List<NDFValue.ObjectValue> units = new ArrayList<>();
+        for (int u = 0; u < 2000; u++) {
+            NDFValue.ObjectValue unit = NDFValue.createObject("TEntityDescriptor");
+            unit.setInstanceName("Descriptor_Unit_Synthetic_" + u);
+            units.add(unit);
+        }
+        NDFValue.ObjectValue duplicate = NDFValue.createObject("TEntityDescriptor");
+        duplicate.setInstanceName("Descriptor_Unit_Synthetic_7");
+        units.add(duplicate);
+
+        UnitNameIndex index = new UnitNameIndex(units);
+        TestAssert.assertTrue("Exact lookup should return the first unit with the name",
+            index.findUnit("Descriptor_Unit_Synthetic_7") == units.get(7));
+        TestAssert.assertNull("Unknown names should not resolve", index.findUnit("Descriptor_Unit_Missing"));
+        TestAssert.assertEquals("Typo should suggest the closest unit", "Descriptor_Unit_Synthetic_1234",
+            index.findSimilarName("Descriptor_Unit_Synthetc_1234"));
+        TestAssert.assertNull("Blank names should have no suggestion", index.findSimilarName("  "));
+
+        // 10k misses over 500 distinct names, as in a profile from an older game version
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 10000; i++) {
+            TestAssert.assertNotNull("Typo should have a suggestion",
+                index.findSimilarName("Descriptor_Unit_Synthetc_" + (i % 500)));
+        }
+        long lookupTime = System.currentTimeMillis() - startTime;
+
+        // Candidate filtering must pick what scoring every name would, ties included
+        Random random = new Random(30);
+        String[] words = {"Unit", "Descriptor", "M1A1", "Abrams", "T80", "Infantry", "Recon", "HQ", "Mi", "AA", "x"};
+        List<NDFValue.ObjectValue> mixedUnits = new ArrayList<>();
+        List<String> mixedNames = new ArrayList<>();
+        for (int u = 0; u < 400; u++) {
+            StringBuilder name = new StringBuilder(u % 3 == 0 ? "Descriptor_Unit" : "");
+            for (int w = random.nextInt(3); w >= 0; w--) {
+                name.append(name.length() > 0 ? "_" : "").append(words[random.nextInt(words.length)]);
+            }
+            if (random.nextBoolean()) {
+                name.append(random.nextInt(20));
+            }
+            NDFValue.ObjectValue unit = NDFValue.createObject("TEntityDescriptor");
+            unit.setInstanceName(name.toString());
+            mixedUnits.add(unit);
+            mixedNames.add(name.toString());
+        }
+        UnitNameIndex mixedIndex = new UnitNameIndex(mixedUnits);
+        for (int q = 0; q < 300; q++) {
+            String target = mixedNames.get(random.nextInt(mixedNames.size()));
+            int pos = random.nextInt(target.length());
+            switch (q % 4) {
+                case 0: target = target.substring(0, pos) + target.substring(pos + 1); break;
+                case 1: target = target.substring(0, pos) + (char) ('a' + random.nextInt(26)) + target.substring(pos); break;
+                case 2: target = target.substring(0, pos) + "_" + words[random.nextInt(words.length)]; break;
+                default: target = words[random.nextInt(words.length)]; break;
+            }
+            TestAssert.assertEquals("Suggestion should equal a full scan for " + target,
+                scanSimilarUnitName(mixedNames, target), mixedIndex.findSimilarName(target));
+        }
+
+        System.out.println("  + Resolved 10000 unit name misses in " + lookupTime + "ms");
+    }
+
+    // The first highest-scoring name above 0.3, scoring every name
+    private static String scanSimilarUnitName(List<String> names, String targetName) {
+        String target = targetName.toLowerCase().trim();
+        String bestName = null;
+        double bestScore = 0.3;
+        for (String name : names) {
+            String candidate = name.toLowerCase();
+            double score;
+            if (target.equals(candidate)) {
+                score = 1.0;
+            } else if (candidate.contains(target)) {
+                score = 0.9;
+            } else if (target.contains(candidate)) {
+                score = 0.85;
+            } else {
+                score = Math.max(StringSimilarity.calculateSimilarity(target, candidate) * 0.4
+                    + StringSimilarity.calculateTokenSimilarity(target, candidate) * 0.4
+                    + StringSimilarity.calculateAffixSimilarity(target, candidate) * 0.2, 0.0);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestName = name;
+            }
+        }
+        return bestName;
+    }
+
+    private void testWorkspaceKnowledgeBase() {
+        System.out.println("Testing workspace knowledge base...");
+
+        List<NDFValue.ObjectValue> objects = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            objects.add(createKnowledgeTestObject(i));
+        }
+
+        WorkspaceKnowledgeBase knowledgeBase = new WorkspaceKnowledgeBase();
+        knowledgeBase.learnFile("Synthetic.ndf", objects);
+        TestAssert.assertEquals("Background learning should match learning on the spot",
+            describeKnowledge(WorkspaceKnowledgeBase.learn(objects)),
+            describeKnowledge(knowledgeBase.getKnowledge("Synthetic.ndf", objects)));
+
+        // Added objects are learned incrementally
+        for (int i = 3000; i < 3100; i++) {
+            objects.add(0, createKnowledgeTestObject(i));
+        }
+        knowledgeBase.learnFile("Synthetic.ndf", objects);
+        TestAssert.assertEquals("Incremental learning should match a full relearn",
+            describeKnowledge(WorkspaceKnowledgeBase.learn(objects)),
+            describeKnowledge(knowledgeBase.getKnowledge("Synthetic.ndf", objects)));
+
+        // Removed objects force a relearn in the background
+        objects.subList(0, 1500).clear();
+        knowledgeBase.learnFile("Synthetic.ndf", objects);
+        TestAssert.assertEquals("Removing objects should relearn the file",
+            describeKnowledge(WorkspaceKnowledgeBase.learn(objects)),
+            awaitKnowledge(knowledgeBase, "Synthetic.ndf", objects));
+
+        // Edits to existing objects are relearned once reported; until then the earlier knowledge is served
+        NDFValue.ObjectValue edited = objects.get(10);
+        edited.setProperty("EditedProperty", NDFValue.createEnum("EEdited/Value"));
+        ((NDFValue.ObjectValue) ((NDFValue.ArrayValue) edited.getProperty("ModulesDescriptors")).getElements().get(0))
+            .setProperty("EditedModuleProperty", NDFValue.createNumber(1.5));
+        knowledgeBase.markModified("Synthetic.ndf");
+        TestAssert.assertNotNull("Edited files should still have knowledge while relearning",
+            knowledgeBase.getKnowledge("Synthetic.ndf", objects));
+        String relearned = awaitKnowledge(knowledgeBase, "Synthetic.ndf", objects);
+        TestAssert.assertEquals("Edited objects should be relearned",
+            describeKnowledge(WorkspaceKnowledgeBase.learn(objects)), relearned);
+        TestAssert.assertContains("New property should be known", relearned, "EditedProperty");
+        TestAssert.assertContains("New module property should be known", relearned, "EditedModuleProperty");
+        TestAssert.assertContains("New enum value should be known", relearned, "EEdited/Value");
+
+        // Merged files match learning all their objects together
+        List<NDFValue.ObjectValue> first = new ArrayList<>(objects.subList(0, 700));
+        List<NDFValue.ObjectValue> second = new ArrayList<>(objects.subList(700, objects.size()));
+        TestAssert.assertEquals("Merged knowledge should match learning the combined objects",
+            describeKnowledge(WorkspaceKnowledgeBase.learn(objects)),
+            describeKnowledge(WorkspaceKnowledgeBase.merge(Arrays.asList(
+                WorkspaceKnowledgeBase.learn(first), WorkspaceKnowledgeBase.learn(second)))));
+
+        knowledgeBase.removeFile("Synthetic.ndf");
+        TestAssert.assertFalse("Removed files should be forgotten", knowledgeBase.hasFile("Synthetic.ndf"));
+
+        System.out.println("  + Incremental and merged knowledge match full learning");
+    }
+
+    // Knowledge once background relearning catches up with the objects, or what is served after 10s
+    private String awaitKnowledge(WorkspaceKnowledgeBase knowledgeBase, String fileName, List<NDFValue.ObjectValue> objects) {
+        String expected = describeKnowledge(WorkspaceKnowledgeBase.learn(objects));
+        String actual = describeKnowledge(knowledgeBase.getKnowledge(fileName, objects));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!actual.equals(expected) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            actual = describeKnowledge(knowledgeBase.getKnowledge(fileName, objects));
+        }
+        return actual;
+    }
+
+    private void testWorkspaceFileIndex() throws Exception {
+        System.out.println("Testing workspace file index...");
+
+        Path root = Files.createTempDirectory("warno_workspace");
+        Path gfx = Files.createDirectories(root.resolve("GameData/Generated/Gameplay/Gfx"));
+        Path other = Files.createDirectories(root.resolve("GameData/Other/Deep"));
+        Files.write(gfx.resolve("Ammunition.ndf"), new byte[0]);
+        Files.write(other.resolve("Ammunition.ndf"), new byte[0]);
+        Files.write(other.resolve("Skins.ndf"), new byte[0]);
+
+        try (com.warnomodmaker.util.WorkspaceFileIndex index = new com.warnomodmaker.util.WorkspaceFileIndex(root.toFile())) {
+            TestAssert.assertEquals("Preferred location should win", gfx.resolve("Ammunition.ndf").toFile(),
+                index.find("Ammunition.ndf"));
+            TestAssert.assertEquals("Files outside the usual locations should be found", other.resolve("Skins.ndf").toFile(),
+                index.find("Skins.ndf"));
+            TestAssert.assertEquals("Relative paths should resolve directly", other.resolve("Skins.ndf").toFile(),
+                index.find("GameData/Other/Deep/Skins.ndf"));
+            TestAssert.assertNull("Unknown files should not be found", index.find("Missing.ndf"));
+
+            // Names only match in another case where the file system ignores case
+            boolean caseInsensitive = Files.exists(root.resolve("GAMEDATA"));
+            TestAssert.assertEquals("Case should follow the file system",
+                caseInsensitive ? gfx.resolve("Ammunition.ndf").toFile() : null, index.find("AMMUNITION.ndf"));
+
+            // Without an index, only the usual locations are probed
+            TestAssert.assertEquals("Probe should find files in the usual locations", gfx.resolve("Ammunition.ndf").toFile(),
+                com.warnomodmaker.util.WorkspaceFileIndex.probe(root.toFile(), "Ammunition.ndf"));
+            TestAssert.assertNull("Probe should not search other directories",
+                com.warnomodmaker.util.WorkspaceFileIndex.probe(root.toFile(), "Skins.ndf"));
+
+            // Deleted files are never handed out, even before the watcher catches up
+            Files.delete(gfx.resolve("Ammunition.ndf"));
+            TestAssert.assertEquals("Deleted file should fall back to the other copy", other.resolve("Ammunition.ndf").toFile(),
+                index.find("Ammunition.ndf"));
+
+            // New files are picked up by the watcher
+            Path added = Files.write(Files.createDirectories(root.resolve("GameData/New")).resolve("Added.ndf"), new byte[0]);
+            File found = null;
+            for (int i = 0; i < 100 && found == null; i++) {
+                Thread.sleep(50);
+                found = index.find("Added.ndf");
+            }
+            TestAssert.assertEquals("Watcher should index new files", added.toFile(), found);
+        }
+
+        System.out.println("  + Workspace index resolves, prefers and refreshes files");
+    }
+
+    private void testPropertyTreeFilterIndex() {
+        System.out.println("Testing property tree filter index...");
+
+        NDFValue.ObjectValue unit = createKnowledgeTestObject(20);
+        com.warnomodmaker.gui.PropertyTreeFilterIndex index = new com.warnomodmaker.gui.PropertyTreeFilterIndex(unit);
+
+        // ClassNameForDebug, Coalition, ModulesDescriptors, [0], MaxPhysicalDamages, Family
+        TestAssert.assertEquals("Every property should be indexed", 6, index.size());
+        int modules = index.nextSibling(index.nextSibling(index.firstChild(-1)));
+        int module = index.firstChild(modules);
+        TestAssert.assertEquals("Module should be the array's only child", -1, index.nextSibling(module));
+
+        boolean[] visible = index.visibleFor("PHYSICAL");
+        TestAssert.assertTrue("Matching property should be visible", visible[index.firstChild(module)]);
+        TestAssert.assertTrue("Ancestors of a match should be visible", visible[modules] && visible[module]);
+        TestAssert.assertFalse("Unrelated properties should be hidden", visible[index.firstChild(-1)]);
+        TestAssert.assertFalse("Siblings of a match should be hidden", visible[index.nextSibling(index.firstChild(module))]);
+
+        visible = index.visibleFor("modulesdescriptors[0]");
+        TestAssert.assertTrue("Children of a matching path should be visible", visible[index.firstChild(module)]);
+
+        System.out.println("  + Property filter finds matches and their ancestors");
+    }
+
+    private void testPropertySearchIndex() {
+        System.out.println("Testing property search index...");
+
+        List<NDFValue.ObjectValue> units = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            units.add(createKnowledgeTestObject(i));
+        }
+        PropertySearchIndex index = new PropertySearchIndex(units);
+
+        for (String query : new String[] {"fa", "Factory", "FAMILY", "physicaldam", "Coalition", "xyz", "ModulesDescriptors"}) {
+            List<NDFValue.ObjectValue> expected = new ArrayList<>();
+            for (NDFValue.ObjectValue unit : units) {
+                if (hasNestedPropertyContaining(unit, query.toLowerCase())) {
+                    expected.add(unit);
+                }
+            }
+            TestAssert.assertEquals("Index should match a full walk for '" + query + "'", expected,
+                index.findUnitsWithPropertyContaining(query));
+        }
+
+        // Changes are picked up once the tracker reports them
+        NDFValue.ObjectValue unit = units.get(1);
+        unit.setProperty("NewlyAddedRange", NDFValue.createNumber(1));
+        TestAssert.assertTrue("Unreported changes are not seen", index.findUnitsWithPropertyContaining("newlyadded").isEmpty());
+        index.unitChanged(unit.getInstanceName());
+        TestAssert.assertEquals("Reported change should be re-indexed", Collections.singletonList(unit),
+            index.findUnitsWithPropertyContaining("newlyadded"));
+
+        // New objects trigger a rebuild
+        NDFValue.ObjectValue added = createKnowledgeTestObject(500);
+        added.setProperty("NewlyAddedRange", NDFValue.createNumber(2));
+        units.add(added);
+        TestAssert.assertEquals("Added object should be indexed", Arrays.asList(unit, added),
+            index.findUnitsWithPropertyContaining("NewlyAdded"));
+
+        // Wired like UnitBrowser: over the list model's own copy and fed by the tracker
+        List<NDFValue.ObjectValue> modelCopy = new ArrayList<>(units);
+        PropertySearchIndex browserIndex = new PropertySearchIndex(modelCopy);
+        ModificationTracker tracker = new ModificationTracker();
+        tracker.addListener(new ModificationTracker.ModificationListener() {
+            @Override
+            public void onModificationAdded(ModificationRecord record) {
+                browserIndex.modificationRecorded(record);
+            }
+
+            @Override
+            public void onModificationsCleared() {
+                browserIndex.invalidate();
+            }
+        });
+        NDFValue.ObjectValue mutated = modelCopy.get(7);
+        NDFValue.ObjectValue mutatedModule = (NDFValue.ObjectValue)
+            ((NDFValue.ArrayValue) mutated.getProperty("ModulesDescriptors")).getElements().get(0);
+        NDFValue oldValue = NDFValue.createNumber(0);
+        NDFValue newValue = NDFValue.createNumber(3);
+        mutatedModule.setProperty("MutatedArmorThickness", newValue);
+        tracker.recordModification(mutated.getInstanceName(), "ModulesDescriptors[0].MutatedArmorThickness",
+            oldValue, newValue, PropertyUpdater.ModificationType.PROPERTY_ADDED, null);
+        TestAssert.assertEquals("Mutated property should be found", Collections.singletonList(mutated),
+            browserIndex.findUnitsWithPropertyContaining("armorthick"));
+
+        NDFValue.ObjectValue created = createKnowledgeTestObject(600);
+        created.setProperty("MutatedArmorThickness", NDFValue.createNumber(4));
+        modelCopy.set(3, created);
+        tracker.recordModification(created.getInstanceName(), "MutatedArmorThickness",
+            oldValue, newValue, PropertyUpdater.ModificationType.OBJECT_ADDED, null);
+        TestAssert.assertEquals("Added objects should rebuild the index", Arrays.asList(created, mutated),
+            browserIndex.findUnitsWithPropertyContaining("armorthick"));
+
+        System.out.println("  + Property search index matches a full walk and follows changes");
+    }
+
+    private boolean hasNestedPropertyContaining(NDFValue.ObjectValue object, String lowerText) {
+        for (Map.Entry<String, NDFValue> entry : object.getProperties().entrySet()) {
+            if (entry.getKey().toLowerCase().contains(lowerText)) {
+                return true;
+            }
+            NDFValue value = entry.getValue();
+            if (value instanceof NDFValue.ObjectValue && hasNestedPropertyContaining((NDFValue.ObjectValue) value, lowerText)) {
+                return true;
+            }
+            if (value instanceof NDFValue.ArrayValue) {
+                for (NDFValue element : ((NDFValue.ArrayValue) value).getElements()) {
+                    if (element instanceof NDFValue.ObjectValue && hasNestedPropertyContaining((NDFValue.ObjectValue) element, lowerText)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void testSyntheticCorpus() throws Exception {
+        System.out.println("Testing synthetic corpus generator...");
+
+        SyntheticCorpus corpus = new SyntheticCorpus(42);
+        TestAssert.assertEquals("Same seed should give the same text",
+            corpus.generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, 50),
+            new SyntheticCorpus(42).generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, 50));
+        TestAssert.assertFalse("Different seeds should give different text",
+            corpus.generate(NDFValue.NDFFileType.AMMUNITION, 50).equals(new SyntheticCorpus(43).generate(NDFValue.NDFFileType.AMMUNITION, 50)));
+
+        // Scaling adds descriptors without changing the ones already there
+        SyntheticCorpus scaled = new SyntheticCorpus(42, 10);
+        TestAssert.assertEquals("Scale should multiply descriptor counts",
+            corpus.count(NDFValue.NDFFileType.UNITE_DESCRIPTOR) * 10, scaled.count(NDFValue.NDFFileType.UNITE_DESCRIPTOR));
+        TestAssert.assertEquals("Units should not change with scale",
+            corpus.generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, 50), scaled.generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, 50));
+
+        for (NDFValue.NDFFileType fileType : NDFValue.NDFFileType.values()) {
+            if (fileType == NDFValue.NDFFileType.UNKNOWN) {
+                continue;
+            }
+            List<NDFValue.ObjectValue> objects = parseSyntheticText(corpus.generate(fileType, 25), fileType);
+            TestAssert.assertEquals("Every generated " + fileType + " descriptor should parse", 25, objects.size());
+        }
+
+        List<NDFValue.ObjectValue> units = parseSyntheticText(corpus.generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, 100),
+            NDFValue.NDFFileType.UNITE_DESCRIPTOR);
+        for (int i = 0; i < units.size(); i++) {
+            NDFValue.ObjectValue unit = units.get(i);
+            TestAssert.assertEquals("Unit should have a GUID", NDFValue.ValueType.GUID, unit.getProperty("DescriptorId").getType());
+            TestAssert.assertNotEmpty("Unit should have tags", TagExtractor.extractTagsFromUnit(unit));
+            TestAssert.assertNotNull("Unit should have a role", TagExtractor.extractUnitRole(unit));
+
+            NDFValue selector = PropertyUpdater.getPropertyValue(unit, "ModulesDescriptors[2].Default.MaxPhysicalDamages");
+            TestAssert.assertEquals("Module selector default should be reachable", NDFValue.ValueType.NUMBER, selector.getType());
+
+            NDFValue weapon = PropertyUpdater.getPropertyValue(unit, "ModulesDescriptors[7].WeaponManager");
+            TestAssert.assertTrue("Unit should reference its weapon descriptor",
+                weapon instanceof NDFValue.ResourceRefValue &&
+                ((NDFValue.ResourceRefValue) weapon).getPath().endsWith("/" + SyntheticCorpus.weaponName(i)));
+        }
+
+        // Weapons reference ammunition that the ammunition file defines
+        int ammunitionCount = corpus.count(NDFValue.NDFFileType.AMMUNITION);
+        String weapons = corpus.generate(NDFValue.NDFFileType.WEAPON_DESCRIPTOR, 100);
+        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("Ammunition = \\$/GFX/Weapon/Ammo_(\\d+)").matcher(weapons);
+        int references = 0;
+        while (matcher.find()) {
+            TestAssert.assertLessThan("Ammunition reference should be in range", Integer.parseInt(matcher.group(1)), ammunitionCount);
+            references++;
+        }
+        TestAssert.assertGreaterThan("Weapons should reference ammunition", references, 99);
+
+        System.out.println("  + Synthetic corpus is deterministic, parses for every file type and links across files");
+    }
+
+    private void testMetricsRegistry() throws Exception {
+        System.out.println("Testing metrics registry...");
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        long parsesBefore = metrics.timer("parse").getCount();
+        long objectsBefore = metrics.counter("parse.objects").get();
+
+        String text = new SyntheticCorpus(7).generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, 20);
+        parseSyntheticText(text, NDFValue.NDFFileType.UNITE_DESCRIPTOR);
+        TestAssert.assertEquals("Parse should be timed once", parsesBefore + 1, metrics.timer("parse").getCount());
+        TestAssert.assertEquals("Parsed objects should be counted", objectsBefore + 20, metrics.counter("parse.objects").get());
+
+        MetricsRegistry local = new MetricsRegistry();
+        MetricsRegistry.Timer timer = local.timer("test.sleep");
+        for (int i = 0; i < 3; i++) {
+            timer.time(() -> {
+                Thread.sleep(2);
+                return null;
+            });
+        }
+        TestAssert.assertEquals("Each sample should be counted", 3L, timer.getCount());
+        TestAssert.assertTrue("Samples should take at least the sleep time", timer.getMeanNanos() >= 2_000_000);
+        TestAssert.assertTrue("Max should bound the mean", timer.getMaxNanos() >= timer.getMeanNanos());
+        TestAssert.assertTrue("Last stopped timer should be tracked", local.getLastStopped() == timer);
+        local.counter("test.records").add(42);
+
+        StringWriter json = new StringWriter();
+        local.writeJson(json);
+        TestAssert.assertContains("Export should include timers", json.toString(), "\"test.sleep\"");
+        TestAssert.assertContains("Export should include counters", json.toString(), "\"test.records\": 42");
+        TestAssert.assertContains("Export should include gauges", json.toString(), "\"memory.heapUsedBytes\"");
+
+        local.reset();
+        TestAssert.assertEquals("Reset should clear timers", 0L, timer.getCount());
+
+        System.out.println("  + Metrics registry times instrumented code and exports JSON");
+    }
+
+    private void testProfileBatch() throws Exception {
+        System.out.println("Testing headless profile batch...");
+
+        NDFValue.NDFFileType fileType = NDFValue.NDFFileType.UNITE_DESCRIPTOR;
+        String text = new SyntheticCorpus(11).generate(fileType, 20);
+        List<NDFValue.ObjectValue> units = parseSyntheticText(text, fileType);
+        ModificationTracker tracker = new ModificationTracker();
+        for (int i = 0; i < 5; i++) {
+            PropertyUpdater.updateNumericProperty(units.get(i), "ModulesDescriptors[6].FuelCapacity",
+                PropertyUpdater.ModificationType.SET, 4321, tracker);
+        }
+        ModProfile profile = new ModProfile("Fuel", tracker, "UniteDescriptor.ndf");
+        profile.addModification(new ModificationRecord("Descriptor_Unit_Missing", "ModulesDescriptors[6].FuelCapacity",
+            "1", "2", "NUMBER", "NUMBER", null, PropertyUpdater.ModificationType.SET, null));
+        ModProfile otherFile = new ModProfile("Ammo", new ModificationTracker(), "Ammunition.ndf");
+
+        Path dir = Files.createTempDirectory("profile-batch");
+        try {
+            Path input = dir.resolve("UniteDescriptor.ndf");
+            Path output = dir.resolve("out").resolve("UniteDescriptor.ndf");
+            Files.writeString(input, text, StandardCharsets.UTF_8);
+
+            ProfileBatch batch = new ProfileBatch(List.of(profile, otherFile), true);
+            ProfileBatch.FileReport report = batch.process(input.toFile(), output.toFile());
+
+            TestAssert.assertEquals("Only the matching profile should apply", 1, report.getProfileCount());
+            TestAssert.assertEquals("Every parsed unit should be reported", 20, report.getObjectCount());
+            TestAssert.assertEquals("Recorded modifications should apply", 5, report.getResult().getApplied());
+            TestAssert.assertEquals("Unknown units should be skipped", 1, report.getResult().getMissingUnits());
+
+            String written = Files.readString(output, StandardCharsets.UTF_8);
+            List<NDFValue.ObjectValue> reparsed = parseSyntheticText(written, fileType);
+            TestAssert.assertEquals("Output should keep every unit", 20, reparsed.size());
+            for (int i = 0; i < 5; i++) {
+                NDFValue value = PropertyUpdater.getPropertyValue(reparsed.get(i), "ModulesDescriptors[6].FuelCapacity", fileType);
+                TestAssert.assertEquals("Output should carry the profile value", "4321", value.toString());
+            }
+            TestAssert.assertEquals("Input should be left untouched", text, Files.readString(input, StandardCharsets.UTF_8));
+        } finally {
+            try (java.util.stream.Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        System.out.println("  + Profile batch applies matching profiles headlessly");
+    }
+
+    private void testProfileWatcher() throws Exception {
+        System.out.println("Testing profile watch mode...");
+
+        NDFValue.NDFFileType fileType = NDFValue.NDFFileType.UNITE_DESCRIPTOR;
+        String text = new SyntheticCorpus(13).generate(fileType, 10);
+        List<NDFValue.ObjectValue> units = parseSyntheticText(text, fileType);
+        ModificationTracker tracker = new ModificationTracker();
+        PropertyUpdater.updateNumericProperty(units.get(0), "ModulesDescriptors[6].FuelCapacity",
+            PropertyUpdater.ModificationType.SET, 2468, tracker);
+        ProfileBatch batch = new ProfileBatch(List.of(new ModProfile("Fuel", tracker, "UniteDescriptor.ndf")), false);
+
+        Path root = Files.createTempDirectory("profile-watch");
+        Path outputDir = Files.createTempDirectory("profile-watch-out");
+        Path gfx = Files.createDirectories(root.resolve("GameData/Generated/Gameplay/Gfx"));
+        for (Path enclosing : List.of(root.resolve("GameData"), root)) {
+            try (ProfileWatcher watcher = new ProfileWatcher(root.resolve("GameData").toFile(), enclosing.toFile(), batch, 200, 4)) {
+                TestAssert.fail("Output directory " + enclosing + " encloses the watched files and should be rejected");
+            } catch (IllegalArgumentException expected) {
+                // Every watched file would count as output
+            }
+        }
+        try (ProfileWatcher watcher = new ProfileWatcher(root.resolve("GameData").toFile(), outputDir.toFile(), batch, 200, 4)) {
+            // A burst of writes settles into one run
+            for (int i = 0; i < 5; i++) {
+                Files.writeString(gfx.resolve("UniteDescriptor.ndf"), text + "\n// edit " + i + "\n", StandardCharsets.UTF_8);
+                Thread.sleep(20);
+            }
+            Files.writeString(gfx.resolve("Ammunition.ndf"), "// no profile targets this\n", StandardCharsets.UTF_8);
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while ((watcher.getProcessedCount() == 0 || watcher.getBacklog() > 0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Thread.sleep(500);
+
+            TestAssert.assertEquals("Burst should be processed once", 1, watcher.getProcessedCount());
+            TestAssert.assertEquals("Processing should not fail", 0, watcher.getFailedCount());
+            Path output = outputDir.resolve("Generated/Gameplay/Gfx/UniteDescriptor.ndf");
+            TestAssert.assertTrue("Output should mirror the watched path", Files.isRegularFile(output));
+            TestAssert.assertContains("Output should carry the latest edit", Files.readString(output, StandardCharsets.UTF_8), "// edit 4");
+            TestAssert.assertContains("Output should carry the profile value", Files.readString(output, StandardCharsets.UTF_8), "2468");
+            TestAssert.assertFalse("Files without profiles should be ignored",
+                Files.exists(outputDir.resolve("Generated/Gameplay/Gfx/Ammunition.ndf")));
+
+            // A rewrite keeping the modification time is still a change when the size differs
+            Path source = gfx.resolve("UniteDescriptor.ndf");
+            java.nio.file.attribute.FileTime modifiedTime = Files.getLastModifiedTime(source);
+            Files.writeString(source, text + "\n// edit 5 with a longer tail\n", StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(source, modifiedTime);
+            deadline = System.currentTimeMillis() + 10000;
+            while (watcher.getProcessedCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            TestAssert.assertEquals("Same-time rewrite should be processed", 2, watcher.getProcessedCount());
+            TestAssert.assertContains("Output should carry the rewrite", Files.readString(output, StandardCharsets.UTF_8), "// edit 5");
+
+            // Deleting the source removes its output
+            Files.delete(source);
+            deadline = System.currentTimeMillis() + 10000;
+            while (Files.exists(output) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            TestAssert.assertFalse("Output of a deleted file should be removed", Files.exists(output));
+            TestAssert.assertEquals("Deletion should not fail", 0, watcher.getFailedCount());
+        } finally {
+            for (Path dir : List.of(root, outputDir)) {
+                try (java.util.stream.Stream<Path> paths = Files.walk(dir)) {
+                    paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+
+        System.out.println("  + Watch mode debounces changes, re-applies matching profiles, drops stale output and rejects enclosing outputs");
+    }
+
+    private void testTokenizerIdentifiers() throws Exception {
+        System.out.println("Testing tokenizer identifier dispatch...");
+
+        String text = "export A is T ( B = True C = FALSE D = MAP E = Exporter F = EType/Value G = GUID:{1-2} H = GUID:x )";
+        List<NDFToken> tokens = new NDFTokenizer(new StringReader(text)).tokenize();
+        Map<String, NDFToken.TokenType> types = new LinkedHashMap<>();
+        for (NDFToken token : tokens) {
+            types.putIfAbsent(token.getValue(), token.getType());
+            TestAssert.assertEquals("Token text should match its value", token.getValue(), token.getOriginalText());
+        }
+
+        TestAssert.assertEquals("export is a keyword", NDFToken.TokenType.EXPORT, types.get("export"));
+        TestAssert.assertEquals("is is a keyword", NDFToken.TokenType.IS, types.get("is"));
+        TestAssert.assertEquals("Keywords ignore case", NDFToken.TokenType.BOOLEAN_LITERAL, types.get("FALSE"));
+        TestAssert.assertEquals("Booleans keep their case", NDFToken.TokenType.BOOLEAN_LITERAL, types.get("True"));
+        TestAssert.assertEquals("MAP is a keyword", NDFToken.TokenType.MAP, types.get("MAP"));
+        TestAssert.assertEquals("Keyword prefixes are identifiers", NDFToken.TokenType.IDENTIFIER, types.get("Exporter"));
+        TestAssert.assertEquals("Slashes continue enums", NDFToken.TokenType.ENUM_VALUE, types.get("EType/Value"));
+        TestAssert.assertEquals("GUIDs are one token", NDFToken.TokenType.GUID, types.get("GUID:{1-2}"));
+        TestAssert.assertEquals("GUID without braces stays an identifier", NDFToken.TokenType.IDENTIFIER, types.get("GUID"));
+        TestAssert.assertEquals("Whole stream should be tokenized", NDFToken.TokenType.EOF, tokens.get(tokens.size() - 1).getType());
+
+        System.out.println("  + Tokenizer recognises keywords, enums and GUIDs");
+    }
+
+    private void testLazyNumberParsing() throws Exception {
+        System.out.println("Testing lazy number parsing...");
+
+        List<String> literals = new ArrayList<>(List.of("0", "-0", "-0.0", "12.", "007", "0.1", "0.3", "-1.5",
+            "123456789012345", "1234567890123456", "9007199254740993", "0.0000000000000000000001", "3.14159265358979323846"));
+        Random random = new Random(48);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder literal = new StringBuilder(random.nextBoolean() ? "-" : "");
+            int intDigits = 1 + random.nextInt(18);
+            for (int d = 0; d < intDigits; d++) {
+                literal.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                literal.append('.');
+                int fractionDigits = random.nextInt(25);
+                for (int d = 0; d < fractionDigits; d++) {
+                    literal.append((char) ('0' + random.nextInt(10)));
+                }
+            }
+            literals.add(literal.toString());
+        }
+
+        for (String literal : literals) {
+            double expected = Double.parseDouble(literal);
+            NDFValue.NumberValue lazy = (NDFValue.NumberValue) NDFValue.createNumber(literal);
+            NDFValue.NumberValue eager = (NDFValue.NumberValue) NDFValue.createNumber(expected, literal);
+            TestAssert.assertEquals("Lazy value should match Double.parseDouble for " + literal,
+                Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(lazy.getValue()));
+            TestAssert.assertEquals("Integer flag should match for " + literal, eager.wasOriginallyInteger(), lazy.wasOriginallyInteger());
+            TestAssert.assertEquals("Rounded value should match for " + literal, eager.getRoundedValue(), lazy.getRoundedValue());
+            TestAssert.assertEquals("Text should be preserved for " + literal, literal, lazy.toString());
+        }
+
+        NDFValue.NumberValue copied = (NDFValue.NumberValue) NDFValue.createNumber("2.50").copy();
+        TestAssert.assertEquals("Copies should keep the literal", "2.50", copied.toString());
+        TestAssert.assertEquals("Copies should parse the same value", 2.5, copied.getValue());
+        try {
+            NDFValue.createNumber("1e");
+            TestAssert.fail("Malformed literals should still be rejected up front");
+        } catch (NumberFormatException expected) {
+            // Not a plain decimal, so it was parsed eagerly
+        }
+
+        System.out.println("  + Lazy numbers match Double.parseDouble and keep their semantics");
+    }
+
+    private void testWhitespaceCanonicalization() throws Exception {
+        System.out.println("Testing whitespace canonicalization...");
+
+        String text = new SyntheticCorpus(49).generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, 30);
+        List<NDFToken> tokens = new NDFTokenizer(new StringReader(text)).tokenize();
+        Map<String, String> firstInstance = new HashMap<>();
+        int runs = 0;
+        for (NDFToken token : tokens) {
+            for (String whitespace : new String[] {token.getLeadingWhitespace(), token.getTrailingWhitespace()}) {
+                String first = firstInstance.putIfAbsent(whitespace, whitespace);
+                if (first != null) {
+                    TestAssert.assertTrue("Equal whitespace runs should share one instance", first == whitespace);
+                }
+                runs++;
+            }
+        }
+        TestAssert.assertTrue("A few patterns should cover every run", firstInstance.size() * 20 < runs);
+
+        StringBuilder rebuilt = new StringBuilder();
+        for (NDFToken token : tokens) {
+            rebuilt.append(token.getLeadingWhitespace()).append(token.getOriginalText());
+            if (token.getType() != NDFToken.TokenType.EOF) {
+                rebuilt.append(token.getTrailingWhitespace());
+            }
+        }
+        TestAssert.assertEquals("Tokens should still reproduce the source", text, rebuilt.toString());
+
+        System.out.println("  + Whitespace runs are shared across tokens");
+    }
+
+    private void testDescriptorGrammar() throws Exception {
+        System.out.println("Testing descriptor grammar...");
+
+        String text = "export Descriptor_Unit_Test is TEntityDescriptor\n" +
+            "(\n" +
+            "    Behaviour = EGameplayBehavior/Nothing | EGameplayBehavior/TacticalAttackNearCover\n" +
+            "    Terrain = ~/ETerrainType/None | ~/ETerrainType/ForetLegere\n" +
+            "    Coalition = ECoalition/Allied\n" +
+            "    VisionRanges = [(EVisionUnitType/Standard, 3500.0), (EVisionUnitType/High, 100)]\n" +
+            "    ModulesDescriptors = [\n" +
+            "        ~/TargetManagerModuleSelector,\n" +
+            "        FacingInfos is ~/FacingInfosModuleDescriptor,\n" +
+            "        WeaponManager is $/GFX/Weapon/WeaponDescriptor_Test\n" +
+            "        ,TDamageModuleDescriptor(MaxPhysicalDamages = 10)\n" +
+            "    ]\n" +
+            ")\n";
+
+        List<NDFValue.ObjectValue> units = parseSyntheticText(text, NDFValue.NDFFileType.UNITE_DESCRIPTOR);
+        TestAssert.assertEquals("One descriptor", 1, units.size());
+        NDFValue.ObjectValue unit = units.get(0);
+        TestAssert.assertEquals("Pipe-separated enums stay one expression",
+            "EGameplayBehavior/Nothing | EGameplayBehavior/TacticalAttackNearCover",
+            ((NDFValue.RawExpressionValue) unit.getProperty("Behaviour")).getExpression());
+        TestAssert.assertEquals("Pipe-separated template refs stay one expression",
+            "~/ETerrainType/None | ~/ETerrainType/ForetLegere",
+            ((NDFValue.RawExpressionValue) unit.getProperty("Terrain")).getExpression());
+        TestAssert.assertTrue("Descriptor enums are raw expressions",
+            unit.getProperty("Coalition") instanceof NDFValue.RawExpressionValue);
+        TestAssert.assertEquals("Descriptor properties are newline separated", "\n    ",
+            unit.getOriginalPropertySuffix("Coalition"));
+
+        NDFValue.ArrayValue vision = (NDFValue.ArrayValue) unit.getProperty("VisionRanges");
+        TestAssert.assertEquals("Tuples inside descriptor arrays", 2,
+            ((NDFValue.TupleValue) vision.getElements().get(1)).getElements().size());
+
+        List<NDFValue> modules = ((NDFValue.ArrayValue) unit.getProperty("ModulesDescriptors")).getElements();
+        TestAssert.assertEquals("Every module entry is kept", 4, modules.size());
+        TestAssert.assertEquals("Named template module", "FacingInfos",
+            ((NDFValue.TemplateRefValue) modules.get(1)).getInstanceName());
+        TestAssert.assertEquals("Named resource module", "$/GFX/Weapon/WeaponDescriptor_Test",
+            ((NDFValue.ResourceRefValue) modules.get(2)).getPath());
+        TestAssert.assertTrue("Leading-comma module object",
+            modules.get(3) instanceof NDFValue.ObjectValue);
+
+        for (NDFValue.NDFFileType fileType : new NDFValue.NDFFileType[] {
+                NDFValue.NDFFileType.FIRE_DESCRIPTOR, NDFValue.NDFFileType.SMOKE_DESCRIPTOR}) {
+            TestAssert.assertEquals(fileType + " uses the descriptor grammar", unit.toString(),
+                parseSyntheticText(text, fileType).get(0).toString());
+        }
+
+        NDFValue.ObjectValue generic = parseSyntheticText(text, NDFValue.NDFFileType.AMMUNITION).get(0);
+        TestAssert.assertTrue("Other files keep enums typed",
+            generic.getProperty("Coalition") instanceof NDFValue.EnumValue);
+        TestAssert.assertEquals("Other files or pipes at property level",
+            "EGameplayBehavior/Nothing | EGameplayBehavior/TacticalAttackNearCover",
+            generic.getProperty("Behaviour").toString());
+
+        System.out.println("  + Unit, fire and smoke descriptors share one grammar");
+    }
+
+    private void testGuidManagerReclaim() {
+        System.out.println("Testing GUID manager reclaim...");
+
+        GlobalGUIDManager manager = new GlobalGUIDManager();
+        String shared = "GUID:{00000000-0000-4000-8000-000000000001}";
+        List<String> closedGuids = new ArrayList<>();
+        for (int file = 0; file < 20; file++) {
+            String ownGuid = String.format("GUID:{%08x-0000-4000-8000-000000000002}", file);
+            closedGuids.add(ownGuid);
+            manager.registerFile("File" + file + ".ndf", List.of(createGuidTestObject("Unit_" + file, ownGuid, shared)));
+        }
+        for (int file = 0; file < 20; file++) {
+            manager.unregisterFile("File" + file + ".ndf");
+        }
+        for (String guid : closedGuids) {
+            TestAssert.assertFalse("Closed files should release their GUIDs", manager.getAllocator().isTaken(guid));
+        }
+        TestAssert.assertContains("Nothing left registered", manager.getStatistics(), "0 unique GUIDs across 0 files");
+
+        // Ids handed out after a compaction must still resolve correctly
+        manager.registerFile("A.ndf", List.of(createGuidTestObject("Unit_A", shared, null)));
+        manager.registerFile("B.ndf", List.of(createGuidTestObject("Unit_B", closedGuids.get(0), shared)));
+        TestAssert.assertEquals("Cross-file use found after reclaim", 1, manager.findGuidConflicts().size());
+        TestAssert.assertEquals("Both locations kept", 2, manager.getGuidLocations(shared).size());
+        manager.unregisterFile("B.ndf");
+        TestAssert.assertEquals("Owner survives the other file closing", "A.ndf", manager.getFileOwningGuid(shared));
+        TestAssert.assertTrue("Remaining GUID is unique again", manager.isGuidUnique(shared));
+
+        System.out.println("  + Unregistered files release their GUIDs and strings");
+    }
+
+    private void testGuidGeneratorScope() {
+        System.out.println("Testing GUID generator scope...");
+
+        GlobalGUIDManager manager = new GlobalGUIDManager();
+        String warnoGuid = manager.generateUniqueGuid();
+        TestAssert.assertTrue("Manager keeps the WARNO format: " + warnoGuid,
+            warnoGuid.matches("[0-9A-F]{8}-[0-9A-F]{4}-[0-9A-F]{4}-[0-9A-F]{4}-[0-9A-F]{12}"));
+        TestAssert.assertTrue("Batch uses the same format", manager.generateUniqueGuids(3).get(2).matches("[0-9A-F-]{36}"));
+
+        String reserved = "GUID:{00000000-0000-4000-8000-0000000000aa}";
+        manager.registerFile("A.ndf", List.of(createGuidTestObject("Unit_A", reserved, null)));
+        manager.reserveGuid(reserved);
+        manager.unregisterFile("A.ndf");
+        TestAssert.assertTrue("Reservation outlives the file", manager.getAllocator().isTaken(reserved));
+
+        GUIDGenerator generator = new GUIDGenerator(manager.getAllocator());
+        generator.registerExistingGuid("GUID:{00000000-0000-4000-8000-0000000000bb}");
+        String generated = generator.generateGUID();
+        TestAssert.assertTrue("Generator keeps the NDF format", generated.startsWith("GUID:{"));
+        TestAssert.assertEquals("Only the generator's own GUIDs are counted", 2, generator.getRegisteredGuidCount());
+
+        generator.clear();
+        TestAssert.assertEquals("Generator forgets its GUIDs", 0, generator.getRegisteredGuidCount());
+        TestAssert.assertTrue("Workspace reservations survive the generator clearing", manager.getAllocator().isTaken(reserved));
+        TestAssert.assertTrue("Allocated GUIDs stay taken", manager.getAllocator().isTaken(generated));
+
+        System.out.println("  + Generator state is scoped to the generator");
+    }
+
+    private NDFValue.ObjectValue createGuidTestObject(String name, String descriptorId, String reference) {
+        NDFValue.ObjectValue object = NDFValue.createObject("TEntityDescriptor");
+        object.setInstanceName(name);
+        object.setProperty("DescriptorId", NDFValue.createGUID(descriptorId));
+        if (reference != null) {
+            object.setProperty("Reference", NDFValue.createGUID(reference));
+        }
+        return object;
+    }
+
+    private List<NDFValue.ObjectValue> parseSyntheticText(String text, NDFValue.NDFFileType fileType) throws Exception {
+        NDFParser parser = new NDFParser(new StringReader(text));
+        parser.setFileType(fileType);
+        parser.setOriginalSourceContent(text);
+        return parser.parse();
+    }
+
+    private NDFValue.ObjectValue createKnowledgeTestObject(int index) {
+        NDFValue.ObjectValue object = NDFValue.createObject(index % 7 == 0 ? "TBuildingDescriptor" : "TEntityDescriptor");
+        object.setInstanceName("Descriptor_Knowledge_" + index);
+        object.setProperty("ClassNameForDebug", NDFValue.createString("Unit_" + index));
+        object.setProperty("Coalition", NDFValue.createEnum(index % 2 == 0 ? "ECoalition/Axis" : "ECoalition/Allied"));
+        if (index % 3 == 0) {
+            object.setProperty("Factory", NDFValue.createEnum("EDefaultFactories/Tank"));
+        }
+
+        NDFValue.ArrayValue modules = NDFValue.createArray();
+        NDFValue.ObjectValue module = NDFValue.createObject(index % 5 == 0 ? "TDamageModuleDescriptor" : "TTagsModuleDescriptor");
+        module.setProperty("MaxPhysicalDamages", NDFValue.createNumber(index % 11));
+        if (index % 4 == 0) {
+            module.setProperty("Family", NDFValue.createTemplateRef("~/Family_" + (index % 13)));
+        }
+        modules.add(module);
+        object.setProperty("ModulesDescriptors", modules);
+        return object;
+    }
+
+    private String describeKnowledge(WorkspaceKnowledgeBase.FileKnowledge knowledge) {
+        StringBuilder description = new StringBuilder();
+        NDFTemplateManager templates = knowledge.getTemplateManager();
+        NDFSchemaRegistry schemas = knowledge.getSchemaRegistry();
+        for (String type : new TreeSet<>(templates.getAvailableObjectTypes())) {
+            description.append("object ").append(type)
+                .append(new TreeSet<>(templates.getTemplate(type).getProperties().keySet())).append('\n');
+        }
+        for (String type : new TreeSet<>(templates.getAvailableModuleTypes())) {
+            description.append("module ").append(type)
+                .append(new TreeSet<>(templates.getModuleTemplate(type).getProperties().keySet())).append('\n');
+        }
+        for (String type : new TreeSet<>(schemas.getKnownObjectTypes())) {
+            for (String property : new TreeSet<>(schemas.getKnownProperties(type))) {
+                description.append("schema ").append(type).append('.').append(property).append('=')
+                    .append(schemas.getPropertyFrequency(type, property)).append('\n');
+            }
+        }
+        description.append("modules ").append(new TreeSet<>(schemas.getKnownModuleTypes())).append('\n');
+        description.append("enums ").append(new TreeSet<>(schemas.getAllKnownEnumValues()));
+        return description.toString();
+    }
+
+    private void testProfileJsonRoundTrip() throws Exception {
+        System.out.println("Testing streaming profile save/load round trip...");
+
+        ModProfile profile = new ModProfile();
+        profile.setProfileName("Round \"trip\" \\ profile");
+        profile.setDescription("Line one\nLine two");
+        java.time.LocalDateTime baseTime = java.time.LocalDateTime.of(2025, 3, 1, 12, 0, 0);
+        List<ModificationRecord> records = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            records.add(new ModificationRecord("Descriptor_Unit_Synthetic_" + (i % 400),
+                "ModulesDescriptors[" + (i % 60) + "].MaxSpeed", "SQ:a},{b\"" + i, String.valueOf(i * 0.5),
+                "STRING", "NUMBER", baseTime.plusNanos(i * 1500000L),
+                PropertyUpdater.ModificationType.values()[i % PropertyUpdater.ModificationType.values().length],
+                i % 3 == 0 ? "x * 1.5" : ""));
+        }
+        profile.setModifications(records);
+
+        for (boolean metaInput : new boolean[] {false, true}) {
+            File tempFile = File.createTempFile("profile_round_trip", ".json");
+            tempFile.deleteOnExit();
+
+            long startTime = System.currentTimeMillis();
+            profile.saveToFile(tempFile, metaInput);
+            long saveTime = System.currentTimeMillis() - startTime;
+
+            startTime = System.currentTimeMillis();
+            ModProfile loaded = ModProfile.loadFromFile(tempFile);
+            long loadTime = System.currentTimeMillis() - startTime;
+
+            TestAssert.assertEquals("Profile name should survive escaping", profile.getProfileName(), loaded.getProfileName());
+            TestAssert.assertEquals("Description should survive escaping", profile.getDescription(), loaded.getDescription());
+            TestAssert.assertEquals("Every record should load", records.size(), loaded.getModificationCount());
+            List<ModificationRecord> loadedRecords = loaded.getModifications();
+            for (int i = 0; i < records.size(); i += 997) {
+                ModificationRecord expected = records.get(i);
+                ModificationRecord actual = loadedRecords.get(i);
+                TestAssert.assertEquals("Record should round trip", expected, actual);
+                TestAssert.assertEquals("Old value should round trip", expected.getOldValue(), actual.getOldValue());
+                TestAssert.assertEquals("Modification type should round trip",
+                    expected.getModificationType(), actual.getModificationType());
+                TestAssert.assertEquals("Details should round trip",
+                    expected.getModificationDetails(), actual.getModificationDetails());
+            }
+
+            System.out.println("  + " + (metaInput ? "_meta/_input" : "Legacy") + " layout: saved 100000 records in "
+                + saveTime + "ms, loaded in " + loadTime + "ms");
+        }
+
+        // Hand-edited community profiles: UTF-8 with a BOM and trailing commas
+        File handEdited = File.createTempFile("profile_hand_edited", ".json");
+        handEdited.deleteOnExit();
+        Files.writeString(handEdited.toPath(), "\uFEFF{\n"
+            + "  \"profileName\": \"Hand edited\",\n"
+            + "  \"modifications\": [\n"
+            + "    {\"unitName\": \"Descriptor_Unit_A\", \"propertyPath\": \"MaxSpeed\", \"newValue\": \"10\",},\n"
+            + "    {\"unitName\": \"Descriptor_Unit_B\", \"propertyPath\": \"MaxSpeed\", \"newValue\": \"20\"},\n"
+            + "  ],\n"
+            + "}\n", StandardCharsets.UTF_8);
+        ModProfile handEditedProfile = ModProfile.loadFromFile(handEdited);
+        TestAssert.assertEquals("BOM should not hide the first name", "Hand edited", handEditedProfile.getProfileName());
+        TestAssert.assertEquals("Trailing commas should be accepted", 2, handEditedProfile.getModificationCount());
+        TestAssert.assertEquals("Last record should load", "Descriptor_Unit_B",
+            handEditedProfile.getModifications().get(1).getUnitName());
+        System.out.println("  + Loaded a hand-edited profile with a BOM and trailing commas");
+    }
+
+    private void testBinaryProfileConversion() throws Exception {
+        System.out.println("Testing binary profile format and JSON conversion...");
+
+        ModProfile profile = new ModProfile();
+        profile.setProfileName("Binary profile");
+        java.time.LocalDateTime baseTime = java.time.LocalDateTime.of(2025, 3, 1, 12, 0, 0);
+        List<ModificationRecord> records = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            records.add(new ModificationRecord("Descriptor_Unit_Synthetic_" + (i % 400),
+                "ModulesDescriptors[" + (i % 60) + "].MaxSpeed", String.valueOf(i), "SQ:\u00e9t\u00e9 " + i,
+                "NUMBER", "STRING", baseTime.plusSeconds(i % 7 == 0 ? -i : i).plusNanos(i),
+                PropertyUpdater.ModificationType.SET, i % 2 == 0 ? null : "details " + (i % 5)));
+        }
+        profile.setModifications(records);
+
+        File binaryFile = File.createTempFile("profile_binary", "." + BinaryProfileWriter.FILE_EXTENSION);
+        File jsonFile = File.createTempFile("profile_binary", ".json");
+        File convertedBinary = File.createTempFile("profile_converted", "." + BinaryProfileWriter.FILE_EXTENSION);
+        File convertedJson = File.createTempFile("profile_converted", ".json");
+        for (File file : new File[] {binaryFile, jsonFile, convertedBinary, convertedJson}) {
+            file.deleteOnExit();
+        }
+
+        profile.saveToBinaryFile(binaryFile);
+        TestAssert.assertTrue("Binary profile should be detected", BinaryProfileReader.isBinaryProfile(binaryFile));
+
+        // Lazy paging returns the same records, including null details
+        try (BinaryProfileReader reader = new BinaryProfileReader(binaryFile)) {
+            TestAssert.assertEquals("Record count should match", records.size(), reader.getRecordCount());
+            TestAssert.assertEquals("Profile name should match", profile.getProfileName(), reader.getProfile().getProfileName());
+            List<ModificationRecord> page = reader.getRecords(250, 530);
+            for (int i = 0; i < page.size(); i++) {
+                ModificationRecord expected = records.get(250 + i);
+                TestAssert.assertEquals("Paged record should match", expected, page.get(i));
+                TestAssert.assertEquals("Paged value should match", expected.getNewValue(), page.get(i).getNewValue());
+                TestAssert.assertEquals("Paged details should match",
+                    expected.getModificationDetails(), page.get(i).getModificationDetails());
+            }
+            TestAssert.assertEquals("Last record should match", records.get(records.size() - 1),
+                reader.getRecord(records.size() - 1));
+
+            // Paths migrate the same whichever format the profile was loaded from
+            PropertyPathMigrationManager migrationManager = new PropertyPathMigrationManager();
+            migrationManager.addPathMapping("ModulesDescriptors[3].MaxSpeed", "ModulesDescriptors[3].MaxSpeedInKmph", "Renamed");
+            PropertyPathMigrationManager.ModProfileMigrationResult fromJson = migrationManager.migrateModProfile(profile);
+            PropertyPathMigrationManager.ModProfileMigrationResult fromBinary =
+                migrationManager.migrateModProfile((ModificationRecordSource) reader);
+            TestAssert.assertEquals("Every paged record should be migrated",
+                fromJson.getAllResults().size(), fromBinary.getAllResults().size());
+            TestAssert.assertEquals("Binary migrations should equal JSON ones",
+                fromJson.getSuccessfulMigrations(), fromBinary.getSuccessfulMigrations());
+            TestAssert.assertEquals("Explicit mappings should apply to binary records", "ModulesDescriptors[3].MaxSpeedInKmph",
+                fromBinary.getSuccessfulMigrations().get("ModulesDescriptors[3].MaxSpeed"));
+        }
+
+        // JSON -> binary -> JSON is lossless for both layouts
+        for (boolean metaInput : new boolean[] {false, true}) {
+            profile.saveToFile(jsonFile, metaInput);
+            ModProfile.convertJsonToBinary(jsonFile, convertedBinary);
+            ModProfile.convertBinaryToJson(convertedBinary, convertedJson, metaInput);
+            TestAssert.assertTrue("JSON should survive a binary round trip unchanged",
+                Arrays.equals(Files.readAllBytes(jsonFile.toPath()), Files.readAllBytes(convertedJson.toPath())));
+        }
+
+        // A failing sink aborts the load instead of silently dropping records
+        int[] accepted = {0};
+        try {
+            ModProfile.loadFromFile(jsonFile, record -> {
+                if (++accepted[0] == 100) {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                }
+            });
+            TestAssert.fail("Sink failure should reach the caller");
+        } catch (UncheckedIOException e) {
+            TestAssert.assertEquals("Sink failure should be the original one", "disk full", e.getCause().getMessage());
+        }
+        TestAssert.assertEquals("Reading should stop at the failing record", 100, accepted[0]);
+
+        long startTime = System.currentTimeMillis();
+        ModProfile loaded = ModProfile.loadFromFile(binaryFile);
+        long loadTime = System.currentTimeMillis() - startTime;
+        TestAssert.assertEquals("Binary load should return every record", records.size(), loaded.getModificationCount());
+
+        System.out.println("  + Binary profile " + (binaryFile.length() / 1024) + "KB vs JSON "
+            + (jsonFile.length() / 1024) + "KB, full load in " + loadTime + "ms");
+    }
+
     // Edge case test implementations
     private void testEmptyAndNullValues() {
         System.out.println("Testing empty and null value handling...");
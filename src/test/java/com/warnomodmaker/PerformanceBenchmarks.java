@@ -0,0 +1,244 @@
+package test.java.com.warnomodmaker;
+
+import com.warnomodmaker.model.*;
+import com.warnomodmaker.parser.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Microbenchmarks for the parser, scanner, updater, tag filter and writer hot paths,
+ * run against SyntheticCorpus so they need no game files.
+ *
+ * Each benchmark is warmed up, then timed over several fixed-length iterations and reported
+ * as average time per operation. Results are fed to a sink so the JIT can't drop the work.
+ *
+ * Usage: PerformanceBenchmarks [--quick] [--seed=N] [name filter...]
+ *
+ * A filter selects a benchmark by its full name or by a dotted prefix, so "write" runs every
+ * writer size and "write.1000" runs only the 1000-record one.
+ */
+public class PerformanceBenchmarks {
+
+    private static final int UNIT_COUNT = 1000;
+    private static final int DESCRIPTOR_COUNT = 1000;
+    private static final int[] RECORD_COUNTS = {1_000, 10_000, 100_000};
+
+    // Module properties the update and writer benchmarks touch, matching SyntheticCorpus' module order
+    private static final String[] NUMERIC_PATHS = {
+        "ModulesDescriptors[5].ProductionTime",
+        "ModulesDescriptors[6].FuelCapacity",
+        "ModulesDescriptors[2].Default.MaxSuppressionDamages"
+    };
+
+    private static volatile int sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final List<String> filters;
+    private final SyntheticCorpus corpus;
+
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    public PerformanceBenchmarks(boolean quick, long seed, List<String> filters) {
+        this.warmupIterations = quick ? 1 : 3;
+        this.measurementIterations = quick ? 2 : 5;
+        this.iterationNanos = (quick ? 200L : 1000L) * 1_000_000L;
+        this.filters = filters;
+        this.corpus = new SyntheticCorpus(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean quick = false;
+        long seed = SyntheticCorpus.DEFAULT_SEED;
+        List<String> filters = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--quick")) {
+                quick = true;
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else {
+                filters.add(arg);
+            }
+        }
+
+        System.out.println("WARNO Mod Maker - Performance Benchmarks");
+        System.out.println("=========================================");
+        new PerformanceBenchmarks(quick, seed, filters).runAll();
+    }
+
+    public void runAll() throws Exception {
+        String unitText = corpus.generate(NDFValue.NDFFileType.UNITE_DESCRIPTOR, UNIT_COUNT);
+        System.out.println("Synthetic corpus: seed " + corpus.getSeed() + ", " + UNIT_COUNT + " units, " + (unitText.length() / 1024) + " KB");
+
+        benchmark("tokenize", () -> new NDFTokenizer(new StringReader(unitText)).tokenize());
+
+        for (NDFValue.NDFFileType fileType : NDFValue.NDFFileType.values()) {
+            if (fileType == NDFValue.NDFFileType.UNKNOWN || !matches("parse." + fileType.name())) {
+                continue;
+            }
+            String text = corpus.generate(fileType, DESCRIPTOR_COUNT);
+            benchmark("parse." + fileType.name(), () -> parse(text, fileType));
+        }
+
+        List<NDFValue.ObjectValue> units = parse(unitText, NDFValue.NDFFileType.UNITE_DESCRIPTOR);
+        if (units.size() != UNIT_COUNT) {
+            throw new IllegalStateException("Synthetic corpus parsed to " + units.size() + " units, expected " + UNIT_COUNT);
+        }
+
+        benchmark("scanProperties", () -> {
+            PropertyScanner scanner = new PropertyScanner(units, NDFValue.NDFFileType.UNITE_DESCRIPTOR);
+            scanner.scanProperties();
+            return scanner.getDiscoveredProperties();
+        });
+
+        benchmark("getPropertyValue", () -> {
+            int found = 0;
+            for (NDFValue.ObjectValue unit : units) {
+                for (String path : NUMERIC_PATHS) {
+                    if (PropertyUpdater.getPropertyValue(unit, path) != null) {
+                        found++;
+                    }
+                }
+            }
+            return found;
+        });
+
+        benchmark("updateNumericProperty", () -> {
+            int updated = 0;
+            for (NDFValue.ObjectValue unit : units) {
+                if (PropertyUpdater.updateNumericProperty(unit, NUMERIC_PATHS[1],
+                        PropertyUpdater.ModificationType.SET, 400)) {
+                    updated++;
+                }
+            }
+            return updated;
+        });
+
+        Set<String> anyTags = new HashSet<>(Arrays.asList("Radar", "Helico"));
+        Set<String> allTags = new HashSet<>(Arrays.asList("Vehicule", "Reco"));
+        Set<String> specialties = new HashSet<>(Collections.singletonList("_reco"));
+        benchmark("tags.getUnitsWithTags", () -> TagExtractor.getUnitsWithTags(units, anyTags));
+        benchmark("tags.getUnitsWithAllTags", () -> TagExtractor.getUnitsWithAllTags(units, allTags));
+        benchmark("tags.getUnitsWithUnitRole", () -> TagExtractor.getUnitsWithUnitRole(units, "recon"));
+        benchmark("tags.getUnitsWithSpecialties", () -> TagExtractor.getUnitsWithSpecialties(units, specialties));
+        benchmark("tags.extractAllMeaningfulTags", () -> TagExtractor.extractAllMeaningfulTags(units));
+
+        for (int recordCount : RECORD_COUNTS) {
+            String name = "write." + recordCount;
+            if (!matches(name)) {
+                continue;
+            }
+            List<NDFValue.ObjectValue> writeUnits = parse(unitText, NDFValue.NDFFileType.UNITE_DESCRIPTOR);
+            ModificationTracker tracker = recordModifications(writeUnits, recordCount);
+            benchmark(name, () -> {
+                StringWriter out = new StringWriter(unitText.length() + 1024);
+                new LineBasedWriter(out, unitText, tracker).write(writeUnits);
+                return out.getBuffer().length();
+            });
+        }
+    }
+
+    /**
+     * Warm up, then time the operation and print the average time per call
+     */
+    private void benchmark(String name, Operation operation) throws Exception {
+        if (!matches(name)) {
+            return;
+        }
+
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(operation);
+        }
+
+        double[] nanosPerOp = new double[measurementIterations];
+        long totalOps = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] result = runIteration(operation);
+            nanosPerOp[i] = (double) result[0] / result[1];
+            totalOps += result[1];
+        }
+
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value;
+        }
+        mean /= nanosPerOp.length;
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double stdDev = nanosPerOp.length > 1 ? Math.sqrt(variance / (nanosPerOp.length - 1)) : 0;
+
+        System.out.println(String.format("  %-40s %12.3f ms/op  +- %8.3f  (%d ops)",
+            name, mean / 1_000_000.0, stdDev / 1_000_000.0, totalOps));
+    }
+
+    // Run the operation until the iteration time is used up; returns {elapsed nanos, operations}
+    private long[] runIteration(Operation operation) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            consume(operation.run());
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return new long[] {elapsed, ops};
+    }
+
+    private static void consume(Object result) {
+        sink ^= System.identityHashCode(result);
+        if (result instanceof Collection) {
+            sink ^= ((Collection<?>) result).size();
+        } else if (result instanceof Map) {
+            sink ^= ((Map<?, ?>) result).size();
+        }
+    }
+
+    // A filter matches the whole name or a prefix ending at a '.', never the middle of a segment
+    private boolean matches(String name) {
+        if (filters.isEmpty()) {
+            return true;
+        }
+        for (String filter : filters) {
+            if (name.equals(filter) || name.startsWith(filter.endsWith(".") ? filter : filter + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<NDFValue.ObjectValue> parse(String text, NDFValue.NDFFileType fileType) throws Exception {
+        NDFParser parser = new NDFParser(new StringReader(text));
+        parser.setFileType(fileType);
+        parser.setOriginalSourceContent(text);
+        return parser.parse();
+    }
+
+    /**
+     * Record the given number of numeric modifications, cycling through units and paths;
+     * later rounds modify properties again, as repeated mass modifications would
+     */
+    private static ModificationTracker recordModifications(List<NDFValue.ObjectValue> units, int count) {
+        ModificationTracker tracker = new ModificationTracker();
+        int recorded = 0;
+        for (int round = 0; recorded < count; round++) {
+            for (String path : NUMERIC_PATHS) {
+                for (NDFValue.ObjectValue unit : units) {
+                    if (recorded == count) {
+                        return tracker;
+                    }
+                    if (PropertyUpdater.updateNumericProperty(unit, path, PropertyUpdater.ModificationType.ADD, 1, tracker)) {
+                        recorded++;
+                    } else if (round == 0) {
+                        throw new IllegalStateException("Cannot update " + path + " on " + unit.getInstanceName());
+                    }
+                }
+            }
+        }
+        return tracker;
+    }
+}
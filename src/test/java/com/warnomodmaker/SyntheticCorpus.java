@@ -0,0 +1,364 @@
+package test.java.com.warnomodmaker;
+
+import com.warnomodmaker.model.NDFValue.NDFFileType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Deterministic, seedable NDF text for every file type, so parsers, indexes and writers can be
+ * benchmarked and stress-tested without game files.
+ *
+ * Descriptors follow the shapes the schema registry and template manager learn from real files:
+ * exported descriptors with GUIDs, ModulesDescriptors with TModuleSelector/Default, TagSets, MAPs,
+ * and cross-file references (units to weapons, weapons to ammunition, anything to ~/ templates).
+ * Each descriptor draws from its own Random keyed by seed, file type and index, so a descriptor's text
+ * doesn't depend on how many come before it, and references between files line up at any scale.
+ */
+public class SyntheticCorpus {
+
+    public static final long DEFAULT_SEED = 0x5EED;
+
+    // Rough descriptor counts of the shipped files; scale multiplies these
+    private static final Map<NDFFileType, Integer> BASELINE_COUNTS = new EnumMap<>(NDFFileType.class);
+    private static final int DEFAULT_BASELINE_COUNT = 150;
+
+    static {
+        BASELINE_COUNTS.put(NDFFileType.UNITE_DESCRIPTOR, 1900);
+        BASELINE_COUNTS.put(NDFFileType.WEAPON_DESCRIPTOR, 1900);
+        BASELINE_COUNTS.put(NDFFileType.AMMUNITION, 3200);
+        BASELINE_COUNTS.put(NDFFileType.AMMUNITION_MISSILES, 700);
+        BASELINE_COUNTS.put(NDFFileType.MISSILE_DESCRIPTORS, 400);
+        BASELINE_COUNTS.put(NDFFileType.MISSILE_CARRIAGE, 400);
+        BASELINE_COUNTS.put(NDFFileType.BUILDING_DESCRIPTORS, 600);
+        BASELINE_COUNTS.put(NDFFileType.NDF_DEPICTION_LIST, 1200);
+        BASELINE_COUNTS.put(NDFFileType.SKINS, 800);
+    }
+
+    private static final String[] ROLES = {"tank", "infantry", "recon", "artillery", "AA", "support"};
+    private static final String[] TAGS = {"Vehicule", "Char", "Infanterie", "Reco", "Artillerie", "AA", "Canon", "Missile", "Radar", "Helico",
+                                          "Transport", "Logistique", "Commandant", "Amphibie", "Avion", "Tourelle"};
+    private static final String[] SPECIALTIES = {"_reco", "_ifv", "_sf", "_para", "_amphibie", "_smoke_launcher", "_ew", "_gsr"};
+    private static final String[] NATIONS = {"Allied", "Axis"};
+    private static final String[] COUNTRIES = {"US", "UK", "FR", "RFA", "DDR", "SOV", "POL", "CZ", "BEL", "NL", "CAN"};
+    private static final String[] CALIBERS = {"7.62mm", "12.7mm", "20mm", "30mm", "105mm", "120mm", "125mm", "155mm"};
+    private static final String[] DAMAGE_FAMILIES = {"ap", "he", "heat", "kinetic", "flame", "suppress"};
+    private static final String[] LODS = {"~/LoD_High", "~/LoD_Mid", "~/LoD_Low"};
+
+    private final long seed;
+    private final int scale;
+
+    public SyntheticCorpus(long seed, int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("Scale must be at least 1, got " + scale);
+        }
+        this.seed = seed;
+        this.scale = scale;
+    }
+
+    public SyntheticCorpus(long seed) {
+        this(seed, 1);
+    }
+
+    /**
+     * Usage: SyntheticCorpus output-directory [scale] [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SyntheticCorpus <output directory> [scale] [seed]");
+            System.exit(1);
+        }
+
+        int scale = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        SyntheticCorpus corpus = new SyntheticCorpus(seed, scale);
+
+        long startTime = System.currentTimeMillis();
+        List<Path> files = corpus.writeWorkspace(Paths.get(args[0]));
+        long totalBytes = 0;
+        for (Path file : files) {
+            totalBytes += Files.size(file);
+        }
+        System.out.println("Generated " + files.size() + " files (" + (totalBytes / 1024 / 1024) + " MB) at scale " + scale +
+                           ", seed " + seed + " in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Descriptors generated for a file type at this corpus' scale
+     */
+    public int count(NDFFileType fileType) {
+        return BASELINE_COUNTS.getOrDefault(fileType, DEFAULT_BASELINE_COUNT) * scale;
+    }
+
+    public String generate(NDFFileType fileType) {
+        return generate(fileType, count(fileType));
+    }
+
+    /**
+     * Text for the first count descriptors of a file type
+     */
+    public String generate(NDFFileType fileType, int count) {
+        StringWriter out = new StringWriter(count * 600);
+        try {
+            write(fileType, count, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringWriter doesn't throw
+        }
+        return out.toString();
+    }
+
+    /**
+     * Stream the first count descriptors of a file type, for corpora too large to hold as one string
+     */
+    public void write(NDFFileType fileType, int count, Writer out) throws IOException {
+        if (fileType == NDFFileType.UNKNOWN) {
+            throw new IllegalArgumentException("No descriptor shape for unknown file type");
+        }
+
+        StringBuilder sb = new StringBuilder(4096);
+        for (int i = 0; i < count; i++) {
+            Random random = new Random(seed * 31 + fileType.ordinal() * 1_000_003L + i);
+            sb.setLength(0);
+            switch (fileType) {
+                case UNITE_DESCRIPTOR:
+                    appendUnit(sb, random, i);
+                    break;
+                case WEAPON_DESCRIPTOR:
+                    appendWeapon(sb, random, i);
+                    break;
+                case AMMUNITION:
+                case AMMUNITION_MISSILES:
+                    appendAmmunition(sb, random, fileType, i);
+                    break;
+                case MISSILE_DESCRIPTORS:
+                    appendMissile(sb, random, i);
+                    break;
+                default:
+                    appendGeneric(sb, random, fileType, i);
+                    break;
+            }
+            out.write(sb.toString());
+        }
+    }
+
+    /**
+     * Write every file type under root, laid out like the game's GameData/Generated/Gameplay/Gfx folder
+     */
+    public List<Path> writeWorkspace(Path root) throws IOException {
+        Path directory = root.resolve("GameData/Generated/Gameplay/Gfx");
+        Files.createDirectories(directory);
+
+        List<Path> files = new ArrayList<>();
+        for (NDFFileType fileType : NDFFileType.values()) {
+            if (fileType == NDFFileType.UNKNOWN) {
+                continue;
+            }
+            Path file = directory.resolve(fileType.getFilename());
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                write(fileType, count(fileType), out);
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    // Names are shared between generators so cross-file references resolve
+
+    public static String unitName(int index) {
+        return "Descriptor_Unit_" + index;
+    }
+
+    public static String weaponName(int index) {
+        return "WeaponDescriptor_Unit_" + index;
+    }
+
+    public static String ammunitionName(NDFFileType fileType, int index) {
+        return (fileType == NDFFileType.AMMUNITION_MISSILES ? "Ammo_Missile_" : "Ammo_") + index;
+    }
+
+    private void appendUnit(StringBuilder sb, Random random, int i) {
+        sb.append("export ").append(unitName(i)).append(" is TEntityDescriptor\n");
+        sb.append("(\n");
+        sb.append("    DescriptorId = ").append(guid(random)).append('\n');
+        sb.append("    ClassNameForDebug = 'Unit_").append(i).append("'\n");
+        sb.append("    ModulesDescriptors = [\n");
+
+        // Module order is fixed so benchmarks can use indexed paths like ModulesDescriptors[6].FuelCapacity
+        sb.append("        TTagsModuleDescriptor\n");
+        sb.append("        (\n");
+        sb.append("            TagSet = [\n");
+        int tagCount = 3 + random.nextInt(6);
+        int firstTag = random.nextInt(TAGS.length);
+        for (int t = 0; t < tagCount; t++) {
+            sb.append("                \"").append(TAGS[(firstTag + t * 3) % TAGS.length]).append("\",\n");
+        }
+        sb.append("            ]\n");
+        sb.append("        ),\n");
+
+        sb.append("        ~/DefaultFlagsModuleDescriptor,\n");
+
+        sb.append("        TModuleSelector\n");
+        sb.append("        (\n");
+        sb.append("            Default = TDamageModuleDescriptor\n");
+        sb.append("            (\n");
+        sb.append("                MaxPhysicalDamages = ").append(1 + random.nextInt(20)).append('\n');
+        sb.append("                MaxSuppressionDamages = ").append(100 + random.nextInt(500)).append('\n');
+        sb.append("                BlindageProperties = TBlindageProperties\n");
+        sb.append("                (\n");
+        sb.append("                    ArmorThickness = ").append(random.nextInt(25)).append('\n');
+        sb.append("                    ExplosiveReactiveArmor = ").append(random.nextBoolean() ? "True" : "False").append('\n');
+        sb.append("                )\n");
+        sb.append("            )\n");
+        sb.append("            Selection = [").append(LODS[random.nextInt(LODS.length)]).append("]\n");
+        sb.append("        ),\n");
+
+        sb.append("        TTypeUnitModuleDescriptor\n");
+        sb.append("        (\n");
+        sb.append("            Nationalite = ENationalite/").append(NATIONS[random.nextInt(NATIONS.length)]).append('\n');
+        sb.append("            MotherCountry = '").append(COUNTRIES[random.nextInt(COUNTRIES.length)]).append("'\n");
+        sb.append("            VisionRanges = MAP [\n");
+        sb.append("                (EVisionUnitType/Standard, ").append(1500 + random.nextInt(30) * 100).append(".0),\n");
+        sb.append("                (EVisionUnitType/LowAltitude, ").append(1000 + random.nextInt(20) * 100).append(".0),\n");
+        sb.append("            ]\n");
+        sb.append("        ),\n");
+
+        sb.append("        TUnitUIModuleDescriptor\n");
+        sb.append("        (\n");
+        sb.append("            UnitRole = '").append(ROLES[random.nextInt(ROLES.length)]).append("'\n");
+        sb.append("            SpecialtiesList = ['").append(SPECIALTIES[random.nextInt(SPECIALTIES.length)])
+          .append("', '").append(SPECIALTIES[random.nextInt(SPECIALTIES.length)]).append("']\n");
+        sb.append("        ),\n");
+
+        sb.append("        TProductionModuleDescriptor\n");
+        sb.append("        (\n");
+        sb.append("            ProductionTime = ").append(5 + random.nextInt(20)).append('\n');
+        sb.append("            ProductionRessourcesNeeded = MAP [\n");
+        sb.append("                ($/GFX/Resources/Resource_CommandPoints, ").append(10 + random.nextInt(40) * 5).append("),\n");
+        sb.append("            ]\n");
+        sb.append("        ),\n");
+
+        sb.append("        TFuelModuleDescriptor\n");
+        sb.append("        (\n");
+        sb.append("            FuelCapacity = ").append(100 + random.nextInt(60) * 10).append('\n');
+        sb.append("            FuelMoveDuration = ").append(200 + random.nextInt(300)).append(".0\n");
+        sb.append("        ),\n");
+
+        sb.append("        TWeaponAssignmentModuleDescriptor\n");
+        sb.append("        (\n");
+        sb.append("            WeaponManager = $/GFX/Weapon/").append(weaponName(i)).append('\n');
+        sb.append("        ),\n");
+
+        sb.append("    ]\n");
+        sb.append(")\n");
+    }
+
+    private void appendWeapon(StringBuilder sb, Random random, int i) {
+        int ammunitionCount = count(NDFFileType.AMMUNITION);
+        sb.append("export ").append(weaponName(i)).append(" is TWeaponManagerModuleDescriptor\n");
+        sb.append("(\n");
+        sb.append("    Salves = [").append(1 + random.nextInt(10)).append(", ").append(1 + random.nextInt(10)).append("]\n");
+        sb.append("    TurretDescriptorList = [\n");
+        int turrets = 1 + random.nextInt(2);
+        for (int t = 0; t < turrets; t++) {
+            sb.append("        TTurretUnitDescriptor\n");
+            sb.append("        (\n");
+            sb.append("            AngleRotationMax = ").append(random.nextInt(4) * 0.5 + 0.5).append('\n');
+            sb.append("            YulBoneOrdinal = ").append(t + 1).append('\n');
+            sb.append("            MountedWeaponDescriptorList = [\n");
+            sb.append("                TMountedWeaponDescriptor\n");
+            sb.append("                (\n");
+            sb.append("                    Ammunition = $/GFX/Weapon/")
+              .append(ammunitionName(NDFFileType.AMMUNITION, random.nextInt(ammunitionCount))).append('\n');
+            sb.append("                    SalvoStockIndex = ").append(t).append('\n');
+            sb.append("                    NumberOfWeapons = ").append(1 + random.nextInt(2)).append('\n');
+            sb.append("                )\n");
+            sb.append("            ]\n");
+            sb.append("        ),\n");
+        }
+        sb.append("    ]\n");
+        sb.append(")\n");
+    }
+
+    private void appendAmmunition(StringBuilder sb, Random random, NDFFileType fileType, int i) {
+        sb.append("export ").append(ammunitionName(fileType, i)).append(" is TAmmunitionDescriptor\n");
+        sb.append("(\n");
+        sb.append("    DescriptorId = ").append(guid(random)).append('\n');
+        sb.append("    Caliber = '").append(CALIBERS[random.nextInt(CALIBERS.length)]).append("'\n");
+        sb.append("    PhysicalDamages = ").append(random.nextInt(40) * 0.25).append('\n');
+        sb.append("    SuppressDamages = ").append(10 + random.nextInt(300)).append('\n');
+        sb.append("    Arme = TDamageTypeRTTI\n");
+        sb.append("    (\n");
+        sb.append("        Family = \"DamageFamily_").append(DAMAGE_FAMILIES[random.nextInt(DAMAGE_FAMILIES.length)]).append("\"\n");
+        sb.append("        Index = ").append(1 + random.nextInt(30)).append('\n');
+        sb.append("    )\n");
+        sb.append("    MaximumRangeGRU = ").append(500 + random.nextInt(60) * 50).append('\n');
+        sb.append("    TimeBetweenTwoSalvos = ").append(1 + random.nextInt(20)).append(".5\n");
+        sb.append("    IsHarmlessForAllies = ").append(random.nextBoolean() ? "True" : "False").append('\n');
+        sb.append("    TraitsToken = ['").append(random.nextBoolean() ? "STAT" : "MOTION").append("', 'HE']\n");
+        if (fileType == NDFFileType.AMMUNITION_MISSILES) {
+            sb.append("    MissileDescriptor = $/GFX/Weapon/Missile_")
+              .append(random.nextInt(count(NDFFileType.MISSILE_DESCRIPTORS))).append('\n');
+        }
+        sb.append(")\n");
+    }
+
+    private void appendMissile(StringBuilder sb, Random random, int i) {
+        sb.append("export Missile_").append(i).append(" is TEntityDescriptor\n");
+        sb.append("(\n");
+        sb.append("    DescriptorId = ").append(guid(random)).append('\n');
+        sb.append("    ClassNameForDebug = 'Missile_").append(i).append("'\n");
+        sb.append("    ModulesDescriptors = [\n");
+        sb.append("        TModuleSelector\n");
+        sb.append("        (\n");
+        sb.append("            Default = TMissileMovementModuleDescriptor\n");
+        sb.append("            (\n");
+        sb.append("                MaxSpeedGRU = ").append(500 + random.nextInt(3000)).append('\n');
+        sb.append("                Acceleration = ").append(50 + random.nextInt(500)).append('\n');
+        sb.append("            )\n");
+        sb.append("            Selection = [").append(LODS[random.nextInt(LODS.length)]).append("]\n");
+        sb.append("        ),\n");
+        sb.append("        ~/MissileFlagsModuleDescriptor,\n");
+        sb.append("    ]\n");
+        sb.append(")\n");
+    }
+
+    private void appendGeneric(StringBuilder sb, Random random, NDFFileType fileType, int i) {
+        String prefix = fileType.getDisplayName().replace(" ", "");
+        sb.append("export Descriptor_").append(prefix).append('_').append(i)
+          .append(" is ").append(fileType.getRootObjectType()).append('\n');
+        sb.append("(\n");
+        sb.append("    DescriptorId = ").append(guid(random)).append('\n');
+        sb.append("    Name = '").append(prefix).append('_').append(i).append("'\n");
+        sb.append("    Value = ").append(random.nextInt(500)).append(".5\n");
+        sb.append("    Count = ").append(1 + random.nextInt(10)).append('\n');
+        sb.append("    Enabled = ").append(random.nextBoolean() ? "True" : "False").append('\n');
+        sb.append("    Family = EFamily/").append(ROLES[random.nextInt(ROLES.length)]).append('\n');
+        sb.append("    Values = [").append(random.nextInt(10)).append(", ").append(random.nextInt(10)).append(", ")
+          .append(random.nextInt(10)).append("]\n");
+        sb.append("    Parameters = TParameters\n");
+        sb.append("    (\n");
+        sb.append("        Range = ").append(500 + random.nextInt(40) * 125).append('\n');
+        sb.append("        Ratio = 0.").append(1 + random.nextInt(9)).append('\n');
+        sb.append("    )\n");
+        if (i > 0) {
+            // Template reference to an earlier descriptor, like the depiction and effect files use
+            sb.append("    Template = ~/Descriptor_").append(prefix).append('_').append(random.nextInt(i)).append('\n');
+        }
+        sb.append("    Unit = $/GFX/Unit/").append(unitName(random.nextInt(count(NDFFileType.UNITE_DESCRIPTOR)))).append('\n');
+        sb.append(")\n");
+    }
+
+    private static String guid(Random random) {
+        return "GUID:{" + new UUID(random.nextLong(), random.nextLong()) + "}";
+    }
+}